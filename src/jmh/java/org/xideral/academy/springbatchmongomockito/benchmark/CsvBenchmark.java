@@ -0,0 +1,84 @@
+package org.xideral.academy.springbatchmongomockito.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.ItemStreamReader;
+import org.springframework.batch.item.file.LineMapper;
+import org.springframework.core.io.FileSystemResource;
+import org.xideral.academy.springbatchmongomockito.config.BatchConfig;
+import org.xideral.academy.springbatchmongomockito.model.Heroe;
+import org.xideral.academy.springbatchmongomockito.reader.HeroeCsv;
+
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lectura del CSV tal como la configura leerCSV().
+ *
+ * leerArchivo recorre un archivo de LINEAS heroes con el reader elegido por
+ * heroes.csv.lector (open/read/close completos); el resultado esta en
+ * lineas por segundo. lineMapper mide solo el parseo de una linea con
+ * el LineMapper compartido (tokenizer + BeanWrapperFieldSetMapper).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CsvBenchmark {
+    private static final int LINEAS = 10_000;
+
+    // Solo leerArchivo depende del reader elegido
+    @State(Scope.Thread)
+    public static class Lector {
+        @Param({"flatfile", "mmap"})
+        public String valor;
+    }
+
+    private FileSystemResource csv;
+    private LineMapper<Heroe> lineMapper;
+    private String[] lineas;
+    private int siguiente;
+
+    @Setup
+    public void preparar() throws Exception {
+        Path archivo = DatosBenchmark.crearCsv(LINEAS);
+        csv = new FileSystemResource(archivo);
+        lineMapper = HeroeCsv.lineMapper();
+        lineas = new String[1024];
+        for (int i = 0; i < lineas.length; i++) {
+            lineas[i] = DatosBenchmark.lineaCsv(i);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LINEAS)
+    public void leerArchivo(Lector lector, Blackhole blackhole) throws Exception {
+        ItemStreamReader<Heroe> reader = new BatchConfig().leerCSV(csv, lector.valor);
+        reader.open(new ExecutionContext());
+        Heroe heroe;
+        while ((heroe = reader.read()) != null) {
+            blackhole.consume(heroe);
+        }
+        reader.close();
+    }
+
+    @Benchmark
+    public Heroe lineMapper() throws Exception {
+        siguiente = (siguiente + 1) & (lineas.length - 1);
+        return lineMapper.mapLine(lineas[siguiente], siguiente);
+    }
+}
@@ -0,0 +1,71 @@
+package org.xideral.academy.springbatchmongomockito.benchmark;
+
+import org.xideral.academy.springbatchmongomockito.model.Heroe;
+import org.xideral.academy.springbatchmongomockito.model.HeroeReporte;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Datos sinteticos compartidos por los benchmarks.
+ *
+ * Los nombres y poderes varian por indice para que el JIT no vea siempre
+ * el mismo valor; los equipos se repiten como en el CSV real.
+ */
+final class DatosBenchmark {
+    private static final String[] EQUIPOS = {"Avengers", "Justige League", "X-Men", "Guardianes"};
+
+    private DatosBenchmark() {
+    }
+
+    static Heroe heroe(int i) {
+        Heroe heroe = new Heroe();
+        heroe.setNombre_hp("Heroe numero " + i);
+        heroe.setEquipo_hp(EQUIPOS[i % EQUIPOS.length]);
+        heroe.setPoder_hp(5000 + (i % 15000));
+        return heroe;
+    }
+
+    // El reporte que saldria de ReporteProcessor para heroe(i) ya con el bono
+    static HeroeReporte reporte(int i) {
+        Heroe heroe = heroe(i);
+        HeroeReporte reporte = new HeroeReporte();
+        reporte.setNombre(heroe.getNombre_hp().toUpperCase());
+        reporte.setEquipo(heroe.getEquipo_hp());
+        reporte.setPoder(heroe.getPoder_hp());
+        reporte.setMejoraPoder(heroe.getPoder_hp() * 0.10);
+        reporte.setPoderTotal(reporte.getPoder() + reporte.getMejoraPoder());
+        return reporte;
+    }
+
+    static List<Heroe> heroes(int cantidad) {
+        List<Heroe> heroes = new ArrayList<>(cantidad);
+        for (int i = 0; i < cantidad; i++) {
+            heroes.add(heroe(i));
+        }
+        return heroes;
+    }
+
+    static String lineaCsv(int i) {
+        return "Heroe numero " + i + "," + EQUIPOS[i % EQUIPOS.length] + "," + (5000 + (i % 15000));
+    }
+
+    // CSV con encabezado, igual al formato de heroes.csv
+    static Path crearCsv(int lineas) throws IOException {
+        Path csv = Files.createTempFile("heroes-benchmark", ".csv");
+        csv.toFile().deleteOnExit();
+        try (Writer writer = Files.newBufferedWriter(csv, StandardCharsets.UTF_8)) {
+            writer.write("nombre,equipo,poder\n");
+            for (int i = 0; i < lineas; i++) {
+                writer.write(lineaCsv(i));
+                writer.write('\n');
+            }
+        }
+        return csv;
+    }
+}
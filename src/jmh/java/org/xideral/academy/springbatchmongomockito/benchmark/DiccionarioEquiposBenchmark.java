@@ -0,0 +1,104 @@
+package org.xideral.academy.springbatchmongomockito.benchmark;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.ItemStreamReader;
+import org.springframework.core.io.FileSystemResource;
+import org.xideral.academy.springbatchmongomockito.config.BatchConfig;
+import org.xideral.academy.springbatchmongomockito.model.Heroe;
+
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Heap retenido por 1M heroes leidos con el reader mmap, con y sin
+ * DiccionarioEquipos.
+ *
+ * Cada invocacion lee el CSV completo y se queda con todos los Heroe; el
+ * resultado que importa es el contador secundario "mbRetenidos" (heap
+ * usado despues de un GC completo, menos el de antes de leer). El tiempo
+ * incluye esos GC y no sirve para comparar velocidad: para eso esta
+ * CsvBenchmark. Hay una sola iteracion medida porque JMH suma los
+ * contadores EVENTS de todas las iteraciones.
+ *
+ * "no" reproduce el reader anterior al diccionario: cada fila decodifica
+ * su propio String de equipo a partir de los bytes de la linea.
+ *   -Djmh.filtro=DiccionarioEquiposBenchmark
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx1g")
+public class DiccionarioEquiposBenchmark {
+    private static final int HEROES = 1_000_000;
+    private static final double MB = 1024.0 * 1024.0;
+
+    @Param({"si", "no"})
+    public String diccionario;
+
+    private FileSystemResource csv;
+
+    // Contadores que JMH reporta junto al tiempo de cada iteracion
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Retenido {
+        public double mbRetenidos;
+        public double bytesPorHeroe;
+
+        @Setup(Level.Iteration)
+        public void limpiar() {
+            mbRetenidos = 0;
+            bytesPorHeroe = 0;
+        }
+    }
+
+    @Setup
+    public void preparar() throws Exception {
+        csv = new FileSystemResource(DatosBenchmark.crearCsv(HEROES));
+    }
+
+    @Benchmark
+    public List<Heroe> leerMillon(Retenido retenido) throws Exception {
+        long antes = heapUsado();
+        List<Heroe> heroes = new ArrayList<>(HEROES);
+        ItemStreamReader<Heroe> reader = new BatchConfig().leerCSV(csv, "mmap");
+        reader.open(new ExecutionContext());
+        Heroe heroe;
+        while ((heroe = reader.read()) != null) {
+            if ("no".equals(diccionario)) {
+                heroe.setEquipo_hp(new String(heroe.getEquipo_hp().getBytes(StandardCharsets.UTF_8), StandardCharsets.UTF_8));
+            }
+            heroes.add(heroe);
+        }
+        reader.close();
+
+        long retenidos = heapUsado() - antes;
+        retenido.mbRetenidos = retenidos / MB;
+        retenido.bytesPorHeroe = (double) retenidos / heroes.size();
+        return heroes;
+    }
+
+    private static long heapUsado() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+}
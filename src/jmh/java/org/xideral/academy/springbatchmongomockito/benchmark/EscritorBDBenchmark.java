@@ -0,0 +1,111 @@
+package org.xideral.academy.springbatchmongomockito.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.batch.item.Chunk;
+import org.springframework.batch.item.ItemWriter;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.xideral.academy.springbatchmongomockito.config.BatchConfig;
+import org.xideral.academy.springbatchmongomockito.model.Heroe;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Heroes por segundo que escribe paso1 en heroes_procesados con cada
+ * escritor de escribirEnBD ("batch" y "multifila").
+ *
+ * La base es H2 en memoria en modo MySQL con el schema.sql real (llave
+ * unica e indice incluidos) y cada chunk va en su transaccion, como en el
+ * paso. Todos los heroes son nuevos: se mide el insert, no el update. H2
+ * no tiene red, asi que la diferencia que se ve aqui es solo la de parsear
+ * y ejecutar menos sentencias; contra MySQL real se suma un viaje de red
+ * por sentencia que "multifila" (o rewriteBatchedStatements) se ahorra.
+ *
+ * H2 tarda en calentar, de ahi el warmup largo. Para una carga del orden
+ * de 10M filas (~60k filas/s en H2) basta una iteracion larga:
+ *   -Djmh.filtro=EscritorBDBenchmark -Djmh.opciones="-i 1 -r 170s"
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 8, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class EscritorBDBenchmark {
+    private static final int CHUNK = 1000;
+
+    @Param({"batch", "multifila"})
+    public String escritor;
+
+    private EmbeddedDatabase baseDeDatos;
+    private ItemWriter<Heroe> writer;
+    private TransactionTemplate transaccion;
+    private final List<Heroe> heroes = new ArrayList<>(CHUNK);
+    private int siguiente;
+
+    @Setup(Level.Trial)
+    public void preparar() throws Exception {
+        baseDeDatos = new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                .setName(UUID.randomUUID() + ";MODE=MySQL")
+                .addScript("classpath:schema.sql")
+                .build();
+        writer = new BatchConfig().escribirEnBD(baseDeDatos, escritor, CHUNK);
+        if (writer instanceof InitializingBean inicializable) {
+            inicializable.afterPropertiesSet();
+        }
+        transaccion = new TransactionTemplate(new DataSourceTransactionManager(baseDeDatos));
+        for (int i = 0; i < CHUNK; i++) {
+            heroes.add(DatosBenchmark.heroe(i));
+        }
+    }
+
+    // Tabla vacia en cada iteracion: el costo del indice no crece durante la medicion
+    @Setup(Level.Iteration)
+    public void vaciarTabla() {
+        new JdbcTemplate(baseDeDatos).execute("TRUNCATE TABLE heroes_procesados");
+    }
+
+    @TearDown(Level.Trial)
+    public void cerrar() {
+        baseDeDatos.shutdown();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CHUNK)
+    public void escribirChunk() throws Exception {
+        // Nombres nuevos en cada chunk para que el upsert siempre inserte
+        for (Heroe heroe : heroes) {
+            heroe.setNombre_hp("Heroe numero " + siguiente++);
+        }
+        Chunk<Heroe> chunk = new Chunk<>(heroes);
+        transaccion.executeWithoutResult(estado -> {
+            try {
+                writer.write(chunk);
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+    }
+}
@@ -0,0 +1,102 @@
+package org.xideral.academy.springbatchmongomockito.benchmark;
+
+import com.mongodb.ConnectionString;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.batch.item.Chunk;
+import org.springframework.batch.item.ItemWriter;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.xideral.academy.springbatchmongomockito.config.BatchConfig;
+import org.xideral.academy.springbatchmongomockito.model.HeroeReporte;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Segundos para escribir 1M reportes en MongoDB con cada escritor de
+ * escribirEnMongo: "bulk" (HeroeReporteBulkWriter, insertMany no ordenado)
+ * y "template" (MongoItemWriter, save() por reporte).
+ *
+ * Necesita un mongod; la URI llega como propiedad del sistema al JVM del
+ * benchmark (JMH no hereda las -D de Maven, por eso va en -jvmArgsAppend):
+ *   -Djmh.filtro=EscritorMongoBenchmark
+ *   -Djmh.opciones="-jvmArgsAppend -Dbenchmark.mongo.uri=mongodb://localhost:27017/heroes_benchmark"
+ * Sin base en la URI se usa "heroes_benchmark". La coleccion "reportes" de
+ * esa base se borra antes de cada iteracion: no apuntar a la de la aplicacion.
+ *
+ * Cada iteracion es una sola corrida (SingleShotTime) de 1M reportes en
+ * chunks de 1000, como el paso2, con write concern ACKNOWLEDGED. Los
+ * reportes se arman antes de la iteracion para medir solo la escritura.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class EscritorMongoBenchmark {
+    static final String URI = "benchmark.mongo.uri";
+    private static final int REPORTES = 1_000_000;
+    private static final int CHUNK = 1000;
+
+    @Param({"bulk", "template"})
+    public String escritor;
+
+    private MongoClient cliente;
+    private MongoTemplate mongoTemplate;
+    private ItemWriter<HeroeReporte> writer;
+    private final List<Chunk<HeroeReporte>> chunks = new ArrayList<>(REPORTES / CHUNK);
+
+    @Setup(Level.Trial)
+    public void conectar() {
+        String uri = System.getProperty(URI);
+        if (uri == null) {
+            throw new IllegalStateException("Falta -D" + URI + "=mongodb://...: ver el Javadoc de EscritorMongoBenchmark");
+        }
+        ConnectionString conexion = new ConnectionString(uri);
+        cliente = MongoClients.create(conexion);
+        mongoTemplate = new MongoTemplate(cliente, conexion.getDatabase() != null ? conexion.getDatabase() : "heroes_benchmark");
+        writer = new BatchConfig().escribirEnMongo(mongoTemplate, escritor, "ACKNOWLEDGED", CHUNK);
+    }
+
+    // Coleccion vacia y reportes nuevos (sin _id) en cada iteracion
+    @Setup(Level.Iteration)
+    public void preparar() {
+        mongoTemplate.dropCollection("reportes");
+        chunks.clear();
+        for (int desde = 0; desde < REPORTES; desde += CHUNK) {
+            List<HeroeReporte> reportes = new ArrayList<>(CHUNK);
+            for (int i = desde; i < desde + CHUNK; i++) {
+                reportes.add(DatosBenchmark.reporte(i));
+            }
+            chunks.add(new Chunk<>(reportes));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void cerrar() {
+        cliente.close();
+    }
+
+    @Benchmark
+    public long escribirMillon() throws Exception {
+        for (Chunk<HeroeReporte> chunk : chunks) {
+            writer.write(chunk);
+        }
+        return mongoTemplate.getCollection("reportes").estimatedDocumentCount();
+    }
+}
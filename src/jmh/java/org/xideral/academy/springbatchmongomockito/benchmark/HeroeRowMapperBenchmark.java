@@ -0,0 +1,52 @@
+package org.xideral.academy.springbatchmongomockito.benchmark;
+
+import org.h2.tools.SimpleResultSet;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.xideral.academy.springbatchmongomockito.model.Heroe;
+import org.xideral.academy.springbatchmongomockito.reader.HeroeRowMapper;
+
+import java.sql.Types;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Costo de mapear una fila de heroes_procesados con el RowMapper de leerDeBD.
+ *
+ * El ResultSet es un SimpleResultSet de H2 en memoria posicionado en una
+ * fila: se mide el mapeo, no el driver ni la red.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HeroeRowMapperBenchmark {
+    private final HeroeRowMapper rowMapper = new HeroeRowMapper();
+    private SimpleResultSet fila;
+
+    @Setup
+    public void preparar() throws Exception {
+        fila = new SimpleResultSet();
+        fila.addColumn("id", Types.BIGINT, 19, 0);
+        fila.addColumn("nombre_hp", Types.VARCHAR, 100, 0);
+        fila.addColumn("equipo_hp", Types.VARCHAR, 100, 0);
+        fila.addColumn("poder_hp", Types.DOUBLE, 17, 0);
+        fila.addColumn("mejoraPoder_hp", Types.DOUBLE, 17, 0);
+        fila.addRow(1L, "SPIDER-MAN", "Avengers", 8500.0, 850.0);
+        fila.next();
+    }
+
+    @Benchmark
+    public Heroe mapRow() throws Exception {
+        return rowMapper.mapRow(fila, 1);
+    }
+}
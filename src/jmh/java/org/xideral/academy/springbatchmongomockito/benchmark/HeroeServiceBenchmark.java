@@ -0,0 +1,70 @@
+package org.xideral.academy.springbatchmongomockito.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.xideral.academy.springbatchmongomockito.model.Heroe;
+import org.xideral.academy.springbatchmongomockito.model.HeroeReporte;
+import org.xideral.academy.springbatchmongomockito.processor.HeroeProcessor;
+import org.xideral.academy.springbatchmongomockito.processor.ReporteProcessor;
+import org.xideral.academy.springbatchmongomockito.repository.HeroeReporteRepositoryEnMemoria;
+import org.xideral.academy.springbatchmongomockito.service.HeroeService;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * HeroeService.procesarLote contra un repositorio en memoria.
+ *
+ * Mide el costo propio del servicio (processors + armado de la lista +
+ * llamadas al repositorio) sin MongoDB. HeroeProcessor modifica los heroes
+ * que recibe, asi que cada invocacion procesa copias nuevas de la
+ * plantilla; tambien vacia el repositorio para que no crezca durante la
+ * medicion. Las dos cosas quedan dentro de lo medido (no con un @Setup por
+ * invocacion, que distorsiona operaciones de microsegundos): son O(n) y
+ * mucho mas baratas que procesar el lote.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HeroeServiceBenchmark {
+    @Param({"100", "10000"})
+    public int tamanoLote;
+
+    private HeroeReporteRepositoryEnMemoria repository;
+    private HeroeService service;
+    private List<Heroe> plantilla;
+
+    @Setup
+    public void preparar() {
+        repository = new HeroeReporteRepositoryEnMemoria();
+        service = new HeroeService(new HeroeProcessor(), new ReporteProcessor(), repository);
+        plantilla = DatosBenchmark.heroes(tamanoLote);
+    }
+
+    @Benchmark
+    public List<HeroeReporte> procesarLote() throws Exception {
+        repository.limpiar();
+        List<Heroe> heroes = new ArrayList<>(plantilla.size());
+        for (Heroe original : plantilla) {
+            Heroe heroe = new Heroe();
+            heroe.setNombre_hp(original.getNombre_hp());
+            heroe.setEquipo_hp(original.getEquipo_hp());
+            heroe.setPoder_hp(original.getPoder_hp());
+            heroes.add(heroe);
+        }
+        return service.procesarLote(heroes);
+    }
+}
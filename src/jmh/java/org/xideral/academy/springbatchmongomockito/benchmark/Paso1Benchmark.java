@@ -0,0 +1,182 @@
+package org.xideral.academy.springbatchmongomockito.benchmark;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobParametersBuilder;
+import org.springframework.batch.core.Step;
+import org.springframework.batch.core.configuration.annotation.EnableBatchProcessing;
+import org.springframework.batch.core.configuration.annotation.StepScope;
+import org.springframework.batch.core.job.builder.JobBuilder;
+import org.springframework.batch.core.launch.JobLauncher;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.batch.item.ItemStreamReader;
+import org.springframework.batch.item.ItemWriter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.core.io.Resource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.xideral.academy.springbatchmongomockito.chunk.TamanoChunkAdaptativoPolicy;
+import org.xideral.academy.springbatchmongomockito.config.BatchConfig;
+import org.xideral.academy.springbatchmongomockito.config.Paso1ParticionadoConfig;
+import org.xideral.academy.springbatchmongomockito.listener.MetricasPasoListener;
+import org.xideral.academy.springbatchmongomockito.model.Heroe;
+import org.xideral.academy.springbatchmongomockito.processor.HeroeProcessor;
+
+import javax.sql.DataSource;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Heroes por segundo de paso1 completo (CSV -> HeroeProcessor -> MySQL)
+ * en modo "simple" contra "particionado".
+ *
+ * Corre los pasos reales de BatchConfig y Paso1ParticionadoConfig dentro
+ * de un contexto de Spring minimo, con el job repository y heroes_procesados
+ * en H2 en memoria (modo MySQL, schema.sql real sin la columna id) y chunks
+ * fijos de 1000. Cada invocacion es un job completo sobre LINEAS heroes nuevos.
+ *
+ * El particionado solo gana si hay nucleos libres: con H2 en memoria el
+ * cuello de botella es la CPU; contra MySQL real ademas se traslapan los
+ * viajes de red de los workers. Para otro numero de hilos:
+ *   -Djmh.filtro=Paso1Benchmark -Djmh.opciones="-p hilos=8"
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 10)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+public class Paso1Benchmark {
+    private static final int LINEAS = 200_000;
+
+    @Param({"simple", "particionado"})
+    public String modo;
+
+    @Param({"4"})
+    public int hilos;
+
+    private AnnotationConfigApplicationContext contexto;
+    private JobLauncher jobLauncher;
+    private Job job;
+    private JdbcTemplate jdbcTemplate;
+    private long ejecucion;
+
+    @Setup
+    public void preparar() throws Exception {
+        String csv = DatosBenchmark.crearCsv(LINEAS).toUri().toString();
+        contexto = new AnnotationConfigApplicationContext();
+        contexto.getEnvironment().getPropertySources().addFirst(new MapPropertySource("benchmark", Map.of(
+                "heroes.entrada", csv,
+                "heroes.csv.lector", "flatfile",
+                "heroes.particiones.hilos", hilos,
+                "heroes.particiones.grid-size", hilos)));
+        contexto.register(Configuracion.class);
+        contexto.refresh();
+        jobLauncher = contexto.getBean(JobLauncher.class);
+        jdbcTemplate = new JdbcTemplate(contexto.getBean(DataSource.class));
+        Step paso = contexto.getBean("simple".equals(modo) ? "paso1" : "paso1Particionado", Step.class);
+        job = new JobBuilder("paso1Benchmark", contexto.getBean(JobRepository.class)).start(paso).build();
+    }
+
+    @TearDown
+    public void cerrar() {
+        contexto.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LINEAS)
+    public void paso1() throws Exception {
+        // Tabla vacia en cada job para medir inserts y no updates; el TRUNCATE
+        // tarda milisegundos contra los segundos del job
+        jdbcTemplate.execute("TRUNCATE TABLE heroes_procesados");
+        JobExecution resultado = jobLauncher.run(job, new JobParametersBuilder()
+                .addLong("ejecucion", ejecucion++)
+                .toJobParameters());
+        if (resultado.getStatus() != BatchStatus.COMPLETED) {
+            throw new IllegalStateException("paso1 termino en " + resultado.getStatus());
+        }
+    }
+
+    @Configuration
+    @EnableBatchProcessing
+    @Import(Paso1ParticionadoConfig.class)
+    static class Configuracion {
+        @Bean
+        DataSource dataSource() {
+            DataSource dataSource = new EmbeddedDatabaseBuilder()
+                    .setType(EmbeddedDatabaseType.H2)
+                    .setName(UUID.randomUUID() + ";MODE=MySQL")
+                    .addScript("classpath:org/springframework/batch/core/schema-h2.sql")
+                    .addScript("classpath:schema.sql")
+                    .build();
+            // En modo MySQL, H2 repite valores del AUTO_INCREMENT cuando varias
+            // transacciones insertan a la vez; paso1 no usa el id
+            new JdbcTemplate(dataSource).execute("ALTER TABLE heroes_procesados DROP COLUMN id");
+            return dataSource;
+        }
+
+        @Bean
+        DataSourceTransactionManager transactionManager(DataSource dataSource) {
+            return new DataSourceTransactionManager(dataSource);
+        }
+
+        // Chunk fijo: el adaptativo cambiaria de tamano distinto en cada modo
+        @Bean
+        @StepScope
+        TamanoChunkAdaptativoPolicy tamanoChunk(@Value("#{stepExecution.stepName}") String paso) {
+            return new TamanoChunkAdaptativoPolicy(1000, 1000, 1000, 200, new SimpleMeterRegistry(), paso);
+        }
+
+        @Bean
+        MetricasPasoListener metricasPaso() {
+            return new MetricasPasoListener(new SimpleMeterRegistry());
+        }
+
+        @Bean
+        HeroeProcessor procesarHeroe() {
+            return new HeroeProcessor();
+        }
+
+        @Bean
+        ItemWriter<Heroe> escribirEnBD(DataSource dataSource) {
+            return new BatchConfig().escribirEnBD(dataSource, "batch", 1000);
+        }
+
+        @Bean
+        ItemStreamReader<Heroe> leerCSV(@Value("${heroes.entrada}") Resource entrada) {
+            return new BatchConfig().leerCSV(entrada, "flatfile");
+        }
+
+        @Bean
+        Step paso1(JobRepository jobRepository, PlatformTransactionManager transactionManager,
+                   TamanoChunkAdaptativoPolicy tamanoChunk, MetricasPasoListener metricasPaso,
+                   ItemStreamReader<Heroe> leerCSV, HeroeProcessor procesarHeroe, ItemWriter<Heroe> escribirEnBD) {
+            return new BatchConfig().paso1(jobRepository, transactionManager, tamanoChunk, metricasPaso,
+                    leerCSV, procesarHeroe, escribirEnBD);
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package org.xideral.academy.springbatchmongomockito.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.xideral.academy.springbatchmongomockito.model.Heroe;
+import org.xideral.academy.springbatchmongomockito.model.HeroeReporte;
+import org.xideral.academy.springbatchmongomockito.processor.HeroeProcessor;
+import org.xideral.academy.springbatchmongomockito.processor.ReporteProcessor;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Costo por item de los dos processors del batch.
+ *
+ * HeroeProcessor modifica el heroe que recibe. Se reutiliza el mismo arreglo
+ * de heroes, pero antes de procesar cada uno se le regresa su nombre original:
+ * un nombre que ya esta en mayusculas hace que toUpperCase devuelva el mismo
+ * String sin copiarlo y el benchmark mediria menos de lo que cuesta en paso1.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProcessorBenchmark {
+    private final HeroeProcessor heroeProcessor = new HeroeProcessor();
+    private final ReporteProcessor reporteProcessor = new ReporteProcessor();
+    private Heroe[] heroes;
+    private String[] nombres;
+    private int siguiente;
+
+    @Setup
+    public void preparar() {
+        heroes = DatosBenchmark.heroes(1024).toArray(new Heroe[0]);
+        nombres = new String[heroes.length];
+        for (int i = 0; i < heroes.length; i++) {
+            nombres[i] = heroes[i].getNombre_hp();
+            heroeProcessor.process(heroes[i]);
+        }
+    }
+
+    @Benchmark
+    public Heroe heroeProcessor() {
+        Heroe heroe = siguienteHeroe();
+        heroe.setNombre_hp(nombres[siguiente]);
+        return heroeProcessor.process(heroe);
+    }
+
+    @Benchmark
+    public HeroeReporte reporteProcessor() {
+        return reporteProcessor.process(siguienteHeroe());
+    }
+
+    private Heroe siguienteHeroe() {
+        siguiente = (siguiente + 1) & (heroes.length - 1);
+        return heroes[siguiente];
+    }
+}
@@ -0,0 +1,152 @@
+package org.xideral.academy.springbatchmongomockito.chunk;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.batch.core.ItemWriteListener;
+import org.springframework.batch.item.Chunk;
+import org.springframework.batch.repeat.CompletionPolicy;
+import org.springframework.batch.repeat.RepeatContext;
+import org.springframework.batch.repeat.RepeatStatus;
+import org.springframework.batch.repeat.context.RepeatContextSupport;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * CompletionPolicy que decide el tamano de cada chunk segun lo que tarda
+ * en escribirse el anterior.
+ *
+ * Despues de cada escritura estima el costo por item (promedio movil) y
+ * calcula cuantos items caben en la latencia objetivo. Si la escritura se
+ * paso del objetivo el chunk se reduce de inmediato; si no, crece como
+ * maximo al doble, y deja de crecer cuando un chunk mas grande no mejora
+ * el throughput (items/seg). Siempre queda entre minimo y maximo.
+ *
+ * Guarda estado del paso, asi que debe declararse con @StepScope (una
+ * instancia por StepExecution) y registrarse tambien como listener.
+ * Cada tamano elegido se publica en la metrica "heroes.chunk.tamano".
+ */
+public class TamanoChunkAdaptativoPolicy implements CompletionPolicy, ItemWriteListener<Object> {
+    // Peso de la ultima medicion en el promedio movil del costo por item
+    private static final double ALFA = 0.3;
+
+    private final int minimo;
+    private final int maximo;
+    private final long latenciaObjetivoNanos;
+    private final DistributionSummary tamanosElegidos;
+    private final LongSupplier reloj;
+
+    private volatile int tamano;
+    private long inicioEscritura;
+    private double nanosPorItem;
+    private double mejorThroughput;
+    private int tamanoDelMejor;
+
+    public TamanoChunkAdaptativoPolicy(int minimo, int maximo, int inicial, long latenciaObjetivoMs,
+                                       MeterRegistry registry, String paso) {
+        this(minimo, maximo, inicial, latenciaObjetivoMs, registry, paso, System::nanoTime);
+    }
+
+    TamanoChunkAdaptativoPolicy(int minimo, int maximo, int inicial, long latenciaObjetivoMs,
+                                MeterRegistry registry, String paso, LongSupplier reloj) {
+        if (minimo < 1 || maximo < minimo) {
+            throw new IllegalArgumentException("Limites de chunk invalidos: minimo=" + minimo + ", maximo=" + maximo);
+        }
+        this.minimo = minimo;
+        this.maximo = maximo;
+        this.latenciaObjetivoNanos = TimeUnit.MILLISECONDS.toNanos(latenciaObjetivoMs);
+        this.tamano = limitar(inicial);
+        this.reloj = reloj;
+        this.tamanosElegidos = DistributionSummary.builder("heroes.chunk.tamano")
+                .description("Tamano de chunk elegido por la politica adaptativa")
+                .tag("paso", paso)
+                .register(registry);
+    }
+
+    public int getTamano() {
+        return tamano;
+    }
+
+    // =====================================================================
+    //  CompletionPolicy: el chunk termina al llegar al tamano actual
+    // =====================================================================
+
+    @Override
+    public RepeatContext start(RepeatContext parent) {
+        int limite = tamano;
+        tamanosElegidos.record(limite);
+        return new ContextoChunk(parent, limite);
+    }
+
+    @Override
+    public boolean isComplete(RepeatContext context, RepeatStatus result) {
+        return result == null || !result.isContinuable() || isComplete(context);
+    }
+
+    @Override
+    public boolean isComplete(RepeatContext context) {
+        return context.getStartedCount() >= ((ContextoChunk) context).limite;
+    }
+
+    @Override
+    public void update(RepeatContext context) {
+        ((ContextoChunk) context).increment();
+    }
+
+    // =====================================================================
+    //  ItemWriteListener: mide cada escritura y ajusta el tamano
+    // =====================================================================
+
+    @Override
+    public void beforeWrite(Chunk<?> items) {
+        inicioEscritura = reloj.getAsLong();
+    }
+
+    @Override
+    public void afterWrite(Chunk<?> items) {
+        if (items.isEmpty()) {
+            return;
+        }
+        ajustar(items.size(), Math.max(1, reloj.getAsLong() - inicioEscritura));
+    }
+
+    void ajustar(int items, long latenciaNanos) {
+        double costo = (double) latenciaNanos / items;
+        nanosPorItem = nanosPorItem == 0 ? costo : ALFA * costo + (1 - ALFA) * nanosPorItem;
+
+        double throughput = items * 1e9 / latenciaNanos;
+        int porLatencia = (int) Math.min(Integer.MAX_VALUE, latenciaObjetivoNanos / nanosPorItem);
+
+        int siguiente;
+        if (latenciaNanos > latenciaObjetivoNanos) {
+            // Nos pasamos del objetivo: bajar directo a lo que si cabe
+            siguiente = Math.min(tamano, porLatencia);
+        } else if (items > tamanoDelMejor && throughput < mejorThroughput * 0.95) {
+            // Crecer ya no mejora el throughput: regresar al mejor tamano visto
+            siguiente = tamanoDelMejor;
+        } else {
+            siguiente = (int) Math.min(porLatencia, 2L * tamano);
+        }
+
+        // El mejor throughput se "olvida" poco a poco por si cambian las condiciones
+        mejorThroughput *= 0.99;
+        if (throughput >= mejorThroughput) {
+            mejorThroughput = throughput;
+            tamanoDelMejor = items;
+        }
+        tamano = limitar(siguiente);
+    }
+
+    private int limitar(int valor) {
+        return Math.max(minimo, Math.min(maximo, valor));
+    }
+
+    private static class ContextoChunk extends RepeatContextSupport {
+        private final int limite;
+
+        ContextoChunk(RepeatContext parent, int limite) {
+            super(parent);
+            this.limite = limite;
+        }
+    }
+}
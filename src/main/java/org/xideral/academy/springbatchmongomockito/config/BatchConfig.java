@@ -1,45 +1,99 @@
 package org.xideral.academy.springbatchmongomockito.config;
 
+import com.mongodb.WriteConcern;
+import io.micrometer.core.instrument.Metrics;
+import org.springframework.batch.core.ChunkListener;
+import org.springframework.batch.core.ItemWriteListener;
 import org.springframework.batch.core.Job;
 import org.springframework.batch.core.Step;
+import org.springframework.batch.core.StepExecutionListener;
+import org.springframework.batch.core.configuration.annotation.StepScope;
+import org.springframework.batch.core.explore.JobExplorer;
 import org.springframework.batch.core.job.builder.JobBuilder;
-import org.springframework.batch.core.launch.support.RunIdIncrementer;
 import org.springframework.batch.core.repository.JobRepository;
 import org.springframework.batch.core.step.builder.StepBuilder;
-import org.springframework.batch.item.data.MongoItemWriter;
+import org.springframework.batch.item.ItemStreamReader;
+import org.springframework.batch.item.ItemWriter;
 import org.springframework.batch.item.data.builder.MongoItemWriterBuilder;
-import org.springframework.batch.item.database.JdbcBatchItemWriter;
 import org.springframework.batch.item.database.JdbcCursorItemReader;
 import org.springframework.batch.item.database.builder.JdbcBatchItemWriterBuilder;
 import org.springframework.batch.item.database.builder.JdbcCursorItemReaderBuilder;
-import org.springframework.batch.item.file.FlatFileItemReader;
 import org.springframework.batch.item.file.builder.FlatFileItemReaderBuilder;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.Resource;
 import org.springframework.data.mongodb.core.MongoTemplate;
 import org.springframework.transaction.PlatformTransactionManager;
+import org.xideral.academy.springbatchmongomockito.chunk.TamanoChunkAdaptativoPolicy;
+import org.xideral.academy.springbatchmongomockito.launch.ReanudarSiFallaIncrementer;
+import org.xideral.academy.springbatchmongomockito.listener.AsegurarIndicesReportesListener;
+import org.xideral.academy.springbatchmongomockito.listener.InvalidarCacheReportesListener;
+import org.xideral.academy.springbatchmongomockito.listener.MetricasPasoListener;
+import org.xideral.academy.springbatchmongomockito.listener.ResumenEquiposListener;
 import org.xideral.academy.springbatchmongomockito.model.Heroe;
 import org.xideral.academy.springbatchmongomockito.model.HeroeReporte;
 import org.xideral.academy.springbatchmongomockito.processor.HeroeProcessor;
 import org.xideral.academy.springbatchmongomockito.processor.ReporteProcessor;
+import org.xideral.academy.springbatchmongomockito.reader.HeroeCsv;
+import org.xideral.academy.springbatchmongomockito.reader.HeroeMappedItemReader;
+import org.xideral.academy.springbatchmongomockito.reader.HeroeRowMapper;
+import org.xideral.academy.springbatchmongomockito.reader.RecursoComprimido;
+import org.xideral.academy.springbatchmongomockito.writer.HeroeMultiFilaWriter;
+import org.xideral.academy.springbatchmongomockito.writer.HeroeReporteBulkWriter;
+import org.xideral.academy.springbatchmongomockito.writer.HeroeReporteUpsertWriter;
 
 import javax.sql.DataSource;
 
 @Configuration
 public class BatchConfig {
+    // Upsert por la llave natural (nombre_hp): reintentar un chunk o volver a
+    // correr el job actualiza las filas en lugar de duplicarlas.
+    static final String UPSERT_POR_NOMBRE = " ON DUPLICATE KEY UPDATE equipo_hp = VALUES(equipo_hp), " +
+            "poder_hp = VALUES(poder_hp), mejoraPoder_hp = VALUES(mejoraPoder_hp)";
+
+    // ---------- METRICAS: tiempos de chunk/commit, throughput y omitidos por paso ----------
+    @Bean
+    public MetricasPasoListener metricasPaso() {
+        return new MetricasPasoListener(Metrics.globalRegistry);
+    }
+
+    // ---------- POLITICA: tamano de chunk adaptativo (una por paso) ----------
+    @Bean
+    @StepScope
+    public TamanoChunkAdaptativoPolicy tamanoChunk(@Value("${heroes.chunk.minimo}") int minimo,
+                                                   @Value("${heroes.chunk.maximo}") int maximo,
+                                                   @Value("${heroes.chunk.inicial}") int inicial,
+                                                   @Value("${heroes.chunk.latencia-objetivo-ms}") long latenciaObjetivoMs,
+                                                   @Value("#{stepExecution.stepName}") String paso) {
+        return new TamanoChunkAdaptativoPolicy(minimo, maximo, inicial, latenciaObjetivoMs, Metrics.globalRegistry, paso);
+    }
+
     // =====================================================================
     //  STEP 1: Lee CSV → procesa (bono + mayusculas) → escribe en MySQL
     // =====================================================================
     @Bean
-    public FlatFileItemReader<Heroe> leerCSV() {
+    public ItemStreamReader<Heroe> leerCSV(@Value("${heroes.entrada}") Resource entrada,
+                                           @Value("${heroes.csv.lector}") String lector) {
+        return lectorCSV(entrada, lector);
+    }
+
+    // Tambien lo usa paso1 por archivos: un reader de este tipo por archivo.
+    // Una entrada gzip se descomprime al vuelo y siempre va por flatfile, igual
+    // que un recurso sin archivo detras (classpath:heroes.csv dentro del jar)
+    static ItemStreamReader<Heroe> lectorCSV(Resource entrada, String lector) {
+        Resource descomprimida = RecursoComprimido.descomprimido(entrada);
+        if ("mmap".equals(lector) && descomprimida == entrada && entrada.isFile()) {
+            // Mapea el archivo en memoria y parsea desde los bytes (sin FieldSet ni reflexion)
+            return new HeroeMappedItemReader(entrada, HeroeCsv.LINEAS_ENCABEZADO, HeroeCsv.lineMapper());
+        }
         return new FlatFileItemReaderBuilder<Heroe>()
                 .name("heroeReader")
-                .resource(new ClassPathResource("heroes.csv"))
+                .resource(descomprimida)
                 .delimited()
-                .names("nombre_hp", "equipo_hp", "poder_hp")
-                .targetType(Heroe.class)
-                .linesToSkip(1)
+                .names(HeroeCsv.COLUMNAS)
+                .fieldSetMapper(HeroeCsv.fieldSetMapper())
+                .linesToSkip(HeroeCsv.LINEAS_ENCABEZADO)
                 .build();
     }
 
@@ -51,12 +105,20 @@ public class BatchConfig {
 
     // ---------- WRITER: escribe en la tabla MySQL ----------
     @Bean
-    public JdbcBatchItemWriter<Heroe> escribirEnBD(DataSource dataSource) {
+    public ItemWriter<Heroe> escribirEnBD(DataSource dataSource,
+                                          @Value("${heroes.mysql.escritor}") String escritor,
+                                          @Value("${heroes.mysql.filas-por-insert}") int filasPorInsert) {
+        if ("multifila".equals(escritor)) {
+            // Un INSERT de varias filas por cada filasPorInsert heroes del chunk
+            return new HeroeMultiFilaWriter(dataSource, UPSERT_POR_NOMBRE, filasPorInsert);
+        }
         return new JdbcBatchItemWriterBuilder<Heroe>()
                 .sql("INSERT INTO heroes_procesados (nombre_hp, equipo_hp, poder_hp, mejoraPoder_hp)" +
-                        "VALUES (:nombre_hp, :equipo_hp, :poder_hp, :mejoraPoder_hp)" )
+                        "VALUES (:nombre_hp, :equipo_hp, :poder_hp, :mejoraPoder_hp)" +
+                        UPSERT_POR_NOMBRE)
                 .dataSource(dataSource)
                 .beanMapped() // usa los getters del POJO para mapear.
+                .assertUpdates(false) // un upsert sin cambios puede reportar 0 filas
                 .build();
     }
 
@@ -64,34 +126,37 @@ public class BatchConfig {
     @Bean
     public Step paso1(JobRepository jobRepository,
                       PlatformTransactionManager transactionManager,
-                      FlatFileItemReader<Heroe> leerCSV,
+                      TamanoChunkAdaptativoPolicy tamanoChunk,
+                      MetricasPasoListener metricasPaso,
+                      ItemStreamReader<Heroe> leerCSV,
                       HeroeProcessor procesarHeroe,
-                      JdbcBatchItemWriter<Heroe> escribirEnBD) {
+                      ItemWriter<Heroe> escribirEnBD) {
         return new StepBuilder("paso1", jobRepository)
-                .<Heroe, Heroe>chunk(3, transactionManager) // procesa de 3 en 3
+                .<Heroe, Heroe>chunk(tamanoChunk, transactionManager) // tamano segun la latencia de escritura
                 .reader(leerCSV)
                 .processor(procesarHeroe)
                 .writer(escribirEnBD)
+                .listener(tamanoChunk)
+                .listener((StepExecutionListener) metricasPaso) // implementa varias interfaces:
+                .listener((ChunkListener) metricasPaso)         // se registra una por una
+                .listener((ItemWriteListener<Object>) metricasPaso)
                 .build();
     }
 
     // =====================================================================
     //  STEP 2: Lee MySQL → calcula poder total → escribe en MongoDB
     // =====================================================================
+    // Con fetchSize > 0 y useCursorFetch=true en la URL, MySQL entrega el cursor por
+    // bloques de filasPorFetch filas; con 0 Connector/J carga toda la tabla en el heap
     @Bean
-    public JdbcCursorItemReader<Heroe> leerDeBD(DataSource dataSource) {
+    public JdbcCursorItemReader<Heroe> leerDeBD(DataSource dataSource,
+                                                @Value("${heroes.paso2.filas-por-fetch}") int filasPorFetch) {
         return new JdbcCursorItemReaderBuilder<Heroe>()
                 .name("heroeDBReader")
                 .dataSource(dataSource)
                 .sql("SELECT nombre_hp, equipo_hp, poder_hp, mejoraPoder_hp FROM heroes_procesados")
-                .rowMapper((rs, rowNum) -> {
-                    Heroe heroe = new Heroe();
-                    heroe.setNombre_hp(rs.getString("nombre_hp"));
-                    heroe.setEquipo_hp(rs.getString("equipo_hp"));
-                    heroe.setPoder_hp(rs.getDouble("poder_hp"));
-                    heroe.setMejoraPoder_hp(rs.getDouble("mejoraPoder_hp"));
-                    return heroe;
-                })
+                .rowMapper(new HeroeRowMapper())
+                .fetchSize(filasPorFetch)
                 .build();
     }
 
@@ -101,34 +166,127 @@ public class BatchConfig {
     }
 
     @Bean
-    public MongoItemWriter<HeroeReporte> escribirEnMongo(MongoTemplate mongoTemplate) {
+    public ItemWriter<HeroeReporte> escribirEnMongo(MongoTemplate mongoTemplate,
+                                                    @Value("${heroes.mongo.escritor}") String escritor,
+                                                    @Value("${heroes.mongo.write-concern}") String writeConcern,
+                                                    @Value("${heroes.mongo.tamano-lote}") int tamanoLote) {
+        if ("bulk".equals(escritor)) {
+            // insertMany no ordenado: los reportes nuevos nunca necesitan upsert
+            return new HeroeReporteBulkWriter(mongoTemplate, "reportes", WriteConcern.valueOf(writeConcern), tamanoLote,
+                    Metrics.globalRegistry);
+        }
         return new MongoItemWriterBuilder<HeroeReporte>()
                 .template(mongoTemplate).collection("reportes").build();
     }
 
+    // Upsert por nombre: lo usa paso2 incremental para actualizar reportes que cambiaron
+    @Bean
+    public ItemWriter<HeroeReporte> escribirEnMongoUpsert(MongoTemplate mongoTemplate,
+                                                          @Value("${heroes.mongo.write-concern}") String writeConcern,
+                                                          @Value("${heroes.mongo.tamano-lote}") int tamanoLote) {
+        return new HeroeReporteUpsertWriter(mongoTemplate, "reportes", WriteConcern.valueOf(writeConcern), tamanoLote);
+    }
+
+    // ---------- RESUMEN: totales por equipo mientras corre paso2 (team_summaries) ----------
+    // StepScope: guarda acumulados de una sola ejecucion del paso
+    @Bean
+    @StepScope
+    public ResumenEquiposListener resumenEquipos(MongoTemplate mongoTemplate) {
+        return new ResumenEquiposListener(mongoTemplate, "team_summaries");
+    }
+
     @Bean
     public Step paso2(JobRepository jobRepository,
                       PlatformTransactionManager transactionManager,
+                      TamanoChunkAdaptativoPolicy tamanoChunk,
+                      MetricasPasoListener metricasPaso,
+                      ResumenEquiposListener resumenEquipos,
                       JdbcCursorItemReader<Heroe> leerDeBD,
                       ReporteProcessor procesarReporte,
-                      MongoItemWriter<HeroeReporte> escribirEnMongo) {
+                      ItemWriter<HeroeReporte> escribirEnMongo) {
         return new StepBuilder("paso2", jobRepository)
-                .<Heroe, HeroeReporte>chunk(3, transactionManager)
+                .<Heroe, HeroeReporte>chunk(tamanoChunk, transactionManager)
                 .reader(leerDeBD)
                 .processor(procesarReporte)
                 .writer(escribirEnMongo)
+                .listener(tamanoChunk)
+                .listener((StepExecutionListener) metricasPaso)
+                .listener((ChunkListener) metricasPaso)
+                .listener((ItemWriteListener<Object>) metricasPaso)
+                .listener((StepExecutionListener) resumenEquipos)
+                .listener((ChunkListener) resumenEquipos)
+                .listener((ItemWriteListener<HeroeReporte>) resumenEquipos)
+                .stream(resumenEquipos)
                 .build();
     }
 
     // =====================================================================
-    //  JOB: ejecuta paso1 y luego paso2
+    //  JOB: ejecuta paso1 y luego paso2 (simple, particionado, incremental o asincrono)
+    //  El staging entre los dos es la tabla MySQL o un archivo binario, y las
+    //  particiones corren en hilos o en procesos worker
     // =====================================================================
     @Bean
-    public Job procesarHeroesJob(JobRepository jobRepository, Step paso1, Step paso2) {
+    public Job procesarHeroesJob(JobRepository jobRepository,
+                                 JobExplorer jobExplorer,
+                                 InvalidarCacheReportesListener invalidarCacheReportes,
+                                 AsegurarIndicesReportesListener asegurarIndicesReportes,
+                                 @Value("${heroes.paso1.modo}") String modoPaso1,
+                                 @Value("${heroes.paso2.modo}") String modoPaso2,
+                                 @Value("${heroes.staging}") String staging,
+                                 @Value("${heroes.particiones.ejecutor}") String ejecutorParticiones,
+                                 Step paso1,
+                                 Step paso1Particionado,
+                                 Step paso1Archivos,
+                                 Step paso2,
+                                 Step paso2Particionado,
+                                 Step paso2Incremental,
+                                 Step paso2Asincrono,
+                                 Step paso1Binario,
+                                 Step paso2Binario,
+                                 Step paso1ParticionadoEnProcesos,
+                                 Step paso1ArchivosEnProcesos,
+                                 Step paso2ParticionadoEnProcesos) {
+        if ("binario".equals(staging)) {
+            // Los otros modos particionan o filtran sobre la tabla: con el archivo solo hay simple
+            if (!"simple".equals(modoPaso1) || !"simple".equals(modoPaso2)) {
+                throw new IllegalArgumentException("heroes.staging=binario solo admite heroes.paso1.modo=simple y"
+                        + " heroes.paso2.modo=simple (llegaron " + modoPaso1 + " y " + modoPaso2 + ")");
+            }
+            return new JobBuilder("procesarHeroesJob", jobRepository)
+                    .incrementer(new ReanudarSiFallaIncrementer(jobExplorer, "procesarHeroesJob"))
+                    .listener(asegurarIndicesReportes)
+                    .listener(invalidarCacheReportes)
+                    .start(paso1Binario)
+                    .next(paso2Binario)
+                    .build();
+        }
+        if (!"mysql".equals(staging)) {
+            throw new IllegalArgumentException("heroes.staging no soportado: " + staging);
+        }
+        boolean enProcesos = switch (ejecutorParticiones) {
+            case "hilos" -> false;
+            case "procesos" -> true;
+            default -> throw new IllegalArgumentException("heroes.particiones.ejecutor no soportado: " + ejecutorParticiones);
+        };
+        Step primerPaso = switch (modoPaso1) {
+            case "simple" -> paso1;
+            case "particionado" -> enProcesos ? paso1ParticionadoEnProcesos : paso1Particionado;
+            case "archivos" -> enProcesos ? paso1ArchivosEnProcesos : paso1Archivos;
+            default -> throw new IllegalArgumentException("heroes.paso1.modo no soportado: " + modoPaso1);
+        };
+        Step segundoPaso = switch (modoPaso2) {
+            case "simple" -> paso2;
+            case "particionado" -> enProcesos ? paso2ParticionadoEnProcesos : paso2Particionado;
+            case "incremental" -> paso2Incremental;
+            case "asincrono" -> paso2Asincrono;
+            default -> throw new IllegalArgumentException("heroes.paso2.modo no soportado: " + modoPaso2);
+        };
         return new JobBuilder("procesarHeroesJob", jobRepository)
-                .incrementer(new RunIdIncrementer())
-                .start(paso1)
-                .next(paso2)
+                .incrementer(new ReanudarSiFallaIncrementer(jobExplorer, "procesarHeroesJob"))
+                .listener(asegurarIndicesReportes)
+                .listener(invalidarCacheReportes)
+                .start(primerPaso)
+                .next(segundoPaso)
                 .build();
     }
 }
\ No newline at end of file
@@ -0,0 +1,47 @@
+package org.xideral.academy.springbatchmongomockito.config;
+
+import io.micrometer.core.instrument.Metrics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.xideral.academy.springbatchmongomockito.listener.InvalidarCacheReportesListener;
+import org.xideral.academy.springbatchmongomockito.repository.HeroeReporteRepository;
+import org.xideral.academy.springbatchmongomockito.repository.HeroeReporteRepositoryConCache;
+
+import java.time.Duration;
+
+/**
+ * Cache de lectura para HeroeReporteRepository (heroes.cache.habilitado).
+ *
+ * El BeanPostProcessor envuelve cualquier bean HeroeReporteRepository con
+ * HeroeReporteRepositoryConCache, asi quien lo inyecte (HeroeService, por
+ * ejemplo) recibe la version con cache sin cambiar su codigo.
+ */
+@Configuration
+public class CacheReportesConfig {
+    // ---------- DECORADOR: envuelve el repositorio si la cache esta habilitada ----------
+    // static: los BeanPostProcessor se crean antes que el resto de la configuracion
+    @Bean
+    public static BeanPostProcessor cacheReportes(@Value("${heroes.cache.habilitado}") boolean habilitado,
+                                                  @Value("${heroes.cache.tamano-maximo}") long tamanoMaximo,
+                                                  @Value("${heroes.cache.ttl}") Duration ttl) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (habilitado && bean instanceof HeroeReporteRepository repositorio
+                        && !(bean instanceof HeroeReporteRepositoryConCache)) {
+                    return new HeroeReporteRepositoryConCache(repositorio, tamanoMaximo, ttl, Metrics.globalRegistry);
+                }
+                return bean;
+            }
+        };
+    }
+
+    // ---------- LISTENER: vacia la cache cuando termina un job ----------
+    @Bean
+    public InvalidarCacheReportesListener invalidarCacheReportes(ObjectProvider<HeroeReporteRepository> repositorios) {
+        return new InvalidarCacheReportesListener(repositorios);
+    }
+}
@@ -0,0 +1,106 @@
+package org.xideral.academy.springbatchmongomockito.config;
+
+import org.springframework.batch.core.ChunkListener;
+import org.springframework.batch.core.ItemWriteListener;
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.Step;
+import org.springframework.batch.core.StepExecutionListener;
+import org.springframework.batch.core.explore.JobExplorer;
+import org.springframework.batch.core.job.builder.JobBuilder;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.batch.core.step.builder.StepBuilder;
+import org.springframework.batch.item.ItemStreamReader;
+import org.springframework.batch.item.ItemWriter;
+import org.springframework.batch.item.database.JdbcBatchItemWriter;
+import org.springframework.batch.item.database.builder.JdbcBatchItemWriterBuilder;
+import org.springframework.batch.item.support.CompositeItemProcessor;
+import org.springframework.batch.item.support.builder.CompositeItemProcessorBuilder;
+import org.springframework.batch.item.support.builder.CompositeItemWriterBuilder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.xideral.academy.springbatchmongomockito.chunk.TamanoChunkAdaptativoPolicy;
+import org.xideral.academy.springbatchmongomockito.launch.ReanudarSiFallaIncrementer;
+import org.xideral.academy.springbatchmongomockito.listener.AsegurarIndicesReportesListener;
+import org.xideral.academy.springbatchmongomockito.listener.InvalidarCacheReportesListener;
+import org.xideral.academy.springbatchmongomockito.listener.MetricasPasoListener;
+import org.xideral.academy.springbatchmongomockito.model.Heroe;
+import org.xideral.academy.springbatchmongomockito.model.HeroeReporte;
+import org.xideral.academy.springbatchmongomockito.processor.HeroeProcessor;
+import org.xideral.academy.springbatchmongomockito.processor.ReporteProcessor;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+/**
+ * Job fusionado: CSV → (bono + mayusculas + poder total) → MongoDB en un solo paso.
+ *
+ * Evita escribir todos los heroes en heroes_procesados para luego volver a
+ * leerlos en paso2. La copia en MySQL queda como opcion de auditoria
+ * (heroes.fusionado.auditoria-mysql). Se elige con spring.batch.job.name;
+ * procesarHeroesJob (dos pasos) sigue disponible para las corridas de auditoria.
+ */
+@Configuration
+public class JobFusionadoConfig {
+    // ---------- PROCESSOR: HeroeProcessor seguido de ReporteProcessor ----------
+    @Bean
+    public CompositeItemProcessor<Heroe, HeroeReporte> procesarHeroeYReporte(HeroeProcessor procesarHeroe,
+                                                                             ReporteProcessor procesarReporte) {
+        return new CompositeItemProcessorBuilder<Heroe, HeroeReporte>()
+                .delegates(procesarHeroe, procesarReporte)
+                .build();
+    }
+
+    // ---------- WRITER opcional: copia de auditoria en MySQL ----------
+    @Bean
+    public JdbcBatchItemWriter<HeroeReporte> escribirAuditoriaEnBD(DataSource dataSource) {
+        return new JdbcBatchItemWriterBuilder<HeroeReporte>()
+                .sql("INSERT INTO heroes_procesados (nombre_hp, equipo_hp, poder_hp, mejoraPoder_hp)" +
+                        "VALUES (:nombre, :equipo, :poder, :mejoraPoder)" +
+                        BatchConfig.UPSERT_POR_NOMBRE)
+                .dataSource(dataSource)
+                .beanMapped()
+                .assertUpdates(false)
+                .build();
+    }
+
+    @Bean
+    public Step pasoFusionado(JobRepository jobRepository,
+                              PlatformTransactionManager transactionManager,
+                              TamanoChunkAdaptativoPolicy tamanoChunk,
+                              MetricasPasoListener metricasPaso,
+                              ItemStreamReader<Heroe> leerCSV,
+                              CompositeItemProcessor<Heroe, HeroeReporte> procesarHeroeYReporte,
+                              ItemWriter<HeroeReporte> escribirEnMongo,
+                              JdbcBatchItemWriter<HeroeReporte> escribirAuditoriaEnBD,
+                              @Value("${heroes.fusionado.auditoria-mysql}") boolean auditoriaMysql) {
+        // MySQL va primero: si falla Mongo, el rollback tambien deshace la auditoria
+        ItemWriter<HeroeReporte> writer = auditoriaMysql
+                ? new CompositeItemWriterBuilder<HeroeReporte>().delegates(List.of(escribirAuditoriaEnBD, escribirEnMongo)).build()
+                : escribirEnMongo;
+
+        return new StepBuilder("pasoFusionado", jobRepository)
+                .<Heroe, HeroeReporte>chunk(tamanoChunk, transactionManager)
+                .reader(leerCSV)
+                .processor(procesarHeroeYReporte)
+                .writer(writer)
+                .listener(tamanoChunk)
+                .listener((StepExecutionListener) metricasPaso)
+                .listener((ChunkListener) metricasPaso)
+                .listener((ItemWriteListener<Object>) metricasPaso)
+                .build();
+    }
+
+    @Bean
+    public Job procesarHeroesFusionadoJob(JobRepository jobRepository, JobExplorer jobExplorer,
+                                          AsegurarIndicesReportesListener asegurarIndicesReportes,
+                                          InvalidarCacheReportesListener invalidarCacheReportes, Step pasoFusionado) {
+        return new JobBuilder("procesarHeroesFusionadoJob", jobRepository)
+                .incrementer(new ReanudarSiFallaIncrementer(jobExplorer, "procesarHeroesFusionadoJob"))
+                .listener(asegurarIndicesReportes)
+                .listener(invalidarCacheReportes)
+                .start(pasoFusionado)
+                .build();
+    }
+}
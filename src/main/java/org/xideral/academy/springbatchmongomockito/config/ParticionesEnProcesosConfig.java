@@ -0,0 +1,112 @@
+package org.xideral.academy.springbatchmongomockito.config;
+
+import org.springframework.batch.core.Step;
+import org.springframework.batch.core.explore.JobExplorer;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.batch.core.step.builder.StepBuilder;
+import org.springframework.batch.integration.partition.BeanFactoryStepLocator;
+import org.springframework.batch.integration.partition.StepExecutionRequestHandler;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.xideral.academy.springbatchmongomockito.SpringBatchMongoMockitoApplication;
+import org.xideral.academy.springbatchmongomockito.launch.WorkerParticionRunner;
+import org.xideral.academy.springbatchmongomockito.partition.ArchivosPartitioner;
+import org.xideral.academy.springbatchmongomockito.partition.ComandoWorker;
+import org.xideral.academy.springbatchmongomockito.partition.ProcesosPartitionHandler;
+import org.xideral.academy.springbatchmongomockito.partition.RangoArchivoPartitioner;
+import org.xideral.academy.springbatchmongomockito.partition.RangoIdPartitioner;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Particiones en procesos separados (heroes.particiones.ejecutor=procesos).
+ *
+ * Mismos partitioners y pasos worker que los modos particionados, pero
+ * cada particion corre en una JVM worker en lugar de un hilo: el heap y
+ * el GC de una particion grande no afectan a las demas. Manager y workers
+ * se coordinan solo por el job repository (las tablas BATCH_* de MySQL),
+ * asi que los managers conservan el nombre del paso y un job que fallo se
+ * puede reanudar con cualquiera de los dos ejecutores.
+ */
+@Configuration
+public class ParticionesEnProcesosConfig {
+    // ---------- COMANDO: los workers se arrancan con las mismas opciones que el manager ----------
+    // Solo las opciones --clave=valor: los job parameters ya estan en el repositorio
+    @Bean
+    public ComandoWorker comandoWorker(ApplicationArguments argumentos,
+                                       @Value("${heroes.particiones.procesos.opciones-jvm}") String opcionesJvm) {
+        List<String> opciones = Arrays.stream(argumentos.getSourceArgs())
+                .filter(argumento -> argumento.startsWith("--"))
+                .toList();
+        List<String> jvm = Arrays.stream(opcionesJvm.trim().split("\\s+"))
+                .filter(opcion -> !opcion.isEmpty())
+                .toList();
+        return ComandoWorker.estaAplicacion(SpringBatchMongoMockitoApplication.class, jvm, opciones);
+    }
+
+    // ---------- WORKER: solo existe en las JVM que arranca ProcesosPartitionHandler ----------
+    @Bean
+    @ConditionalOnProperty(ComandoWorker.STEP_EXECUTION)
+    public WorkerParticionRunner workerParticion(JobExplorer jobExplorer,
+                                                 BeanFactory beanFactory,
+                                                 @Value("${" + ComandoWorker.PASO + "}") String paso,
+                                                 @Value("${" + ComandoWorker.JOB_EXECUTION + "}") long jobExecutionId,
+                                                 @Value("${" + ComandoWorker.STEP_EXECUTION + "}") long stepExecutionId) {
+        BeanFactoryStepLocator stepLocator = new BeanFactoryStepLocator();
+        stepLocator.setBeanFactory(beanFactory);
+        StepExecutionRequestHandler handler = new StepExecutionRequestHandler();
+        handler.setJobExplorer(jobExplorer);
+        handler.setStepLocator(stepLocator);
+        return new WorkerParticionRunner(handler, paso, jobExecutionId, stepExecutionId);
+    }
+
+    // ---------- MANAGERS: mismos nombres y partitioners que con hilos ----------
+    @Bean
+    public Step paso1ParticionadoEnProcesos(JobRepository jobRepository,
+                                            JobExplorer jobExplorer,
+                                            ComandoWorker comandoWorker,
+                                            RangoArchivoPartitioner particionarCSV,
+                                            @Value("${heroes.particiones.grid-size}") int gridSize,
+                                            @Value("${heroes.particiones.procesos.maximo}") int maximo) {
+        ProcesosPartitionHandler handler =
+                new ProcesosPartitionHandler("paso1Worker", comandoWorker, jobExplorer, jobRepository, maximo);
+        handler.setGridSize(gridSize);
+        return new StepBuilder("paso1Particionado", jobRepository)
+                .partitioner("paso1Worker", particionarCSV)
+                .partitionHandler(handler)
+                .build();
+    }
+
+    @Bean
+    public Step paso1ArchivosEnProcesos(JobRepository jobRepository,
+                                        JobExplorer jobExplorer,
+                                        ComandoWorker comandoWorker,
+                                        ArchivosPartitioner particionarArchivos,
+                                        @Value("${heroes.particiones.procesos.maximo}") int maximo) {
+        return new StepBuilder("paso1Archivos", jobRepository)
+                .partitioner("paso1Archivo", particionarArchivos)
+                .partitionHandler(new ProcesosPartitionHandler("paso1Archivo", comandoWorker, jobExplorer, jobRepository, maximo))
+                .build();
+    }
+
+    @Bean
+    public Step paso2ParticionadoEnProcesos(JobRepository jobRepository,
+                                            JobExplorer jobExplorer,
+                                            ComandoWorker comandoWorker,
+                                            RangoIdPartitioner particionarPorId,
+                                            @Value("${heroes.particiones.grid-size}") int gridSize,
+                                            @Value("${heroes.particiones.procesos.maximo}") int maximo) {
+        ProcesosPartitionHandler handler =
+                new ProcesosPartitionHandler("paso2Worker", comandoWorker, jobExplorer, jobRepository, maximo);
+        handler.setGridSize(gridSize);
+        return new StepBuilder("paso2Particionado", jobRepository)
+                .partitioner("paso2Worker", particionarPorId)
+                .partitionHandler(handler)
+                .build();
+    }
+}
@@ -0,0 +1,85 @@
+package org.xideral.academy.springbatchmongomockito.config;
+
+import org.springframework.batch.core.ChunkListener;
+import org.springframework.batch.core.ItemWriteListener;
+import org.springframework.batch.core.Step;
+import org.springframework.batch.core.StepExecutionListener;
+import org.springframework.batch.core.configuration.annotation.StepScope;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.batch.core.step.builder.StepBuilder;
+import org.springframework.batch.item.ItemStreamReader;
+import org.springframework.batch.item.ItemWriter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.ResourcePatternResolver;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.xideral.academy.springbatchmongomockito.chunk.TamanoChunkAdaptativoPolicy;
+import org.xideral.academy.springbatchmongomockito.listener.MetricasPasoListener;
+import org.xideral.academy.springbatchmongomockito.model.Heroe;
+import org.xideral.academy.springbatchmongomockito.partition.ArchivosPartitioner;
+import org.xideral.academy.springbatchmongomockito.processor.HeroeProcessor;
+
+/**
+ * Step 1 con varios archivos de entrada (heroes.paso1.modo=archivos).
+ *
+ * El job parameter "entrada" (o heroes.entrada si no viene) es un
+ * directorio o un patron; cada archivo es una particion y la procesa un
+ * worker en su propio hilo, con el mismo reader, processor y writer que
+ * paso1. Si el job falla, al reanudarlo solo se vuelven a correr los
+ * archivos que no terminaron, cada uno desde su ultimo chunk confirmado.
+ */
+@Configuration
+public class Paso1ArchivosConfig {
+    // ---------- PARTITIONER: un archivo por particion (StepScope: lee los job parameters) ----------
+    @Bean
+    @StepScope
+    public ArchivosPartitioner particionarArchivos(ResourcePatternResolver resolver,
+                                                   @Value("#{jobParameters['entrada'] ?: '${heroes.entrada}'}") String entrada) {
+        return ArchivosPartitioner.de(resolver, entrada);
+    }
+
+    // ---------- READER: uno por archivo (StepScope) ----------
+    @Bean
+    @StepScope
+    public ItemStreamReader<Heroe> leerArchivoCSV(@Value("#{stepExecutionContext['fileName']}") Resource archivo,
+                                                  @Value("${heroes.csv.lector}") String lector) {
+        return BatchConfig.lectorCSV(archivo, lector);
+    }
+
+    // ---------- WORKER: mismo processor y writer que paso1 ----------
+    @Bean
+    public Step paso1Archivo(JobRepository jobRepository,
+                             PlatformTransactionManager transactionManager,
+                             TamanoChunkAdaptativoPolicy tamanoChunk,
+                             MetricasPasoListener metricasPaso,
+                             ItemStreamReader<Heroe> leerArchivoCSV,
+                             HeroeProcessor procesarHeroe,
+                             ItemWriter<Heroe> escribirEnBD) {
+        return new StepBuilder("paso1Archivo", jobRepository)
+                .<Heroe, Heroe>chunk(tamanoChunk, transactionManager)
+                .reader(leerArchivoCSV)
+                .processor(procesarHeroe)
+                .writer(escribirEnBD)
+                .listener(tamanoChunk)
+                .listener((StepExecutionListener) metricasPaso)
+                .listener((ChunkListener) metricasPaso)
+                .listener((ItemWriteListener<Object>) metricasPaso)
+                .build();
+    }
+
+    // ---------- MANAGER: reparte los archivos entre los hilos de las particiones ----------
+    @Bean
+    public Step paso1Archivos(JobRepository jobRepository,
+                              ArchivosPartitioner particionarArchivos,
+                              Step paso1Archivo,
+                              TaskExecutor particionesTaskExecutor) {
+        return new StepBuilder("paso1Archivos", jobRepository)
+                .partitioner("paso1Archivo", particionarArchivos)
+                .step(paso1Archivo)
+                .taskExecutor(particionesTaskExecutor)
+                .build();
+    }
+}
@@ -0,0 +1,105 @@
+package org.xideral.academy.springbatchmongomockito.config;
+
+import org.springframework.batch.core.ChunkListener;
+import org.springframework.batch.core.ItemWriteListener;
+import org.springframework.batch.core.Step;
+import org.springframework.batch.core.StepExecutionListener;
+import org.springframework.batch.core.configuration.annotation.StepScope;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.batch.core.step.builder.StepBuilder;
+import org.springframework.batch.item.ItemStreamReader;
+import org.springframework.batch.item.ItemWriter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.Resource;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.xideral.academy.springbatchmongomockito.chunk.TamanoChunkAdaptativoPolicy;
+import org.xideral.academy.springbatchmongomockito.listener.MetricasPasoListener;
+import org.xideral.academy.springbatchmongomockito.model.Heroe;
+import org.xideral.academy.springbatchmongomockito.partition.RangoArchivoPartitioner;
+import org.xideral.academy.springbatchmongomockito.processor.HeroeProcessor;
+import org.xideral.academy.springbatchmongomockito.reader.HeroeCsv;
+import org.xideral.academy.springbatchmongomockito.reader.HeroeMappedItemReader;
+import org.xideral.academy.springbatchmongomockito.reader.RangoArchivoItemReader;
+
+/**
+ * Version particionada del Step 1 (heroes.paso1.modo=particionado).
+ *
+ * El CSV se corta en rangos de bytes y cada rango lo procesa un worker
+ * en su propio hilo, con su propio reader. Cada worker guarda su posicion,
+ * asi que al reiniciar el job solo se repiten las particiones que fallaron.
+ */
+@Configuration
+public class Paso1ParticionadoConfig {
+    // ---------- EXECUTOR: hilos que ejecutan las particiones ----------
+    // Daemon: el manager espera a todas sus particiones, y los hilos
+    // ociosos no deben mantener viva la JVM al terminar el job
+    @Bean
+    public TaskExecutor particionesTaskExecutor(@Value("${heroes.particiones.hilos}") int hilos) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(hilos);
+        executor.setMaxPoolSize(hilos);
+        executor.setThreadNamePrefix("particion-");
+        executor.setDaemon(true);
+        executor.initialize();
+        return executor;
+    }
+
+    // ---------- PARTITIONER: corta el CSV en rangos de bytes ----------
+    @Bean
+    public RangoArchivoPartitioner particionarCSV(@Value("${heroes.entrada}") Resource entrada) {
+        return new RangoArchivoPartitioner(entrada, HeroeCsv.LINEAS_ENCABEZADO);
+    }
+
+    // ---------- READER: uno por particion (StepScope) ----------
+    @Bean
+    @StepScope
+    public ItemStreamReader<Heroe> leerRangoCSV(@Value("${heroes.entrada}") Resource entrada,
+                                                @Value("${heroes.csv.lector}") String lector,
+                                                @Value("#{stepExecutionContext['inicio']}") Long inicio,
+                                                @Value("#{stepExecutionContext['fin']}") Long fin) {
+        if ("mmap".equals(lector)) {
+            return new HeroeMappedItemReader(entrada, inicio, fin, HeroeCsv.lineMapper());
+        }
+        return new RangoArchivoItemReader(entrada, inicio, fin, HeroeCsv.lineMapper());
+    }
+
+    // ---------- WORKER: mismo processor y writer que paso1 ----------
+    @Bean
+    public Step paso1Worker(JobRepository jobRepository,
+                            PlatformTransactionManager transactionManager,
+                            TamanoChunkAdaptativoPolicy tamanoChunk,
+                            MetricasPasoListener metricasPaso,
+                            ItemStreamReader<Heroe> leerRangoCSV,
+                            HeroeProcessor procesarHeroe,
+                            ItemWriter<Heroe> escribirEnBD) {
+        return new StepBuilder("paso1Worker", jobRepository)
+                .<Heroe, Heroe>chunk(tamanoChunk, transactionManager)
+                .reader(leerRangoCSV)
+                .processor(procesarHeroe)
+                .writer(escribirEnBD)
+                .listener(tamanoChunk)
+                .listener((StepExecutionListener) metricasPaso)
+                .listener((ChunkListener) metricasPaso)
+                .listener((ItemWriteListener<Object>) metricasPaso)
+                .build();
+    }
+
+    // ---------- MANAGER: reparte las particiones entre los hilos ----------
+    @Bean
+    public Step paso1Particionado(JobRepository jobRepository,
+                                  RangoArchivoPartitioner particionarCSV,
+                                  Step paso1Worker,
+                                  TaskExecutor particionesTaskExecutor,
+                                  @Value("${heroes.particiones.grid-size}") int gridSize) {
+        return new StepBuilder("paso1Particionado", jobRepository)
+                .partitioner("paso1Worker", particionarCSV)
+                .step(paso1Worker)
+                .gridSize(gridSize)
+                .taskExecutor(particionesTaskExecutor)
+                .build();
+    }
+}
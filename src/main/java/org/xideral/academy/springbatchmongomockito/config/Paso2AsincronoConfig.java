@@ -0,0 +1,107 @@
+package org.xideral.academy.springbatchmongomockito.config;
+
+import org.springframework.batch.core.ChunkListener;
+import org.springframework.batch.core.ItemWriteListener;
+import org.springframework.batch.core.Step;
+import org.springframework.batch.core.StepExecutionListener;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.batch.core.step.builder.StepBuilder;
+import org.springframework.batch.integration.async.AsyncItemProcessor;
+import org.springframework.batch.integration.async.AsyncItemWriter;
+import org.springframework.batch.item.ItemWriter;
+import org.springframework.batch.item.database.JdbcCursorItemReader;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.xideral.academy.springbatchmongomockito.chunk.TamanoChunkAdaptativoPolicy;
+import org.xideral.academy.springbatchmongomockito.listener.MetricasPasoListener;
+import org.xideral.academy.springbatchmongomockito.listener.ResultadosAsincronosListener;
+import org.xideral.academy.springbatchmongomockito.listener.ResumenEquiposListener;
+import org.xideral.academy.springbatchmongomockito.model.Heroe;
+import org.xideral.academy.springbatchmongomockito.model.HeroeReporte;
+import org.xideral.academy.springbatchmongomockito.processor.ReporteProcessor;
+
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Version asincrona del Step 2 (heroes.paso2.modo=asincrono).
+ *
+ * Mismo reader, processor y writer que paso2, pero AsyncItemProcessor manda
+ * cada item a un pool de hilos y devuelve un Future; AsyncItemWriter espera
+ * los Future del chunk y le pasa los reportes a escribirEnMongo. Asi el
+ * processor trabaja en paralelo y el hilo del paso solo lee y escribe.
+ *
+ * La escritura en MongoDB sigue dentro del chunk, antes del commit: el
+ * checkpoint del reader solo avanza si el chunk se escribio completo y un
+ * reinicio retoma desde el ultimo chunk confirmado, igual que paso2.
+ */
+@Configuration
+public class Paso2AsincronoConfig {
+    // ---------- EXECUTOR: hilos del processor ----------
+    // Cola acotada: si se llena, el propio hilo del paso procesa el item.
+    // Hilos daemon: el paso siempre espera sus Future, y asi no impiden que
+    // la aplicacion termine al acabar el job
+    @Bean
+    public TaskExecutor paso2TaskExecutor(@Value("${heroes.paso2.asincrono.hilos}") int hilos,
+                                          @Value("${heroes.paso2.asincrono.capacidad-cola}") int capacidadCola) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(hilos);
+        executor.setMaxPoolSize(hilos);
+        executor.setQueueCapacity(capacidadCola);
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setThreadNamePrefix("paso2-async-");
+        executor.setDaemon(true);
+        executor.initialize();
+        return executor;
+    }
+
+    // ---------- PROCESSOR: ReporteProcessor en el pool, devuelve Future ----------
+    @Bean
+    public AsyncItemProcessor<Heroe, HeroeReporte> procesarReporteAsincrono(ReporteProcessor procesarReporte,
+                                                                          TaskExecutor paso2TaskExecutor) {
+        AsyncItemProcessor<Heroe, HeroeReporte> processor = new AsyncItemProcessor<>();
+        processor.setDelegate(procesarReporte);
+        processor.setTaskExecutor(paso2TaskExecutor);
+        return processor;
+    }
+
+    // ---------- WRITER: espera los Future y escribe con escribirEnMongo ----------
+    @Bean
+    public AsyncItemWriter<HeroeReporte> escribirEnMongoAsincrono(ItemWriter<HeroeReporte> escribirEnMongo) {
+        AsyncItemWriter<HeroeReporte> writer = new AsyncItemWriter<>();
+        writer.setDelegate(escribirEnMongo);
+        return writer;
+    }
+
+    // ---------- STEP: los listeners de reportes reciben los Future ya resueltos ----------
+    @Bean
+    public Step paso2Asincrono(JobRepository jobRepository,
+                               PlatformTransactionManager transactionManager,
+                               TamanoChunkAdaptativoPolicy tamanoChunk,
+                               MetricasPasoListener metricasPaso,
+                               ResumenEquiposListener resumenEquipos,
+                               JdbcCursorItemReader<Heroe> leerDeBD,
+                               AsyncItemProcessor<Heroe, HeroeReporte> procesarReporteAsincrono,
+                               AsyncItemWriter<HeroeReporte> escribirEnMongoAsincrono) {
+        // resumenEquipos solo a traves del adaptador: directo recibiria los Future
+        ResultadosAsincronosListener<HeroeReporte> resultadosResumen = new ResultadosAsincronosListener<>(resumenEquipos);
+        return new StepBuilder("paso2Asincrono", jobRepository)
+                .<Heroe, Future<HeroeReporte>>chunk(tamanoChunk, transactionManager)
+                .reader(leerDeBD)
+                .processor(procesarReporteAsincrono)
+                .writer(escribirEnMongoAsincrono)
+                .listener(tamanoChunk)
+                .listener((StepExecutionListener) metricasPaso)
+                .listener((ChunkListener) metricasPaso)
+                .listener((ItemWriteListener<Object>) metricasPaso)
+                .listener((StepExecutionListener) resultadosResumen) // paso, chunk y escritura
+                .listener((ChunkListener) resultadosResumen)
+                .listener((ItemWriteListener<Future<HeroeReporte>>) resultadosResumen)
+                .stream(resumenEquipos)
+                .build();
+    }
+}
@@ -0,0 +1,93 @@
+package org.xideral.academy.springbatchmongomockito.config;
+
+import org.springframework.batch.core.ChunkListener;
+import org.springframework.batch.core.ItemWriteListener;
+import org.springframework.batch.core.Step;
+import org.springframework.batch.core.StepExecutionListener;
+import org.springframework.batch.core.configuration.annotation.StepScope;
+import org.springframework.batch.core.explore.JobExplorer;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.batch.core.step.builder.StepBuilder;
+import org.springframework.batch.item.ItemWriter;
+import org.springframework.batch.item.database.JdbcPagingItemReader;
+import org.springframework.batch.item.database.Order;
+import org.springframework.batch.item.database.builder.JdbcPagingItemReaderBuilder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.xideral.academy.springbatchmongomockito.chunk.TamanoChunkAdaptativoPolicy;
+import org.xideral.academy.springbatchmongomockito.listener.MarcaDeAguaListener;
+import org.xideral.academy.springbatchmongomockito.listener.MetricasPasoListener;
+import org.xideral.academy.springbatchmongomockito.model.Heroe;
+import org.xideral.academy.springbatchmongomockito.model.HeroeReporte;
+import org.xideral.academy.springbatchmongomockito.processor.ReporteProcessor;
+import org.xideral.academy.springbatchmongomockito.reader.HeroeRowMapper;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Version incremental del Step 2 (heroes.paso2.modo=incremental).
+ *
+ * Solo lee las filas de heroes_procesados con actualizado_en dentro de la
+ * ventana (marcaDesde, marcaHasta] que fija MarcaDeAguaListener, y las
+ * escribe con upsert por nombre. Cada ventana empieza heroes.paso2.incremental.margen
+ * antes de la marca anterior, para no perder filas cuyo commit llega tarde.
+ * Con el job parameter reconstruir=true la ventana empieza desde cero y se
+ * reexporta toda la tabla.
+ */
+@Configuration
+public class Paso2IncrementalConfig {
+    // ---------- LISTENER: calcula y guarda la marca de agua ----------
+    @Bean
+    public MarcaDeAguaListener marcaDeAgua(JobExplorer jobExplorer, DataSource dataSource,
+                                          @Value("${heroes.paso2.incremental.margen}") Duration margen) {
+        return new MarcaDeAguaListener(jobExplorer, dataSource, margen);
+    }
+
+    // ---------- READER: paginacion keyset sobre las filas cambiadas (StepScope) ----------
+    @Bean
+    @StepScope
+    public JdbcPagingItemReader<Heroe> leerDeBDIncremental(DataSource dataSource,
+                                                           @Value("#{stepExecutionContext['marcaDesde']}") String desde,
+                                                           @Value("#{stepExecutionContext['marcaHasta']}") String hasta,
+                                                           @Value("${heroes.paso2.tamano-pagina}") int tamanoPagina) {
+        return new JdbcPagingItemReaderBuilder<Heroe>()
+                .name("heroeIncrementalReader")
+                .dataSource(dataSource)
+                .selectClause("SELECT id, nombre_hp, equipo_hp, poder_hp, mejoraPoder_hp")
+                .fromClause("FROM heroes_procesados")
+                .whereClause("WHERE actualizado_en > :desde AND actualizado_en <= :hasta")
+                .parameterValues(Map.of("desde", Timestamp.valueOf(desde), "hasta", Timestamp.valueOf(hasta)))
+                .sortKeys(Map.of("id", Order.ASCENDING))
+                .pageSize(tamanoPagina)
+                .rowMapper(new HeroeRowMapper())
+                .build();
+    }
+
+    // ---------- STEP: mismo processor que paso2, writer con upsert ----------
+    @Bean
+    public Step paso2Incremental(JobRepository jobRepository,
+                                 PlatformTransactionManager transactionManager,
+                                 TamanoChunkAdaptativoPolicy tamanoChunk,
+                                 MetricasPasoListener metricasPaso,
+                                 MarcaDeAguaListener marcaDeAgua,
+                                 JdbcPagingItemReader<Heroe> leerDeBDIncremental,
+                                 ReporteProcessor procesarReporte,
+                                 ItemWriter<HeroeReporte> escribirEnMongoUpsert) {
+        return new StepBuilder("paso2Incremental", jobRepository)
+                .<Heroe, HeroeReporte>chunk(tamanoChunk, transactionManager)
+                .reader(leerDeBDIncremental)
+                .processor(procesarReporte)
+                .writer(escribirEnMongoUpsert)
+                .listener(tamanoChunk)
+                .listener(marcaDeAgua)
+                .listener((StepExecutionListener) metricasPaso)
+                .listener((ChunkListener) metricasPaso)
+                .listener((ItemWriteListener<Object>) metricasPaso)
+                .build();
+    }
+}
@@ -0,0 +1,101 @@
+package org.xideral.academy.springbatchmongomockito.config;
+
+import org.springframework.batch.core.ChunkListener;
+import org.springframework.batch.core.ItemWriteListener;
+import org.springframework.batch.core.Step;
+import org.springframework.batch.core.StepExecutionListener;
+import org.springframework.batch.core.configuration.annotation.StepScope;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.batch.core.step.builder.StepBuilder;
+import org.springframework.batch.item.ItemWriter;
+import org.springframework.batch.item.database.JdbcPagingItemReader;
+import org.springframework.batch.item.database.Order;
+import org.springframework.batch.item.database.builder.JdbcPagingItemReaderBuilder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.xideral.academy.springbatchmongomockito.chunk.TamanoChunkAdaptativoPolicy;
+import org.xideral.academy.springbatchmongomockito.listener.MetricasPasoListener;
+import org.xideral.academy.springbatchmongomockito.model.Heroe;
+import org.xideral.academy.springbatchmongomockito.model.HeroeReporte;
+import org.xideral.academy.springbatchmongomockito.partition.RangoIdPartitioner;
+import org.xideral.academy.springbatchmongomockito.processor.ReporteProcessor;
+import org.xideral.academy.springbatchmongomockito.reader.HeroeRowMapper;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Version particionada del Step 2 (heroes.paso2.modo=particionado).
+ *
+ * heroes_procesados se divide en rangos de id y cada worker pagina su rango
+ * con consultas keyset (WHERE id > ultimo ORDER BY id LIMIT n). El ultimo id
+ * leido queda en el ExecutionContext de cada worker, asi que un reinicio
+ * continua a mitad de la tabla en lugar de empezar de nuevo.
+ */
+@Configuration
+public class Paso2ParticionadoConfig {
+    // ---------- PARTITIONER: rangos de la llave primaria ----------
+    @Bean
+    public RangoIdPartitioner particionarPorId(DataSource dataSource) {
+        return new RangoIdPartitioner(dataSource, "heroes_procesados");
+    }
+
+    // ---------- READER: paginacion keyset dentro del rango (StepScope) ----------
+    @Bean
+    @StepScope
+    public JdbcPagingItemReader<Heroe> leerDeBDPorRango(DataSource dataSource,
+                                                        @Value("#{stepExecutionContext['idMinimo']}") Long idMinimo,
+                                                        @Value("#{stepExecutionContext['idMaximo']}") Long idMaximo,
+                                                        @Value("${heroes.paso2.tamano-pagina}") int tamanoPagina) {
+        return new JdbcPagingItemReaderBuilder<Heroe>()
+                .name("heroeKeysetReader")
+                .dataSource(dataSource)
+                .selectClause("SELECT id, nombre_hp, equipo_hp, poder_hp, mejoraPoder_hp")
+                .fromClause("FROM heroes_procesados")
+                .whereClause("WHERE id BETWEEN :idMinimo AND :idMaximo")
+                .parameterValues(Map.of(RangoIdPartitioner.ID_MINIMO, idMinimo, RangoIdPartitioner.ID_MAXIMO, idMaximo))
+                .sortKeys(Map.of("id", Order.ASCENDING))
+                .pageSize(tamanoPagina)
+                .rowMapper(new HeroeRowMapper())
+                .build();
+    }
+
+    // ---------- WORKER: mismo processor y writer que paso2 ----------
+    @Bean
+    public Step paso2Worker(JobRepository jobRepository,
+                            PlatformTransactionManager transactionManager,
+                            TamanoChunkAdaptativoPolicy tamanoChunk,
+                            MetricasPasoListener metricasPaso,
+                            JdbcPagingItemReader<Heroe> leerDeBDPorRango,
+                            ReporteProcessor procesarReporte,
+                            ItemWriter<HeroeReporte> escribirEnMongo) {
+        return new StepBuilder("paso2Worker", jobRepository)
+                .<Heroe, HeroeReporte>chunk(tamanoChunk, transactionManager)
+                .reader(leerDeBDPorRango)
+                .processor(procesarReporte)
+                .writer(escribirEnMongo)
+                .listener(tamanoChunk)
+                .listener((StepExecutionListener) metricasPaso)
+                .listener((ChunkListener) metricasPaso)
+                .listener((ItemWriteListener<Object>) metricasPaso)
+                .build();
+    }
+
+    // ---------- MANAGER: reparte los rangos entre los hilos ----------
+    @Bean
+    public Step paso2Particionado(JobRepository jobRepository,
+                                  RangoIdPartitioner particionarPorId,
+                                  Step paso2Worker,
+                                  TaskExecutor particionesTaskExecutor,
+                                  @Value("${heroes.particiones.grid-size}") int gridSize) {
+        return new StepBuilder("paso2Particionado", jobRepository)
+                .partitioner("paso2Worker", particionarPorId)
+                .step(paso2Worker)
+                .gridSize(gridSize)
+                .taskExecutor(particionesTaskExecutor)
+                .build();
+    }
+}
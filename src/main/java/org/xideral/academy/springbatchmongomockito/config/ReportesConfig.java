@@ -0,0 +1,31 @@
+package org.xideral.academy.springbatchmongomockito.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.xideral.academy.springbatchmongomockito.listener.AsegurarIndicesReportesListener;
+import org.xideral.academy.springbatchmongomockito.repository.HeroeReporteRepository;
+import org.xideral.academy.springbatchmongomockito.repository.HeroeReporteRepositoryMongo;
+
+/**
+ * Repositorio de reportes sobre MongoDB (la misma coleccion que llenan los
+ * writers del paso2). CacheReportesConfig lo envuelve con la cache cuando
+ * heroes.cache.habilitado=true.
+ */
+@Configuration
+public class ReportesConfig {
+    private static final String COLECCION = "reportes";
+
+    // ---------- REPOSITORIO: coleccion "reportes" ----------
+    @Bean
+    public HeroeReporteRepository heroeReporteRepository(MongoTemplate mongoTemplate) {
+        return new HeroeReporteRepositoryMongo(mongoTemplate, COLECCION);
+    }
+
+    // ---------- LISTENER: crea/verifica los indices antes de cada job ----------
+    // Con su propia instancia: el bean del repositorio puede venir envuelto por la cache
+    @Bean
+    public AsegurarIndicesReportesListener asegurarIndicesReportes(MongoTemplate mongoTemplate) {
+        return new AsegurarIndicesReportesListener(new HeroeReporteRepositoryMongo(mongoTemplate, COLECCION));
+    }
+}
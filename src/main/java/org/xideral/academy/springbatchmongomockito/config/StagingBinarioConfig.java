@@ -0,0 +1,96 @@
+package org.xideral.academy.springbatchmongomockito.config;
+
+import org.springframework.batch.core.ChunkListener;
+import org.springframework.batch.core.ItemWriteListener;
+import org.springframework.batch.core.Step;
+import org.springframework.batch.core.StepExecutionListener;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.batch.core.step.builder.StepBuilder;
+import org.springframework.batch.item.ItemStreamReader;
+import org.springframework.batch.item.ItemWriter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.xideral.academy.springbatchmongomockito.chunk.TamanoChunkAdaptativoPolicy;
+import org.xideral.academy.springbatchmongomockito.listener.MetricasPasoListener;
+import org.xideral.academy.springbatchmongomockito.listener.ResumenEquiposListener;
+import org.xideral.academy.springbatchmongomockito.model.Heroe;
+import org.xideral.academy.springbatchmongomockito.model.HeroeReporte;
+import org.xideral.academy.springbatchmongomockito.processor.HeroeProcessor;
+import org.xideral.academy.springbatchmongomockito.processor.ReporteProcessor;
+import org.xideral.academy.springbatchmongomockito.reader.HeroeStagingItemReader;
+import org.xideral.academy.springbatchmongomockito.writer.HeroeStagingWriter;
+
+import java.nio.file.Path;
+
+/**
+ * Staging en archivo binario entre paso1 y paso2 (heroes.staging=binario).
+ *
+ * paso1Binario hace lo mismo que paso1 pero agrega los heroes procesados
+ * a un archivo de registros de tamano fijo en lugar de la tabla
+ * heroes_procesados; paso2Binario lee ese archivo mapeado en memoria y
+ * sigue igual que paso2 (reporte, MongoDB y resumen por equipo). Evita el
+ * viaje de ida y vuelta a MySQL, pero no deja la tabla para auditoria.
+ */
+@Configuration
+public class StagingBinarioConfig {
+    // ---------- WRITER: agrega al archivo de staging ----------
+    @Bean
+    public HeroeStagingWriter escribirEnBinario(@Value("${heroes.staging.archivo}") Path archivo) {
+        return new HeroeStagingWriter(archivo);
+    }
+
+    // ---------- READER: lee el archivo de staging mapeado en memoria ----------
+    @Bean
+    public HeroeStagingItemReader leerDeBinario(@Value("${heroes.staging.archivo}") Path archivo) {
+        return new HeroeStagingItemReader(archivo);
+    }
+
+    // ---------- STEP 1: CSV → procesa → archivo de staging ----------
+    @Bean
+    public Step paso1Binario(JobRepository jobRepository,
+                             PlatformTransactionManager transactionManager,
+                             TamanoChunkAdaptativoPolicy tamanoChunk,
+                             MetricasPasoListener metricasPaso,
+                             ItemStreamReader<Heroe> leerCSV,
+                             HeroeProcessor procesarHeroe,
+                             HeroeStagingWriter escribirEnBinario) {
+        return new StepBuilder("paso1Binario", jobRepository)
+                .<Heroe, Heroe>chunk(tamanoChunk, transactionManager)
+                .reader(leerCSV)
+                .processor(procesarHeroe)
+                .writer(escribirEnBinario)
+                .listener(tamanoChunk)
+                .listener((StepExecutionListener) metricasPaso)
+                .listener((ChunkListener) metricasPaso)
+                .listener((ItemWriteListener<Object>) metricasPaso)
+                .build();
+    }
+
+    // ---------- STEP 2: archivo de staging → reporte → MongoDB ----------
+    @Bean
+    public Step paso2Binario(JobRepository jobRepository,
+                             PlatformTransactionManager transactionManager,
+                             TamanoChunkAdaptativoPolicy tamanoChunk,
+                             MetricasPasoListener metricasPaso,
+                             ResumenEquiposListener resumenEquipos,
+                             HeroeStagingItemReader leerDeBinario,
+                             ReporteProcessor procesarReporte,
+                             ItemWriter<HeroeReporte> escribirEnMongo) {
+        return new StepBuilder("paso2Binario", jobRepository)
+                .<Heroe, HeroeReporte>chunk(tamanoChunk, transactionManager)
+                .reader(leerDeBinario)
+                .processor(procesarReporte)
+                .writer(escribirEnMongo)
+                .listener(tamanoChunk)
+                .listener((StepExecutionListener) metricasPaso)
+                .listener((ChunkListener) metricasPaso)
+                .listener((ItemWriteListener<Object>) metricasPaso)
+                .listener((StepExecutionListener) resumenEquipos)
+                .listener((ChunkListener) resumenEquipos)
+                .listener((ItemWriteListener<HeroeReporte>) resumenEquipos)
+                .stream(resumenEquipos)
+                .build();
+    }
+}
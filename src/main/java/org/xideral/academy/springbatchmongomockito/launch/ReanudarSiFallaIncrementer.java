@@ -0,0 +1,55 @@
+package org.xideral.academy.springbatchmongomockito.launch;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobInstance;
+import org.springframework.batch.core.JobParameters;
+import org.springframework.batch.core.JobParametersIncrementer;
+import org.springframework.batch.core.explore.JobExplorer;
+import org.springframework.batch.core.launch.support.RunIdIncrementer;
+
+/**
+ * Incrementer que reinicia la ultima instancia si fallo o se detuvo.
+ *
+ * Con RunIdIncrementer cada arranque crea una instancia nueva y un job que
+ * fallo vuelve a empezar desde cero. Aqui, si la ultima ejecucion quedo en
+ * FAILED o STOPPED se devuelven sus mismos parametros: Spring Batch reinicia
+ * esa instancia y cada step continua desde el ExecutionContext guardado
+ * (offset del archivo, ultimo id leido, etc.). En cualquier otro caso se
+ * incrementa run.id como siempre.
+ *
+ * Una ejecucion que quedo en STARTED (la JVM murio) no se reinicia sola:
+ * hay que marcarla como FAILED en BATCH_JOB_EXECUTION primero.
+ */
+public class ReanudarSiFallaIncrementer implements JobParametersIncrementer {
+    private static final Logger log = LoggerFactory.getLogger(ReanudarSiFallaIncrementer.class);
+
+    private final JobExplorer jobExplorer;
+    private final String nombreJob;
+    private final JobParametersIncrementer siguiente = new RunIdIncrementer();
+
+    public ReanudarSiFallaIncrementer(JobExplorer jobExplorer, String nombreJob) {
+        this.jobExplorer = jobExplorer;
+        this.nombreJob = nombreJob;
+    }
+
+    @Override
+    public JobParameters getNext(JobParameters parametros) {
+        JobInstance ultima = jobExplorer.getLastJobInstance(nombreJob);
+        if (ultima != null) {
+            JobExecution ejecucion = jobExplorer.getLastJobExecution(ultima);
+            if (ejecucion != null && debeReanudarse(ejecucion.getStatus())) {
+                log.info("{}: la ejecucion {} termino en {}, se reanuda la instancia {}",
+                        nombreJob, ejecucion.getId(), ejecucion.getStatus(), ultima.getInstanceId());
+                return new JobParameters(ejecucion.getJobParameters().getIdentifyingParameters());
+            }
+        }
+        return siguiente.getNext(parametros);
+    }
+
+    private static boolean debeReanudarse(BatchStatus estado) {
+        return estado == BatchStatus.FAILED || estado == BatchStatus.STOPPED;
+    }
+}
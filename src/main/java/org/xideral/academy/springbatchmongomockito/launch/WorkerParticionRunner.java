@@ -0,0 +1,41 @@
+package org.xideral.academy.springbatchmongomockito.launch;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.integration.partition.StepExecutionRequest;
+import org.springframework.batch.integration.partition.StepExecutionRequestHandler;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+
+/**
+ * Lado worker de ProcesosPartitionHandler: corre una sola particion y
+ * termina.
+ *
+ * La aplicacion se arranca con el job deshabilitado y con los ids que
+ * arma ComandoWorker. StepExecutionRequestHandler busca el StepExecution
+ * en el job repository, ejecuta el paso worker con ese contexto (asi un
+ * reinicio sigue desde el ultimo chunk confirmado) y guarda el estado
+ * final, que es lo que lee el manager.
+ */
+public class WorkerParticionRunner implements ApplicationRunner {
+    private static final Logger log = LoggerFactory.getLogger(WorkerParticionRunner.class);
+
+    private final StepExecutionRequestHandler handler;
+    private final String paso;
+    private final long jobExecutionId;
+    private final long stepExecutionId;
+
+    public WorkerParticionRunner(StepExecutionRequestHandler handler, String paso, long jobExecutionId, long stepExecutionId) {
+        this.handler = handler;
+        this.paso = paso;
+        this.jobExecutionId = jobExecutionId;
+        this.stepExecutionId = stepExecutionId;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        StepExecution resultado = handler.handle(new StepExecutionRequest(paso, jobExecutionId, stepExecutionId));
+        log.info("Worker {}: {} terminada con {}", paso, resultado.getStepName(), resultado.getStatus());
+    }
+}
@@ -0,0 +1,27 @@
+package org.xideral.academy.springbatchmongomockito.listener;
+
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobExecutionListener;
+import org.xideral.academy.springbatchmongomockito.repository.HeroeReporteRepositoryMongo;
+
+/**
+ * Antes de cada job crea (o confirma) los indices de "reportes" y revisa
+ * con explain que las consultas los usen.
+ *
+ * Se hace aqui y no al crear el bean del repositorio para que arrancar el
+ * contexto no dependa de MongoDB: los procesos worker solo corren su
+ * particion (no un job) y los contextos que solo usan MySQL nunca hablan
+ * con Mongo. ensureIndex no hace nada si el indice ya existe.
+ */
+public class AsegurarIndicesReportesListener implements JobExecutionListener {
+    private final HeroeReporteRepositoryMongo repositorio;
+
+    public AsegurarIndicesReportesListener(HeroeReporteRepositoryMongo repositorio) {
+        this.repositorio = repositorio;
+    }
+
+    @Override
+    public void beforeJob(JobExecution jobExecution) {
+        repositorio.asegurarIndices();
+    }
+}
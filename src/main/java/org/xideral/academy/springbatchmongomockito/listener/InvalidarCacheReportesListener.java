@@ -0,0 +1,30 @@
+package org.xideral.academy.springbatchmongomockito.listener;
+
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobExecutionListener;
+import org.springframework.beans.factory.ObjectProvider;
+import org.xideral.academy.springbatchmongomockito.repository.HeroeReporteRepository;
+import org.xideral.academy.springbatchmongomockito.repository.HeroeReporteRepositoryConCache;
+
+/**
+ * Al terminar un job (bien o mal) vacia la cache de reportes.
+ *
+ * Los writers del batch escriben directo en la coleccion "reportes", asi
+ * que tanto el listado como los reportes por id pueden haber cambiado.
+ * Si la cache esta deshabilitada (o no hay repositorio) no hace nada.
+ */
+public class InvalidarCacheReportesListener implements JobExecutionListener {
+    private final ObjectProvider<HeroeReporteRepository> repositorios;
+
+    public InvalidarCacheReportesListener(ObjectProvider<HeroeReporteRepository> repositorios) {
+        this.repositorios = repositorios;
+    }
+
+    @Override
+    public void afterJob(JobExecution jobExecution) {
+        repositorios.stream()
+                .filter(HeroeReporteRepositoryConCache.class::isInstance)
+                .map(HeroeReporteRepositoryConCache.class::cast)
+                .forEach(HeroeReporteRepositoryConCache::invalidarTodo);
+    }
+}
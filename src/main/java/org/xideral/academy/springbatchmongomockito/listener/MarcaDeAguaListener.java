@@ -0,0 +1,121 @@
+package org.xideral.academy.springbatchmongomockito.listener;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.ExitStatus;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobInstance;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.StepExecutionListener;
+import org.springframework.batch.core.explore.JobExplorer;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Fija la ventana de cambios (actualizado_en) que exporta el paso2 incremental.
+ *
+ * En beforeStep deja en el ExecutionContext del paso:
+ *  - "marcaDesde": la marca de agua de la ultima ejecucion que completo el
+ *    paso (se busca en el ExecutionContext de los jobs anteriores) menos un
+ *    margen, o el inicio de los tiempos si no hay ninguna o si el job se
+ *    lanzo con reconstruir=true.
+ *  - "marcaHasta": la hora actual de la base de datos. Las filas que cambien
+ *    mientras el paso corre quedan para la siguiente ejecucion.
+ * En un reinicio ambas ya estan en el contexto y se respetan.
+ *
+ * El margen existe porque actualizado_en toma la hora de la sentencia, no la
+ * del commit: una fila marcada antes de "marcaHasta" cuyo commit llega
+ * despues de que el paso leyo la ventana no la ve esta ejecucion. Como la
+ * siguiente ventana vuelve a cubrir el ultimo "margen" de la anterior, esa
+ * fila se exporta entonces, siempre que el commit tarde menos que el margen.
+ * Las filas del traslape se exportan dos veces; el upsert por nombre lo
+ * hace inofensivo.
+ *
+ * Si el paso termina bien, "marcaHasta" se guarda como marca de agua en el
+ * ExecutionContext del job.
+ */
+public class MarcaDeAguaListener implements StepExecutionListener {
+    private static final Logger log = LoggerFactory.getLogger(MarcaDeAguaListener.class);
+
+    public static final String DESDE = "marcaDesde";
+    public static final String HASTA = "marcaHasta";
+    public static final String MARCA_JOB = "heroes.paso2.marcaAgua";
+    public static final String RECONSTRUIR = "reconstruir";
+
+    // Anterior a cualquier TIMESTAMP valido de MySQL
+    static final String SIN_MARCA = "1970-01-01 00:00:00.0";
+    // Cuantas instancias anteriores se revisan buscando la ultima marca
+    private static final int INSTANCIAS_A_REVISAR = 100;
+
+    private final JobExplorer jobExplorer;
+    private final JdbcTemplate jdbcTemplate;
+    private final Duration margen;
+
+    public MarcaDeAguaListener(JobExplorer jobExplorer, DataSource dataSource, Duration margen) {
+        if (margen.isNegative()) {
+            throw new IllegalArgumentException("El margen no puede ser negativo: " + margen);
+        }
+        this.jobExplorer = jobExplorer;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.margen = margen;
+    }
+
+    @Override
+    public void beforeStep(StepExecution stepExecution) {
+        ExecutionContext contexto = stepExecution.getExecutionContext();
+        if (contexto.containsKey(HASTA)) {
+            log.info("{}: reinicio, se conserva la ventana ({}, {}]", stepExecution.getStepName(),
+                    contexto.getString(DESDE), contexto.getString(HASTA));
+            return;
+        }
+        boolean reconstruir = Boolean.parseBoolean(stepExecution.getJobParameters().getString(RECONSTRUIR));
+        String desde = reconstruir ? null : marcaAnterior(stepExecution.getJobExecution());
+        String hasta = jdbcTemplate.queryForObject("SELECT CURRENT_TIMESTAMP(6)", Timestamp.class).toString();
+        contexto.putString(DESDE, desde == null ? SIN_MARCA : conMargen(desde));
+        contexto.putString(HASTA, hasta);
+        log.info("{}: exporta cambios en ({}, {}]{}", stepExecution.getStepName(), contexto.getString(DESDE), hasta,
+                reconstruir ? " (reconstruccion completa)" : desde == null ? " (sin marca previa)" : "");
+    }
+
+    @Override
+    public ExitStatus afterStep(StepExecution stepExecution) {
+        if (stepExecution.getStatus() == BatchStatus.COMPLETED) {
+            stepExecution.getJobExecution().getExecutionContext()
+                    .putString(MARCA_JOB, stepExecution.getExecutionContext().getString(HASTA));
+        }
+        return null;
+    }
+
+    // La ventana empieza "margen" antes de la marca anterior (nunca antes de SIN_MARCA)
+    private String conMargen(String marca) {
+        LocalDateTime desde = Timestamp.valueOf(marca).toLocalDateTime().minus(margen);
+        LocalDateTime minimo = Timestamp.valueOf(SIN_MARCA).toLocalDateTime();
+        return Timestamp.valueOf(desde.isBefore(minimo) ? minimo : desde).toString();
+    }
+
+    // Marca de la ejecucion mas reciente de este job que la haya dejado
+    private String marcaAnterior(JobExecution actual) {
+        String nombreJob = actual.getJobInstance().getJobName();
+        List<JobInstance> instancias = jobExplorer.getJobInstances(nombreJob, 0, INSTANCIAS_A_REVISAR);
+        for (JobInstance instancia : instancias) {
+            String marca = jobExplorer.getJobExecutions(instancia).stream()
+                    .filter(ejecucion -> !ejecucion.getId().equals(actual.getId()))
+                    .filter(ejecucion -> ejecucion.getExecutionContext().containsKey(MARCA_JOB))
+                    .max(Comparator.comparing(JobExecution::getId))
+                    .map(ejecucion -> ejecucion.getExecutionContext().getString(MARCA_JOB))
+                    .orElse(null);
+            if (marca != null) {
+                return marca;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,157 @@
+package org.xideral.academy.springbatchmongomockito.listener;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.batch.core.ChunkListener;
+import org.springframework.batch.core.ExitStatus;
+import org.springframework.batch.core.ItemWriteListener;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.StepExecutionListener;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.batch.item.Chunk;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Publica en Micrometer lo que Spring Batch no mide por si solo.
+ *
+ * Spring Batch ya registra "spring.batch.item.read", "spring.batch.item.process"
+ * y "spring.batch.chunk.write". Este listener agrega, con la etiqueta "paso":
+ *  - heroes.chunk.duracion: de beforeChunk a afterChunk (incluye el commit)
+ *  - heroes.chunk.commit:   del fin de la escritura al commit
+ *  - heroes.chunk.rollbacks
+ *  - heroes.items.escritos: su tasa es el throughput (items/seg)
+ *  - heroes.items.omitidos: por fase (lectura, proceso, escritura)
+ * Al terminar el paso deja una sola linea de resumen en el log.
+ *
+ * Es un singleton compartido por todas las particiones: el estado de cada
+ * chunk vive en el ChunkContext y el fin de escritura en un ThreadLocal
+ * (cada StepExecution corre su chunk en un solo hilo).
+ */
+public class MetricasPasoListener implements StepExecutionListener, ChunkListener, ItemWriteListener<Object> {
+    private static final Logger log = LoggerFactory.getLogger(MetricasPasoListener.class);
+
+    static final String INICIO_CHUNK = "heroes.metricas.inicio";
+    static final String ESCRITOS_ANTES = "heroes.metricas.escritos";
+
+    private final MeterRegistry registry;
+    private final LongSupplier reloj;
+    private final ThreadLocal<Long> finEscritura = new ThreadLocal<>();
+
+    public MetricasPasoListener(MeterRegistry registry) {
+        this(registry, System::nanoTime);
+    }
+
+    MetricasPasoListener(MeterRegistry registry, LongSupplier reloj) {
+        this.registry = registry;
+        this.reloj = reloj;
+    }
+
+    // =====================================================================
+    //  ChunkListener: duracion, commit y throughput de cada chunk
+    // =====================================================================
+
+    @Override
+    public void beforeChunk(ChunkContext context) {
+        finEscritura.remove();
+        context.setAttribute(INICIO_CHUNK, reloj.getAsLong());
+        context.setAttribute(ESCRITOS_ANTES, stepExecution(context).getWriteCount());
+    }
+
+    @Override
+    public void afterWrite(Chunk<?> items) {
+        finEscritura.set(reloj.getAsLong());
+    }
+
+    @Override
+    public void afterChunk(ChunkContext context) {
+        long ahora = reloj.getAsLong();
+        String paso = nombrePaso(stepExecution(context));
+        Long inicio = (Long) context.getAttribute(INICIO_CHUNK);
+        if (inicio != null) {
+            timer("heroes.chunk.duracion", "Duracion del chunk incluyendo el commit", paso)
+                    .record(ahora - inicio, TimeUnit.NANOSECONDS);
+        }
+        Long escrito = finEscritura.get();
+        if (escrito != null) {
+            timer("heroes.chunk.commit", "Tiempo del fin de la escritura al commit", paso)
+                    .record(ahora - escrito, TimeUnit.NANOSECONDS);
+            finEscritura.remove();
+        }
+        Long antes = (Long) context.getAttribute(ESCRITOS_ANTES);
+        long escritos = stepExecution(context).getWriteCount() - (antes == null ? 0 : antes);
+        Counter.builder("heroes.items.escritos")
+                .description("Items escritos; su tasa es el throughput del paso")
+                .tag("paso", paso)
+                .register(registry)
+                .increment(escritos);
+    }
+
+    @Override
+    public void afterChunkError(ChunkContext context) {
+        finEscritura.remove();
+        Counter.builder("heroes.chunk.rollbacks")
+                .description("Chunks que terminaron en rollback")
+                .tag("paso", nombrePaso(stepExecution(context)))
+                .register(registry)
+                .increment();
+    }
+
+    // =====================================================================
+    //  StepExecutionListener: omitidos y resumen del paso
+    // =====================================================================
+
+    @Override
+    public ExitStatus afterStep(StepExecution stepExecution) {
+        String paso = nombrePaso(stepExecution);
+        omitidos(paso, "lectura", stepExecution.getReadSkipCount());
+        omitidos(paso, "proceso", stepExecution.getProcessSkipCount());
+        omitidos(paso, "escritura", stepExecution.getWriteSkipCount());
+
+        long milisegundos = stepExecution.getStartTime() == null ? 0
+                : Duration.between(stepExecution.getStartTime(), LocalDateTime.now()).toMillis();
+        long porSegundo = milisegundos == 0 ? 0 : stepExecution.getWriteCount() * 1000 / milisegundos;
+        log.info("{}: leidos={}, escritos={}, omitidos={}, rollbacks={}, {} ms ({} items/seg)",
+                stepExecution.getStepName(), stepExecution.getReadCount(), stepExecution.getWriteCount(),
+                stepExecution.getSkipCount(), stepExecution.getRollbackCount(), milisegundos, porSegundo);
+        return null;
+    }
+
+    // =====================================================================
+    //  Metodos auxiliares
+    // =====================================================================
+
+    private void omitidos(String paso, String fase, long cantidad) {
+        Counter.builder("heroes.items.omitidos")
+                .description("Items omitidos por fase")
+                .tag("paso", paso)
+                .tag("fase", fase)
+                .register(registry)
+                .increment(cantidad);
+    }
+
+    private Timer timer(String nombre, String descripcion, String paso) {
+        return Timer.builder(nombre)
+                .description(descripcion)
+                .tag("paso", paso)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    private static StepExecution stepExecution(ChunkContext context) {
+        return context.getStepContext().getStepExecution();
+    }
+
+    // "paso1Worker:particion3" -> "paso1Worker": una serie por paso, no por particion
+    static String nombrePaso(StepExecution stepExecution) {
+        String nombre = stepExecution.getStepName();
+        int separador = nombre.indexOf(':');
+        return separador < 0 ? nombre : nombre.substring(0, separador);
+    }
+}
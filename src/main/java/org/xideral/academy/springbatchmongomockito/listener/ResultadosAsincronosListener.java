@@ -0,0 +1,105 @@
+package org.xideral.academy.springbatchmongomockito.listener;
+
+import org.springframework.batch.core.ChunkListener;
+import org.springframework.batch.core.ExitStatus;
+import org.springframework.batch.core.ItemWriteListener;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.StepExecutionListener;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.batch.item.Chunk;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+/**
+ * Adapta un listener de items normales a un paso con
+ * AsyncItemProcessor/AsyncItemWriter, donde el chunk que llega al writer
+ * (y a sus listeners) es de Future.
+ *
+ * Resuelve cada Future y le pasa al listener original solo los resultados,
+ * igual que AsyncItemWriter se los pasa a su delegate: los filtrados (null)
+ * y los que fallaron no se incluyen. En afterWrite todos ya terminaron, asi
+ * que no bloquea.
+ *
+ * Si el listener tambien es StepExecutionListener o ChunkListener hay que
+ * registrarlo solo a traves de este adaptador: SimpleStepBuilder registra
+ * esos listeners tambien como ItemWriteListener y le llegarian los Future.
+ */
+public class ResultadosAsincronosListener<T> implements ItemWriteListener<Future<T>>, ChunkListener,
+        StepExecutionListener {
+    private final ItemWriteListener<T> delegate;
+
+    public ResultadosAsincronosListener(ItemWriteListener<T> delegate) {
+        this.delegate = delegate;
+    }
+
+    // ---------- escritura: Future -> resultados ----------
+
+    @Override
+    public void beforeWrite(Chunk<? extends Future<T>> items) {
+        delegate.beforeWrite(resultados(items));
+    }
+
+    @Override
+    public void afterWrite(Chunk<? extends Future<T>> items) {
+        delegate.afterWrite(resultados(items));
+    }
+
+    @Override
+    public void onWriteError(Exception exception, Chunk<? extends Future<T>> items) {
+        delegate.onWriteError(exception, resultados(items));
+    }
+
+    // ---------- paso y chunk: se pasan tal cual ----------
+
+    @Override
+    public void beforeStep(StepExecution stepExecution) {
+        if (delegate instanceof StepExecutionListener paso) {
+            paso.beforeStep(stepExecution);
+        }
+    }
+
+    @Override
+    public ExitStatus afterStep(StepExecution stepExecution) {
+        return delegate instanceof StepExecutionListener paso ? paso.afterStep(stepExecution) : null;
+    }
+
+    @Override
+    public void beforeChunk(ChunkContext context) {
+        if (delegate instanceof ChunkListener chunk) {
+            chunk.beforeChunk(context);
+        }
+    }
+
+    @Override
+    public void afterChunk(ChunkContext context) {
+        if (delegate instanceof ChunkListener chunk) {
+            chunk.afterChunk(context);
+        }
+    }
+
+    @Override
+    public void afterChunkError(ChunkContext context) {
+        if (delegate instanceof ChunkListener chunk) {
+            chunk.afterChunkError(context);
+        }
+    }
+
+    private Chunk<T> resultados(Chunk<? extends Future<T>> futuros) {
+        Chunk<T> resultados = new Chunk<>();
+        for (Future<T> futuro : futuros) {
+            try {
+                T resultado = futuro.get();
+                if (resultado != null) {
+                    resultados.add(resultado);
+                }
+            } catch (ExecutionException e) {
+                // Ese item no llego al writer; el paso ya maneja su error
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        return resultados;
+    }
+}
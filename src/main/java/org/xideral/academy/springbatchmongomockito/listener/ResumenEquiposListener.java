@@ -0,0 +1,223 @@
+package org.xideral.academy.springbatchmongomockito.listener;
+
+import com.mongodb.MongoException;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.ChunkListener;
+import org.springframework.batch.core.ExitStatus;
+import org.springframework.batch.core.ItemWriteListener;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.StepExecutionListener;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.batch.item.Chunk;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.ItemStream;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndReplaceOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.xideral.academy.springbatchmongomockito.model.HeroeReporte;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+/**
+ * Calcula por equipo cantidad, suma, promedio y maximo de poderTotal mientras
+ * corre el paso2, y al terminar el paso los escribe en "team_summaries" (un
+ * documento por equipo, _id = equipo). Asi nadie tiene que recorrer
+ * "reportes" para obtenerlos.
+ *
+ * Cada chunk escrito se acumula aparte y se pasa al total en afterChunk (ya
+ * confirmado); si el chunk hace rollback se descarta. update() guarda en el
+ * ExecutionContext el total mas el chunk en curso, porque se llama dentro de
+ * la misma transaccion que confirma ese chunk. En un reinicio, open()
+ * recupera los acumulados y el paso sigue desde ahi. Cada equipo es una
+ * entrada propia del ExecutionContext (la clave lleva el nombre tal cual,
+ * el serializador se encarga de escaparlo) y los heroes sin equipo van en
+ * una clave aparte, asi que ningun nombre puede romper el checkpoint.
+ *
+ * Si falla la escritura de team_summaries, el paso termina FAILED (con la
+ * excepcion en el ExitStatus) aunque todos los chunks se hayan confirmado;
+ * al reiniciarlo no hay nada que leer y solo se vuelve a escribir el
+ * resumen con los acumulados guardados.
+ *
+ * Solo tiene sentido en un paso que exporta la tabla completa (paso2
+ * simple o asincrono, y el staging binario): en el incremental los
+ * acumulados serian solo de los cambios, y en el particionado cada
+ * particion veria solo su rango de ids.
+ */
+public class ResumenEquiposListener implements ItemWriteListener<HeroeReporte>, ChunkListener,
+        StepExecutionListener, ItemStream {
+    private static final Logger log = LoggerFactory.getLogger(ResumenEquiposListener.class);
+
+    static final String ACUMULADOS = "heroes.resumenEquipos.equipo.";
+    static final String SIN_EQUIPO = "heroes.resumenEquipos.sinEquipo";
+
+    private final MongoTemplate mongoTemplate;
+    private final String coleccion;
+    private final Map<String, Acumulador> total = new HashMap<>();
+    private final Map<String, Acumulador> chunkEnCurso = new HashMap<>();
+
+    public ResumenEquiposListener(MongoTemplate mongoTemplate, String coleccion) {
+        this.mongoTemplate = mongoTemplate;
+        this.coleccion = coleccion;
+    }
+
+    // ---------- acumulacion por chunk ----------
+
+    @Override
+    public void afterWrite(Chunk<? extends HeroeReporte> items) {
+        for (HeroeReporte reporte : items) {
+            chunkEnCurso.computeIfAbsent(reporte.getEquipo(), equipo -> new Acumulador()).agregar(reporte.getPoderTotal());
+        }
+    }
+
+    @Override
+    public void afterChunk(ChunkContext context) {
+        combinar(total, chunkEnCurso);
+        chunkEnCurso.clear();
+    }
+
+    @Override
+    public void afterChunkError(ChunkContext context) {
+        chunkEnCurso.clear();
+    }
+
+    // ---------- checkpoint en el ExecutionContext ----------
+
+    @Override
+    public void open(ExecutionContext executionContext) {
+        total.clear();
+        chunkEnCurso.clear();
+        total.putAll(leer(executionContext));
+        if (!total.isEmpty()) {
+            log.info("resumen de equipos: reinicio con {} equipos acumulados", total.size());
+        }
+    }
+
+    @Override
+    public void update(ExecutionContext executionContext) {
+        Map<String, Acumulador> confirmado = new HashMap<>();
+        combinar(confirmado, total);
+        combinar(confirmado, chunkEnCurso);
+        escribir(confirmado, executionContext);
+    }
+
+    // ---------- escritura de team_summaries ----------
+
+    @Override
+    public ExitStatus afterStep(StepExecution stepExecution) {
+        if (!ExitStatus.COMPLETED.getExitCode().equals(stepExecution.getExitStatus().getExitCode())) {
+            return null;
+        }
+        try {
+            escribirResumen();
+        } catch (DataAccessException | MongoException e) {
+            // Una excepcion en afterStep solo se registraria en el log y el paso
+            // quedaria COMPLETED; se marca FAILED para que el job lo refleje
+            log.error("resumen de equipos: no se pudo escribir {}", coleccion, e);
+            stepExecution.setStatus(BatchStatus.FAILED);
+            stepExecution.addFailureException(e);
+            return ExitStatus.FAILED.addExitDescription(e);
+        }
+        return null;
+    }
+
+    private void escribirResumen() {
+        Date ahora = new Date();
+        if (!total.isEmpty()) {
+            BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, coleccion);
+            total.forEach((equipo, acumulador) -> bulk.replaceOne(query(where("_id").is(equipo)),
+                    acumulador.documento(equipo, ahora), FindAndReplaceOptions.options().upsert()));
+            bulk.execute();
+        }
+        // Equipos que ya no tienen heroes
+        mongoTemplate.remove(query(where("_id").nin(total.keySet())), coleccion);
+        log.info("resumen de equipos: {} equipos escritos en {}", total.size(), coleccion);
+    }
+
+    private static void combinar(Map<String, Acumulador> destino, Map<String, Acumulador> origen) {
+        origen.forEach((equipo, acumulador) -> destino.computeIfAbsent(equipo, e -> new Acumulador()).combinar(acumulador));
+    }
+
+    // Una entrada por equipo con "cantidad \t suma \t maximo": solo numeros en
+    // el valor, texto para no depender del serializador del ExecutionContext
+    static void escribir(Map<String, Acumulador> acumulados, ExecutionContext executionContext) {
+        // Un equipo que solo estaba en un chunk con rollback no debe quedar guardado
+        for (String clave : claves(executionContext)) {
+            if (!acumulados.containsKey(equipo(clave))) {
+                executionContext.remove(clave);
+            }
+        }
+        acumulados.forEach((equipo, acumulador) -> executionContext.putString(clave(equipo),
+                acumulador.cantidad + "\t" + acumulador.suma + "\t" + acumulador.maximo));
+    }
+
+    static Map<String, Acumulador> leer(ExecutionContext executionContext) {
+        Map<String, Acumulador> acumulados = new HashMap<>();
+        for (String clave : claves(executionContext)) {
+            String[] partes = executionContext.getString(clave).split("\t");
+            Acumulador acumulador = new Acumulador();
+            acumulador.cantidad = Long.parseLong(partes[0]);
+            acumulador.suma = Double.parseDouble(partes[1]);
+            acumulador.maximo = Double.parseDouble(partes[2]);
+            acumulados.put(equipo(clave), acumulador);
+        }
+        return acumulados;
+    }
+
+    private static List<String> claves(ExecutionContext executionContext) {
+        List<String> claves = new ArrayList<>();
+        for (Map.Entry<String, Object> entrada : executionContext.entrySet()) {
+            if (entrada.getKey().startsWith(ACUMULADOS) || entrada.getKey().equals(SIN_EQUIPO)) {
+                claves.add(entrada.getKey());
+            }
+        }
+        return claves;
+    }
+
+    private static String clave(String equipo) {
+        return equipo == null ? SIN_EQUIPO : ACUMULADOS + equipo;
+    }
+
+    private static String equipo(String clave) {
+        return clave.equals(SIN_EQUIPO) ? null : clave.substring(ACUMULADOS.length());
+    }
+
+    // Acumuladores primitivos: sin un objeto por heroe
+    static final class Acumulador {
+        long cantidad;
+        double suma;
+        double maximo = Double.NEGATIVE_INFINITY;
+
+        void agregar(double poderTotal) {
+            cantidad++;
+            suma += poderTotal;
+            maximo = Math.max(maximo, poderTotal);
+        }
+
+        void combinar(Acumulador otro) {
+            cantidad += otro.cantidad;
+            suma += otro.suma;
+            maximo = Math.max(maximo, otro.maximo);
+        }
+
+        Document documento(String equipo, Date actualizadoEn) {
+            return new Document("_id", equipo)
+                    .append("equipo", equipo)
+                    .append("cantidad", cantidad)
+                    .append("sumaPoderTotal", suma)
+                    .append("promedioPoderTotal", suma / cantidad)
+                    .append("maximoPoderTotal", maximo)
+                    .append("actualizadoEn", actualizadoEn);
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package org.xideral.academy.springbatchmongomockito.model;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Diccionario de nombres de equipo: una sola instancia de String por equipo.
+ *
+ * Hay pocos equipos pero millones de heroes, y cada reader creaba su propia
+ * copia del nombre por fila. Los readers del CSV, el RowMapper de paso2 y
+ * ReporteProcessor pasan el equipo por aqui, asi todos los Heroe y
+ * HeroeReporte comparten el mismo String. El reader mmap busca directamente
+ * con los bytes de la linea, sin crear el String si el equipo ya existe.
+ *
+ * Si aparecen mas de MAXIMO_EQUIPOS nombres distintos el dato no es de
+ * pocos valores: los nuevos se devuelven tal cual y el diccionario no crece.
+ */
+public final class DiccionarioEquipos {
+    static final int MAXIMO_EQUIPOS = 1024;
+
+    private static final DiccionarioEquipos COMPARTIDO = new DiccionarioEquipos();
+
+    private final Map<String, String> porNombre = new ConcurrentHashMap<>();
+    // Copia al escribir: las busquedas por bytes recorren el arreglo sin candados
+    private volatile Entrada[] entradas = new Entrada[0];
+
+    // El que usan los readers y processors del batch
+    public static DiccionarioEquipos compartido() {
+        return COMPARTIDO;
+    }
+
+    public String canonico(String equipo) {
+        if (equipo == null) {
+            return null;
+        }
+        String existente = porNombre.get(equipo);
+        return existente != null ? existente : registrar(equipo);
+    }
+
+    // Mismo resultado que canonico(new String(bytes, desde, longitud, UTF_8))
+    public String canonico(byte[] bytes, int desde, int longitud) {
+        for (Entrada entrada : entradas) {
+            if (entrada.bytes.length == longitud
+                    && Arrays.equals(entrada.bytes, 0, longitud, bytes, desde, desde + longitud)) {
+                return entrada.nombre;
+            }
+        }
+        return canonico(new String(bytes, desde, longitud, StandardCharsets.UTF_8));
+    }
+
+    public int tamano() {
+        return porNombre.size();
+    }
+
+    private synchronized String registrar(String equipo) {
+        String existente = porNombre.get(equipo);
+        if (existente != null) {
+            return existente;
+        }
+        if (porNombre.size() >= MAXIMO_EQUIPOS) {
+            return equipo;
+        }
+        Entrada[] nuevas = Arrays.copyOf(entradas, entradas.length + 1);
+        nuevas[entradas.length] = new Entrada(equipo.getBytes(StandardCharsets.UTF_8), equipo);
+        porNombre.put(equipo, equipo);
+        entradas = nuevas;
+        return equipo;
+    }
+
+    private record Entrada(byte[] bytes, String nombre) {
+    }
+}
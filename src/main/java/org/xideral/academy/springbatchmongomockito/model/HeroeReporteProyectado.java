@@ -0,0 +1,8 @@
+package org.xideral.academy.springbatchmongomockito.model;
+
+// Reporte con solo algunos campos, como lo regresa findPageProyectada.
+// Los campos que no se pidieron quedan en null (por eso los numeros son
+// Double y no double): asi no se confunde "no se cargo" con un poder de 0.0.
+public record HeroeReporteProyectado(String id, String nombre, String equipo,
+                                     Double poder, Double mejoraPoder, Double poderTotal) {
+}
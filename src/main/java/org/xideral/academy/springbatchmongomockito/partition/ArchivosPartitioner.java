@@ -0,0 +1,79 @@
+package org.xideral.academy.springbatchmongomockito.partition;
+
+import org.springframework.batch.core.partition.support.MultiResourcePartitioner;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.ItemStreamException;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.ResourcePatternResolver;
+import org.springframework.util.ResourceUtils;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Una particion por archivo CSV de la entrada (un directorio o un patron).
+ *
+ * Cada particion recibe en "fileName" la URL de su archivo, igual que con
+ * MultiResourcePartitioner, pero se llama como el archivo en lugar de
+ * "partition0", "partition1"... El nombre de la particion es el del
+ * StepExecution del worker, asi que con el nombre del archivo el estado
+ * queda por archivo: al reiniciar el job se saltan los archivos que ya
+ * terminaron aunque haya llegado uno nuevo que cambie el orden.
+ */
+public class ArchivosPartitioner extends MultiResourcePartitioner {
+    public static final String ARCHIVO = "fileName";
+
+    private final Resource[] archivos;
+
+    public ArchivosPartitioner(Resource[] archivos) {
+        this.archivos = archivos;
+        setResources(archivos);
+        setKeyName(ARCHIVO);
+    }
+
+    /**
+     * Resuelve la entrada: un directorio (se toman sus *.csv y *.csv.gz) o un patron
+     * como /datos/heroes-*.csv o classpath:heroes.csv. Sin prefijo se
+     * entiende como ruta del sistema de archivos.
+     */
+    public static ArchivosPartitioner de(ResourcePatternResolver resolver, String entrada) {
+        String patron = ResourceUtils.isUrl(entrada) || entrada.startsWith(ResourcePatternResolver.CLASSPATH_ALL_URL_PREFIX)
+                ? entrada : ResourceUtils.FILE_URL_PREFIX + entrada;
+        try {
+            Resource unico = resolver.getResource(patron);
+            Resource[] archivos;
+            if (!tieneComodines(patron) && unico.exists() && unico.isFile() && unico.getFile().isDirectory()) {
+                String directorio = patron.replaceAll("/+$", "");
+                archivos = Stream.concat(Arrays.stream(resolver.getResources(directorio + "/*.csv")),
+                        Arrays.stream(resolver.getResources(directorio + "/*.csv.gz"))).toArray(Resource[]::new);
+            } else {
+                archivos = resolver.getResources(patron);
+            }
+            Arrays.sort(archivos, Comparator.comparing(Resource::getFilename));
+            return new ArchivosPartitioner(archivos);
+        } catch (IOException e) {
+            throw new ItemStreamException("No se pudo resolver la entrada " + entrada, e);
+        }
+    }
+
+    @Override
+    public Map<String, ExecutionContext> partition(int gridSize) {
+        Map<String, ExecutionContext> porPosicion = super.partition(gridSize);
+        Map<String, ExecutionContext> porArchivo = new LinkedHashMap<>();
+        for (int i = 0; i < archivos.length; i++) {
+            String nombre = archivos[i].getFilename();
+            if (porArchivo.put(nombre, porPosicion.get("partition" + i)) != null) {
+                throw new IllegalStateException("Dos archivos de la entrada se llaman " + nombre);
+            }
+        }
+        return porArchivo;
+    }
+
+    private static boolean tieneComodines(String patron) {
+        return patron.indexOf('*') >= 0 || patron.indexOf('?') >= 0 || patron.indexOf('{') >= 0;
+    }
+}
@@ -0,0 +1,59 @@
+package org.xideral.academy.springbatchmongomockito.partition;
+
+import org.springframework.batch.core.StepExecution;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Linea de comandos con la que ProcesosPartitionHandler arranca el worker
+ * de una particion.
+ *
+ * El worker solo recibe el nombre del paso y los ids de la ejecucion; la
+ * particion (rango, archivo, contexto de reinicio) la lee del job
+ * repository compartido.
+ */
+@FunctionalInterface
+public interface ComandoWorker {
+    String PASO = "heroes.worker.paso";
+    String JOB_EXECUTION = "heroes.worker.job-execution";
+    String STEP_EXECUTION = "heroes.worker.step-execution";
+
+    List<String> comando(String paso, StepExecution particion);
+
+    /**
+     * Vuelve a lanzar esta misma aplicacion con el java y el classpath de la
+     * JVM actual (o con -jar si se arranco desde el jar de Spring Boot).
+     * "argumentos" son las opciones de Spring del manager (conexiones,
+     * modos, ...) que el worker necesita para armar los mismos beans.
+     */
+    static ComandoWorker estaAplicacion(Class<?> aplicacion, List<String> opcionesJvm, List<String> argumentos) {
+        String java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+        String classpath = System.getProperty("java.class.path");
+        boolean jarDeBoot = !classpath.contains(File.pathSeparator) && classpath.endsWith(".jar");
+        return (paso, particion) -> {
+            List<String> comando = new ArrayList<>();
+            comando.add(java);
+            comando.addAll(opcionesJvm);
+            if (jarDeBoot) {
+                comando.add("-jar");
+                comando.add(classpath);
+            } else {
+                comando.add("-cp");
+                comando.add(classpath);
+                comando.add(aplicacion.getName());
+            }
+            comando.addAll(argumentos);
+            // El worker no lanza el job ni vuelve a inicializar los esquemas
+            comando.add("--spring.batch.job.enabled=false");
+            comando.add("--spring.batch.jdbc.initialize-schema=never");
+            comando.add("--spring.sql.init.mode=never");
+            comando.add("--" + PASO + "=" + paso);
+            comando.add("--" + JOB_EXECUTION + "=" + particion.getJobExecutionId());
+            comando.add("--" + STEP_EXECUTION + "=" + particion.getId());
+            return comando;
+        };
+    }
+}
@@ -0,0 +1,112 @@
+package org.xideral.academy.springbatchmongomockito.partition;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.ExitStatus;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.explore.JobExplorer;
+import org.springframework.batch.core.partition.support.AbstractPartitionHandler;
+import org.springframework.batch.core.repository.JobRepository;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * PartitionHandler que corre cada particion en su propia JVM.
+ *
+ * El splitter ya guardo en el job repository un StepExecution por
+ * particion; aqui se lanza un proceso worker por cada uno (a lo mas
+ * maximoProcesos a la vez) con los ids de la ejecucion. El worker
+ * (WorkerParticionRunner) lee su StepExecution del repositorio, corre el
+ * paso y guarda el resultado ahi mismo, como cualquier paso.
+ *
+ * Cuando un proceso termina, el resultado se vuelve a leer del
+ * repositorio. Si el worker murio sin cerrar su StepExecution (kill,
+ * OutOfMemoryError, ...) se marca FAILED: las demas particiones siguen, y
+ * al reanudar el job solo se vuelve a correr esa, desde su ultimo chunk
+ * confirmado.
+ */
+public class ProcesosPartitionHandler extends AbstractPartitionHandler {
+    private static final Logger log = LoggerFactory.getLogger(ProcesosPartitionHandler.class);
+
+    private final String paso;
+    private final ComandoWorker comando;
+    private final JobExplorer jobExplorer;
+    private final JobRepository jobRepository;
+    private final int maximoProcesos;
+
+    public ProcesosPartitionHandler(String paso, ComandoWorker comando, JobExplorer jobExplorer,
+                                    JobRepository jobRepository, int maximoProcesos) {
+        if (maximoProcesos < 1) {
+            throw new IllegalArgumentException("maximoProcesos debe ser mayor a cero: " + maximoProcesos);
+        }
+        this.paso = paso;
+        this.comando = comando;
+        this.jobExplorer = jobExplorer;
+        this.jobRepository = jobRepository;
+        this.maximoProcesos = maximoProcesos;
+    }
+
+    @Override
+    protected Set<StepExecution> doHandle(StepExecution managerStepExecution,
+                                          Set<StepExecution> partitionStepExecutions) throws Exception {
+        Deque<StepExecution> pendientes = new ArrayDeque<>(partitionStepExecutions);
+        Map<Process, StepExecution> corriendo = new LinkedHashMap<>();
+        Set<StepExecution> resultados = new HashSet<>();
+        try {
+            while (!pendientes.isEmpty() || !corriendo.isEmpty()) {
+                while (!pendientes.isEmpty() && corriendo.size() < maximoProcesos) {
+                    StepExecution particion = pendientes.poll();
+                    corriendo.put(lanzar(particion), particion);
+                }
+                // get() y no join(): si se interrumpe al manager, el finally mata a los workers
+                CompletableFuture.anyOf(corriendo.keySet().stream()
+                        .map(Process::onExit)
+                        .toArray(CompletableFuture[]::new)).get();
+                Iterator<Map.Entry<Process, StepExecution>> it = corriendo.entrySet().iterator();
+                while (it.hasNext()) {
+                    Map.Entry<Process, StepExecution> entrada = it.next();
+                    if (!entrada.getKey().isAlive()) {
+                        resultados.add(resultado(entrada.getValue(), entrada.getKey().exitValue()));
+                        it.remove();
+                    }
+                }
+            }
+        } finally {
+            corriendo.keySet().forEach(Process::destroy);
+        }
+        return resultados;
+    }
+
+    private Process lanzar(StepExecution particion) throws IOException {
+        log.info("{}: lanzando worker para {}", paso, particion.getStepName());
+        return new ProcessBuilder(comando.comando(paso, particion))
+                .inheritIO() // el log del worker sale junto con el del manager
+                .start();
+    }
+
+    // Lo que el worker dejo en el repositorio; si quedo a medias el worker murio
+    private StepExecution resultado(StepExecution particion, int codigoSalida) {
+        StepExecution guardada = jobExplorer.getStepExecution(particion.getJobExecutionId(), particion.getId());
+        if (!guardada.getStatus().isRunning()) {
+            return guardada;
+        }
+        log.warn("{}: el worker de {} termino con codigo {} sin cerrar la particion", paso,
+                particion.getStepName(), codigoSalida);
+        guardada.setStatus(BatchStatus.FAILED);
+        guardada.setExitStatus(ExitStatus.FAILED.addExitDescription(
+                "El proceso worker termino con codigo " + codigoSalida + " sin terminar la particion"));
+        guardada.setEndTime(LocalDateTime.now());
+        jobRepository.update(guardada);
+        return guardada;
+    }
+}
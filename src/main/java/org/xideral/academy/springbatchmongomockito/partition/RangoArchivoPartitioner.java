@@ -0,0 +1,99 @@
+package org.xideral.academy.springbatchmongomockito.partition;
+
+import org.springframework.batch.core.partition.support.Partitioner;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.ItemStreamException;
+import org.springframework.core.io.Resource;
+import org.xideral.academy.springbatchmongomockito.reader.RecursoComprimido;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Divide el archivo CSV en rangos de bytes para procesarlos en paralelo.
+ *
+ * Cada particion recibe en su ExecutionContext las claves "inicio" y "fin".
+ * Los cortes siempre caen justo despues de un salto de linea, asi que
+ * ninguna linea queda partida entre dos particiones.
+ */
+public class RangoArchivoPartitioner implements Partitioner {
+    public static final String INICIO = "inicio";
+    public static final String FIN = "fin";
+
+    private final Resource recurso;
+    private final int lineasEncabezado;
+
+    public RangoArchivoPartitioner(Resource recurso, int lineasEncabezado) {
+        this.recurso = recurso;
+        this.lineasEncabezado = lineasEncabezado;
+    }
+
+    @Override
+    public Map<String, ExecutionContext> partition(int gridSize) {
+        if (RecursoComprimido.formato(recurso) != RecursoComprimido.Formato.NINGUNO) {
+            throw new IllegalStateException("Un archivo comprimido no se puede cortar en rangos de bytes ("
+                    + recurso.getDescription() + "): usar heroes.paso1.modo=simple o archivos");
+        }
+        // Un recurso del classpath dentro del jar no es un archivo: no hay canal que cortar
+        if (!recurso.isFile()) {
+            throw new IllegalStateException("heroes.paso1.modo=particionado necesita una ruta del sistema de archivos, no "
+                    + recurso.getDescription() + ": usar heroes.entrada=file:... o heroes.paso1.modo=simple");
+        }
+        Map<String, ExecutionContext> particiones = new LinkedHashMap<>();
+        try (FileChannel canal = FileChannel.open(recurso.getFile().toPath(), StandardOpenOption.READ)) {
+            long tamano = canal.size();
+            long inicio = saltarEncabezado(canal);
+            long bloque = Math.max(1, (tamano - inicio) / Math.max(1, gridSize));
+
+            int numero = 0;
+            while (inicio < tamano) {
+                // La ultima particion se queda con el resto del archivo
+                long fin = numero == gridSize - 1 ? tamano : siguienteLinea(canal, inicio + bloque);
+
+                ExecutionContext contexto = new ExecutionContext();
+                contexto.putLong(INICIO, inicio);
+                contexto.putLong(FIN, fin);
+                particiones.put("particion" + numero, contexto);
+
+                inicio = fin;
+                numero++;
+            }
+        } catch (IOException e) {
+            throw new ItemStreamException("No se pudo particionar el archivo " + recurso, e);
+        }
+        return particiones;
+    }
+
+    private long saltarEncabezado(FileChannel canal) throws IOException {
+        long posicion = 0;
+        for (int i = 0; i < lineasEncabezado && posicion < canal.size(); i++) {
+            posicion = siguienteLinea(canal, posicion + 1);
+        }
+        return posicion;
+    }
+
+    // Devuelve la posicion que sigue al primer '\n' ubicado en [desde - 1, fin del archivo)
+    private long siguienteLinea(FileChannel canal, long desde) throws IOException {
+        long tamano = canal.size();
+        ByteBuffer buffer = ByteBuffer.allocate(8 * 1024);
+        long posicion = desde - 1;
+        while (posicion < tamano) {
+            buffer.clear();
+            int leidos = canal.read(buffer, posicion);
+            if (leidos <= 0) {
+                break;
+            }
+            for (int i = 0; i < leidos; i++) {
+                if (buffer.get(i) == '\n') {
+                    return posicion + i + 1;
+                }
+            }
+            posicion += leidos;
+        }
+        return tamano;
+    }
+}
@@ -0,0 +1,50 @@
+package org.xideral.academy.springbatchmongomockito.partition;
+
+import org.springframework.batch.core.partition.support.Partitioner;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Divide heroes_procesados en rangos contiguos de la llave primaria.
+ *
+ * Cada particion recibe "idMinimo" e "idMaximo" (inclusivos). Los rangos se
+ * calculan sobre MIN(id)..MAX(id), asi que con huecos en los ids algunas
+ * particiones pueden traer menos filas que otras.
+ */
+public class RangoIdPartitioner implements Partitioner {
+    public static final String ID_MINIMO = "idMinimo";
+    public static final String ID_MAXIMO = "idMaximo";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String tabla;
+
+    public RangoIdPartitioner(DataSource dataSource, String tabla) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.tabla = tabla;
+    }
+
+    @Override
+    public Map<String, ExecutionContext> partition(int gridSize) {
+        Map<String, ExecutionContext> particiones = new LinkedHashMap<>();
+        Long minimo = jdbcTemplate.queryForObject("SELECT MIN(id) FROM " + tabla, Long.class);
+        Long maximo = jdbcTemplate.queryForObject("SELECT MAX(id) FROM " + tabla, Long.class);
+        if (minimo == null || maximo == null) {
+            return particiones; // tabla vacia
+        }
+
+        long total = maximo - minimo + 1;
+        long bloque = Math.max(1, (total + gridSize - 1) / gridSize);
+        int numero = 0;
+        for (long desde = minimo; desde <= maximo; desde += bloque) {
+            ExecutionContext contexto = new ExecutionContext();
+            contexto.putLong(ID_MINIMO, desde);
+            contexto.putLong(ID_MAXIMO, Math.min(maximo, desde + bloque - 1));
+            particiones.put("particion" + numero++, contexto);
+        }
+        return particiones;
+    }
+}
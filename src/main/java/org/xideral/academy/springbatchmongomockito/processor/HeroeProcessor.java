@@ -14,7 +14,9 @@ public class HeroeProcessor implements ItemProcessor<Heroe, Heroe> {
         heroe.setNombre_hp(heroe.getNombre_hp().toUpperCase());
         heroe.setMejoraPoder_hp(heroe.getPoder_hp() * 0.10);
 
-        log.info("Step 1 - Procesando heroe: " + heroe);
+        // Solo en DEBUG: un log por item domina el costo en corridas grandes.
+        // El throughput y los tiempos se publican como metricas (MetricasPasoListener).
+        log.debug("Step 1 - Procesando heroe: {}", heroe);
         return heroe;
     }
 }
@@ -0,0 +1,48 @@
+package org.xideral.academy.springbatchmongomockito.reader;
+
+import org.springframework.batch.item.file.LineMapper;
+import org.springframework.batch.item.file.mapping.BeanWrapperFieldSetMapper;
+import org.springframework.batch.item.file.mapping.DefaultLineMapper;
+import org.springframework.batch.item.file.mapping.FieldSetMapper;
+import org.springframework.batch.item.file.transform.DelimitedLineTokenizer;
+import org.xideral.academy.springbatchmongomockito.model.DiccionarioEquipos;
+import org.xideral.academy.springbatchmongomockito.model.Heroe;
+
+/**
+ * Formato del archivo CSV de heroes (nombre,equipo,poder).
+ *
+ * Centraliza las columnas y el LineMapper para que todos los readers
+ * del Step 1 interpreten cada linea exactamente igual que leerCSV().
+ */
+public final class HeroeCsv {
+    public static final String[] COLUMNAS = {"nombre_hp", "equipo_hp", "poder_hp"};
+
+    // Lineas de encabezado que se saltan al inicio del archivo
+    public static final int LINEAS_ENCABEZADO = 1;
+
+    private HeroeCsv() {
+    }
+
+    // Tokenizer delimitado + fieldSetMapper(), igual que el reader flatfile de leerCSV()
+    public static LineMapper<Heroe> lineMapper() {
+        DelimitedLineTokenizer tokenizer = new DelimitedLineTokenizer();
+        tokenizer.setNames(COLUMNAS);
+
+        DefaultLineMapper<Heroe> lineMapper = new DefaultLineMapper<>();
+        lineMapper.setLineTokenizer(tokenizer);
+        lineMapper.setFieldSetMapper(fieldSetMapper());
+        return lineMapper;
+    }
+
+    // Mapeo por reflexion a Heroe; el equipo se reemplaza por el del diccionario
+    public static FieldSetMapper<Heroe> fieldSetMapper() {
+        BeanWrapperFieldSetMapper<Heroe> beanWrapper = new BeanWrapperFieldSetMapper<>();
+        beanWrapper.setTargetType(Heroe.class);
+        DiccionarioEquipos equipos = DiccionarioEquipos.compartido();
+        return fieldSet -> {
+            Heroe heroe = beanWrapper.mapFieldSet(fieldSet);
+            heroe.setEquipo_hp(equipos.canonico(heroe.getEquipo_hp()));
+            return heroe;
+        };
+    }
+}
@@ -0,0 +1,293 @@
+package org.xideral.academy.springbatchmongomockito.reader;
+
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.ItemStreamException;
+import org.springframework.batch.item.ItemStreamReader;
+import org.springframework.batch.item.file.FlatFileParseException;
+import org.springframework.batch.item.file.LineMapper;
+import org.springframework.batch.item.util.ExecutionContextUserSupport;
+import org.springframework.core.io.Resource;
+import org.xideral.academy.springbatchmongomockito.model.DiccionarioEquipos;
+import org.xideral.academy.springbatchmongomockito.model.Heroe;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Reader del CSV de heroes que mapea el archivo en memoria (MappedByteBuffer)
+ * y arma cada Heroe directamente desde los bytes.
+ *
+ * Para las lineas normales (nombre,equipo,poder sin comillas) no crea el
+ * String de la linea, ni FieldSet, ni usa reflexion; poder se convierte a
+ * double sin pasar por String. Cualquier linea fuera de ese caso (comillas,
+ * numero de columnas incorrecto, numeros raros) se delega al mismo LineMapper
+ * de leerCSV(), asi los resultados y los errores son identicos. El equipo se
+ * busca en DiccionarioEquipos con los bytes de la linea: si ya existe no se
+ * crea su String.
+ *
+ * Guarda en el ExecutionContext la posicion en bytes de la siguiente linea,
+ * de modo que un reinicio no vuelve a recorrer el archivo desde el inicio.
+ */
+public class HeroeMappedItemReader implements ItemStreamReader<Heroe> {
+    private static final String POSICION = "posicion";
+    private static final String LINEA = "linea";
+
+    // Prefijo de las claves en el ExecutionContext
+    private final ExecutionContextUserSupport claves = new ExecutionContextUserSupport("heroeMappedReader");
+
+    // Tamano maximo de cada ventana mapeada (un mapeo no puede pasar de 2 GB)
+    private static final long VENTANA = 256L * 1024 * 1024;
+
+    // 10^0 .. 10^22 son exactos en double: m / 10^k queda bien redondeado
+    private static final double[] POTENCIAS_DE_10 = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22};
+
+    private final Resource recurso;
+    private final LineMapper<Heroe> lineMapper;
+    private final long inicio;
+    private final long fin;
+    private final int lineasASaltar;
+    private final DiccionarioEquipos equipos = DiccionarioEquipos.compartido();
+
+    private FileChannel canal;
+    private long limite;
+    private MappedByteBuffer ventana;
+    private long inicioVentana;
+    private long posicion;
+    private int numeroLinea;
+    private byte[] linea = new byte[256];
+    private int longitud;
+
+    // Lee el archivo completo saltando las lineas de encabezado
+    public HeroeMappedItemReader(Resource recurso, int lineasEncabezado, LineMapper<Heroe> lineMapper) {
+        this(recurso, 0, Long.MAX_VALUE, lineasEncabezado, lineMapper);
+    }
+
+    // Lee solo el rango [inicio, fin); lo usan las particiones de paso1
+    public HeroeMappedItemReader(Resource recurso, long inicio, long fin, LineMapper<Heroe> lineMapper) {
+        this(recurso, inicio, fin, 0, lineMapper);
+    }
+
+    private HeroeMappedItemReader(Resource recurso, long inicio, long fin, int lineasASaltar, LineMapper<Heroe> lineMapper) {
+        this.recurso = recurso;
+        this.inicio = inicio;
+        this.fin = fin;
+        this.lineasASaltar = lineasASaltar;
+        this.lineMapper = lineMapper;
+    }
+
+    @Override
+    public void open(ExecutionContext executionContext) {
+        try {
+            canal = FileChannel.open(recurso.getFile().toPath(), StandardOpenOption.READ);
+            limite = Math.min(fin, canal.size());
+            ventana = null;
+            String clavePosicion = claves.getKey(POSICION);
+            if (executionContext.containsKey(clavePosicion)) {
+                // Reinicio: seguimos en el byte guardado en el ultimo commit
+                posicion = executionContext.getLong(clavePosicion);
+                numeroLinea = executionContext.getInt(claves.getKey(LINEA));
+            } else {
+                posicion = inicio;
+                numeroLinea = 0;
+                // Saltamos el encabezado; un archivo mas corto simplemente termina antes
+                for (int i = 0; i < lineasASaltar; i++) {
+                    if (!siguienteLinea()) {
+                        break;
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new ItemStreamException("No se pudo abrir " + recurso, e);
+        }
+    }
+
+    @Override
+    public Heroe read() throws Exception {
+        do {
+            if (!siguienteLinea()) {
+                return null;
+            }
+        } while (longitud > 0 && linea[0] == '#'); // comentarios, igual que FlatFileItemReader
+
+        Heroe heroe = parsearRapido();
+        return heroe != null ? heroe : mapearConLineMapper();
+    }
+
+    @Override
+    public void update(ExecutionContext executionContext) {
+        executionContext.putLong(claves.getKey(POSICION), posicion);
+        executionContext.putInt(claves.getKey(LINEA), numeroLinea);
+    }
+
+    @Override
+    public void close() {
+        try {
+            if (canal != null) {
+                canal.close();
+            }
+        } catch (IOException e) {
+            throw new ItemStreamException("No se pudo cerrar " + recurso, e);
+        } finally {
+            canal = null;
+            ventana = null;
+        }
+    }
+
+    // =====================================================================
+    //  Lectura de lineas sobre la ventana mapeada
+    // =====================================================================
+
+    // Copia la siguiente linea (sin \n, \r ni \r\n) a "linea"; false al terminar
+    private boolean siguienteLinea() throws IOException {
+        if (posicion >= limite) {
+            return false;
+        }
+        longitud = 0;
+        while (posicion < limite) {
+            if (ventana == null || posicion >= inicioVentana + ventana.limit()) {
+                mapear(posicion);
+            }
+            byte b = ventana.get((int) (posicion - inicioVentana));
+            posicion++;
+            if (b == '\n') {
+                break;
+            }
+            if (b == '\r') {
+                if (posicion < limite && leerByte(posicion) == '\n') {
+                    posicion++;
+                }
+                break;
+            }
+            if (longitud == linea.length) {
+                linea = Arrays.copyOf(linea, longitud * 2);
+            }
+            linea[longitud++] = b;
+        }
+        numeroLinea++;
+        return true;
+    }
+
+    private byte leerByte(long enPosicion) throws IOException {
+        if (enPosicion >= inicioVentana + ventana.limit()) {
+            mapear(enPosicion);
+        }
+        return ventana.get((int) (enPosicion - inicioVentana));
+    }
+
+    private void mapear(long desde) throws IOException {
+        inicioVentana = desde;
+        ventana = canal.map(FileChannel.MapMode.READ_ONLY, desde, Math.min(VENTANA, limite - desde));
+    }
+
+    // =====================================================================
+    //  Conversion de la linea a Heroe
+    // =====================================================================
+
+    // Caso comun: tres columnas sin comillas y poder decimal simple; null si no aplica
+    private Heroe parsearRapido() {
+        int primeraComa = -1;
+        int segundaComa = -1;
+        for (int i = 0; i < longitud; i++) {
+            byte b = linea[i];
+            if (b == '"') {
+                return null;
+            }
+            if (b == ',') {
+                if (primeraComa < 0) {
+                    primeraComa = i;
+                } else if (segundaComa < 0) {
+                    segundaComa = i;
+                } else {
+                    return null;
+                }
+            }
+        }
+        if (segundaComa < 0) {
+            return null;
+        }
+
+        double poder = parsearPoder(segundaComa + 1, longitud);
+        if (Double.isNaN(poder)) {
+            return null;
+        }
+        Heroe heroe = new Heroe();
+        heroe.setNombre_hp(texto(0, primeraComa));
+        heroe.setEquipo_hp(equipo(primeraComa + 1, segundaComa));
+        heroe.setPoder_hp(poder);
+        return heroe;
+    }
+
+    // [+-]digitos[.digitos] con hasta 15 digitos; NaN si hay que usar el camino lento
+    private double parsearPoder(int desde, int hasta) {
+        while (desde < hasta && (linea[desde] & 0xFF) <= ' ') {
+            desde++;
+        }
+        while (hasta > desde && (linea[hasta - 1] & 0xFF) <= ' ') {
+            hasta--;
+        }
+        boolean negativo = false;
+        if (desde < hasta && (linea[desde] == '-' || linea[desde] == '+')) {
+            negativo = linea[desde] == '-';
+            desde++;
+        }
+        long mantisa = 0;
+        int digitos = 0;
+        int decimales = -1;
+        for (int i = desde; i < hasta; i++) {
+            byte b = linea[i];
+            if (b >= '0' && b <= '9') {
+                mantisa = mantisa * 10 + (b - '0');
+                digitos++;
+                if (decimales >= 0) {
+                    decimales++;
+                }
+            } else if (b == '.' && decimales < 0) {
+                decimales = 0;
+            } else {
+                return Double.NaN;
+            }
+        }
+        if (digitos == 0 || digitos > 15) {
+            return Double.NaN;
+        }
+        double valor = decimales > 0 ? mantisa / POTENCIAS_DE_10[decimales] : mantisa;
+        return negativo ? -valor : valor;
+    }
+
+    // Igual que DefaultFieldSet: el valor se recorta (trim) antes de asignarlo
+    private String texto(int desde, int hasta) {
+        while (desde < hasta && (linea[desde] & 0xFF) <= ' ') {
+            desde++;
+        }
+        while (hasta > desde && (linea[hasta - 1] & 0xFF) <= ' ') {
+            hasta--;
+        }
+        return new String(linea, desde, hasta - desde, StandardCharsets.UTF_8);
+    }
+
+    private String equipo(int desde, int hasta) {
+        while (desde < hasta && (linea[desde] & 0xFF) <= ' ') {
+            desde++;
+        }
+        while (hasta > desde && (linea[hasta - 1] & 0xFF) <= ' ') {
+            hasta--;
+        }
+        return equipos.canonico(linea, desde, hasta - desde);
+    }
+
+    private Heroe mapearConLineMapper() {
+        String texto = new String(linea, 0, longitud, StandardCharsets.UTF_8);
+        try {
+            return lineMapper.mapLine(texto, numeroLinea);
+        } catch (Exception e) {
+            throw new FlatFileParseException("Parsing error at line: " + numeroLinea + " in resource=["
+                    + recurso.getDescription() + "], input=[" + texto + "]", e, texto, numeroLinea);
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package org.xideral.academy.springbatchmongomockito.reader;
+
+import org.springframework.jdbc.core.RowMapper;
+import org.xideral.academy.springbatchmongomockito.model.DiccionarioEquipos;
+import org.xideral.academy.springbatchmongomockito.model.Heroe;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Convierte una fila de heroes_procesados en un Heroe.
+ *
+ * Lo comparten todos los readers JDBC del Step 2. El equipo pasa por
+ * DiccionarioEquipos para que todas las filas compartan el mismo String.
+ */
+public class HeroeRowMapper implements RowMapper<Heroe> {
+    private final DiccionarioEquipos equipos = DiccionarioEquipos.compartido();
+
+    @Override
+    public Heroe mapRow(ResultSet rs, int rowNum) throws SQLException {
+        Heroe heroe = new Heroe();
+        heroe.setNombre_hp(rs.getString("nombre_hp"));
+        heroe.setEquipo_hp(equipos.canonico(rs.getString("equipo_hp")));
+        heroe.setPoder_hp(rs.getDouble("poder_hp"));
+        heroe.setMejoraPoder_hp(rs.getDouble("mejoraPoder_hp"));
+        return heroe;
+    }
+}
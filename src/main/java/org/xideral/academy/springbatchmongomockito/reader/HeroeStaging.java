@@ -0,0 +1,83 @@
+package org.xideral.academy.springbatchmongomockito.reader;
+
+import org.xideral.academy.springbatchmongomockito.model.DiccionarioEquipos;
+import org.xideral.academy.springbatchmongomockito.model.Heroe;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Formato del archivo binario de staging entre paso1 y paso2
+ * (heroes.staging=binario).
+ *
+ * Cada Heroe ocupa un registro de REGISTRO bytes, asi que el registro n
+ * empieza en n * REGISTRO y el archivo se puede leer mapeado sin buscar
+ * separadores:
+ *
+ *   nombre       2 bytes de longitud + MAXIMO_NOMBRE bytes UTF-8
+ *   equipo       2 bytes de longitud (-1 = null) + MAXIMO_EQUIPO bytes UTF-8
+ *   poder        double (8 bytes)
+ *   mejoraPoder  double (8 bytes)
+ *
+ * Centraliza el formato para que el writer de paso1 y el reader de paso2
+ * lo interpreten exactamente igual.
+ */
+public final class HeroeStaging {
+    public static final int MAXIMO_NOMBRE = 150;
+    public static final int MAXIMO_EQUIPO = 86;
+    public static final int REGISTRO = 2 + MAXIMO_NOMBRE + 2 + MAXIMO_EQUIPO + 8 + 8;
+
+    private static final short NULO = -1;
+
+    private HeroeStaging() {
+    }
+
+    // Escribe el registro en la posicion actual del buffer y la avanza REGISTRO bytes
+    public static void escribir(ByteBuffer buffer, Heroe heroe) {
+        int inicio = buffer.position();
+        escribirTexto(buffer, heroe.getNombre_hp(), MAXIMO_NOMBRE, "nombre");
+        escribirTexto(buffer, heroe.getEquipo_hp(), MAXIMO_EQUIPO, "equipo");
+        buffer.putDouble(heroe.getPoder_hp());
+        buffer.putDouble(heroe.getMejoraPoder_hp());
+        buffer.position(inicio + REGISTRO);
+    }
+
+    // Lee el registro que empieza en "desde" sin mover la posicion del buffer.
+    // "texto" es un arreglo de trabajo de al menos MAXIMO_NOMBRE bytes
+    public static Heroe leer(ByteBuffer buffer, int desde, byte[] texto, DiccionarioEquipos equipos) {
+        Heroe heroe = new Heroe();
+        int longitudNombre = buffer.getShort(desde);
+        if (longitudNombre != NULO) {
+            buffer.get(desde + 2, texto, 0, longitudNombre);
+            heroe.setNombre_hp(new String(texto, 0, longitudNombre, StandardCharsets.UTF_8));
+        }
+
+        int campoEquipo = desde + 2 + MAXIMO_NOMBRE;
+        int longitudEquipo = buffer.getShort(campoEquipo);
+        if (longitudEquipo != NULO) {
+            buffer.get(campoEquipo + 2, texto, 0, longitudEquipo);
+            heroe.setEquipo_hp(equipos.canonico(texto, 0, longitudEquipo));
+        }
+
+        int numeros = campoEquipo + 2 + MAXIMO_EQUIPO;
+        heroe.setPoder_hp(buffer.getDouble(numeros));
+        heroe.setMejoraPoder_hp(buffer.getDouble(numeros + 8));
+        return heroe;
+    }
+
+    private static void escribirTexto(ByteBuffer buffer, String valor, int maximo, String campo) {
+        int inicio = buffer.position();
+        if (valor == null) {
+            buffer.putShort(NULO);
+        } else {
+            byte[] bytes = valor.getBytes(StandardCharsets.UTF_8);
+            if (bytes.length > maximo) {
+                throw new IllegalArgumentException("El " + campo + " ocupa " + bytes.length + " bytes y el staging binario"
+                        + " admite " + maximo + ": usar heroes.staging=mysql (" + valor + ")");
+            }
+            buffer.putShort((short) bytes.length);
+            buffer.put(bytes);
+        }
+        buffer.position(inicio + 2 + maximo);
+    }
+}
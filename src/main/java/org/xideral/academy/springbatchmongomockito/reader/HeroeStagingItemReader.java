@@ -0,0 +1,103 @@
+package org.xideral.academy.springbatchmongomockito.reader;
+
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.ItemStreamException;
+import org.springframework.batch.item.ItemStreamReader;
+import org.springframework.batch.item.util.ExecutionContextUserSupport;
+import org.xideral.academy.springbatchmongomockito.model.DiccionarioEquipos;
+import org.xideral.academy.springbatchmongomockito.model.Heroe;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Reader de paso2 que lee el archivo binario de staging que dejo paso1
+ * (formato de HeroeStaging), mapeado en memoria.
+ *
+ * Como los registros son de tamano fijo no hay que parsear nada: cada
+ * campo se lee en su offset. El archivo se recorre en ventanas de
+ * registros completos y en el ExecutionContext se guarda el numero del
+ * siguiente registro, asi un reinicio salta directo a el.
+ */
+public class HeroeStagingItemReader implements ItemStreamReader<Heroe> {
+    private static final String REGISTRO = "registro";
+
+    // Registros por ventana mapeada: ~256 MB sin cortar un registro a la mitad
+    private static final long REGISTROS_POR_VENTANA = 256L * 1024 * 1024 / HeroeStaging.REGISTRO;
+
+    // Prefijo de las claves en el ExecutionContext
+    private final ExecutionContextUserSupport claves = new ExecutionContextUserSupport("heroeStagingReader");
+    private final Path archivo;
+    private final DiccionarioEquipos equipos = DiccionarioEquipos.compartido();
+    private final byte[] texto = new byte[Math.max(HeroeStaging.MAXIMO_NOMBRE, HeroeStaging.MAXIMO_EQUIPO)];
+
+    private FileChannel canal;
+    private long total;
+    private MappedByteBuffer ventana;
+    private long primeroVentana;
+    private long siguiente;
+
+    public HeroeStagingItemReader(Path archivo) {
+        this.archivo = archivo;
+    }
+
+    @Override
+    public void open(ExecutionContext executionContext) {
+        try {
+            canal = FileChannel.open(archivo, StandardOpenOption.READ);
+            long tamano = canal.size();
+            if (tamano % HeroeStaging.REGISTRO != 0) {
+                throw new ItemStreamException("El staging " + archivo + " tiene " + tamano
+                        + " bytes, que no son registros completos de " + HeroeStaging.REGISTRO);
+            }
+            total = tamano / HeroeStaging.REGISTRO;
+            ventana = null;
+            String claveRegistro = claves.getKey(REGISTRO);
+            siguiente = executionContext.containsKey(claveRegistro) ? executionContext.getLong(claveRegistro) : 0;
+        } catch (IOException e) {
+            throw new ItemStreamException("No se pudo abrir " + archivo, e);
+        }
+    }
+
+    @Override
+    public Heroe read() throws IOException {
+        if (siguiente >= total) {
+            return null;
+        }
+        if (ventana == null || siguiente >= primeroVentana + REGISTROS_POR_VENTANA) {
+            mapear(siguiente);
+        }
+        int desde = (int) ((siguiente - primeroVentana) * HeroeStaging.REGISTRO);
+        siguiente++;
+        return HeroeStaging.leer(ventana, desde, texto, equipos);
+    }
+
+    @Override
+    public void update(ExecutionContext executionContext) {
+        executionContext.putLong(claves.getKey(REGISTRO), siguiente);
+    }
+
+    @Override
+    public void close() {
+        try {
+            if (canal != null) {
+                canal.close();
+            }
+        } catch (IOException e) {
+            throw new ItemStreamException("No se pudo cerrar " + archivo, e);
+        } finally {
+            canal = null;
+            ventana = null;
+        }
+    }
+
+    private void mapear(long primero) throws IOException {
+        primeroVentana = primero;
+        long registros = Math.min(REGISTROS_POR_VENTANA, total - primero);
+        ventana = canal.map(FileChannel.MapMode.READ_ONLY, primero * HeroeStaging.REGISTRO,
+                registros * HeroeStaging.REGISTRO);
+    }
+}
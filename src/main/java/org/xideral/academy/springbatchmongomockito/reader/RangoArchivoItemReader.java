@@ -0,0 +1,135 @@
+package org.xideral.academy.springbatchmongomockito.reader;
+
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.ItemStreamException;
+import org.springframework.batch.item.ItemStreamReader;
+import org.springframework.batch.item.file.FlatFileParseException;
+import org.springframework.batch.item.file.LineMapper;
+import org.springframework.batch.item.util.ExecutionContextUserSupport;
+import org.springframework.core.io.Resource;
+import org.xideral.academy.springbatchmongomockito.model.Heroe;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Lee las lineas de un rango de bytes [inicio, fin) del archivo CSV.
+ *
+ * Es el reader de cada particion de paso1. Guarda en el ExecutionContext
+ * la posicion (en bytes) de la siguiente linea por leer, asi un reinicio
+ * continua desde el ultimo chunk confirmado de SU particion.
+ */
+public class RangoArchivoItemReader implements ItemStreamReader<Heroe> {
+    private static final String POSICION = "posicion";
+    private static final String LINEA = "linea";
+
+    // Prefijo de las claves en el ExecutionContext
+    private final ExecutionContextUserSupport claves = new ExecutionContextUserSupport("rangoArchivoReader");
+
+    private final Resource recurso;
+    private final long inicio;
+    private final long fin;
+    private final LineMapper<Heroe> lineMapper;
+
+    private FileChannel canal;
+    private final ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+    private byte[] linea = new byte[256];
+    private long posicion;
+    private int numeroLinea;
+
+    public RangoArchivoItemReader(Resource recurso, long inicio, long fin, LineMapper<Heroe> lineMapper) {
+        this.recurso = recurso;
+        this.inicio = inicio;
+        this.fin = fin;
+        this.lineMapper = lineMapper;
+    }
+
+    @Override
+    public void open(ExecutionContext executionContext) {
+        posicion = executionContext.getLong(claves.getKey(POSICION), inicio);
+        numeroLinea = executionContext.getInt(claves.getKey(LINEA), 0);
+        if (!recurso.isFile()) {
+            throw new ItemStreamException("El modo particionado necesita una ruta del sistema de archivos, no "
+                    + recurso.getDescription() + ": usar heroes.entrada=file:... o heroes.paso1.modo=simple");
+        }
+        try {
+            canal = FileChannel.open(recurso.getFile().toPath(), StandardOpenOption.READ);
+            canal.position(posicion);
+        } catch (IOException e) {
+            throw new ItemStreamException("No se pudo abrir " + recurso, e);
+        }
+        buffer.clear().flip();
+    }
+
+    @Override
+    public Heroe read() throws Exception {
+        String texto;
+        do {
+            texto = siguienteLinea();
+            if (texto == null) {
+                return null;
+            }
+        } while (texto.startsWith("#")); // comentarios, igual que FlatFileItemReader
+
+        try {
+            return lineMapper.mapLine(texto, numeroLinea);
+        } catch (Exception e) {
+            throw new FlatFileParseException("Error en la linea " + numeroLinea + " de " + recurso, e, texto, numeroLinea);
+        }
+    }
+
+    @Override
+    public void update(ExecutionContext executionContext) {
+        executionContext.putLong(claves.getKey(POSICION), posicion);
+        executionContext.putInt(claves.getKey(LINEA), numeroLinea);
+    }
+
+    @Override
+    public void close() {
+        try {
+            if (canal != null) {
+                canal.close();
+            }
+        } catch (IOException e) {
+            throw new ItemStreamException("No se pudo cerrar " + recurso, e);
+        } finally {
+            canal = null;
+        }
+    }
+
+    // Arma la siguiente linea byte a byte; null cuando se termina el rango
+    private String siguienteLinea() throws IOException {
+        if (posicion >= fin) {
+            return null;
+        }
+        int longitud = 0;
+        while (posicion < fin) {
+            if (!buffer.hasRemaining()) {
+                buffer.clear();
+                buffer.limit((int) Math.min(buffer.capacity(), fin - posicion));
+                if (canal.read(buffer) <= 0) {
+                    break;
+                }
+                buffer.flip();
+            }
+            byte b = buffer.get();
+            posicion++;
+            if (b == '\n') {
+                break;
+            }
+            if (longitud == linea.length) {
+                linea = Arrays.copyOf(linea, longitud * 2);
+            }
+            linea[longitud++] = b;
+        }
+        if (longitud > 0 && linea[longitud - 1] == '\r') {
+            longitud--;
+        }
+        numeroLinea++;
+        return new String(linea, 0, longitud, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,93 @@
+package org.xideral.academy.springbatchmongomockito.reader;
+
+import org.springframework.core.io.AbstractResource;
+import org.springframework.core.io.Resource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Archivo de entrada comprimido que se lee ya descomprimido.
+ *
+ * El formato se detecta por los primeros bytes (no por la extension).
+ * getInputStream() descomprime al vuelo mientras el reader parsea, sin
+ * escribir el archivo descomprimido a disco. El FlatFileItemReader guarda
+ * cuantas lineas leyo; al reiniciar vuelve a descomprimir desde el inicio
+ * y salta esas lineas, igual que con un archivo normal.
+ *
+ * Un archivo comprimido no se puede mapear en memoria ni cortar en rangos
+ * de bytes: solo sirve con el reader flatfile.
+ */
+public class RecursoComprimido extends AbstractResource {
+    public enum Formato { NINGUNO, GZIP, ZSTD }
+
+    private static final byte[] MAGICO_GZIP = {(byte) 0x1f, (byte) 0x8b};
+    private static final byte[] MAGICO_ZSTD = {(byte) 0x28, (byte) 0xb5, (byte) 0x2f, (byte) 0xfd};
+
+    // Buffer de entrada del GZIPInputStream (el default es 512 bytes)
+    private static final int TAMANO_BUFFER = 64 * 1024;
+
+    private final Resource recurso;
+
+    private RecursoComprimido(Resource recurso) {
+        this.recurso = recurso;
+    }
+
+    /**
+     * Devuelve el mismo recurso si no esta comprimido, o uno que lo
+     * descomprime al leerlo si es gzip.
+     */
+    public static Resource descomprimido(Resource recurso) {
+        return switch (formato(recurso)) {
+            case NINGUNO -> recurso;
+            case GZIP -> new RecursoComprimido(recurso);
+            case ZSTD -> throw new IllegalStateException("Entrada en zstd no soportada (" + recurso.getDescription()
+                    + "): comprimirla con gzip o descomprimirla antes");
+        };
+    }
+
+    // Un recurso que no existe se reporta como NINGUNO: el reader dara su propio error
+    public static Formato formato(Resource recurso) {
+        if (!recurso.exists()) {
+            return Formato.NINGUNO;
+        }
+        try (InputStream entrada = recurso.getInputStream()) {
+            byte[] inicio = entrada.readNBytes(MAGICO_ZSTD.length);
+            if (empiezaCon(inicio, MAGICO_GZIP)) {
+                return Formato.GZIP;
+            }
+            if (empiezaCon(inicio, MAGICO_ZSTD)) {
+                return Formato.ZSTD;
+            }
+            return Formato.NINGUNO;
+        } catch (IOException e) {
+            throw new IllegalStateException("No se pudo leer " + recurso.getDescription(), e);
+        }
+    }
+
+    @Override
+    public InputStream getInputStream() throws IOException {
+        return new GZIPInputStream(recurso.getInputStream(), TAMANO_BUFFER);
+    }
+
+    @Override
+    public boolean exists() {
+        return recurso.exists();
+    }
+
+    @Override
+    public String getFilename() {
+        return recurso.getFilename();
+    }
+
+    @Override
+    public String getDescription() {
+        return "gzip [" + recurso.getDescription() + "]";
+    }
+
+    private static boolean empiezaCon(byte[] bytes, byte[] prefijo) {
+        return bytes.length >= prefijo.length && Arrays.equals(bytes, 0, prefijo.length, prefijo, 0, prefijo.length);
+    }
+}
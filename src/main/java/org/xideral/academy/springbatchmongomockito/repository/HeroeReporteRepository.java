@@ -1,9 +1,12 @@
 package org.xideral.academy.springbatchmongomockito.repository;
 
 import org.xideral.academy.springbatchmongomockito.model.HeroeReporte;
+import org.xideral.academy.springbatchmongomockito.model.HeroeReporteProyectado;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Interfaz del repositorio de reportes de heroes.
@@ -13,8 +16,22 @@ import java.util.Optional;
  */
 public interface HeroeReporteRepository {
     HeroeReporte save(HeroeReporte reporte);
+    // Guarda todos en una sola ida a la base; regresa los guardados en el mismo orden
+    List<HeroeReporte> saveAll(Collection<HeroeReporte> reportes);
     Optional<HeroeReporte> findById(String id);
     List<HeroeReporte> findAll();
+    // Recorre los reportes sin cargarlos todos; hay que cerrar el stream (libera el cursor)
+    Stream<HeroeReporte> streamAll();
+    // Pagina por llave: hasta "limite" reportes con id mayor a despuesDeId (null = desde el inicio), ordenados por id
+    List<HeroeReporte> findPage(String despuesDeId, int limite);
+    // Igual que findPage pero solo trae los campos pedidos (y el id); los demas quedan en null
+    List<HeroeReporteProyectado> findPageProyectada(String despuesDeId, int limite, Collection<String> campos);
+    // Reportes de un equipo, del mas poderoso al menos
+    List<HeroeReporte> findByEquipo(String equipo);
+    // poderTotal entre desde y hasta (ambos incluidos), de menor a mayor
+    List<HeroeReporte> findByPoderTotalBetween(double desde, double hasta);
+    // Los n reportes con mayor poderTotal
+    List<HeroeReporte> topNByPoderTotal(int n);
     void deleteById(String id);
     boolean existsById(String id);
 }
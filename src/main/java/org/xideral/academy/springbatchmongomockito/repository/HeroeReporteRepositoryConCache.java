@@ -0,0 +1,156 @@
+package org.xideral.academy.springbatchmongomockito.repository;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.xideral.academy.springbatchmongomockito.model.HeroeReporte;
+import org.xideral.academy.springbatchmongomockito.model.HeroeReporteProyectado;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Stream;
+
+/**
+ * Decorador con cache de lectura (read-through) para HeroeReporteRepository.
+ *
+ * Usa Caffeine (W-TinyLFU) con tamano maximo y TTL desde la escritura:
+ *  - findById/existsById: una entrada por id; tambien se cachea "no existe".
+ *  - findAll: una sola entrada con la lista completa (inmutable).
+ * Caffeine calcula cada llave una sola vez aunque la pidan varios hilos, y
+ * un invalidate espera a que termine la carga en curso de esa llave, asi
+ * que una lectura vieja no puede quedar en cache despues de un save.
+ *
+ * save, saveAll y deleteById invalidan los ids y la lista. El batch
+ * escribe en MongoDB sin pasar por aqui, por eso
+ * InvalidarCacheReportesListener llama a invalidarTodo() al terminar cada job. Los reportes cacheados son
+ * compartidos: quien los lea no debe modificarlos.
+ *
+ * Publica hits/misses/evictions como "cache.*" con cache=heroes.reportes.*
+ */
+public class HeroeReporteRepositoryConCache implements HeroeReporteRepository {
+    private static final String TODOS = "todos";
+
+    private final HeroeReporteRepository delegado;
+    private final Cache<String, Optional<HeroeReporte>> porId;
+    private final Cache<String, List<HeroeReporte>> listado;
+
+    public HeroeReporteRepositoryConCache(HeroeReporteRepository delegado, long tamanoMaximo, Duration ttl,
+                                         MeterRegistry registry) {
+        this(delegado, tamanoMaximo, ttl, registry, Ticker.systemTicker(), ForkJoinPool.commonPool());
+    }
+
+    HeroeReporteRepositoryConCache(HeroeReporteRepository delegado, long tamanoMaximo, Duration ttl,
+                                   MeterRegistry registry, Ticker ticker, Executor executor) {
+        this.delegado = delegado;
+        this.porId = Caffeine.newBuilder()
+                .maximumSize(tamanoMaximo)
+                .expireAfterWrite(ttl)
+                .ticker(ticker)
+                .executor(executor)
+                .recordStats()
+                .build();
+        this.listado = Caffeine.newBuilder()
+                .maximumSize(1)
+                .expireAfterWrite(ttl)
+                .ticker(ticker)
+                .executor(executor)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(registry, porId, "heroes.reportes.porId");
+        CaffeineCacheMetrics.monitor(registry, listado, "heroes.reportes.listado");
+    }
+
+    @Override
+    public HeroeReporte save(HeroeReporte reporte) {
+        HeroeReporte guardado = delegado.save(reporte);
+        // Despues de escribir: una carga que empezo antes del save se descarta
+        porId.invalidate(guardado.getId());
+        listado.invalidate(TODOS);
+        return guardado;
+    }
+
+    @Override
+    public List<HeroeReporte> saveAll(Collection<HeroeReporte> reportes) {
+        List<HeroeReporte> guardados = delegado.saveAll(reportes);
+        porId.invalidateAll(guardados.stream().map(HeroeReporte::getId).toList());
+        listado.invalidate(TODOS);
+        return guardados;
+    }
+
+    @Override
+    public Optional<HeroeReporte> findById(String id) {
+        return porId.get(id, delegado::findById);
+    }
+
+    @Override
+    public List<HeroeReporte> findAll() {
+        return listado.get(TODOS, llave -> List.copyOf(delegado.findAll()));
+    }
+
+    // No pasa por la cache: quien recorre todo no debe llenarla ni guardar una copia
+    @Override
+    public Stream<HeroeReporte> streamAll() {
+        return delegado.streamAll();
+    }
+
+    // Las paginas y las consultas por equipo o poder no se cachean: cambian
+    // con cada escritura y el indice ya las resuelve sin recorrer la coleccion
+    @Override
+    public List<HeroeReporte> findPage(String despuesDeId, int limite) {
+        return delegado.findPage(despuesDeId, limite);
+    }
+
+    @Override
+    public List<HeroeReporteProyectado> findPageProyectada(String despuesDeId, int limite, Collection<String> campos) {
+        return delegado.findPageProyectada(despuesDeId, limite, campos);
+    }
+
+    @Override
+    public List<HeroeReporte> findByEquipo(String equipo) {
+        return delegado.findByEquipo(equipo);
+    }
+
+    @Override
+    public List<HeroeReporte> findByPoderTotalBetween(double desde, double hasta) {
+        return delegado.findByPoderTotalBetween(desde, hasta);
+    }
+
+    @Override
+    public List<HeroeReporte> topNByPoderTotal(int n) {
+        return delegado.topNByPoderTotal(n);
+    }
+
+    @Override
+    public void deleteById(String id) {
+        delegado.deleteById(id);
+        porId.invalidate(id);
+        listado.invalidate(TODOS);
+    }
+
+    @Override
+    public boolean existsById(String id) {
+        return findById(id).isPresent();
+    }
+
+    // Descarta todo lo cacheado (p. ej. despues de que el batch reescribio la coleccion)
+    public void invalidarTodo() {
+        porId.invalidateAll();
+        listado.invalidateAll();
+    }
+
+    // Solo para tests: aplica expiraciones y desalojos pendientes
+    void mantenimiento() {
+        porId.cleanUp();
+        listado.cleanUp();
+    }
+
+    long tamanoPorId() {
+        return porId.estimatedSize();
+    }
+}
@@ -0,0 +1,220 @@
+package org.xideral.academy.springbatchmongomockito.repository;
+
+import com.mongodb.MongoException;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndReplaceOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.query.Query;
+import org.xideral.academy.springbatchmongomockito.model.HeroeReporte;
+import org.xideral.academy.springbatchmongomockito.model.HeroeReporteProyectado;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+/**
+ * HeroeReporteRepository sobre MongoTemplate (coleccion "reportes").
+ *
+ * findPage pagina por llave (keyset) sobre _id: cada pagina pide
+ * "_id > ultimo id visto" ordenado por _id, que usa el indice de _id y cuesta
+ * lo mismo en la pagina 1 que en la 10000 (un skip/offset recorre todo lo
+ * anterior). findPageProyectada ademas le pide a Mongo solo los campos
+ * indicados, asi que los demas ni viajan por la red ni se mapean; regresa
+ * HeroeReporteProyectado para que un campo sin cargar sea null y no 0.0.
+ *
+ * Las consultas por equipo y por poderTotal usan dos indices que
+ * asegurarIndices() crea (o confirma) antes de cada job
+ * (AsegurarIndicesReportesListener): (equipo, poderTotal desc), que tambien
+ * sirve para filtrar solo por equipo, y (poderTotal desc) para rangos y el
+ * top N. Despues pide el explain de cada consulta, lo deja en el log en
+ * debug y avisa si alguna no usa indice.
+ */
+public class HeroeReporteRepositoryMongo implements HeroeReporteRepository {
+    private static final Logger log = LoggerFactory.getLogger(HeroeReporteRepositoryMongo.class);
+
+    private final MongoTemplate mongoTemplate;
+    private final String coleccion;
+
+    public HeroeReporteRepositoryMongo(MongoTemplate mongoTemplate, String coleccion) {
+        this.mongoTemplate = mongoTemplate;
+        this.coleccion = coleccion;
+    }
+
+    @Override
+    public HeroeReporte save(HeroeReporte reporte) {
+        return mongoTemplate.save(reporte, coleccion);
+    }
+
+    // Un solo bulkWrite ordenado: los nuevos reciben su ObjectId aqui para
+    // que todos sean un reemplazo con upsert por _id
+    @Override
+    public List<HeroeReporte> saveAll(Collection<HeroeReporte> reportes) {
+        List<HeroeReporte> guardados = new ArrayList<>(reportes);
+        if (guardados.isEmpty()) {
+            return guardados;
+        }
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.ORDERED, HeroeReporte.class, coleccion);
+        for (HeroeReporte reporte : guardados) {
+            if (reporte.getId() == null) {
+                reporte.setId(new ObjectId().toHexString());
+            }
+            bulk.replaceOne(porId(reporte.getId()), reporte, FindAndReplaceOptions.options().upsert());
+        }
+        bulk.execute();
+        return guardados;
+    }
+
+    @Override
+    public Optional<HeroeReporte> findById(String id) {
+        return Optional.ofNullable(mongoTemplate.findById(id, HeroeReporte.class, coleccion));
+    }
+
+    @Override
+    public List<HeroeReporte> findAll() {
+        return mongoTemplate.findAll(HeroeReporte.class, coleccion);
+    }
+
+    @Override
+    public Stream<HeroeReporte> streamAll() {
+        return mongoTemplate.stream(new Query(), HeroeReporte.class, coleccion);
+    }
+
+    @Override
+    public List<HeroeReporte> findPage(String despuesDeId, int limite) {
+        return mongoTemplate.find(pagina(despuesDeId, limite), HeroeReporte.class, coleccion);
+    }
+
+    @Override
+    public List<HeroeReporteProyectado> findPageProyectada(String despuesDeId, int limite, Collection<String> campos) {
+        Query pagina = pagina(despuesDeId, limite);
+        campos.forEach(pagina.fields()::include);
+        return mongoTemplate.find(pagina, HeroeReporteProyectado.class, coleccion);
+    }
+
+    @Override
+    public List<HeroeReporte> findByEquipo(String equipo) {
+        return mongoTemplate.find(consultaPorEquipo(equipo), HeroeReporte.class, coleccion);
+    }
+
+    @Override
+    public List<HeroeReporte> findByPoderTotalBetween(double desde, double hasta) {
+        return mongoTemplate.find(consultaPorRangoDePoder(desde, hasta), HeroeReporte.class, coleccion);
+    }
+
+    @Override
+    public List<HeroeReporte> topNByPoderTotal(int n) {
+        return mongoTemplate.find(consultaTop(n), HeroeReporte.class, coleccion);
+    }
+
+    @Override
+    public void deleteById(String id) {
+        mongoTemplate.remove(porId(id), HeroeReporte.class, coleccion);
+    }
+
+    @Override
+    public boolean existsById(String id) {
+        return mongoTemplate.exists(porId(id), HeroeReporte.class, coleccion);
+    }
+
+    // Se llama antes de cada job. Si Mongo no responde solo se avisa: el job
+    // puede correr su paso1 y el paso2 fallara con su propio error.
+    public void asegurarIndices() {
+        try {
+            IndexOperations indices = mongoTemplate.indexOps(coleccion);
+            indices.ensureIndex(new Index().on("equipo", Sort.Direction.ASC).on("poderTotal", Sort.Direction.DESC)
+                    .named("equipo_poderTotal"));
+            indices.ensureIndex(new Index().on("poderTotal", Sort.Direction.DESC).named("poderTotal"));
+            Map<String, Query> consultas = Map.of(
+                    "findByEquipo", consultaPorEquipo(""),
+                    "findByPoderTotalBetween", consultaPorRangoDePoder(0, 0),
+                    "topNByPoderTotal", consultaTop(1));
+            consultas.forEach((nombre, consulta) -> {
+                Document plan = explicar(consulta);
+                log.debug("{}: explain de {}: {}", coleccion, nombre, plan.toJson());
+                if (!usaIndice(plan)) {
+                    log.warn("{}: {} no usa indice, recorre toda la coleccion", coleccion, nombre);
+                }
+            });
+        } catch (DataAccessException | MongoException e) {
+            log.warn("{}: no se pudieron asegurar los indices: {}", coleccion, e.getMessage());
+        }
+    }
+
+    // Plan que elige Mongo para la consulta (explain "queryPlanner": no la ejecuta)
+    Document explicar(Query consulta) {
+        Document find = new Document("find", coleccion)
+                .append("filter", consulta.getQueryObject())
+                .append("sort", consulta.getSortObject());
+        if (consulta.getLimit() > 0) {
+            find.append("limit", consulta.getLimit());
+        }
+        return mongoTemplate.getDb().runCommand(new Document("explain", find).append("verbosity", "queryPlanner"));
+    }
+
+    // true si el plan ganador lee un indice (IXSCAN) y ninguna etapa recorre la coleccion (COLLSCAN)
+    static boolean usaIndice(Document explain) {
+        Set<String> etapas = new HashSet<>();
+        recolectarEtapas(explain.get("queryPlanner", Document.class).get("winningPlan"), etapas);
+        return etapas.contains("IXSCAN") && !etapas.contains("COLLSCAN");
+    }
+
+    private static void recolectarEtapas(Object nodo, Set<String> etapas) {
+        if (nodo instanceof Document documento) {
+            if (documento.get("stage") instanceof String etapa) {
+                etapas.add(etapa);
+            }
+            documento.values().forEach(valor -> recolectarEtapas(valor, etapas));
+        } else if (nodo instanceof List<?> lista) {
+            lista.forEach(valor -> recolectarEtapas(valor, etapas));
+        }
+    }
+
+    static Query consultaPorEquipo(String equipo) {
+        return query(where("equipo").is(equipo)).with(Sort.by(Sort.Direction.DESC, "poderTotal"));
+    }
+
+    static Query consultaPorRangoDePoder(double desde, double hasta) {
+        return query(where("poderTotal").gte(desde).lte(hasta)).with(Sort.by(Sort.Direction.ASC, "poderTotal"));
+    }
+
+    static Query consultaTop(int n) {
+        if (n < 1) {
+            throw new IllegalArgumentException("n debe ser mayor a cero: " + n);
+        }
+        return new Query().with(Sort.by(Sort.Direction.DESC, "poderTotal")).limit(n);
+    }
+
+    private static Query porId(String id) {
+        return query(where("_id").is(idMongo(id)));
+    }
+
+    // Spring Data convierte el id a ObjectId en un "is", pero no dentro de
+    // un $gt; se convierte aqui para comparar ObjectId con ObjectId
+    private static Object idMongo(String id) {
+        return ObjectId.isValid(id) ? new ObjectId(id) : id;
+    }
+
+    private static Query pagina(String despuesDeId, int limite) {
+        if (limite < 1) {
+            throw new IllegalArgumentException("limite debe ser mayor a cero: " + limite);
+        }
+        Query pagina = despuesDeId == null ? new Query() : query(where("_id").gt(idMongo(despuesDeId)));
+        return pagina.with(Sort.by(Sort.Direction.ASC, "_id")).limit(limite);
+    }
+}
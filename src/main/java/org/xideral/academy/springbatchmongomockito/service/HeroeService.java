@@ -2,13 +2,29 @@ package org.xideral.academy.springbatchmongomockito.service;
 
 import org.xideral.academy.springbatchmongomockito.model.Heroe;
 import org.xideral.academy.springbatchmongomockito.model.HeroeReporte;
+import org.xideral.academy.springbatchmongomockito.model.HeroeReporteProyectado;
 import org.xideral.academy.springbatchmongomockito.processor.HeroeProcessor;
 import org.xideral.academy.springbatchmongomockito.processor.ReporteProcessor;
 import org.xideral.academy.springbatchmongomockito.repository.HeroeReporteRepository;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Optional;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Servicio que orquesta el procesamiento de heroes.
@@ -18,9 +34,12 @@ import java.util.Optional;
  * Este servicio es el vehiculo principal para aprender Mockito.
  */
 public class HeroeService {
+    public static final int TAMANO_LOTE_POR_DEFECTO = 500;
+
     private final HeroeProcessor heroeProcessor;
     private final ReporteProcessor reporteProcessor;
     private final HeroeReporteRepository repository;
+    private int tamanoLote = TAMANO_LOTE_POR_DEFECTO;
 
     public HeroeService(HeroeProcessor heroeProcessor, ReporteProcessor reporteProcessor, HeroeReporteRepository repository) {
         this.heroeProcessor = heroeProcessor;
@@ -28,25 +47,126 @@ public class HeroeService {
         this.repository = repository;
     }
 
+    // Cuantos reportes manda procesarLote en cada saveAll.
+    public void setTamanoLote(int tamanoLote) {
+        if (tamanoLote < 1) {
+            throw new IllegalArgumentException("tamanoLote debe ser mayor a cero: " + tamanoLote);
+        }
+        this.tamanoLote = tamanoLote;
+    }
+
     // Procesa un heroe (mayusculas + mejoraPoder) y guarda el reporte.
     public HeroeReporte procesarYGuardar(Heroe heroe) throws Exception {
-        // Paso 1: aplicar transformacion (mayusculas + mejoraPoder 10%)
-        Heroe procesado = heroeProcessor.process(heroe);
-
-        // Paso 2: convertir a reporte (calcula poderTotal)
-        HeroeReporte reporte = reporteProcessor.process(procesado);
+        // Pasos 1 y 2: transformar y convertir a reporte
+        HeroeReporte reporte = transformar(heroe);
 
         // Paso 3: persistir en el repositorio
         return repository.save(reporte);
     }
 
-    // Procesa una lista de heroes y guarda todos los reportes.
+    // Procesa una lista de heroes y guarda los reportes con saveAll en lotes
+    // de tamanoLote (una ida a la base por lote en lugar de una por heroe).
+    // El resultado conserva el orden de la lista. Si un heroe falla, los
+    // anteriores se guardan antes de propagar la excepcion, igual que si se
+    // hubieran guardado uno por uno.
     public List<HeroeReporte> procesarLote(List<Heroe> heroes) throws Exception {
-        List<HeroeReporte> reportes = new ArrayList<>();
+        List<HeroeReporte> guardados = new ArrayList<>(heroes.size());
+        List<HeroeReporte> pendientes = new ArrayList<>(Math.min(tamanoLote, heroes.size()));
         for (Heroe heroe : heroes) {
-            reportes.add(procesarYGuardar(heroe));
+            try {
+                pendientes.add(transformar(heroe));
+            } catch (Exception e) {
+                guardarPendientes(pendientes, guardados);
+                throw e;
+            }
+            if (pendientes.size() == tamanoLote) {
+                guardarPendientes(pendientes, guardados);
+            }
         }
-        return reportes;
+        guardarPendientes(pendientes, guardados);
+        return guardados;
+    }
+
+    // Version en flujo de procesarLote: toma los heroes del stream de a
+    // tamanoLote conforme el consumidor pide reportes, los guarda con saveAll
+    // y los emite en orden. En memoria solo vive el lote en curso, asi que el
+    // heap no crece con el tamano de la entrada. Cerrar el stream devuelto
+    // cierra tambien el de entrada. Si un heroe falla, se guardan los
+    // anteriores de su lote y la excepcion sale del next() del consumidor.
+    public Stream<HeroeReporte> procesarEnFlujo(Stream<Heroe> heroes) {
+        Iterator<Heroe> entrada = heroes.iterator();
+        Iterator<HeroeReporte> salida = new Iterator<>() {
+            private Iterator<HeroeReporte> lote = Collections.emptyIterator();
+
+            @Override
+            public boolean hasNext() {
+                while (!lote.hasNext() && entrada.hasNext()) {
+                    lote = siguienteLote(entrada).iterator();
+                }
+                return lote.hasNext();
+            }
+
+            @Override
+            public HeroeReporte next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return lote.next();
+            }
+        };
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(salida, Spliterator.ORDERED), false)
+                .onClose(heroes::close);
+    }
+
+    // Procesa y guarda cada heroe por separado en el executor, con a lo mas
+    // maxConcurrencia en curso (el hilo que llama espera un permiso antes de
+    // enviar el siguiente). El resultado conserva el orden de la lista. Los
+    // fallos no detienen el lote: al final se lanza LoteParcialException con
+    // los reportes guardados y la excepcion de cada posicion que fallo. Un
+    // Error (OutOfMemoryError, StackOverflowError...) no es un fallo del heroe:
+    // se relanza tal cual en lugar de envolverlo.
+    public List<HeroeReporte> procesarLoteConcurrente(List<Heroe> heroes, Executor executor, int maxConcurrencia)
+            throws InterruptedException {
+        if (maxConcurrencia < 1) {
+            throw new IllegalArgumentException("maxConcurrencia debe ser mayor a cero: " + maxConcurrencia);
+        }
+        Semaphore permisos = new Semaphore(maxConcurrencia);
+        HeroeReporte[] resultados = new HeroeReporte[heroes.size()];
+        Map<Integer, Exception> fallos = new ConcurrentSkipListMap<>();
+        CompletableFuture<?>[] tareas = new CompletableFuture<?>[heroes.size()];
+        for (int i = 0; i < heroes.size(); i++) {
+            int posicion = i;
+            Heroe heroe = heroes.get(i);
+            permisos.acquire();
+            try {
+                tareas[i] = CompletableFuture.runAsync(() -> {
+                    try {
+                        resultados[posicion] = procesarYGuardar(heroe);
+                    } catch (Exception e) {
+                        fallos.put(posicion, e);
+                    } finally {
+                        permisos.release();
+                    }
+                }, executor);
+            } catch (RejectedExecutionException e) {
+                permisos.release();
+                fallos.put(posicion, e);
+                tareas[i] = CompletableFuture.completedFuture(null);
+            }
+        }
+        // join() tambien hace visibles las escrituras de las tareas en resultados
+        try {
+            CompletableFuture.allOf(tareas).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+        if (!fallos.isEmpty()) {
+            throw new LoteParcialException(Arrays.asList(resultados), fallos);
+        }
+        return Arrays.asList(resultados);
     }
 
     // Busca un reporte por su ID.
@@ -59,6 +179,43 @@ public class HeroeService {
         return repository.findAll();
     }
 
+    // Igual que obtenerTodosLosReportes pero sin armar la lista: el cursor
+    // avanza conforme el consumidor pide elementos. Usar con try-with-resources.
+    public Stream<HeroeReporte> streamReportes() {
+        return repository.streamAll();
+    }
+
+    // Una pagina de reportes despues de despuesDeId (null = la primera). Para
+    // la siguiente se pasa el id del ultimo reporte; una pagina con menos de
+    // "limite" reportes es la ultima.
+    public List<HeroeReporte> obtenerPagina(String despuesDeId, int limite) {
+        return repository.findPage(despuesDeId, limite);
+    }
+
+    // Igual que obtenerPagina pero cada reporte trae solo los campos pedidos
+    // (los demas quedan en null).
+    public List<HeroeReporteProyectado> obtenerPaginaProyectada(String despuesDeId, int limite, String... campos) {
+        return repository.findPageProyectada(despuesDeId, limite, List.of(campos));
+    }
+
+    // Reportes de un equipo, del mas poderoso al menos.
+    public List<HeroeReporte> obtenerPorEquipo(String equipo) {
+        return repository.findByEquipo(equipo);
+    }
+
+    // Reportes con poderTotal entre desde y hasta (incluidos).
+    public List<HeroeReporte> obtenerPorRangoDePoder(double desde, double hasta) {
+        if (desde > hasta) {
+            throw new IllegalArgumentException("Rango de poder invalido: " + desde + " > " + hasta);
+        }
+        return repository.findByPoderTotalBetween(desde, hasta);
+    }
+
+    // Los n heroes mas poderosos.
+    public List<HeroeReporte> obtenerTopPorPoder(int n) {
+        return repository.topNByPoderTotal(n);
+    }
+
     // Elimina un reporte si existe.
     public boolean eliminarReporte(String id) {
         if (repository.existsById(id)) {
@@ -67,4 +224,34 @@ public class HeroeService {
         }
         return false;
     }
+
+    // Paso 1: mayusculas + mejoraPoder 10%. Paso 2: reporte con poderTotal.
+    private HeroeReporte transformar(Heroe heroe) throws Exception {
+        Heroe procesado = heroeProcessor.process(heroe);
+        return reporteProcessor.process(procesado);
+    }
+
+    private List<HeroeReporte> siguienteLote(Iterator<Heroe> entrada) {
+        List<HeroeReporte> pendientes = new ArrayList<>(tamanoLote);
+        while (pendientes.size() < tamanoLote && entrada.hasNext()) {
+            Heroe heroe = entrada.next();
+            try {
+                pendientes.add(transformar(heroe));
+            } catch (Exception e) {
+                guardarPendientes(pendientes, new ArrayList<>());
+                if (e instanceof RuntimeException runtime) {
+                    throw runtime;
+                }
+                throw new IllegalStateException("No se pudo procesar el heroe " + heroe.getNombre_hp(), e);
+            }
+        }
+        return repository.saveAll(pendientes);
+    }
+
+    private void guardarPendientes(List<HeroeReporte> pendientes, List<HeroeReporte> guardados) {
+        if (!pendientes.isEmpty()) {
+            guardados.addAll(repository.saveAll(new ArrayList<>(pendientes)));
+            pendientes.clear();
+        }
+    }
 }
\ No newline at end of file
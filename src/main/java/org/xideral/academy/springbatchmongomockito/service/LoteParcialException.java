@@ -0,0 +1,36 @@
+package org.xideral.academy.springbatchmongomockito.service;
+
+import org.xideral.academy.springbatchmongomockito.model.HeroeReporte;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Lote procesado en paralelo donde fallaron algunos heroes.
+ *
+ * getResultados() tiene el mismo orden que la lista de entrada, con null en
+ * las posiciones que fallaron; getFallos() va de la posicion a su excepcion.
+ * Cada excepcion se agrega tambien como suprimida para que salga en el log.
+ */
+public class LoteParcialException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    private final List<HeroeReporte> resultados;
+    private final Map<Integer, Exception> fallos;
+
+    public LoteParcialException(List<HeroeReporte> resultados, Map<Integer, Exception> fallos) {
+        super(fallos.size() + " de " + resultados.size() + " heroes fallaron; posiciones " + fallos.keySet());
+        this.resultados = Collections.unmodifiableList(resultados);
+        this.fallos = Collections.unmodifiableMap(fallos);
+        fallos.values().forEach(this::addSuppressed);
+    }
+
+    public List<HeroeReporte> getResultados() {
+        return resultados;
+    }
+
+    public Map<Integer, Exception> getFallos() {
+        return fallos;
+    }
+}
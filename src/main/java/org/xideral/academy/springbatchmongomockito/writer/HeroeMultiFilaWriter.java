@@ -0,0 +1,76 @@
+package org.xideral.academy.springbatchmongomockito.writer;
+
+import org.springframework.batch.item.Chunk;
+import org.springframework.batch.item.ItemWriter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.xideral.academy.springbatchmongomockito.model.Heroe;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+/**
+ * Writer de paso1 que manda cada chunk a heroes_procesados como INSERT de
+ * varias filas: INSERT ... VALUES (?, ?, ?, ?), (?, ?, ?, ?), ... seguido
+ * del mismo upsert por nombre que escribirEnBD.
+ *
+ * JdbcBatchItemWriter manda una sentencia de una fila por heroe (el driver
+ * solo las junta si la URL trae rewriteBatchedStatements=true); aqui el
+ * servidor recibe y parsea una sentencia por cada "filasPorInsert" heroes,
+ * sin depender de la configuracion de la conexion. Usa la conexion de la
+ * transaccion del chunk, igual que JdbcBatchItemWriter.
+ */
+public class HeroeMultiFilaWriter implements ItemWriter<Heroe> {
+    private static final String INSERT =
+            "INSERT INTO heroes_procesados (nombre_hp, equipo_hp, poder_hp, mejoraPoder_hp) VALUES ";
+    private static final String FILA = "(?, ?, ?, ?)";
+    private static final int COLUMNAS = 4;
+
+    // MySQL acepta a lo mas 65535 parametros por sentencia preparada
+    public static final int MAXIMO_FILAS = 65535 / COLUMNAS;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String sufijo;
+    private final int filasPorInsert;
+    private final String insertCompleto;
+
+    public HeroeMultiFilaWriter(DataSource dataSource, String sufijo, int filasPorInsert) {
+        if (filasPorInsert < 1 || filasPorInsert > MAXIMO_FILAS) {
+            throw new IllegalArgumentException("filasPorInsert debe estar entre 1 y " + MAXIMO_FILAS + ": " + filasPorInsert);
+        }
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.sufijo = sufijo;
+        this.filasPorInsert = filasPorInsert;
+        this.insertCompleto = sql(filasPorInsert);
+    }
+
+    @Override
+    public void write(Chunk<? extends Heroe> chunk) {
+        List<? extends Heroe> items = chunk.getItems();
+        for (int desde = 0; desde < items.size(); desde += filasPorInsert) {
+            List<? extends Heroe> filas = items.subList(desde, Math.min(items.size(), desde + filasPorInsert));
+            // Solo el ultimo grupo del chunk puede quedar incompleto
+            String sql = filas.size() == filasPorInsert ? insertCompleto : sql(filas.size());
+            jdbcTemplate.update(sql, ps -> {
+                int parametro = 1;
+                for (Heroe heroe : filas) {
+                    ps.setString(parametro++, heroe.getNombre_hp());
+                    ps.setString(parametro++, heroe.getEquipo_hp());
+                    ps.setDouble(parametro++, heroe.getPoder_hp());
+                    ps.setDouble(parametro++, heroe.getMejoraPoder_hp());
+                }
+            });
+        }
+    }
+
+    private String sql(int filas) {
+        StringBuilder sql = new StringBuilder(INSERT.length() + filas * (FILA.length() + 2) + sufijo.length());
+        sql.append(INSERT);
+        for (int i = 0; i < filas; i++) {
+            if (i > 0) {
+                sql.append(", ");
+            }
+            sql.append(FILA);
+        }
+        return sql.append(sufijo).toString();
+    }
+}
@@ -0,0 +1,117 @@
+package org.xideral.academy.springbatchmongomockito.writer;
+
+import com.mongodb.ErrorCategory;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.WriteConcern;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.InsertManyOptions;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.batch.item.Chunk;
+import org.springframework.batch.item.ItemWriter;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.xideral.academy.springbatchmongomockito.model.HeroeReporte;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Writer de reportes que solo inserta (sin upsert) usando insertMany no ordenado.
+ *
+ * A diferencia de MongoItemWriter no pasa por save() ni por el conversor
+ * reflexivo: arma cada Document a mano con los mismos campos que produce
+ * el mapeo de HeroeReporte. Los items se mandan en lotes de "tamanoLote"
+ * con el WriteConcern configurado.
+ *
+ * El _id se genera del lado del cliente antes de insertar y se guarda en
+ * el reporte: si Spring Batch vuelve a escribir el mismo chunk en esta
+ * ejecucion, esos items chocan por clave duplicada en lugar de insertarse
+ * dos veces. Un reinicio del job vuelve a leer la entrada y genera ids
+ * nuevos, asi que ahi no evita duplicados.
+ *
+ * Si un item ya existe (clave duplicada) solo se reporta ese item: se
+ * registra en el log y en el contador "heroes.mongo.duplicados", y el resto
+ * del chunk sigue adelante. Los contadores del StepExecution no se tocan:
+ * el writer no sabe si el chunk termina en commit o en rollback. Cualquier
+ * otro error si hace fallar el chunk.
+ */
+public class HeroeReporteBulkWriter implements ItemWriter<HeroeReporte> {
+    private static final Logger log = LoggerFactory.getLogger(HeroeReporteBulkWriter.class);
+
+    private final MongoTemplate mongoTemplate;
+    private final String coleccion;
+    private final WriteConcern writeConcern;
+    private final int tamanoLote;
+    private final Counter duplicados;
+
+    public HeroeReporteBulkWriter(MongoTemplate mongoTemplate, String coleccion, WriteConcern writeConcern, int tamanoLote,
+                                  MeterRegistry registry) {
+        if (tamanoLote < 1) {
+            throw new IllegalArgumentException("tamanoLote debe ser mayor a cero: " + tamanoLote);
+        }
+        this.mongoTemplate = mongoTemplate;
+        this.coleccion = coleccion;
+        this.writeConcern = writeConcern;
+        this.tamanoLote = tamanoLote;
+        this.duplicados = Counter.builder("heroes.mongo.duplicados")
+                .description("Reportes que insertMany descarto por clave duplicada")
+                .tag("coleccion", coleccion)
+                .register(registry);
+    }
+
+    @Override
+    public void write(Chunk<? extends HeroeReporte> chunk) {
+        MongoCollection<Document> destino = mongoTemplate.getCollection(coleccion).withWriteConcern(writeConcern);
+        List<? extends HeroeReporte> items = chunk.getItems();
+        for (int desde = 0; desde < items.size(); desde += tamanoLote) {
+            insertarLote(destino, items.subList(desde, Math.min(items.size(), desde + tamanoLote)));
+        }
+    }
+
+    private void insertarLote(MongoCollection<Document> destino, List<? extends HeroeReporte> lote) {
+        List<Document> documentos = new ArrayList<>(lote.size());
+        for (HeroeReporte reporte : lote) {
+            documentos.add(aDocumento(reporte));
+        }
+        try {
+            destino.insertMany(documentos, new InsertManyOptions().ordered(false));
+        } catch (MongoBulkWriteException e) {
+            if (e.getWriteConcernError() != null) {
+                throw e;
+            }
+            for (BulkWriteError error : e.getWriteErrors()) {
+                if (ErrorCategory.fromErrorCode(error.getCode()) != ErrorCategory.DUPLICATE_KEY) {
+                    throw e;
+                }
+                log.warn("Reporte duplicado, no se inserta: {} ({})", lote.get(error.getIndex()), error.getMessage());
+                duplicados.increment();
+            }
+        }
+    }
+
+    // Mismos campos que escribe MappingMongoConverter para HeroeReporte
+    private Document aDocumento(HeroeReporte reporte) {
+        if (reporte.getId() == null) {
+            reporte.setId(new ObjectId().toHexString());
+        }
+        String id = reporte.getId();
+        Document documento = new Document("_id", ObjectId.isValid(id) ? new ObjectId(id) : id);
+        documento.putAll(campos(reporte));
+        return documento;
+    }
+
+    // Todos los campos menos _id (HeroeReporteUpsertWriter deja que Mongo lo asigne)
+    static Document campos(HeroeReporte reporte) {
+        return new Document("nombre", reporte.getNombre())
+                .append("equipo", reporte.getEquipo())
+                .append("poder", reporte.getPoder())
+                .append("mejoraPoder", reporte.getMejoraPoder())
+                .append("poderTotal", reporte.getPoderTotal())
+                .append("_class", HeroeReporte.class.getName());
+    }
+}
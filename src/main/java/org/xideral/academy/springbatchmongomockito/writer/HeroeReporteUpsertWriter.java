@@ -0,0 +1,86 @@
+package org.xideral.academy.springbatchmongomockito.writer;
+
+import com.mongodb.WriteConcern;
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.bulk.BulkWriteUpsert;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.UpdateManyModel;
+import com.mongodb.client.model.UpdateOptions;
+import com.mongodb.client.model.WriteModel;
+import org.bson.Document;
+import org.springframework.batch.item.Chunk;
+import org.springframework.batch.item.ItemWriter;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.xideral.academy.springbatchmongomockito.model.HeroeReporte;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Writer de reportes que actualiza (upsert) por nombre con bulkWrite no ordenado.
+ *
+ * Lo usa el paso2 incremental: un heroe que cambio en heroes_procesados
+ * actualiza su reporte en lugar de agregar uno nuevo. Los documentos tienen
+ * los mismos campos que HeroeReporteBulkWriter; el _id lo conserva Mongo si
+ * el reporte ya existia y lo genera si es nuevo (y se copia al item).
+ *
+ * La primera escritura asegura un indice sobre "nombre" para que cada
+ * actualizacion no recorra toda la coleccion. No es unico: el modo de
+ * solo-insercion ("bulk") deja nombres repetidos cada vez que se vuelve a
+ * correr, y dos upserts concurrentes del mismo nombre nuevo pueden crear dos
+ * documentos. Por eso se usa updateMany con $set en lugar de replaceOne:
+ * todas las copias de un nombre reciben los mismos valores y ninguna queda
+ * vieja.
+ */
+public class HeroeReporteUpsertWriter implements ItemWriter<HeroeReporte> {
+    private final MongoTemplate mongoTemplate;
+    private final String coleccion;
+    private final WriteConcern writeConcern;
+    private final int tamanoLote;
+    private volatile boolean indiceAsegurado;
+
+    public HeroeReporteUpsertWriter(MongoTemplate mongoTemplate, String coleccion, WriteConcern writeConcern, int tamanoLote) {
+        if (tamanoLote < 1) {
+            throw new IllegalArgumentException("tamanoLote debe ser mayor a cero: " + tamanoLote);
+        }
+        this.mongoTemplate = mongoTemplate;
+        this.coleccion = coleccion;
+        this.writeConcern = writeConcern;
+        this.tamanoLote = tamanoLote;
+    }
+
+    @Override
+    public void write(Chunk<? extends HeroeReporte> chunk) {
+        asegurarIndice();
+        MongoCollection<Document> destino = mongoTemplate.getCollection(coleccion).withWriteConcern(writeConcern);
+        List<? extends HeroeReporte> items = chunk.getItems();
+        for (int desde = 0; desde < items.size(); desde += tamanoLote) {
+            actualizarLote(destino, items.subList(desde, Math.min(items.size(), desde + tamanoLote)));
+        }
+    }
+
+    private void actualizarLote(MongoCollection<Document> destino, List<? extends HeroeReporte> lote) {
+        List<WriteModel<Document>> actualizaciones = new ArrayList<>(lote.size());
+        for (HeroeReporte reporte : lote) {
+            actualizaciones.add(new UpdateManyModel<>(Filters.eq("nombre", reporte.getNombre()),
+                    new Document("$set", HeroeReporteBulkWriter.campos(reporte)), new UpdateOptions().upsert(true)));
+        }
+        BulkWriteResult resultado = destino.bulkWrite(actualizaciones, new BulkWriteOptions().ordered(false));
+        if (resultado.wasAcknowledged()) {
+            for (BulkWriteUpsert insertado : resultado.getUpserts()) {
+                lote.get(insertado.getIndex()).setId(insertado.getId().asObjectId().getValue().toHexString());
+            }
+        }
+    }
+
+    private void asegurarIndice() {
+        if (!indiceAsegurado) {
+            mongoTemplate.indexOps(coleccion).ensureIndex(new Index().on("nombre", Sort.Direction.ASC));
+            indiceAsegurado = true;
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package org.xideral.academy.springbatchmongomockito.writer;
+
+import org.springframework.batch.item.Chunk;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.ItemStreamException;
+import org.springframework.batch.item.ItemStreamWriter;
+import org.springframework.batch.item.util.ExecutionContextUserSupport;
+import org.xideral.academy.springbatchmongomockito.model.Heroe;
+import org.xideral.academy.springbatchmongomockito.reader.HeroeStaging;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Writer de paso1 que agrega los heroes procesados al archivo binario de
+ * staging (formato de HeroeStaging), en lugar de hacer un upsert en MySQL.
+ *
+ * Cada chunk se codifica en un solo buffer y se agrega al final del
+ * archivo con una escritura. En update() (justo antes del commit del
+ * chunk) se fuerza a disco y se guarda el tamano del archivo en el
+ * ExecutionContext. Al reiniciar, open() corta el archivo en ese tamano:
+ * lo que se escribio despues del ultimo commit se descarta y no queda
+ * duplicado. Una ejecucion nueva empieza con el archivo vacio.
+ *
+ * A diferencia del upsert por nombre_hp, los nombres repetidos en la
+ * entrada no se combinan: cada linea queda como un registro.
+ */
+public class HeroeStagingWriter implements ItemStreamWriter<Heroe> {
+    private static final String POSICION = "posicion";
+
+    // Prefijo de las claves en el ExecutionContext
+    private final ExecutionContextUserSupport claves = new ExecutionContextUserSupport("heroeStagingWriter");
+    private final Path archivo;
+
+    private FileChannel canal;
+    private ByteBuffer buffer = ByteBuffer.allocateDirect(0);
+
+    public HeroeStagingWriter(Path archivo) {
+        this.archivo = archivo;
+    }
+
+    @Override
+    public void open(ExecutionContext executionContext) {
+        try {
+            Path directorio = archivo.toAbsolutePath().getParent();
+            if (directorio != null) {
+                Files.createDirectories(directorio);
+            }
+            canal = FileChannel.open(archivo, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            String clavePosicion = claves.getKey(POSICION);
+            // Reinicio: se descarta lo escrito despues del ultimo chunk confirmado
+            long posicion = executionContext.containsKey(clavePosicion) ? executionContext.getLong(clavePosicion) : 0;
+            if (posicion > canal.size()) {
+                throw new ItemStreamException("El staging " + archivo + " tiene " + canal.size()
+                        + " bytes y el ultimo commit registro " + posicion);
+            }
+            canal.truncate(posicion);
+            canal.position(posicion);
+        } catch (IOException e) {
+            throw new ItemStreamException("No se pudo abrir " + archivo, e);
+        }
+    }
+
+    @Override
+    public void write(Chunk<? extends Heroe> chunk) throws IOException {
+        int bytes = chunk.size() * HeroeStaging.REGISTRO;
+        if (buffer.capacity() < bytes) {
+            buffer = ByteBuffer.allocateDirect(bytes);
+        }
+        buffer.clear();
+        for (Heroe heroe : chunk) {
+            HeroeStaging.escribir(buffer, heroe);
+        }
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            canal.write(buffer);
+        }
+    }
+
+    @Override
+    public void update(ExecutionContext executionContext) {
+        try {
+            canal.force(false);
+            executionContext.putLong(claves.getKey(POSICION), canal.position());
+        } catch (IOException e) {
+            throw new ItemStreamException("No se pudo sincronizar " + archivo, e);
+        }
+    }
+
+    @Override
+    public void close() {
+        try {
+            if (canal != null) {
+                canal.close();
+            }
+        } catch (IOException e) {
+            throw new ItemStreamException("No se pudo cerrar " + archivo, e);
+        } finally {
+            canal = null;
+        }
+    }
+}
@@ -0,0 +1,24 @@
+-- Tabla de paso entre el Step 1 y el Step 2.
+-- "id" es la llave con la que paso2 se particiona y pagina (WHERE id > ? ORDER BY id).
+-- "nombre_hp" es la llave natural: paso1 hace upsert sobre ella y asi
+-- volver a correr o reiniciar el job no duplica heroes.
+-- "actualizado_en" cambia en cada insert o update que modifica la fila; el
+-- modo incremental de paso2 solo exporta las filas posteriores a su marca.
+-- Si la tabla ya existia sin id:
+--   ALTER TABLE heroes_procesados ADD COLUMN id BIGINT NOT NULL AUTO_INCREMENT PRIMARY KEY FIRST;
+-- Si ya existia sin la llave unica (quitar antes los duplicados):
+--   ALTER TABLE heroes_procesados ADD CONSTRAINT uk_heroes_procesados_nombre UNIQUE (nombre_hp);
+-- Si ya existia sin actualizado_en:
+--   ALTER TABLE heroes_procesados
+--       ADD COLUMN actualizado_en TIMESTAMP(6) NOT NULL DEFAULT CURRENT_TIMESTAMP(6) ON UPDATE CURRENT_TIMESTAMP(6),
+--       ADD INDEX idx_heroes_procesados_actualizado (actualizado_en);
+CREATE TABLE IF NOT EXISTS heroes_procesados (
+    id             BIGINT       NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    nombre_hp      VARCHAR(100) NOT NULL,
+    equipo_hp      VARCHAR(100),
+    poder_hp       DOUBLE,
+    mejoraPoder_hp DOUBLE,
+    actualizado_en TIMESTAMP(6) NOT NULL DEFAULT CURRENT_TIMESTAMP(6) ON UPDATE CURRENT_TIMESTAMP(6),
+    CONSTRAINT uk_heroes_procesados_nombre UNIQUE (nombre_hp),
+    INDEX idx_heroes_procesados_actualizado (actualizado_en)
+);
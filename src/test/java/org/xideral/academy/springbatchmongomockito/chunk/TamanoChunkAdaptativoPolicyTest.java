@@ -0,0 +1,176 @@
+package org.xideral.academy.springbatchmongomockito.chunk;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.item.Chunk;
+import org.springframework.batch.repeat.RepeatContext;
+import org.springframework.batch.repeat.RepeatStatus;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests de TamanoChunkAdaptativoPolicy.
+ *
+ * En lugar de un reloj real usamos uno simulado: cada escritura "tarda"
+ * lo que indique el test, asi las decisiones de la politica son deterministas.
+ */
+public class TamanoChunkAdaptativoPolicyTest {
+    private SimpleMeterRegistry registry;
+    private long ahora;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        ahora = 0;
+    }
+
+    @Test
+    @DisplayName("start/isComplete: el chunk termina al llegar al tamano actual")
+    void isComplete_alcanzaTamano_terminaChunk() {
+        // Arrange
+        TamanoChunkAdaptativoPolicy policy = crearPolicy(1, 100, 3, 200);
+        RepeatContext contexto = policy.start(null);
+
+        // Act & Assert
+        for (int i = 0; i < 3; i++) {
+            assertFalse(policy.isComplete(contexto, RepeatStatus.CONTINUABLE));
+            policy.update(contexto);
+        }
+        assertTrue(policy.isComplete(contexto, RepeatStatus.CONTINUABLE));
+    }
+
+    @Test
+    @DisplayName("isComplete: termina si el reader ya no tiene items")
+    void isComplete_sinMasItems_terminaChunk() {
+        // Arrange
+        TamanoChunkAdaptativoPolicy policy = crearPolicy(1, 100, 10, 200);
+        RepeatContext contexto = policy.start(null);
+
+        // Act & Assert
+        assertTrue(policy.isComplete(contexto, RepeatStatus.FINISHED));
+    }
+
+    @Test
+    @DisplayName("afterWrite: escrituras rapidas hacen crecer el chunk como maximo al doble")
+    void afterWrite_escrituraRapida_duplicaTamano() {
+        // Arrange
+        TamanoChunkAdaptativoPolicy policy = crearPolicy(3, 1000, 10, 200);
+
+        // Act: 10 items en 1 ms, muy por debajo de los 200 ms objetivo
+        escribir(policy, 10, 1);
+
+        // Assert
+        assertEquals(20, policy.getTamano());
+    }
+
+    @Test
+    @DisplayName("afterWrite: una escritura lenta reduce el chunk de inmediato")
+    void afterWrite_escrituraLenta_reduceTamano() {
+        // Arrange
+        TamanoChunkAdaptativoPolicy policy = crearPolicy(3, 1000, 100, 200);
+
+        // Act: 100 items en 400 ms (4 ms por item) => caben 50 en 200 ms
+        escribir(policy, 100, 400);
+
+        // Assert
+        assertEquals(50, policy.getTamano());
+    }
+
+    @Test
+    @DisplayName("afterWrite: una escritura muy lenta no baja del minimo")
+    void afterWrite_escrituraMuyLenta_respetaMinimo() {
+        // Arrange
+        TamanoChunkAdaptativoPolicy policy = crearPolicy(5, 40, 20, 200);
+
+        // Act
+        escribir(policy, 20, 10_000);
+
+        // Assert
+        assertEquals(5, policy.getTamano());
+    }
+
+    @Test
+    @DisplayName("afterWrite: escrituras muy rapidas no pasan del maximo")
+    void afterWrite_escriturasMuyRapidas_respetaMaximo() {
+        // Arrange
+        TamanoChunkAdaptativoPolicy policy = crearPolicy(5, 40, 20, 200);
+
+        // Act
+        for (int i = 0; i < 5; i++) {
+            escribir(policy, policy.getTamano(), 1);
+        }
+
+        // Assert
+        assertEquals(40, policy.getTamano());
+    }
+
+    @Test
+    @DisplayName("afterWrite: con costo fijo por item converge al tamano de la latencia objetivo")
+    void afterWrite_costoConstante_convergeAObjetivo() {
+        // Arrange: cada item cuesta 2 ms y el objetivo es 200 ms => ~100 items
+        TamanoChunkAdaptativoPolicy policy = crearPolicy(3, 1000, 3, 200);
+
+        // Act
+        for (int i = 0; i < 20; i++) {
+            int items = policy.getTamano();
+            escribir(policy, items, items * 2L);
+        }
+
+        // Assert
+        assertEquals(100, policy.getTamano(), 5);
+    }
+
+    @Test
+    @DisplayName("afterWrite: deja de crecer cuando un chunk mas grande no mejora el throughput")
+    void afterWrite_throughputEmpeora_regresaAlMejorTamano() {
+        // Arrange
+        TamanoChunkAdaptativoPolicy policy = crearPolicy(3, 1000, 10, 1000);
+
+        // Act: 10 items a 1 ms/item, luego 20 items a 3 ms/item (peor throughput)
+        escribir(policy, 10, 10);
+        escribir(policy, 20, 60);
+
+        // Assert
+        assertEquals(10, policy.getTamano());
+    }
+
+    @Test
+    @DisplayName("start: publica cada tamano elegido en heroes.chunk.tamano")
+    void start_cadaChunk_registraMetrica() {
+        // Arrange
+        TamanoChunkAdaptativoPolicy policy = crearPolicy(3, 1000, 10, 200);
+
+        // Act
+        policy.start(null);
+        escribir(policy, 10, 1);
+        policy.start(null);
+
+        // Assert
+        DistributionSummary resumen = registry.get("heroes.chunk.tamano").tag("paso", "paso1").summary();
+        assertEquals(2, resumen.count());
+        assertEquals(30.0, resumen.totalAmount(), "Debe registrar 10 y luego 20");
+    }
+
+    // =====================================================================
+    //  Metodos auxiliares
+    // =====================================================================
+
+    private TamanoChunkAdaptativoPolicy crearPolicy(int minimo, int maximo, int inicial, long objetivoMs) {
+        return new TamanoChunkAdaptativoPolicy(minimo, maximo, inicial, objetivoMs, registry, "paso1", () -> ahora);
+    }
+
+    private void escribir(TamanoChunkAdaptativoPolicy policy, int items, long milisegundos) {
+        Chunk<Object> chunk = new Chunk<>();
+        for (int i = 0; i < items; i++) {
+            chunk.add(i);
+        }
+        policy.beforeWrite(chunk);
+        ahora += TimeUnit.MILLISECONDS.toNanos(milisegundos);
+        policy.afterWrite(chunk);
+    }
+}
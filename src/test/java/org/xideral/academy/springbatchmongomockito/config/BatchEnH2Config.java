@@ -0,0 +1,67 @@
+package org.xideral.academy.springbatchmongomockito.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.batch.core.configuration.annotation.EnableBatchProcessing;
+import org.springframework.batch.core.configuration.annotation.StepScope;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.xideral.academy.springbatchmongomockito.chunk.TamanoChunkAdaptativoPolicy;
+import org.xideral.academy.springbatchmongomockito.listener.MetricasPasoListener;
+
+import javax.sql.DataSource;
+import java.util.UUID;
+
+/**
+ * Base comun de los tests de pasos y jobs.
+ *
+ * H2 en memoria en modo MySQL con las tablas de Spring Batch y el mismo
+ * schema.sql de la aplicacion, su transaction manager, chunks fijos de 2
+ * (para que los reinicios caigan a la mitad del archivo) y metricas en un
+ * registro propio. Cada test la importa y declara solo los beans de su
+ * paso; los tests sin contexto de Spring usan los metodos estaticos.
+ */
+@Configuration
+@EnableBatchProcessing
+public class BatchEnH2Config {
+    public static final int CHUNK = 2;
+
+    // Nombre al azar: cada contexto (o cada test) tiene su propia base
+    public static EmbeddedDatabase baseDeDatos() {
+        return new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                .setName(UUID.randomUUID() + ";MODE=MySQL")
+                .addScript("classpath:org/springframework/batch/core/schema-h2.sql")
+                .addScript("classpath:schema.sql")
+                .build();
+    }
+
+    public static TamanoChunkAdaptativoPolicy chunkFijo(String paso) {
+        return new TamanoChunkAdaptativoPolicy(CHUNK, CHUNK, CHUNK, 200, new SimpleMeterRegistry(), paso);
+    }
+
+    @Bean
+    DataSource dataSource() {
+        return baseDeDatos();
+    }
+
+    @Bean
+    DataSourceTransactionManager transactionManager(DataSource dataSource) {
+        return new DataSourceTransactionManager(dataSource);
+    }
+
+    @Bean
+    @StepScope
+    TamanoChunkAdaptativoPolicy tamanoChunk(@Value("#{stepExecution.stepName}") String paso) {
+        return chunkFijo(paso);
+    }
+
+    @Bean
+    MetricasPasoListener metricasPaso() {
+        return new MetricasPasoListener(new SimpleMeterRegistry());
+    }
+}
@@ -0,0 +1,72 @@
+package org.xideral.academy.springbatchmongomockito.config;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.xideral.academy.springbatchmongomockito.listener.InvalidarCacheReportesListener;
+import org.xideral.academy.springbatchmongomockito.model.HeroeReporte;
+import org.xideral.academy.springbatchmongomockito.repository.HeroeReporteRepository;
+import org.xideral.academy.springbatchmongomockito.repository.HeroeReporteRepositoryConCache;
+import org.xideral.academy.springbatchmongomockito.repository.HeroeReporteRepositoryEnMemoria;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests del CacheReportesConfig: el BeanPostProcessor solo envuelve el
+ * repositorio si la cache esta habilitada, y el listener del job la vacia.
+ */
+public class CacheReportesConfigTest {
+    @Test
+    @DisplayName("cacheReportes: habilitada, envuelve el repositorio con la cache")
+    void cacheReportes_habilitada_envuelveRepositorio() {
+        // Arrange
+        BeanPostProcessor postProcessor = CacheReportesConfig.cacheReportes(true, 100, Duration.ofMinutes(1));
+
+        // Act
+        Object bean = postProcessor.postProcessAfterInitialization(new HeroeReporteRepositoryEnMemoria(), "repositorio");
+
+        // Assert
+        assertInstanceOf(HeroeReporteRepositoryConCache.class, bean);
+    }
+
+    @Test
+    @DisplayName("cacheReportes: deshabilitada, deja el repositorio y los demas beans intactos")
+    void cacheReportes_deshabilitada_noEnvuelve() {
+        // Arrange
+        BeanPostProcessor postProcessor = CacheReportesConfig.cacheReportes(false, 100, Duration.ofMinutes(1));
+        HeroeReporteRepositoryEnMemoria repositorio = new HeroeReporteRepositoryEnMemoria();
+
+        // Act & Assert
+        assertSame(repositorio, postProcessor.postProcessAfterInitialization(repositorio, "repositorio"));
+        assertEquals("otro", CacheReportesConfig.cacheReportes(true, 100, Duration.ofMinutes(1))
+                .postProcessAfterInitialization("otro", "otroBean"));
+    }
+
+    @Test
+    @DisplayName("invalidarCacheReportes: al terminar el job la cache vuelve a leer del repositorio")
+    void invalidarCacheReportes_afterJob_vaciaLaCache() {
+        // Arrange
+        HeroeReporteRepositoryEnMemoria enMemoria = new HeroeReporteRepositoryEnMemoria();
+        try (AnnotationConfigApplicationContext contexto = new AnnotationConfigApplicationContext()) {
+            contexto.registerBean("repositorio", HeroeReporteRepository.class, () -> enMemoria);
+            contexto.registerBean(BeanPostProcessor.class,
+                    () -> CacheReportesConfig.cacheReportes(true, 100, Duration.ofMinutes(1)));
+            contexto.refresh();
+            HeroeReporteRepository repositorio = contexto.getBean(HeroeReporteRepository.class);
+            InvalidarCacheReportesListener listener =
+                    new CacheReportesConfig().invalidarCacheReportes(contexto.getBeanProvider(HeroeReporteRepository.class));
+            repositorio.findAll();
+            enMemoria.save(new HeroeReporte()); // el batch escribe sin pasar por la cache
+
+            // Act
+            listener.afterJob(new JobExecution(1L));
+
+            // Assert
+            assertEquals(1, repositorio.findAll().size());
+        }
+    }
+}
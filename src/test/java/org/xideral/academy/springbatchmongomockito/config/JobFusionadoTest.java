@@ -0,0 +1,202 @@
+package org.xideral.academy.springbatchmongomockito.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobParameters;
+import org.springframework.batch.core.JobParametersBuilder;
+import org.springframework.batch.core.Step;
+import org.springframework.batch.core.explore.JobExplorer;
+import org.springframework.batch.core.explore.support.JobExplorerFactoryBean;
+import org.springframework.batch.core.launch.support.TaskExecutorJobLauncher;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.batch.core.repository.support.JobRepositoryFactoryBean;
+import org.springframework.batch.item.Chunk;
+import org.springframework.batch.item.ItemWriter;
+import org.springframework.batch.item.database.JdbcBatchItemWriter;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.xideral.academy.springbatchmongomockito.listener.AsegurarIndicesReportesListener;
+import org.xideral.academy.springbatchmongomockito.listener.InvalidarCacheReportesListener;
+import org.xideral.academy.springbatchmongomockito.listener.MetricasPasoListener;
+import org.xideral.academy.springbatchmongomockito.model.HeroeReporte;
+import org.xideral.academy.springbatchmongomockito.processor.HeroeProcessor;
+import org.xideral.academy.springbatchmongomockito.processor.ReporteProcessor;
+import org.xideral.academy.springbatchmongomockito.repository.HeroeReporteRepository;
+import org.xideral.academy.springbatchmongomockito.repository.HeroeReporteRepositoryMongo;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests del job fusionado (CSV -> HeroeProcessor + ReporteProcessor -> Mongo).
+ *
+ * Corre el pasoFusionado y el job reales de JobFusionadoConfig sobre H2 en
+ * modo MySQL, con chunks de 2. En lugar de MongoDB, el writer solo guarda
+ * los reportes de los chunks que terminan y puede fallar en un heroe; la
+ * copia de auditoria va a la tabla heroes_procesados real.
+ */
+public class JobFusionadoTest {
+    private static final String CSV = "nombre,equipo,poder\n"
+            + "Spider-Man,Avengers,8500\n"
+            + "Batman,Justice League,9200\n"
+            + "Thor,Avengers,11000\n";
+
+    @TempDir
+    Path directorio;
+
+    private EmbeddedDatabase baseDeDatos;
+    private JdbcTemplate jdbcTemplate;
+    private JobRepository jobRepository;
+    private JobExplorer jobExplorer;
+    private DataSourceTransactionManager transactionManager;
+    private ReportesEscritos mongo;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        baseDeDatos = BatchEnH2Config.baseDeDatos();
+        jdbcTemplate = new JdbcTemplate(baseDeDatos);
+        transactionManager = new DataSourceTransactionManager(baseDeDatos);
+
+        JobRepositoryFactoryBean repositorio = new JobRepositoryFactoryBean();
+        repositorio.setDataSource(baseDeDatos);
+        repositorio.setTransactionManager(transactionManager);
+        repositorio.afterPropertiesSet();
+        jobRepository = repositorio.getObject();
+
+        JobExplorerFactoryBean explorador = new JobExplorerFactoryBean();
+        explorador.setDataSource(baseDeDatos);
+        explorador.setTransactionManager(transactionManager);
+        explorador.afterPropertiesSet();
+        jobExplorer = explorador.getObject();
+
+        mongo = new ReportesEscritos(jdbcTemplate);
+    }
+
+    @AfterEach
+    void tearDown() {
+        baseDeDatos.shutdown();
+    }
+
+    @Test
+    @DisplayName("sin auditoria: los reportes pasan por HeroeProcessor y ReporteProcessor y solo van a Mongo")
+    void fusionado_sinAuditoria_soloMongo() throws Exception {
+        // Act
+        JobExecution ejecucion = ejecutarJob(false);
+
+        // Assert
+        assertEquals(BatchStatus.COMPLETED, ejecucion.getStatus());
+        assertEquals(List.of("SPIDER-MAN", "BATMAN", "THOR"),
+                mongo.reportes.stream().map(HeroeReporte::getNombre).toList());
+        HeroeReporte thor = mongo.reportes.get(2);
+        assertAll("Reporte de THOR con bono y poder total",
+                () -> assertEquals("Avengers", thor.getEquipo()),
+                () -> assertEquals(1100.0, thor.getMejoraPoder(), 0.001),
+                () -> assertEquals(12100.0, thor.getPoderTotal(), 0.001)
+        );
+        assertEquals(0, contarAuditoria(), "Sin auditoria no se toca heroes_procesados");
+    }
+
+    @Test
+    @DisplayName("con auditoria: cada reporte tambien queda en heroes_procesados")
+    void fusionado_conAuditoria_escribeMongoYMysql() throws Exception {
+        // Act
+        JobExecution ejecucion = ejecutarJob(true);
+
+        // Assert
+        assertEquals(BatchStatus.COMPLETED, ejecucion.getStatus());
+        assertEquals(3, mongo.reportes.size());
+        assertEquals(3, contarAuditoria());
+        assertEquals(850.0, jdbcTemplate.queryForObject(
+                "SELECT mejoraPoder_hp FROM heroes_procesados WHERE nombre_hp = 'SPIDER-MAN'", Double.class), 0.001);
+    }
+
+    @Test
+    @DisplayName("con auditoria: si falla Mongo, el rollback del chunk tambien deshace heroes_procesados")
+    void fusionado_fallaMongo_sinFilasDeAuditoria() throws Exception {
+        // Arrange - el primer chunk (SPIDER-MAN, BATMAN) falla en Mongo despues de escribir MySQL
+        mongo.fallarEn = "BATMAN";
+
+        // Act
+        JobExecution ejecucion = ejecutarJob(true);
+
+        // Assert
+        assertEquals(BatchStatus.FAILED, ejecucion.getStatus());
+        assertTrue(mongo.reportes.isEmpty());
+        assertEquals(List.of(2), mongo.auditoriaAlEscribir, "MySQL se escribe antes que Mongo, en el mismo chunk");
+        assertEquals(0, contarAuditoria(), "La auditoria del chunk fallido no debe quedar confirmada");
+    }
+
+    // =====================================================================
+    //  Metodos auxiliares
+    // =====================================================================
+
+    private JobExecution ejecutarJob(boolean auditoriaMysql) throws Exception {
+        Path csv = directorio.resolve("heroes.csv");
+        Files.writeString(csv, CSV, StandardCharsets.UTF_8);
+        JobFusionadoConfig config = new JobFusionadoConfig();
+        JdbcBatchItemWriter<HeroeReporte> auditoria = config.escribirAuditoriaEnBD(baseDeDatos);
+        auditoria.afterPropertiesSet(); // fuera del contexto de Spring nadie lo invoca
+        Step paso = config.pasoFusionado(jobRepository, transactionManager, BatchEnH2Config.chunkFijo("pasoFusionado"),
+                new MetricasPasoListener(new SimpleMeterRegistry()),
+                new BatchConfig().leerCSV(new FileSystemResource(csv), "mmap"),
+                config.procesarHeroeYReporte(new HeroeProcessor(), new ReporteProcessor()),
+                mongo, auditoria, auditoriaMysql);
+        Job job = config.procesarHeroesFusionadoJob(jobRepository, jobExplorer,
+                new AsegurarIndicesReportesListener(mock(HeroeReporteRepositoryMongo.class)),
+                new InvalidarCacheReportesListener(
+                        new StaticListableBeanFactory().getBeanProvider(HeroeReporteRepository.class)),
+                paso);
+
+        // Igual que JobLauncherApplicationRunner: los parametros los decide el incrementer
+        JobParameters parametros = new JobParametersBuilder(jobExplorer).getNextJobParameters(job).toJobParameters();
+        TaskExecutorJobLauncher launcher = new TaskExecutorJobLauncher();
+        launcher.setJobRepository(jobRepository);
+        launcher.afterPropertiesSet();
+        return launcher.run(job, parametros);
+    }
+
+    private int contarAuditoria() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM heroes_procesados", Integer.class);
+    }
+
+    // Solo guarda los chunks completos, como lo haria el rollback en MongoDB.
+    // Tambien anota cuantas filas de auditoria ve dentro de la transaccion del chunk
+    static class ReportesEscritos implements ItemWriter<HeroeReporte> {
+        final List<HeroeReporte> reportes = new ArrayList<>();
+        final List<Integer> auditoriaAlEscribir = new ArrayList<>();
+        private final JdbcTemplate jdbcTemplate;
+        String fallarEn;
+
+        ReportesEscritos(JdbcTemplate jdbcTemplate) {
+            this.jdbcTemplate = jdbcTemplate;
+        }
+
+        @Override
+        public void write(Chunk<? extends HeroeReporte> chunk) {
+            auditoriaAlEscribir.add(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM heroes_procesados", Integer.class));
+            for (HeroeReporte reporte : chunk) {
+                if (reporte.getNombre().equals(fallarEn)) {
+                    throw new DataAccessResourceFailureException("Mongo no respondio en " + reporte.getNombre());
+                }
+            }
+            reportes.addAll(chunk.getItems());
+        }
+    }
+}
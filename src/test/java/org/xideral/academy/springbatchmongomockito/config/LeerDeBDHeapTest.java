@@ -0,0 +1,123 @@
+package org.xideral.academy.springbatchmongomockito.config;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.database.JdbcCursorItemReader;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.xideral.academy.springbatchmongomockito.model.Heroe;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test del cursor de leerDeBD con un heap chico.
+ *
+ * Se llena una tabla heroes_procesados en H2 (en archivo, para que no
+ * viva en el heap) con mas datos de los que caben en el -Xmx del proceso
+ * que la lee. El Lector corre en otra JVM con -Xmx24m y recorre la tabla
+ * con el reader real de paso2.
+ *
+ * Alcance: H2 embebido ignora el fetch size (un resultado grande lo pasa
+ * a disco por su cuenta), asi que con fetch size 0 este test tambien
+ * pasaria. Solo comprueba que el reader lee todas las filas sin guardarlas
+ * y, con el control, que 24 MB no alcanzan para tenerlas todas en memoria.
+ * Que el driver de MySQL respete filas-por-fetch (useCursorFetch) solo se
+ * puede ver contra un MySQL real.
+ */
+public class LeerDeBDHeapTest {
+    private static final int FILAS = 150_000;
+    private static final String HEAP = "-Xmx24m";
+
+    @TempDir
+    Path directorio;
+
+    @Test
+    @DisplayName("leerDeBD: recorre una tabla mas grande que el heap con un fetch size acotado")
+    void leerDeBD_tablaMasGrandeQueElHeap_leeTodasLasFilas() throws Exception {
+        // Arrange
+        String url = crearTabla();
+
+        // Act
+        Resultado lector = correrLector(url, "recorrer");
+
+        // Assert
+        assertEquals(0, lector.codigo(), lector.salida());
+        assertTrue(lector.salida().contains("leidos=" + FILAS), lector.salida());
+    }
+
+    @Test
+    @DisplayName("control: guardar todas las filas con el mismo heap termina en OutOfMemoryError")
+    void leerDeBD_reteniendoFilas_sinMemoria() throws Exception {
+        // Arrange
+        String url = crearTabla();
+
+        // Act
+        Resultado lector = correrLector(url, "retener");
+
+        // Assert - si esto pasara, el heap del test no probaria nada
+        assertNotEquals(0, lector.codigo(), lector.salida());
+        assertTrue(lector.salida().contains("OutOfMemoryError"), lector.salida());
+    }
+
+    // =====================================================================
+    //  Metodos auxiliares
+    // =====================================================================
+
+    // ~150k filas con nombres de 90 caracteres: mas de 30 MB como objetos Heroe.
+    // Solo las columnas que lee el reader y sin indices, para que llenarla sea rapido;
+    // CACHE_SIZE acota el cache de H2 dentro del heap del lector
+    private String crearTabla() {
+        String url = "jdbc:h2:file:" + directorio.resolve("heroes") + ";MODE=MySQL;CACHE_SIZE=2048";
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(url);
+        new JdbcTemplate(dataSource).execute("CREATE TABLE heroes_procesados AS "
+                + "SELECT RPAD(CAST(X AS VARCHAR), 90, 'H') AS nombre_hp, 'Avengers' AS equipo_hp, "
+                + "CAST(X AS DOUBLE) AS poder_hp, X * 1.1 AS mejoraPoder_hp FROM SYSTEM_RANGE(1, " + FILAS + ")");
+        new JdbcTemplate(dataSource).execute("SHUTDOWN");
+        return url;
+    }
+
+    private Resultado correrLector(String url, String modo) throws Exception {
+        Process lector = new ProcessBuilder(Path.of(System.getProperty("java.home"), "bin", "java").toString(),
+                HEAP, "-cp", System.getProperty("java.class.path"), Lector.class.getName(), url, "1000", modo)
+                .redirectErrorStream(true)
+                .start();
+        String salida = new String(lector.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+        assertTrue(lector.waitFor(2, TimeUnit.MINUTES), "El lector no termino a tiempo");
+        return new Resultado(lector.exitValue(), salida);
+    }
+
+    private record Resultado(int codigo, String salida) {
+    }
+
+    // Proceso aparte con el heap chico: lee la tabla con el reader real de paso2.
+    // En modo "retener" guarda cada heroe, como un reader que cargara todo
+    public static class Lector {
+        public static void main(String[] args) throws Exception {
+            DriverManagerDataSource dataSource = new DriverManagerDataSource(args[0]);
+            JdbcCursorItemReader<Heroe> reader = new BatchConfig().leerDeBD(dataSource, Integer.parseInt(args[1]));
+            boolean retener = "retener".equals(args[2]);
+            List<Heroe> retenidos = new ArrayList<>();
+            reader.afterPropertiesSet();
+            reader.open(new ExecutionContext());
+            long leidos = 0;
+            Heroe heroe;
+            while ((heroe = reader.read()) != null) {
+                leidos++;
+                if (retener) {
+                    retenidos.add(heroe);
+                }
+            }
+            reader.close();
+            System.out.println("leidos=" + leidos + " retenidos=" + retenidos.size()
+                    + " heapMaximo=" + Runtime.getRuntime().maxMemory());
+        }
+    }
+}
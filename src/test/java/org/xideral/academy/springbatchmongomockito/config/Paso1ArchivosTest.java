@@ -0,0 +1,157 @@
+package org.xideral.academy.springbatchmongomockito.config;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobParameters;
+import org.springframework.batch.core.JobParametersBuilder;
+import org.springframework.batch.core.Step;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.explore.JobExplorer;
+import org.springframework.batch.core.job.builder.JobBuilder;
+import org.springframework.batch.core.launch.JobLauncher;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.batch.item.ItemWriter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+import org.xideral.academy.springbatchmongomockito.launch.ReanudarSiFallaIncrementer;
+import org.xideral.academy.springbatchmongomockito.model.Heroe;
+import org.xideral.academy.springbatchmongomockito.processor.HeroeProcessor;
+
+import javax.sql.DataSource;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests del paso1 por archivos con un contexto de Spring minimo.
+ *
+ * Se usa el Paso1ArchivosConfig real (partitioner, reader por archivo y
+ * worker) con el writer JDBC de paso1 sobre H2 en modo MySQL. La entrada
+ * es un directorio temporal que se pasa como job parameter.
+ */
+@SpringJUnitConfig(Paso1ArchivosTest.Configuracion.class)
+@TestPropertySource(properties = {"heroes.csv.lector=mmap", "heroes.entrada=classpath:heroes.csv"})
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+public class Paso1ArchivosTest {
+    @TempDir
+    Path directorio;
+
+    @Autowired
+    private JobLauncher jobLauncher;
+
+    @Autowired
+    private JobExplorer jobExplorer;
+
+    @Autowired
+    private Job job;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Test
+    @DisplayName("paso1Archivos: procesa cada archivo del directorio en su propia particion")
+    void paso1Archivos_directorio_todosLosArchivos() throws Exception {
+        // Arrange
+        crearCsv("a.csv", "Thor,Avengers,11000\nHulk,Avengers,18000\n");
+        crearCsv("b.csv", "Batman,Justice League,9200\n");
+
+        // Act
+        JobExecution ejecucion = jobLauncher.run(job, parametros());
+
+        // Assert
+        assertEquals(BatchStatus.COMPLETED, ejecucion.getStatus());
+        assertEquals(List.of("paso1Archivo:a.csv", "paso1Archivo:b.csv"), workers(ejecucion));
+        assertEquals(3, contarFilas());
+    }
+
+    @Test
+    @DisplayName("reinicio: solo se vuelve a correr el archivo que fallo")
+    void paso1Archivos_unArchivoFalla_reinicioSaltaLosTerminados() throws Exception {
+        // Arrange
+        crearCsv("a.csv", "Thor,Avengers,11000\n");
+        crearCsv("b.csv", "Malo,Avengers,abc\n");
+        crearCsv("c.csv", "Flash,Justice League,8700\n");
+        JobExecution fallida = jobLauncher.run(job, parametros());
+        crearCsv("b.csv", "Malo,Avengers,7000\n");
+
+        // Act
+        JobExecution reanudada = jobLauncher.run(job, parametros());
+
+        // Assert
+        assertEquals(BatchStatus.FAILED, fallida.getStatus());
+        assertEquals(BatchStatus.COMPLETED, reanudada.getStatus());
+        assertEquals(fallida.getJobInstance().getInstanceId(), reanudada.getJobInstance().getInstanceId());
+        assertEquals(List.of("paso1Archivo:b.csv"), workers(reanudada), "a.csv y c.csv ya habian terminado");
+        assertEquals(3, contarFilas());
+    }
+
+    // =====================================================================
+    //  Metodos auxiliares
+    // =====================================================================
+
+    // Igual que JobLauncherApplicationRunner: el incrementer decide y "entrada" viene de la linea de comandos
+    private JobParameters parametros() {
+        JobParameters siguientes = new JobParametersBuilder(jobExplorer).getNextJobParameters(job).toJobParameters();
+        return new JobParametersBuilder(siguientes).addString("entrada", directorio.toString()).toJobParameters();
+    }
+
+    // Los guardados en el job repository: el splitter tambien agrega a la ejecucion
+    // los StepExecution de los archivos que ya habian terminado, pero no los corre
+    private List<String> workers(JobExecution ejecucion) {
+        return jobExplorer.getJobExecution(ejecucion.getId()).getStepExecutions().stream()
+                .map(StepExecution::getStepName)
+                .filter(nombre -> nombre.startsWith("paso1Archivo:"))
+                .sorted()
+                .toList();
+    }
+
+    private void crearCsv(String nombre, String lineas) throws Exception {
+        Files.writeString(directorio.resolve(nombre), "nombre,equipo,poder\n" + lineas, StandardCharsets.UTF_8);
+    }
+
+    private int contarFilas() {
+        return new JdbcTemplate(dataSource).queryForObject("SELECT COUNT(*) FROM heroes_procesados", Integer.class);
+    }
+
+    @Configuration
+    @Import({BatchEnH2Config.class, Paso1ArchivosConfig.class})
+    static class Configuracion {
+        @Bean
+        TaskExecutor particionesTaskExecutor() {
+            return new SimpleAsyncTaskExecutor("particion-");
+        }
+
+        @Bean
+        HeroeProcessor procesarHeroe() {
+            return new HeroeProcessor();
+        }
+
+        @Bean
+        ItemWriter<Heroe> escribirEnBD(DataSource dataSource) {
+            return new BatchConfig().escribirEnBD(dataSource, "batch", 1000);
+        }
+
+        @Bean
+        Job job(JobRepository jobRepository, JobExplorer jobExplorer, Step paso1Archivos) {
+            return new JobBuilder("procesarHeroesJob", jobRepository)
+                    .incrementer(new ReanudarSiFallaIncrementer(jobExplorer, "procesarHeroesJob"))
+                    .start(paso1Archivos)
+                    .build();
+        }
+    }
+}
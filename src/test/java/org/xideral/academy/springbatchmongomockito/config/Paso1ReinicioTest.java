@@ -0,0 +1,197 @@
+package org.xideral.academy.springbatchmongomockito.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobParameters;
+import org.springframework.batch.core.JobParametersBuilder;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.explore.JobExplorer;
+import org.springframework.batch.core.explore.support.JobExplorerFactoryBean;
+import org.springframework.batch.core.job.builder.JobBuilder;
+import org.springframework.batch.core.launch.support.TaskExecutorJobLauncher;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.batch.core.repository.support.JobRepositoryFactoryBean;
+import org.springframework.batch.item.database.JdbcBatchItemWriter;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.xideral.academy.springbatchmongomockito.chunk.TamanoChunkAdaptativoPolicy;
+import org.xideral.academy.springbatchmongomockito.launch.ReanudarSiFallaIncrementer;
+import org.xideral.academy.springbatchmongomockito.listener.MetricasPasoListener;
+import org.xideral.academy.springbatchmongomockito.model.Heroe;
+import org.xideral.academy.springbatchmongomockito.processor.HeroeProcessor;
+
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests de idempotencia y reinicio de paso1.
+ *
+ * Corre el paso1 real (reader mmap + HeroeProcessor + upsert JDBC) sobre H2
+ * en modo MySQL, con las tablas BATCH_* de Spring Batch y el schema.sql de
+ * la aplicacion. El chunk se fija en 2 para saber que se confirmo.
+ */
+public class Paso1ReinicioTest {
+    private static final String CSV_CON_ERROR = "nombre,equipo,poder\n"
+            + "Spider-Man,Avengers,8500\n"
+            + "Batman,Justige League,9200\n"
+            + "Thor,Avengers,11000\n"
+            + "Malo,Avengers,abc\n"
+            + "Hulk,Avengers,18000\n";
+    private static final String CSV_CORREGIDO = CSV_CON_ERROR.replace("abc", "7000");
+
+    @TempDir
+    Path directorio;
+
+    private EmbeddedDatabase baseDeDatos;
+    private JdbcTemplate jdbcTemplate;
+    private JobRepository jobRepository;
+    private JobExplorer jobExplorer;
+    private DataSourceTransactionManager transactionManager;
+    private Path csv;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        baseDeDatos = BatchEnH2Config.baseDeDatos();
+        jdbcTemplate = new JdbcTemplate(baseDeDatos);
+        transactionManager = new DataSourceTransactionManager(baseDeDatos);
+
+        JobRepositoryFactoryBean repositorio = new JobRepositoryFactoryBean();
+        repositorio.setDataSource(baseDeDatos);
+        repositorio.setTransactionManager(transactionManager);
+        repositorio.afterPropertiesSet();
+        jobRepository = repositorio.getObject();
+
+        JobExplorerFactoryBean explorador = new JobExplorerFactoryBean();
+        explorador.setDataSource(baseDeDatos);
+        explorador.setTransactionManager(transactionManager);
+        explorador.afterPropertiesSet();
+        jobExplorer = explorador.getObject();
+
+        csv = directorio.resolve("heroes.csv");
+    }
+
+    @AfterEach
+    void tearDown() {
+        baseDeDatos.shutdown();
+    }
+
+    @Test
+    @DisplayName("reinicio: tras un fallo reanuda la misma instancia desde el ultimo chunk confirmado")
+    void paso1_falloYReinicio_continuaDesdeElOffset() throws Exception {
+        // Arrange
+        Files.writeString(csv, CSV_CON_ERROR, StandardCharsets.UTF_8);
+        JobExecution fallida = ejecutarJob();
+        Files.writeString(csv, CSV_CORREGIDO, StandardCharsets.UTF_8);
+
+        // Act
+        JobExecution reanudada = ejecutarJob();
+
+        // Assert
+        assertEquals(BatchStatus.FAILED, fallida.getStatus());
+        assertEquals(BatchStatus.COMPLETED, reanudada.getStatus());
+        assertEquals(fallida.getJobInstance().getInstanceId(), reanudada.getJobInstance().getInstanceId(),
+                "Debe reiniciarse la instancia que fallo, no crear una nueva");
+        StepExecution paso = reanudada.getStepExecutions().iterator().next();
+        assertEquals(3, paso.getReadCount(), "Solo se leen las lineas posteriores al ultimo commit");
+        assertEquals(5, contarFilas());
+        assertEquals(1, contarFilas("SPIDER-MAN"));
+    }
+
+    @Test
+    @DisplayName("reinicio gzip: la entrada comprimida tambien reanuda desde el ultimo chunk confirmado")
+    void paso1_gzipFalloYReinicio_continuaDesdeElConteo() throws Exception {
+        // Arrange - con lector=mmap: un gzip no se puede mapear y va por flatfile
+        csv = directorio.resolve("heroes.csv.gz");
+        escribirGzip(CSV_CON_ERROR);
+        JobExecution fallida = ejecutarJob();
+        escribirGzip(CSV_CORREGIDO);
+
+        // Act
+        JobExecution reanudada = ejecutarJob();
+
+        // Assert
+        assertEquals(BatchStatus.FAILED, fallida.getStatus());
+        assertEquals(BatchStatus.COMPLETED, reanudada.getStatus());
+        assertEquals(fallida.getJobInstance().getInstanceId(), reanudada.getJobInstance().getInstanceId());
+        StepExecution paso = reanudada.getStepExecutions().iterator().next();
+        assertEquals(3, paso.getReadCount(), "Las lineas ya confirmadas se saltan sin contarse");
+        assertEquals(5, contarFilas());
+        assertEquals(1, contarFilas("SPIDER-MAN"));
+    }
+
+    @Test
+    @DisplayName("upsert: volver a correr un job completo no duplica heroes_procesados")
+    void paso1_dosEjecucionesCompletas_sinDuplicados() throws Exception {
+        // Arrange
+        Files.writeString(csv, CSV_CORREGIDO, StandardCharsets.UTF_8);
+        JobExecution primera = ejecutarJob();
+        Files.writeString(csv, CSV_CORREGIDO.replace("18000", "19000"), StandardCharsets.UTF_8);
+
+        // Act
+        JobExecution segunda = ejecutarJob();
+
+        // Assert
+        assertEquals(BatchStatus.COMPLETED, primera.getStatus());
+        assertEquals(BatchStatus.COMPLETED, segunda.getStatus());
+        assertNotEquals(primera.getJobInstance().getInstanceId(), segunda.getJobInstance().getInstanceId(),
+                "Tras un job completo se crea una instancia nueva");
+        assertEquals(5, contarFilas());
+        assertEquals(19000.0, jdbcTemplate.queryForObject(
+                "SELECT poder_hp FROM heroes_procesados WHERE nombre_hp = 'HULK'", Double.class),
+                "El upsert actualiza la fila existente");
+    }
+
+    // =====================================================================
+    //  Metodos auxiliares
+    // =====================================================================
+
+    private JobExecution ejecutarJob() throws Exception {
+        BatchConfig config = new BatchConfig();
+        TamanoChunkAdaptativoPolicy chunkFijo = BatchEnH2Config.chunkFijo("paso1");
+        JdbcBatchItemWriter<Heroe> writer = (JdbcBatchItemWriter<Heroe>) config.escribirEnBD(baseDeDatos, "batch", 1000);
+        writer.afterPropertiesSet(); // fuera del contexto de Spring nadie lo invoca
+        Job job = new JobBuilder("procesarHeroesJob", jobRepository)
+                .incrementer(new ReanudarSiFallaIncrementer(jobExplorer, "procesarHeroesJob"))
+                .start(config.paso1(jobRepository, transactionManager, chunkFijo,
+                        new MetricasPasoListener(new SimpleMeterRegistry()),
+                        config.leerCSV(new FileSystemResource(csv), "mmap"),
+                        new HeroeProcessor(), writer))
+                .build();
+
+        // Igual que JobLauncherApplicationRunner: los parametros los decide el incrementer
+        JobParameters parametros = new JobParametersBuilder(jobExplorer).getNextJobParameters(job).toJobParameters();
+        TaskExecutorJobLauncher launcher = new TaskExecutorJobLauncher();
+        launcher.setJobRepository(jobRepository);
+        launcher.afterPropertiesSet();
+        return launcher.run(job, parametros);
+    }
+
+    private void escribirGzip(String contenido) throws Exception {
+        try (OutputStream salida = new GZIPOutputStream(Files.newOutputStream(csv))) {
+            salida.write(contenido.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    private int contarFilas() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM heroes_procesados", Integer.class);
+    }
+
+    private int contarFilas(String nombre) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM heroes_procesados WHERE nombre_hp = ?",
+                Integer.class, nombre);
+    }
+}
@@ -0,0 +1,246 @@
+package org.xideral.academy.springbatchmongomockito.config;
+
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.ExitStatus;
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobParameters;
+import org.springframework.batch.core.JobParametersBuilder;
+import org.springframework.batch.core.Step;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.configuration.annotation.StepScope;
+import org.springframework.batch.core.explore.JobExplorer;
+import org.springframework.batch.core.job.builder.JobBuilder;
+import org.springframework.batch.core.launch.JobLauncher;
+import org.springframework.batch.core.launch.support.RunIdIncrementer;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.batch.item.Chunk;
+import org.springframework.batch.item.ItemWriter;
+import org.springframework.batch.item.database.JdbcCursorItemReader;
+import org.springframework.batch.item.database.builder.JdbcCursorItemReaderBuilder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndReplaceOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+import org.xideral.academy.springbatchmongomockito.listener.ResumenEquiposListener;
+import org.xideral.academy.springbatchmongomockito.model.Heroe;
+import org.xideral.academy.springbatchmongomockito.model.HeroeReporte;
+import org.xideral.academy.springbatchmongomockito.processor.ReporteProcessor;
+import org.xideral.academy.springbatchmongomockito.reader.HeroeRowMapper;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests del paso2 asincrono con un contexto de Spring minimo.
+ *
+ * Se usa el Paso2AsincronoConfig real (pool, AsyncItemProcessor y
+ * AsyncItemWriter) sobre H2 en modo MySQL. En lugar de MongoDB, el writer
+ * solo guarda los nombres que recibe y puede fallar una vez en un heroe.
+ */
+@SpringJUnitConfig(Paso2AsincronoTest.Configuracion.class)
+@TestPropertySource(properties = {"heroes.paso2.asincrono.hilos=2", "heroes.paso2.asincrono.capacidad-cola=10"})
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+public class Paso2AsincronoTest {
+    @Autowired
+    private JobLauncher jobLauncher;
+
+    @Autowired
+    private JobExplorer jobExplorer;
+
+    @Autowired
+    private Job job;
+
+    @Autowired
+    private NombresEscritos escritos;
+
+    @Autowired
+    private ProcessorConHilos procesarReporte;
+
+    @Autowired
+    private BulkOperations bulk;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @BeforeEach
+    void setUp() {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        for (String nombre : List.of("THOR", "HULK", "IRON MAN", "FLASH", "STORM")) {
+            jdbcTemplate.update("INSERT INTO heroes_procesados (nombre_hp, equipo_hp, poder_hp, mejoraPoder_hp) " +
+                    "VALUES (?, 'Avengers', 100, 10)", nombre);
+        }
+    }
+
+    @Test
+    @DisplayName("paso2Asincrono: escribe todos los reportes en orden y procesa en los hilos del pool")
+    void paso2Asincrono_todosLosHeroes_escribeEnOrden() throws Exception {
+        // Act
+        JobExecution ejecucion = jobLauncher.run(job, siguientesParametros());
+
+        // Assert
+        assertEquals(BatchStatus.COMPLETED, ejecucion.getStatus());
+        assertEquals(List.of("THOR", "HULK", "IRON MAN", "FLASH", "STORM"), escritos.nombres);
+        assertFalse(procesarReporte.hilos.isEmpty());
+        assertTrue(procesarReporte.hilos.stream().allMatch(hilo -> hilo.startsWith("paso2-async-")),
+                "ReporteProcessor debe correr en el pool: " + procesarReporte.hilos);
+    }
+
+    @Test
+    @DisplayName("paso2Asincrono: los listeners de reportes reciben los Future ya resueltos")
+    void paso2Asincrono_resumenEquipos_recibeReportes() throws Exception {
+        // Act
+        JobExecution ejecucion = jobLauncher.run(job, siguientesParametros());
+
+        // Assert
+        assertEquals(BatchStatus.COMPLETED, ejecucion.getStatus());
+        ArgumentCaptor<Document> resumen = ArgumentCaptor.forClass(Document.class);
+        verify(bulk).replaceOne(any(Query.class), resumen.capture(), any(FindAndReplaceOptions.class));
+        assertEquals(5L, resumen.getValue().get("cantidad"));
+    }
+
+    @Test
+    @DisplayName("resumenEquipos: si falla team_summaries el paso termina FAILED y el reinicio solo reescribe el resumen")
+    void paso2Asincrono_fallaResumen_pasoFallidoYReinicio() throws Exception {
+        // Arrange
+        when(bulk.execute()).thenThrow(new DataAccessResourceFailureException("mongo caido")).thenReturn(null);
+        JobParameters parametros = siguientesParametros();
+
+        // Act
+        JobExecution fallida = jobLauncher.run(job, parametros);
+        JobExecution reinicio = jobLauncher.run(job, parametros);
+
+        // Assert
+        StepExecution paso = fallida.getStepExecutions().iterator().next();
+        assertAll("Primera ejecucion",
+                () -> assertEquals(BatchStatus.FAILED, fallida.getStatus()),
+                () -> assertEquals(ExitStatus.FAILED.getExitCode(), paso.getExitStatus().getExitCode()),
+                () -> assertTrue(paso.getExitStatus().getExitDescription().contains("mongo caido"))
+        );
+        assertEquals(BatchStatus.COMPLETED, reinicio.getStatus());
+        assertEquals(List.of("THOR", "HULK", "IRON MAN", "FLASH", "STORM"), escritos.nombres);
+        verify(bulk, times(2)).execute();
+    }
+
+    @Test
+    @DisplayName("reinicio: si falla la escritura, solo se repite desde el ultimo chunk confirmado")
+    void paso2Asincrono_fallaEscritura_reinicioSinDuplicados() throws Exception {
+        // Arrange - chunks de 2: el segundo chunk (IRON MAN, FLASH) falla la primera vez
+        escritos.fallarEn = "FLASH";
+        JobParameters parametros = siguientesParametros();
+        JobExecution fallida = jobLauncher.run(job, parametros);
+
+        // Act
+        JobExecution reinicio = jobLauncher.run(job, parametros);
+
+        // Assert
+        assertEquals(BatchStatus.FAILED, fallida.getStatus());
+        assertEquals(BatchStatus.COMPLETED, reinicio.getStatus());
+        assertEquals(List.of("THOR", "HULK", "IRON MAN", "FLASH", "STORM"), escritos.nombres);
+    }
+
+    // =====================================================================
+    //  Metodos auxiliares
+    // =====================================================================
+
+    private JobParameters siguientesParametros() {
+        return new JobParametersBuilder(jobExplorer).getNextJobParameters(job).toJobParameters();
+    }
+
+    // Solo guarda los chunks completos, como lo haria el rollback en MongoDB
+    static class NombresEscritos implements ItemWriter<HeroeReporte> {
+        final List<String> nombres = Collections.synchronizedList(new ArrayList<>());
+        volatile String fallarEn;
+
+        @Override
+        public void write(Chunk<? extends HeroeReporte> chunk) {
+            List<String> chunkNombres = new ArrayList<>();
+            for (HeroeReporte reporte : chunk) {
+                if (reporte.getNombre().equals(fallarEn)) {
+                    fallarEn = null;
+                    throw new IllegalStateException("falla simulada en " + reporte.getNombre());
+                }
+                chunkNombres.add(reporte.getNombre());
+            }
+            nombres.addAll(chunkNombres);
+        }
+    }
+
+    static class ProcessorConHilos extends ReporteProcessor {
+        final Set<String> hilos = ConcurrentHashMap.newKeySet();
+
+        @Override
+        public HeroeReporte process(Heroe heroe) {
+            hilos.add(Thread.currentThread().getName());
+            return super.process(heroe);
+        }
+    }
+
+    @Configuration
+    @Import({BatchEnH2Config.class, Paso2AsincronoConfig.class})
+    static class Configuracion {
+        @Bean
+        BulkOperations bulk() {
+            return mock(BulkOperations.class);
+        }
+
+        @Bean
+        @StepScope
+        ResumenEquiposListener resumenEquipos(BulkOperations bulk) {
+            MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+            when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, "team_summaries")).thenReturn(bulk);
+            return new ResumenEquiposListener(mongoTemplate, "team_summaries");
+        }
+
+        // Mismo reader que BatchConfig.leerDeBD, ordenado para comparar
+        @Bean
+        JdbcCursorItemReader<Heroe> leerDeBD(DataSource dataSource) {
+            return new JdbcCursorItemReaderBuilder<Heroe>()
+                    .name("heroeDBReader")
+                    .dataSource(dataSource)
+                    .sql("SELECT nombre_hp, equipo_hp, poder_hp, mejoraPoder_hp FROM heroes_procesados ORDER BY id")
+                    .rowMapper(new HeroeRowMapper())
+                    .build();
+        }
+
+        @Bean
+        ProcessorConHilos procesarReporte() {
+            return new ProcessorConHilos();
+        }
+
+        @Bean
+        NombresEscritos escribirEnMongo() {
+            return new NombresEscritos();
+        }
+
+        @Bean
+        Job job(JobRepository jobRepository, Step paso2Asincrono) {
+            return new JobBuilder("paso2AsincronoJob", jobRepository)
+                    .incrementer(new RunIdIncrementer())
+                    .start(paso2Asincrono)
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,206 @@
+package org.xideral.academy.springbatchmongomockito.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobInstance;
+import org.springframework.batch.core.JobParameters;
+import org.springframework.batch.core.JobParametersBuilder;
+import org.springframework.batch.core.Step;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.configuration.annotation.StepScope;
+import org.springframework.batch.core.explore.JobExplorer;
+import org.springframework.batch.core.job.builder.JobBuilder;
+import org.springframework.batch.core.launch.JobLauncher;
+import org.springframework.batch.core.launch.support.RunIdIncrementer;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.batch.item.Chunk;
+import org.springframework.batch.item.ItemWriter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.convert.ApplicationConversionService;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.convert.ConversionService;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+import org.xideral.academy.springbatchmongomockito.listener.MarcaDeAguaListener;
+import org.xideral.academy.springbatchmongomockito.model.HeroeReporte;
+import org.xideral.academy.springbatchmongomockito.processor.ReporteProcessor;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests del paso2 incremental con un contexto de Spring minimo.
+ *
+ * Se usa el Paso2IncrementalConfig real (listener de marca de agua y reader
+ * con StepScope) sobre H2 en modo MySQL. En lugar de MongoDB, el writer
+ * solo guarda los nombres que recibe. El contexto corre sin margen para que
+ * las ventanas sean exactas; el margen se prueba con su propio listener.
+ */
+@SpringJUnitConfig(Paso2IncrementalTest.Configuracion.class)
+@TestPropertySource(properties = {"heroes.paso2.tamano-pagina=2", "heroes.paso2.incremental.margen=0s"})
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+public class Paso2IncrementalTest {
+    @Autowired
+    private JobLauncher jobLauncher;
+
+    @Autowired
+    private JobExplorer jobExplorer;
+
+    @Autowired
+    private Job job;
+
+    @Autowired
+    private NombresEscritos escritos;
+
+    @Autowired
+    private DataSource dataSource;
+
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        guardarHeroe("THOR", 11000);
+        guardarHeroe("HULK", 18000);
+        guardarHeroe("IRON MAN", 15000);
+    }
+
+    @Test
+    @DisplayName("primera ejecucion: sin marca previa exporta toda la tabla y guarda la marca en el job")
+    void paso2Incremental_primeraEjecucion_exportaTodo() throws Exception {
+        // Act
+        JobExecution ejecucion = ejecutar(false);
+
+        // Assert
+        assertEquals(BatchStatus.COMPLETED, ejecucion.getStatus());
+        assertEquals(List.of("THOR", "HULK", "IRON MAN"), escritos.nombres);
+        assertTrue(ejecucion.getExecutionContext().containsKey(MarcaDeAguaListener.MARCA_JOB));
+    }
+
+    @Test
+    @DisplayName("ejecuciones siguientes: solo exportan las filas insertadas o modificadas despues de la marca")
+    void paso2Incremental_conCambios_soloExportaLoNuevo() throws Exception {
+        // Arrange
+        ejecutar(false);
+        Thread.sleep(5); // que los cambios caigan despues de la marca
+        guardarHeroe("HULK", 19000);
+        guardarHeroe("FLASH", 8700);
+
+        // Act
+        ejecutar(false);
+        List<String> conCambios = new ArrayList<>(escritos.nombres);
+        ejecutar(false);
+
+        // Assert
+        assertEquals(List.of("HULK", "FLASH"), conCambios);
+        assertEquals(List.of(), escritos.nombres, "Sin cambios no se exporta nada");
+    }
+
+    @Test
+    @DisplayName("reconstruir=true: ignora la marca y exporta toda la tabla")
+    void paso2Incremental_reconstruir_exportaTodo() throws Exception {
+        // Arrange
+        ejecutar(false);
+
+        // Act
+        JobExecution reconstruccion = ejecutar(true);
+
+        // Assert
+        assertEquals(BatchStatus.COMPLETED, reconstruccion.getStatus());
+        assertEquals(3, escritos.nombres.size());
+    }
+
+    @Test
+    @DisplayName("margen: una fila marcada antes de la marca pero confirmada despues entra en la siguiente ventana")
+    void marcaDeAgua_commitTardio_margenLaRecupera() throws Exception {
+        // Arrange - la fila se marca 10 ms antes de la marca pero llega despues de leer la ventana
+        JobExecution primera = ejecutar(false);
+        Timestamp marca = Timestamp.valueOf(primera.getExecutionContext().getString(MarcaDeAguaListener.MARCA_JOB));
+        jdbcTemplate.update("INSERT INTO heroes_procesados (nombre_hp, equipo_hp, poder_hp, mejoraPoder_hp, actualizado_en) "
+                + "VALUES ('TARDIO', 'Avengers', 1, 0.1, ?)", Timestamp.valueOf(marca.toLocalDateTime().minusNanos(10_000_000)));
+        ejecutar(false);
+        List<String> sinMargen = new ArrayList<>(escritos.nombres);
+        MarcaDeAguaListener conMargen = new MarcaDeAguaListener(jobExplorer, dataSource, Duration.ofMinutes(1));
+        StepExecution siguiente = new StepExecution("paso2Incremental",
+                new JobExecution(new JobInstance(999L, "paso2IncrementalJob"), 999L, new JobParameters()));
+
+        // Act
+        conMargen.beforeStep(siguiente);
+
+        // Assert
+        assertEquals(List.of(), sinMargen, "Sin margen la fila tardia queda fuera para siempre");
+        assertEquals(List.of("TARDIO"), jdbcTemplate.queryForList("SELECT nombre_hp FROM heroes_procesados "
+                        + "WHERE nombre_hp = 'TARDIO' AND actualizado_en > ? AND actualizado_en <= ?", String.class,
+                Timestamp.valueOf(siguiente.getExecutionContext().getString(MarcaDeAguaListener.DESDE)),
+                Timestamp.valueOf(siguiente.getExecutionContext().getString(MarcaDeAguaListener.HASTA))));
+    }
+
+    // =====================================================================
+    //  Metodos auxiliares
+    // =====================================================================
+
+    private JobExecution ejecutar(boolean reconstruir) throws Exception {
+        escritos.nombres.clear();
+        JobParameters parametros = new JobParametersBuilder(jobExplorer).getNextJobParameters(job)
+                .addString(MarcaDeAguaListener.RECONSTRUIR, Boolean.toString(reconstruir), false)
+                .toJobParameters();
+        return jobLauncher.run(job, parametros);
+    }
+
+    // Mismo upsert que escribirEnBD
+    private void guardarHeroe(String nombre, double poder) {
+        jdbcTemplate.update("INSERT INTO heroes_procesados (nombre_hp, equipo_hp, poder_hp, mejoraPoder_hp) " +
+                "VALUES (?, 'Avengers', ?, ?)" + BatchConfig.UPSERT_POR_NOMBRE, nombre, poder, poder * 0.10);
+    }
+
+    static class NombresEscritos implements ItemWriter<HeroeReporte> {
+        final List<String> nombres = Collections.synchronizedList(new ArrayList<>());
+
+        @Override
+        public void write(Chunk<? extends HeroeReporte> chunk) {
+            chunk.forEach(reporte -> nombres.add(reporte.getNombre()));
+        }
+    }
+
+    @Configuration
+    @Import({BatchEnH2Config.class, Paso2IncrementalConfig.class})
+    static class Configuracion {
+        // Como en Spring Boot: "0s" -> Duration en @Value
+        @Bean
+        static ConversionService conversionService() {
+            return new ApplicationConversionService();
+        }
+
+        @Bean
+        ReporteProcessor procesarReporte() {
+            return new ReporteProcessor();
+        }
+
+        @Bean
+        NombresEscritos escribirEnMongoUpsert() {
+            return new NombresEscritos();
+        }
+
+        @Bean
+        Job job(JobRepository jobRepository, Step paso2Incremental) {
+            return new JobBuilder("paso2IncrementalJob", jobRepository)
+                    .incrementer(new RunIdIncrementer())
+                    .start(paso2Incremental)
+                    .build();
+        }
+    }
+}
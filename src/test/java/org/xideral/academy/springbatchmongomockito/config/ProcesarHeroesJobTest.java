@@ -0,0 +1,129 @@
+package org.xideral.academy.springbatchmongomockito.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobParameters;
+import org.springframework.batch.core.JobParametersBuilder;
+import org.springframework.batch.core.Step;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.explore.JobExplorer;
+import org.springframework.batch.core.explore.support.JobExplorerFactoryBean;
+import org.springframework.batch.core.launch.support.TaskExecutorJobLauncher;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.batch.core.repository.support.JobRepositoryFactoryBean;
+import org.springframework.batch.core.step.builder.StepBuilder;
+import org.springframework.batch.repeat.RepeatStatus;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.xideral.academy.springbatchmongomockito.listener.AsegurarIndicesReportesListener;
+import org.xideral.academy.springbatchmongomockito.listener.InvalidarCacheReportesListener;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests del armado de procesarHeroesJob en BatchConfig.
+ *
+ * Se corre el job real con pasos que no hacen nada sobre H2, para ver en
+ * cada staging que pasos se eligen y que cada listener del job se invoca
+ * una sola vez por ejecucion. El JobBuilder guarda los listeners en un
+ * Set, asi que la misma instancia repetida se descarta; lo que se vigila
+ * es que ningun cambio en el armado termine creando los indices o
+ * vaciando la cache dos veces.
+ */
+public class ProcesarHeroesJobTest {
+    private EmbeddedDatabase baseDeDatos;
+    private DataSourceTransactionManager transactionManager;
+    private JobRepository jobRepository;
+    private JobExplorer jobExplorer;
+    private AsegurarIndicesReportesListener asegurarIndices;
+    private InvalidarCacheReportesListener invalidarCache;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        baseDeDatos = BatchEnH2Config.baseDeDatos();
+        transactionManager = new DataSourceTransactionManager(baseDeDatos);
+
+        JobRepositoryFactoryBean repositorio = new JobRepositoryFactoryBean();
+        repositorio.setDataSource(baseDeDatos);
+        repositorio.setTransactionManager(transactionManager);
+        repositorio.afterPropertiesSet();
+        jobRepository = repositorio.getObject();
+
+        JobExplorerFactoryBean explorador = new JobExplorerFactoryBean();
+        explorador.setDataSource(baseDeDatos);
+        explorador.setTransactionManager(transactionManager);
+        explorador.afterPropertiesSet();
+        jobExplorer = explorador.getObject();
+
+        asegurarIndices = mock(AsegurarIndicesReportesListener.class);
+        invalidarCache = mock(InvalidarCacheReportesListener.class);
+    }
+
+    @AfterEach
+    void tearDown() {
+        baseDeDatos.shutdown();
+    }
+
+    @Test
+    @DisplayName("staging binario: corre paso1Binario y paso2Binario con cada listener una sola vez")
+    void procesarHeroesJob_stagingBinario_cadaListenerUnaVez() throws Exception {
+        // Act
+        JobExecution ejecucion = ejecutarJob("binario");
+
+        // Assert
+        assertEquals(BatchStatus.COMPLETED, ejecucion.getStatus());
+        assertEquals("[paso1Binario, paso2Binario]", pasosEjecutados(ejecucion));
+        verify(asegurarIndices, times(1)).beforeJob(any(JobExecution.class));
+        verify(invalidarCache, times(1)).afterJob(any(JobExecution.class));
+    }
+
+    @Test
+    @DisplayName("staging mysql: corre paso1 y paso2 con cada listener una sola vez")
+    void procesarHeroesJob_stagingMysql_cadaListenerUnaVez() throws Exception {
+        // Act
+        JobExecution ejecucion = ejecutarJob("mysql");
+
+        // Assert
+        assertEquals(BatchStatus.COMPLETED, ejecucion.getStatus());
+        assertEquals("[paso1, paso2]", pasosEjecutados(ejecucion));
+        verify(asegurarIndices, times(1)).beforeJob(any(JobExecution.class));
+        verify(invalidarCache, times(1)).afterJob(any(JobExecution.class));
+    }
+
+    // =====================================================================
+    //  Metodos auxiliares
+    // =====================================================================
+
+    private JobExecution ejecutarJob(String staging) throws Exception {
+        Job job = new BatchConfig().procesarHeroesJob(jobRepository, jobExplorer, invalidarCache, asegurarIndices,
+                "simple", "simple", staging, "hilos",
+                paso("paso1"), paso("paso1Particionado"), paso("paso1Archivos"),
+                paso("paso2"), paso("paso2Particionado"), paso("paso2Incremental"), paso("paso2Asincrono"),
+                paso("paso1Binario"), paso("paso2Binario"),
+                paso("paso1ParticionadoEnProcesos"), paso("paso1ArchivosEnProcesos"),
+                paso("paso2ParticionadoEnProcesos"));
+
+        JobParameters parametros = new JobParametersBuilder(jobExplorer).getNextJobParameters(job).toJobParameters();
+        TaskExecutorJobLauncher launcher = new TaskExecutorJobLauncher();
+        launcher.setJobRepository(jobRepository);
+        launcher.afterPropertiesSet();
+        return launcher.run(job, parametros);
+    }
+
+    private Step paso(String nombre) {
+        return new StepBuilder(nombre, jobRepository)
+                .tasklet((contribucion, contexto) -> RepeatStatus.FINISHED, transactionManager)
+                .build();
+    }
+
+    private String pasosEjecutados(JobExecution ejecucion) {
+        return ejecucion.getStepExecutions().stream().map(StepExecution::getStepName).toList().toString();
+    }
+}
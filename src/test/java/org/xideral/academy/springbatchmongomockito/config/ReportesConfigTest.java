@@ -0,0 +1,48 @@
+package org.xideral.academy.springbatchmongomockito.config;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.xideral.academy.springbatchmongomockito.listener.AsegurarIndicesReportesListener;
+import org.xideral.academy.springbatchmongomockito.repository.HeroeReporteRepository;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests del ReportesConfig: crear el contexto no habla con MongoDB; los
+ * indices se aseguran hasta que empieza un job.
+ */
+public class ReportesConfigTest {
+    @Test
+    @DisplayName("arranque: crear los beans no toca MongoDB; el listener asegura los indices antes del job")
+    void arranque_sinJob_noTocaMongo() {
+        // Arrange
+        MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+
+        try (AnnotationConfigApplicationContext contexto = new AnnotationConfigApplicationContext()) {
+            // Singleton ya armado: Spring no le llama setApplicationContext
+            contexto.getBeanFactory().registerSingleton("mongoTemplate", mongoTemplate);
+            contexto.register(ReportesConfig.class);
+
+            // Act
+            contexto.refresh();
+
+            // Assert
+            assertNotNull(contexto.getBean(HeroeReporteRepository.class));
+            verifyNoInteractions(mongoTemplate);
+
+            // Basta con ver que lo intenta: sin servidor solo avisa en el log
+            IndexOperations indices = mock(IndexOperations.class);
+            when(mongoTemplate.indexOps("reportes")).thenReturn(indices);
+            when(indices.ensureIndex(any())).thenThrow(new DataAccessResourceFailureException("sin servidor"));
+            contexto.getBean(AsegurarIndicesReportesListener.class).beforeJob(new JobExecution(1L));
+            verify(mongoTemplate).indexOps("reportes");
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package org.xideral.academy.springbatchmongomockito.launch;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobInstance;
+import org.springframework.batch.core.JobParameters;
+import org.springframework.batch.core.JobParametersBuilder;
+import org.springframework.batch.core.explore.JobExplorer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests del ReanudarSiFallaIncrementer con un JobExplorer simulado (mock).
+ */
+@ExtendWith(MockitoExtension.class)
+public class ReanudarSiFallaIncrementerTest {
+    @Mock
+    private JobExplorer jobExplorer;
+
+    @Test
+    @DisplayName("getNext: sin ejecuciones previas empieza en run.id=1")
+    void getNext_sinInstancias_runIdUno() {
+        // Arrange
+        when(jobExplorer.getLastJobInstance("procesarHeroesJob")).thenReturn(null);
+
+        // Act
+        JobParameters siguientes = crearIncrementer().getNext(new JobParameters());
+
+        // Assert
+        assertEquals(1L, siguientes.getLong("run.id"));
+    }
+
+    @Test
+    @DisplayName("getNext: si la ultima ejecucion fallo, devuelve sus mismos parametros")
+    void getNext_ultimaFallida_mismosParametros() {
+        // Arrange
+        JobParameters anteriores = prepararUltimaEjecucion(3L, BatchStatus.FAILED);
+
+        // Act
+        JobParameters siguientes = crearIncrementer().getNext(anteriores);
+
+        // Assert
+        assertEquals(3L, siguientes.getLong("run.id"));
+        assertEquals(anteriores.getIdentifyingParameters(), siguientes.getParameters());
+    }
+
+    @Test
+    @DisplayName("getNext: si la ultima ejecucion se detuvo, tambien se reanuda")
+    void getNext_ultimaDetenida_mismosParametros() {
+        // Arrange
+        JobParameters anteriores = prepararUltimaEjecucion(3L, BatchStatus.STOPPED);
+
+        // Act & Assert
+        assertEquals(3L, crearIncrementer().getNext(anteriores).getLong("run.id"));
+    }
+
+    @Test
+    @DisplayName("getNext: si la ultima ejecucion termino bien, incrementa run.id")
+    void getNext_ultimaCompletada_incrementaRunId() {
+        // Arrange
+        JobParameters anteriores = prepararUltimaEjecucion(3L, BatchStatus.COMPLETED);
+
+        // Act & Assert
+        assertEquals(4L, crearIncrementer().getNext(anteriores).getLong("run.id"));
+    }
+
+    // =====================================================================
+    //  Metodos auxiliares
+    // =====================================================================
+
+    private ReanudarSiFallaIncrementer crearIncrementer() {
+        return new ReanudarSiFallaIncrementer(jobExplorer, "procesarHeroesJob");
+    }
+
+    private JobParameters prepararUltimaEjecucion(long runId, BatchStatus estado) {
+        JobParameters parametros = new JobParametersBuilder()
+                .addLong("run.id", runId)
+                .addString("origen", "cli", false) // no identificante: no debe copiarse
+                .toJobParameters();
+        JobInstance instancia = new JobInstance(runId, "procesarHeroesJob");
+        JobExecution ejecucion = new JobExecution(instancia, 10L, parametros);
+        ejecucion.setStatus(estado);
+        when(jobExplorer.getLastJobInstance("procesarHeroesJob")).thenReturn(instancia);
+        when(jobExplorer.getLastJobExecution(instancia)).thenReturn(ejecucion);
+        return parametros;
+    }
+}
@@ -0,0 +1,117 @@
+package org.xideral.academy.springbatchmongomockito.listener;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.batch.core.scope.context.StepContext;
+import org.springframework.batch.item.Chunk;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests del MetricasPasoListener.
+ *
+ * El reloj es falso (campo "ahora") para controlar las duraciones medidas.
+ */
+public class MetricasPasoListenerTest {
+    private SimpleMeterRegistry registry;
+    private MetricasPasoListener listener;
+    private StepExecution stepExecution;
+    private long ahora;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        listener = new MetricasPasoListener(registry, () -> ahora);
+        stepExecution = new StepExecution("paso1Worker:particion2", new JobExecution(1L));
+        stepExecution.setStartTime(LocalDateTime.now());
+    }
+
+    @Test
+    @DisplayName("afterChunk: registra duracion del chunk, tiempo de commit e items escritos")
+    void afterChunk_chunkConfirmado_registraTiemposYEscritos() {
+        // Arrange
+        ChunkContext chunk = new ChunkContext(new StepContext(stepExecution));
+        stepExecution.setWriteCount(10);
+        ahora = milis(100);
+        listener.beforeChunk(chunk);
+        ahora = milis(130);
+        listener.afterWrite(new Chunk<>());
+        stepExecution.setWriteCount(15);
+
+        // Act
+        ahora = milis(150);
+        listener.afterChunk(chunk);
+
+        // Assert
+        assertAll("Metricas del chunk",
+                () -> assertEquals(50, timer("heroes.chunk.duracion").totalTime(TimeUnit.MILLISECONDS)),
+                () -> assertEquals(20, timer("heroes.chunk.commit").totalTime(TimeUnit.MILLISECONDS)),
+                () -> assertEquals(5, registry.get("heroes.items.escritos").tag("paso", "paso1Worker").counter().count())
+        );
+    }
+
+    @Test
+    @DisplayName("afterChunkError: cuenta el rollback y no registra duracion")
+    void afterChunkError_rollback_incrementaContador() {
+        // Arrange
+        ChunkContext chunk = new ChunkContext(new StepContext(stepExecution));
+        listener.beforeChunk(chunk);
+        listener.afterWrite(new Chunk<>());
+
+        // Act
+        listener.afterChunkError(chunk);
+
+        // Assert
+        assertEquals(1, registry.get("heroes.chunk.rollbacks").tag("paso", "paso1Worker").counter().count());
+        assertNull(registry.find("heroes.chunk.duracion").timer());
+    }
+
+    @Test
+    @DisplayName("afterStep: publica los omitidos por fase y no cambia el ExitStatus")
+    void afterStep_conOmitidos_contadoresPorFase() {
+        // Arrange
+        stepExecution.setReadSkipCount(1);
+        stepExecution.setWriteSkipCount(3);
+
+        // Act
+        Object exitStatus = listener.afterStep(stepExecution);
+
+        // Assert
+        assertNull(exitStatus);
+        assertEquals(1, omitidos("lectura"));
+        assertEquals(0, omitidos("proceso"));
+        assertEquals(3, omitidos("escritura"));
+    }
+
+    @Test
+    @DisplayName("nombrePaso: las particiones comparten la etiqueta del paso worker")
+    void nombrePaso_particion_quitaSufijo() {
+        assertEquals("paso1Worker", MetricasPasoListener.nombrePaso(stepExecution));
+        assertEquals("paso2", MetricasPasoListener.nombrePaso(new StepExecution("paso2", null)));
+    }
+
+    // =====================================================================
+    //  Metodos auxiliares
+    // =====================================================================
+
+    private Timer timer(String nombre) {
+        return registry.get(nombre).tag("paso", "paso1Worker").timer();
+    }
+
+    private double omitidos(String fase) {
+        return registry.get("heroes.items.omitidos").tag("paso", "paso1Worker").tag("fase", fase).counter().count();
+    }
+
+    private static long milis(long ms) {
+        return TimeUnit.MILLISECONDS.toNanos(ms);
+    }
+}
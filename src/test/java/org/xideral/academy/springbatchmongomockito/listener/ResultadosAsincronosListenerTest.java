@@ -0,0 +1,86 @@
+package org.xideral.academy.springbatchmongomockito.listener;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.batch.core.scope.context.StepContext;
+import org.springframework.batch.item.Chunk;
+import org.xideral.academy.springbatchmongomockito.model.HeroeReporte;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests del ResultadosAsincronosListener.
+ *
+ * El delegate es el ResumenEquiposListener simulado (mock): se verifica que
+ * reciba los reportes ya resueltos y los callbacks de paso y chunk.
+ */
+@ExtendWith(MockitoExtension.class)
+public class ResultadosAsincronosListenerTest {
+    @Mock
+    private ResumenEquiposListener resumenEquipos;
+
+    @Test
+    @DisplayName("afterWrite: pasa los resultados en orden, sin filtrados (null) ni fallidos")
+    @SuppressWarnings("unchecked")
+    void afterWrite_futuros_pasaSoloResultados() {
+        // Arrange
+        HeroeReporte thor = reporte("THOR");
+        HeroeReporte hulk = reporte("HULK");
+        Chunk<Future<HeroeReporte>> futuros = new Chunk<>(List.of(
+                CompletableFuture.completedFuture(thor),
+                CompletableFuture.completedFuture(null),
+                CompletableFuture.failedFuture(new IllegalStateException("falla")),
+                CompletableFuture.completedFuture(hulk)));
+        ResultadosAsincronosListener<HeroeReporte> listener = new ResultadosAsincronosListener<>(resumenEquipos);
+
+        // Act
+        listener.afterWrite(futuros);
+
+        // Assert
+        ArgumentCaptor<Chunk<HeroeReporte>> recibidos = ArgumentCaptor.forClass(Chunk.class);
+        verify(resumenEquipos).afterWrite(recibidos.capture());
+        assertEquals(List.of(thor, hulk), recibidos.getValue().getItems());
+    }
+
+    @Test
+    @DisplayName("paso y chunk: se pasan tal cual al delegate")
+    void callbacks_pasoYChunk_llegan() {
+        // Arrange
+        StepExecution stepExecution = new StepExecution("paso2Asincrono", new JobExecution(1L));
+        ChunkContext chunk = new ChunkContext(new StepContext(stepExecution));
+        ResultadosAsincronosListener<HeroeReporte> listener = new ResultadosAsincronosListener<>(resumenEquipos);
+
+        // Act
+        listener.afterChunk(chunk);
+        listener.afterChunkError(chunk);
+        listener.afterStep(stepExecution);
+
+        // Assert
+        verify(resumenEquipos).afterChunk(chunk);
+        verify(resumenEquipos).afterChunkError(chunk);
+        verify(resumenEquipos).afterStep(stepExecution);
+    }
+
+    // =====================================================================
+    //  Metodos auxiliares
+    // =====================================================================
+
+    private HeroeReporte reporte(String nombre) {
+        HeroeReporte reporte = new HeroeReporte();
+        reporte.setNombre(nombre);
+        reporte.setEquipo("Avengers");
+        return reporte;
+    }
+}
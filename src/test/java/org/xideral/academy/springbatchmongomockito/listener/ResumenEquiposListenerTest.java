@@ -0,0 +1,253 @@
+package org.xideral.academy.springbatchmongomockito.listener;
+
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.batch.core.ExitStatus;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.batch.core.repository.dao.Jackson2ExecutionContextStringSerializer;
+import org.springframework.batch.core.scope.context.StepContext;
+import org.springframework.batch.item.Chunk;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndReplaceOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.xideral.academy.springbatchmongomockito.model.HeroeReporte;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests del ResumenEquiposListener.
+ *
+ * Se simula el ciclo de vida del paso (open, afterWrite, update, afterChunk,
+ * afterStep) y se capturan los documentos que se mandarian a team_summaries.
+ */
+@ExtendWith(MockitoExtension.class)
+public class ResumenEquiposListenerTest {
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private BulkOperations bulk;
+
+    private StepExecution stepExecution;
+    private ChunkContext chunk;
+
+    @BeforeEach
+    void setUp() {
+        stepExecution = new StepExecution("paso2", new JobExecution(1L));
+        chunk = new ChunkContext(new StepContext(stepExecution));
+    }
+
+    @Test
+    @DisplayName("afterStep: escribe cantidad, suma, promedio y maximo de poderTotal por equipo")
+    void afterStep_dosChunks_escribeResumenPorEquipo() {
+        // Arrange
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, "team_summaries")).thenReturn(bulk);
+        ResumenEquiposListener listener = abrir(new ExecutionContext());
+        escribirChunk(listener, reporte("Avengers", 100), reporte("X-Men", 50), reporte("Avengers", 300));
+        escribirChunk(listener, reporte("Avengers", 200));
+
+        // Act
+        listener.afterStep(completado());
+
+        // Assert
+        Map<String, Document> resumenes = resumenesEscritos(2);
+        Document avengers = resumenes.get("Avengers");
+        assertAll("Resumen de Avengers",
+                () -> assertEquals(3L, avengers.get("cantidad")),
+                () -> assertEquals(600.0, avengers.get("sumaPoderTotal")),
+                () -> assertEquals(200.0, avengers.get("promedioPoderTotal")),
+                () -> assertEquals(300.0, avengers.get("maximoPoderTotal"))
+        );
+        assertEquals(1L, resumenes.get("X-Men").get("cantidad"));
+        verify(bulk).execute();
+    }
+
+    @Test
+    @DisplayName("afterChunkError: un chunk con rollback no se suma")
+    void afterChunkError_rollback_noSeAcumula() {
+        // Arrange
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, "team_summaries")).thenReturn(bulk);
+        ResumenEquiposListener listener = abrir(new ExecutionContext());
+        escribirChunk(listener, reporte("Avengers", 100));
+        listener.afterWrite(new Chunk<>(reporte("Avengers", 999)));
+
+        // Act
+        listener.afterChunkError(chunk);
+        listener.afterStep(completado());
+
+        // Assert
+        Document avengers = resumenesEscritos(1).get("Avengers");
+        assertEquals(1L, avengers.get("cantidad"));
+        assertEquals(100.0, avengers.get("maximoPoderTotal"));
+    }
+
+    @Test
+    @DisplayName("reinicio: retoma los acumulados guardados en el ExecutionContext")
+    void open_reinicio_continuaDesdeElCheckpoint() {
+        // Arrange - primera ejecucion: un chunk confirmado y luego falla
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, "team_summaries")).thenReturn(bulk);
+        ExecutionContext contexto = new ExecutionContext();
+        ResumenEquiposListener primera = abrir(contexto);
+        escribirChunk(primera, reporte("Avengers", 100), reporte("Avengers", 300));
+        primera.update(contexto);
+
+        // Act - segunda ejecucion con un listener nuevo y el contexto guardado
+        ResumenEquiposListener segunda = abrir(contexto);
+        escribirChunk(segunda, reporte("Avengers", 200));
+        segunda.afterStep(completado());
+
+        // Assert
+        Document avengers = resumenesEscritos(1).get("Avengers");
+        assertEquals(3L, avengers.get("cantidad"));
+        assertEquals(200.0, avengers.get("promedioPoderTotal"));
+    }
+
+    @Test
+    @DisplayName("update: el checkpoint incluye el chunk que se esta confirmando")
+    void update_antesDeAfterChunk_incluyeChunkEnCurso() {
+        // Arrange
+        ExecutionContext contexto = new ExecutionContext();
+        ResumenEquiposListener listener = abrir(contexto);
+        listener.afterWrite(new Chunk<>(reporte("Avengers", 100)));
+
+        // Act - Spring Batch llama update() antes del commit y afterChunk() despues
+        listener.update(contexto);
+
+        // Assert
+        Map<String, ResumenEquiposListener.Acumulador> guardado =
+                ResumenEquiposListener.leer(contexto);
+        assertEquals(1L, guardado.get("Avengers").cantidad);
+    }
+
+    @Test
+    @DisplayName("reinicio: un equipo nulo y uno con tabulador sobreviven al checkpoint serializado")
+    void open_reinicioEquipoNuloYConTabulador_conservaEquipos() throws Exception {
+        // Arrange - primera ejecucion con nombres que rompian el formato de lineas
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, "team_summaries")).thenReturn(bulk);
+        ExecutionContext contexto = new ExecutionContext();
+        ResumenEquiposListener primera = abrir(contexto);
+        escribirChunk(primera, reporte(null, 100), reporte("Team\tX", 50), reporte("Team\nY", 70));
+        primera.update(contexto);
+
+        // Act - la segunda ejecucion abre lo que quedo en la base, no el objeto en memoria
+        ResumenEquiposListener segunda = abrir(serializarYLeer(contexto));
+        escribirChunk(segunda, reporte(null, 300), reporte("Team\tX", 10));
+        segunda.afterStep(completado());
+
+        // Assert
+        Map<String, Document> resumenes = resumenesEscritos(3);
+        assertFalse(resumenes.containsKey("null"), "Sin equipo no debe volver como el texto \"null\"");
+        assertAll("Acumulados despues del reinicio",
+                () -> assertEquals(2L, resumenes.get(null).get("cantidad")),
+                () -> assertEquals(300.0, resumenes.get(null).get("maximoPoderTotal")),
+                () -> assertEquals(2L, resumenes.get("Team\tX").get("cantidad")),
+                () -> assertEquals(60.0, resumenes.get("Team\tX").get("sumaPoderTotal")),
+                () -> assertEquals(1L, resumenes.get("Team\nY").get("cantidad"))
+        );
+    }
+
+    @Test
+    @DisplayName("update: un equipo que solo estaba en un chunk con rollback sale del checkpoint")
+    void update_despuesDeRollback_quitaEquipoNoConfirmado() {
+        // Arrange - update() del chunk que despues hace rollback ya lo habia guardado
+        ExecutionContext contexto = new ExecutionContext();
+        ResumenEquiposListener listener = abrir(contexto);
+        escribirChunk(listener, reporte("Avengers", 100));
+        listener.afterWrite(new Chunk<>(reporte("X-Men", 50)));
+        listener.update(contexto);
+        listener.afterChunkError(chunk);
+
+        // Act
+        listener.update(contexto);
+
+        // Assert
+        assertEquals(Map.of("Avengers", 1L), cantidades(ResumenEquiposListener.leer(contexto)));
+    }
+
+    @Test
+    @DisplayName("afterStep: si el paso no completo, no escribe team_summaries")
+    void afterStep_pasoFallido_noEscribe() {
+        // Arrange
+        ResumenEquiposListener listener = abrir(new ExecutionContext());
+        escribirChunk(listener, reporte("Avengers", 100));
+        stepExecution.setExitStatus(ExitStatus.FAILED);
+
+        // Act
+        listener.afterStep(stepExecution);
+
+        // Assert
+        verifyNoInteractions(mongoTemplate);
+    }
+
+    // =====================================================================
+    //  Metodos auxiliares
+    // =====================================================================
+
+    private ResumenEquiposListener abrir(ExecutionContext contexto) {
+        ResumenEquiposListener listener = new ResumenEquiposListener(mongoTemplate, "team_summaries");
+        listener.open(contexto);
+        return listener;
+    }
+
+    private void escribirChunk(ResumenEquiposListener listener, HeroeReporte... reportes) {
+        listener.afterWrite(new Chunk<>(reportes));
+        listener.afterChunk(chunk);
+    }
+
+    private StepExecution completado() {
+        stepExecution.setExitStatus(ExitStatus.COMPLETED);
+        return stepExecution;
+    }
+
+    // Tambien verifica que se borren los equipos que ya no tienen heroes
+    private Map<String, Document> resumenesEscritos(int equipos) {
+        ArgumentCaptor<Document> documentos = ArgumentCaptor.forClass(Document.class);
+        verify(bulk, times(equipos)).replaceOne(any(Query.class), documentos.capture(), any(FindAndReplaceOptions.class));
+        verify(mongoTemplate).remove(any(Query.class), eq("team_summaries"));
+        Map<String, Document> porEquipo = new HashMap<>();
+        for (Document documento : documentos.getAllValues()) {
+            porEquipo.put(documento.getString("_id"), documento);
+        }
+        return porEquipo;
+    }
+
+    // Lo mismo que hace el JobRepository al guardar y recuperar el contexto
+    private ExecutionContext serializarYLeer(ExecutionContext contexto) throws Exception {
+        Jackson2ExecutionContextStringSerializer serializador = new Jackson2ExecutionContextStringSerializer();
+        ByteArrayOutputStream salida = new ByteArrayOutputStream();
+        serializador.serialize(new HashMap<>(contexto.toMap()), salida);
+        return new ExecutionContext(serializador.deserialize(new ByteArrayInputStream(salida.toByteArray())));
+    }
+
+    private Map<String, Long> cantidades(Map<String, ResumenEquiposListener.Acumulador> acumulados) {
+        Map<String, Long> cantidades = new HashMap<>();
+        acumulados.forEach((equipo, acumulador) -> cantidades.put(equipo, acumulador.cantidad));
+        return cantidades;
+    }
+
+    private HeroeReporte reporte(String equipo, double poderTotal) {
+        HeroeReporte reporte = new HeroeReporte();
+        reporte.setNombre("HEROE");
+        reporte.setEquipo(equipo);
+        reporte.setPoderTotal(poderTotal);
+        return reporte;
+    }
+}
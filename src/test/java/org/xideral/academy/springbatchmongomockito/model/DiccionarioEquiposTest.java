@@ -0,0 +1,127 @@
+package org.xideral.academy.springbatchmongomockito.model;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests del DiccionarioEquipos.
+ *
+ * Lo importante no es el valor sino la identidad: el mismo equipo debe
+ * devolver siempre la misma instancia de String (assertSame).
+ */
+public class DiccionarioEquiposTest {
+    @Test
+    @DisplayName("canonico: dos Strings iguales devuelven la misma instancia")
+    void canonico_textosIguales_mismaInstancia() {
+        // Arrange
+        DiccionarioEquipos equipos = new DiccionarioEquipos();
+        String primero = new String("Avengers");
+        String segundo = new String("Avengers");
+
+        // Act
+        String a = equipos.canonico(primero);
+        String b = equipos.canonico(segundo);
+
+        // Assert
+        assertSame(primero, a);
+        assertSame(a, b);
+        assertEquals(1, equipos.tamano());
+    }
+
+    @Test
+    @DisplayName("canonico: por bytes devuelve la misma instancia que por String")
+    void canonico_porBytes_mismaInstanciaQuePorString() {
+        // Arrange
+        DiccionarioEquipos equipos = new DiccionarioEquipos();
+        String avengers = equipos.canonico("Avengers");
+        byte[] linea = "Spider-Man,Avengers,8500".getBytes(StandardCharsets.UTF_8);
+
+        // Act
+        String equipo = equipos.canonico(linea, 11, "Avengers".length());
+
+        // Assert
+        assertSame(avengers, equipo);
+    }
+
+    @Test
+    @DisplayName("canonico: por bytes registra el equipo nuevo y decodifica UTF-8")
+    void canonico_porBytesEquipoNuevo_registraYDecodifica() {
+        // Arrange
+        DiccionarioEquipos equipos = new DiccionarioEquipos();
+        byte[] bytes = "Liga de la Justicia Ñ".getBytes(StandardCharsets.UTF_8);
+
+        // Act
+        String equipo = equipos.canonico(bytes, 0, bytes.length);
+
+        // Assert
+        assertEquals("Liga de la Justicia Ñ", equipo);
+        assertSame(equipo, equipos.canonico(new String("Liga de la Justicia Ñ")));
+    }
+
+    @Test
+    @DisplayName("canonico: null se devuelve tal cual")
+    void canonico_null_devuelveNull() {
+        // Arrange
+        DiccionarioEquipos equipos = new DiccionarioEquipos();
+
+        // Act & Assert
+        assertNull(equipos.canonico(null));
+        assertEquals(0, equipos.tamano());
+    }
+
+    @Test
+    @DisplayName("canonico: lleno el diccionario, los equipos nuevos no se guardan")
+    void canonico_diccionarioLleno_noCrece() {
+        // Arrange
+        DiccionarioEquipos equipos = new DiccionarioEquipos();
+        for (int i = 0; i < DiccionarioEquipos.MAXIMO_EQUIPOS; i++) {
+            equipos.canonico("equipo-" + i);
+        }
+
+        // Act
+        String nuevo = new String("otro");
+        String resultado = equipos.canonico(nuevo);
+
+        // Assert
+        assertSame(nuevo, resultado);
+        assertNotSame(resultado, equipos.canonico(new String("otro")));
+        assertEquals(DiccionarioEquipos.MAXIMO_EQUIPOS, equipos.tamano());
+    }
+
+    @Test
+    @DisplayName("canonico: varios hilos con el mismo equipo reciben una sola instancia")
+    void canonico_variosHilos_unaSolaInstancia() throws Exception {
+        // Arrange
+        DiccionarioEquipos equipos = new DiccionarioEquipos();
+        ExecutorService hilos = Executors.newFixedThreadPool(8);
+        List<Callable<String>> tareas = new ArrayList<>();
+        for (int i = 0; i < 64; i++) {
+            tareas.add(() -> equipos.canonico(new String("X-Men")));
+        }
+
+        // Act
+        List<Future<String>> resultados;
+        try {
+            resultados = hilos.invokeAll(tareas);
+        } finally {
+            hilos.shutdown();
+        }
+
+        // Assert
+        String primero = resultados.get(0).get();
+        for (Future<String> resultado : resultados) {
+            assertSame(primero, resultado.get());
+        }
+        assertEquals(1, equipos.tamano());
+    }
+}
@@ -0,0 +1,101 @@
+package org.xideral.academy.springbatchmongomockito.partition;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests del ArchivosPartitioner.
+ *
+ * Se resuelve la entrada sobre un directorio temporal y se revisa que haya
+ * una particion por archivo, nombrada como el archivo.
+ */
+public class ArchivosPartitionerTest {
+    @TempDir
+    Path directorio;
+
+    private final PathMatchingResourcePatternResolver resolver = new PathMatchingResourcePatternResolver();
+
+    @Test
+    @DisplayName("de: un directorio toma sus .csv y .csv.gz, una particion por archivo con su URL")
+    void de_directorio_unaParticionPorCsv() throws Exception {
+        // Arrange
+        crearCsv("b.csv");
+        crearCsv("a.csv");
+        crearCsv("c.csv.gz");
+        Files.writeString(directorio.resolve("notas.txt"), "no es csv");
+
+        // Act
+        Map<String, ExecutionContext> particiones = ArchivosPartitioner.de(resolver, directorio.toString()).partition(1);
+
+        // Assert
+        assertEquals(List.of("a.csv", "b.csv", "c.csv.gz"), List.copyOf(particiones.keySet()));
+        assertEquals(directorio.resolve("a.csv").toUri().toURL().toExternalForm(),
+                particiones.get("a.csv").getString(ArchivosPartitioner.ARCHIVO));
+    }
+
+    @Test
+    @DisplayName("de: un patron solo toma los archivos que coinciden")
+    void de_patron_soloLosQueCoinciden() throws Exception {
+        // Arrange
+        crearCsv("heroes-1.csv");
+        crearCsv("heroes-2.csv");
+        crearCsv("villanos.csv");
+
+        // Act
+        Map<String, ExecutionContext> particiones =
+                ArchivosPartitioner.de(resolver, directorio + "/heroes-*.csv").partition(1);
+
+        // Assert
+        assertEquals(List.of("heroes-1.csv", "heroes-2.csv"), List.copyOf(particiones.keySet()));
+    }
+
+    @Test
+    @DisplayName("partition: el nombre de cada particion no cambia si llega un archivo nuevo")
+    void partition_archivoNuevo_nombresEstables() throws Exception {
+        // Arrange
+        crearCsv("b.csv");
+        String antes = ArchivosPartitioner.de(resolver, directorio.toString()).partition(1)
+                .get("b.csv").getString(ArchivosPartitioner.ARCHIVO);
+        crearCsv("a.csv");
+
+        // Act
+        Map<String, ExecutionContext> despues = ArchivosPartitioner.de(resolver, directorio.toString()).partition(1);
+
+        // Assert
+        assertEquals(antes, despues.get("b.csv").getString(ArchivosPartitioner.ARCHIVO));
+    }
+
+    @Test
+    @DisplayName("partition: dos archivos con el mismo nombre en distintos directorios fallan")
+    void partition_nombresRepetidos_lanzaExcepcion() throws Exception {
+        // Arrange
+        Files.createDirectories(directorio.resolve("lunes"));
+        Files.createDirectories(directorio.resolve("martes"));
+        crearCsv("lunes/heroes.csv");
+        crearCsv("martes/heroes.csv");
+        ArchivosPartitioner partitioner = ArchivosPartitioner.de(resolver, directorio + "/*/heroes.csv");
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class, () -> partitioner.partition(1));
+    }
+
+    // =====================================================================
+    //  Metodos auxiliares
+    // =====================================================================
+
+    private void crearCsv(String nombre) throws Exception {
+        Files.writeString(directorio.resolve(nombre), "nombre,equipo,poder\nThor,Avengers,11000\n",
+                StandardCharsets.UTF_8);
+    }
+}
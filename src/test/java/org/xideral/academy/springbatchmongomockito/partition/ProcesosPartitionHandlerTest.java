@@ -0,0 +1,117 @@
+package org.xideral.academy.springbatchmongomockito.partition;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.ExitStatus;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.explore.JobExplorer;
+import org.springframework.batch.core.repository.JobRepository;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests del ProcesosPartitionHandler.
+ *
+ * Los workers son procesos java de verdad pero triviales: "java -version"
+ * termina bien y una clase que no existe termina con error, como un worker
+ * que muere. El job repository es un mock: el estado que "dejo" cada
+ * worker se simula con lo que devuelve el JobExplorer.
+ */
+@ExtendWith(MockitoExtension.class)
+public class ProcesosPartitionHandlerTest {
+    private static final String JAVA = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+
+    @Mock
+    private JobExplorer jobExplorer;
+
+    @Mock
+    private JobRepository jobRepository;
+
+    @Test
+    @DisplayName("doHandle: devuelve lo que cada worker guardo en el repositorio")
+    void doHandle_workersTerminan_estadoDelRepositorio() throws Exception {
+        // Arrange
+        JobExecution jobExecution = new JobExecution(1L);
+        StepExecution particion0 = particion(jobExecution, 10L, "paso1Worker:particion0");
+        StepExecution particion1 = particion(jobExecution, 11L, "paso1Worker:particion1");
+        when(jobExplorer.getStepExecution(1L, 10L)).thenReturn(guardada(particion0, BatchStatus.COMPLETED));
+        when(jobExplorer.getStepExecution(1L, 11L)).thenReturn(guardada(particion1, BatchStatus.COMPLETED));
+        ProcesosPartitionHandler handler = new ProcesosPartitionHandler("paso1Worker",
+                (paso, particion) -> List.of(JAVA, "-version"), jobExplorer, jobRepository, 1);
+
+        // Act
+        Set<StepExecution> resultados = handler.doHandle(new StepExecution("paso1Particionado", jobExecution),
+                Set.of(particion0, particion1));
+
+        // Assert
+        assertEquals(Map.of("paso1Worker:particion0", BatchStatus.COMPLETED, "paso1Worker:particion1", BatchStatus.COMPLETED),
+                estados(resultados));
+        verifyNoInteractions(jobRepository);
+    }
+
+    @Test
+    @DisplayName("doHandle: si un worker muere solo su particion queda FAILED")
+    void doHandle_workerMuere_soloEsaParticionFalla() throws Exception {
+        // Arrange
+        JobExecution jobExecution = new JobExecution(1L);
+        StepExecution sana = particion(jobExecution, 10L, "paso1Worker:particion0");
+        StepExecution muere = particion(jobExecution, 11L, "paso1Worker:particion1");
+        StepExecution aMedias = guardada(muere, BatchStatus.STARTED);
+        when(jobExplorer.getStepExecution(1L, 10L)).thenReturn(guardada(sana, BatchStatus.COMPLETED));
+        when(jobExplorer.getStepExecution(1L, 11L)).thenReturn(aMedias);
+        ComandoWorker comando = (paso, particion) -> particion.getId() == 11L
+                ? List.of(JAVA, "-cp", ".", "ClaseQueNoExiste")
+                : List.of(JAVA, "-version");
+        ProcesosPartitionHandler handler = new ProcesosPartitionHandler("paso1Worker", comando, jobExplorer, jobRepository, 2);
+
+        // Act
+        Set<StepExecution> resultados = handler.doHandle(new StepExecution("paso1Particionado", jobExecution),
+                Set.of(sana, muere));
+
+        // Assert
+        assertEquals(Map.of("paso1Worker:particion0", BatchStatus.COMPLETED, "paso1Worker:particion1", BatchStatus.FAILED),
+                estados(resultados));
+        assertEquals(ExitStatus.FAILED.getExitCode(), aMedias.getExitStatus().getExitCode());
+        assertNotNull(aMedias.getEndTime());
+        verify(jobRepository).update(aMedias);
+    }
+
+    @Test
+    @DisplayName("constructor: maximoProcesos debe ser al menos 1")
+    void constructor_maximoCero_lanzaExcepcion() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> new ProcesosPartitionHandler("paso1Worker",
+                (paso, particion) -> List.of(JAVA, "-version"), jobExplorer, jobRepository, 0));
+    }
+
+    // =====================================================================
+    //  Metodos auxiliares
+    // =====================================================================
+
+    private StepExecution particion(JobExecution jobExecution, long id, String nombre) {
+        return new StepExecution(nombre, jobExecution, id);
+    }
+
+    // La copia que leeria el JobExplorer despues de que corrio el worker
+    private StepExecution guardada(StepExecution particion, BatchStatus estado) {
+        StepExecution guardada = new StepExecution(particion.getStepName(), particion.getJobExecution(), particion.getId());
+        guardada.setStatus(estado);
+        return guardada;
+    }
+
+    private Map<String, BatchStatus> estados(Set<StepExecution> resultados) {
+        return resultados.stream().collect(Collectors.toMap(StepExecution::getStepName, StepExecution::getStatus));
+    }
+}
@@ -0,0 +1,139 @@
+package org.xideral.academy.springbatchmongomockito.partition;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.FileSystemResource;
+
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests del RangoArchivoPartitioner.
+ *
+ * Verificamos que los rangos cubren todo el archivo (sin el encabezado),
+ * que no se enciman y que cada corte cae al inicio de una linea.
+ */
+public class RangoArchivoPartitionerTest {
+    @TempDir
+    Path directorio;
+
+    @Test
+    @DisplayName("partition: los rangos son contiguos y cubren todo despues del encabezado")
+    void partition_cuatroParticiones_rangosContiguos() throws Exception {
+        // Arrange
+        Path csv = crearCsv(100);
+        RangoArchivoPartitioner partitioner = new RangoArchivoPartitioner(new FileSystemResource(csv), 1);
+
+        // Act
+        Map<String, ExecutionContext> particiones = partitioner.partition(4);
+
+        // Assert
+        assertEquals(4, particiones.size());
+        long esperado = "nombre,equipo,poder\n".length();
+        for (ExecutionContext contexto : particiones.values()) {
+            assertEquals(esperado, contexto.getLong(RangoArchivoPartitioner.INICIO), "Los rangos no deben encimarse");
+            esperado = contexto.getLong(RangoArchivoPartitioner.FIN);
+        }
+        assertEquals(Files.size(csv), esperado, "La ultima particion termina al final del archivo");
+    }
+
+    @Test
+    @DisplayName("partition: cada corte cae justo despues de un salto de linea")
+    void partition_cortes_alineadosALinea() throws Exception {
+        // Arrange
+        Path csv = crearCsv(37);
+        byte[] contenido = Files.readAllBytes(csv);
+        RangoArchivoPartitioner partitioner = new RangoArchivoPartitioner(new FileSystemResource(csv), 1);
+
+        // Act
+        Map<String, ExecutionContext> particiones = partitioner.partition(5);
+
+        // Assert
+        for (ExecutionContext contexto : particiones.values()) {
+            long inicio = contexto.getLong(RangoArchivoPartitioner.INICIO);
+            assertEquals('\n', contenido[(int) inicio - 1], "El rango debe empezar al inicio de una linea");
+        }
+    }
+
+    @Test
+    @DisplayName("partition: un archivo pequeno produce menos particiones que gridSize")
+    void partition_archivoPequeno_menosParticiones() throws Exception {
+        // Arrange
+        Path csv = crearCsv(2);
+        RangoArchivoPartitioner partitioner = new RangoArchivoPartitioner(new FileSystemResource(csv), 1);
+
+        // Act
+        Map<String, ExecutionContext> particiones = partitioner.partition(10);
+
+        // Assert
+        assertTrue(particiones.size() <= 2, "No puede haber mas particiones que lineas");
+    }
+
+    @Test
+    @DisplayName("partition: archivo solo con encabezado no produce particiones")
+    void partition_soloEncabezado_sinParticiones() throws Exception {
+        // Arrange
+        Path csv = crearCsv(0);
+        RangoArchivoPartitioner partitioner = new RangoArchivoPartitioner(new FileSystemResource(csv), 1);
+
+        // Act
+        Map<String, ExecutionContext> particiones = partitioner.partition(4);
+
+        // Assert
+        assertTrue(particiones.isEmpty());
+    }
+
+    @Test
+    @DisplayName("partition: un archivo gzip no se corta en rangos de bytes")
+    void partition_gzip_lanzaExcepcion() throws Exception {
+        // Arrange
+        Path gzip = directorio.resolve("heroes.csv.gz");
+        try (OutputStream salida = new GZIPOutputStream(Files.newOutputStream(gzip))) {
+            salida.write(Files.readAllBytes(crearCsv(10)));
+        }
+        RangoArchivoPartitioner partitioner = new RangoArchivoPartitioner(new FileSystemResource(gzip), 1);
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class, () -> partitioner.partition(4));
+    }
+
+    @Test
+    @DisplayName("partition: un recurso que no es archivo (classpath dentro del jar) se rechaza con un mensaje claro")
+    void partition_recursoSinArchivo_lanzaExcepcion() throws Exception {
+        // Arrange
+        ByteArrayResource enJar = new ByteArrayResource(Files.readAllBytes(crearCsv(10)), "heroes.csv dentro del jar");
+        RangoArchivoPartitioner partitioner = new RangoArchivoPartitioner(enJar, 1);
+
+        // Act
+        IllegalStateException error = assertThrows(IllegalStateException.class, () -> partitioner.partition(4));
+
+        // Assert
+        assertTrue(error.getMessage().contains("sistema de archivos"), error.getMessage());
+    }
+
+    // =====================================================================
+    //  Metodo auxiliar
+    // =====================================================================
+
+    private Path crearCsv(int heroes) throws Exception {
+        List<String> lineas = new ArrayList<>();
+        lineas.add("nombre,equipo,poder");
+        for (int i = 0; i < heroes; i++) {
+            lineas.add("Heroe " + i + ",Equipo " + (i % 3) + "," + (1000 + i));
+        }
+        Path csv = directorio.resolve("heroes.csv");
+        Files.write(csv, lineas, StandardCharsets.UTF_8);
+        return csv;
+    }
+}
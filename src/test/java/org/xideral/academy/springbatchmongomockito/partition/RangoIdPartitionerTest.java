@@ -0,0 +1,197 @@
+package org.xideral.academy.springbatchmongomockito.partition;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.database.JdbcPagingItemReader;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.xideral.academy.springbatchmongomockito.config.BatchEnH2Config;
+import org.xideral.academy.springbatchmongomockito.config.Paso2ParticionadoConfig;
+import org.xideral.academy.springbatchmongomockito.model.Heroe;
+import org.xideral.academy.springbatchmongomockito.reader.HeroeRowMapper;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests del RangoIdPartitioner y de los readers keyset de paso2.
+ *
+ * Usamos H2 en memoria (modo MySQL) con el mismo schema.sql de la aplicacion.
+ */
+public class RangoIdPartitionerTest {
+    private EmbeddedDatabase baseDeDatos;
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        baseDeDatos = BatchEnH2Config.baseDeDatos();
+        jdbcTemplate = new JdbcTemplate(baseDeDatos);
+    }
+
+    @AfterEach
+    void tearDown() {
+        baseDeDatos.shutdown();
+    }
+
+    @Test
+    @DisplayName("partition: los rangos de id cubren MIN..MAX sin encimarse")
+    void partition_cienFilas_rangosContiguos() {
+        // Arrange
+        insertarHeroes(100);
+        RangoIdPartitioner partitioner = new RangoIdPartitioner(baseDeDatos, "heroes_procesados");
+
+        // Act
+        Map<String, ExecutionContext> particiones = partitioner.partition(4);
+
+        // Assert
+        assertEquals(4, particiones.size());
+        long esperado = 1;
+        for (ExecutionContext contexto : particiones.values()) {
+            assertEquals(esperado, contexto.getLong(RangoIdPartitioner.ID_MINIMO));
+            esperado = contexto.getLong(RangoIdPartitioner.ID_MAXIMO) + 1;
+        }
+        assertEquals(101, esperado, "La ultima particion termina en MAX(id)");
+    }
+
+    @Test
+    @DisplayName("partition: tabla vacia no produce particiones")
+    void partition_tablaVacia_sinParticiones() {
+        // Arrange
+        RangoIdPartitioner partitioner = new RangoIdPartitioner(baseDeDatos, "heroes_procesados");
+
+        // Act & Assert
+        assertTrue(partitioner.partition(4).isEmpty());
+    }
+
+    @Test
+    @DisplayName("readers keyset: entre todas las particiones leen cada fila exactamente una vez")
+    void leerDeBDPorRango_todasLasParticiones_cadaFilaUnaVez() throws Exception {
+        // Arrange
+        insertarHeroes(257);
+        Map<String, ExecutionContext> particiones = new RangoIdPartitioner(baseDeDatos, "heroes_procesados").partition(3);
+
+        // Act
+        List<String> nombres = new ArrayList<>();
+        for (ExecutionContext particion : particiones.values()) {
+            nombres.addAll(leerParticion(particion, 0));
+        }
+
+        // Assert
+        assertEquals(257, nombres.size());
+        assertEquals(257, nombres.stream().distinct().count(), "Ninguna fila debe leerse dos veces");
+    }
+
+    @Test
+    @DisplayName("readers keyset: al reiniciar continuan despues del ultimo id guardado")
+    void leerDeBDPorRango_reinicio_continuaDespuesDelUltimoId() throws Exception {
+        // Arrange
+        insertarHeroes(30);
+        ExecutionContext particion = new RangoIdPartitioner(baseDeDatos, "heroes_procesados").partition(1).get("particion0");
+        JdbcPagingItemReader<Heroe> primero = crearReader(particion, 0);
+        ExecutionContext guardado = new ExecutionContext();
+        primero.open(guardado);
+        for (int i = 0; i < 12; i++) {
+            primero.read();
+        }
+        primero.update(guardado);
+        primero.close();
+
+        // Act
+        JdbcPagingItemReader<Heroe> reiniciado = crearReader(particion, 0);
+        reiniciado.open(guardado);
+        Heroe siguiente = reiniciado.read();
+        reiniciado.close();
+
+        // Assert
+        assertEquals("HEROE 12", siguiente.getNombre_hp());
+    }
+
+    @Test
+    @DisplayName("readers keyset: con latencia por fila, mas hilos reducen el tiempo casi linealmente")
+    void leerDeBDPorRango_masHilos_escalaCasiLineal() throws Exception {
+        // Arrange: 1 ms por fila simula el costo de red/IO de cada registro
+        insertarHeroes(240);
+
+        // Act
+        long unHilo = medirLecturaParalela(1);
+        long dosHilos = medirLecturaParalela(2);
+        long cuatroHilos = medirLecturaParalela(4);
+
+        // Assert
+        assertTrue(unHilo / (double) dosHilos > 1.6, "2 hilos: " + unHilo + " ms vs " + dosHilos + " ms");
+        assertTrue(unHilo / (double) cuatroHilos > 2.8, "4 hilos: " + unHilo + " ms vs " + cuatroHilos + " ms");
+    }
+
+    // =====================================================================
+    //  Metodos auxiliares
+    // =====================================================================
+
+    private long medirLecturaParalela(int hilos) throws Exception {
+        Map<String, ExecutionContext> particiones = new RangoIdPartitioner(baseDeDatos, "heroes_procesados").partition(hilos);
+        ExecutorService executor = Executors.newFixedThreadPool(hilos);
+        List<String> leidos = Collections.synchronizedList(new ArrayList<>());
+        try {
+            long inicio = System.nanoTime();
+            List<Future<List<String>>> resultados = new ArrayList<>();
+            for (ExecutionContext particion : particiones.values()) {
+                resultados.add(executor.submit(() -> leerParticion(particion, 1)));
+            }
+            for (Future<List<String>> resultado : resultados) {
+                leidos.addAll(resultado.get());
+            }
+            long milisegundos = (System.nanoTime() - inicio) / 1_000_000;
+            assertEquals(240, leidos.size());
+            return milisegundos;
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private List<String> leerParticion(ExecutionContext particion, long latenciaMs) throws Exception {
+        JdbcPagingItemReader<Heroe> reader = crearReader(particion, latenciaMs);
+        reader.open(new ExecutionContext());
+        List<String> nombres = new ArrayList<>();
+        Heroe heroe;
+        while ((heroe = reader.read()) != null) {
+            nombres.add(heroe.getNombre_hp());
+        }
+        reader.close();
+        return nombres;
+    }
+
+    private JdbcPagingItemReader<Heroe> crearReader(ExecutionContext particion, long latenciaMs) throws Exception {
+        JdbcPagingItemReader<Heroe> reader = new Paso2ParticionadoConfig().leerDeBDPorRango(baseDeDatos,
+                particion.getLong(RangoIdPartitioner.ID_MINIMO), particion.getLong(RangoIdPartitioner.ID_MAXIMO), 20);
+        if (latenciaMs > 0) {
+            HeroeRowMapper rowMapper = new HeroeRowMapper();
+            reader.setRowMapper((rs, fila) -> {
+                try {
+                    Thread.sleep(latenciaMs);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return rowMapper.mapRow(rs, fila);
+            });
+        }
+        reader.afterPropertiesSet();
+        return reader;
+    }
+
+    private void insertarHeroes(int cantidad) {
+        List<Object[]> filas = new ArrayList<>();
+        for (int i = 0; i < cantidad; i++) {
+            filas.add(new Object[]{"HEROE " + i, "Avengers", 1000.0 + i, 100.0});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO heroes_procesados (nombre_hp, equipo_hp, poder_hp, mejoraPoder_hp) VALUES (?, ?, ?, ?)", filas);
+    }
+}
@@ -126,6 +126,21 @@ public class ReporteProcessorTest {
         assertNull(reporte.getId(), "El ID del reporte nuevo debe ser null");
     }
 
+    @Test
+    @DisplayName("process: reportes del mismo equipo comparten la misma instancia del nombre")
+    void process_mismoEquipo_mismaInstancia() throws Exception {
+        // Arrange - dos Strings iguales pero distintos objetos
+        Heroe primero = crearHeroe("ANA", new String("Ventas"), 27000.0, 2700.0);
+        Heroe segundo = crearHeroe("PEDRO", new String("Ventas"), 30000.0, 0.0);
+
+        // Act
+        HeroeReporte a = processor.process(primero);
+        HeroeReporte b = processor.process(segundo);
+
+        // Assert
+        assertSame(a.getEquipo(), b.getEquipo());
+    }
+
     // =====================================================================
     //  Metodo auxiliar
     // =====================================================================
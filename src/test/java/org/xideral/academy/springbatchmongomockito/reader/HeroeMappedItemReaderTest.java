@@ -0,0 +1,231 @@
+package org.xideral.academy.springbatchmongomockito.reader;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.ItemStreamReader;
+import org.springframework.batch.item.file.FlatFileItemReader;
+import org.springframework.batch.item.file.FlatFileParseException;
+import org.springframework.batch.item.file.builder.FlatFileItemReaderBuilder;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.FileSystemResource;
+import org.xideral.academy.springbatchmongomockito.config.BatchConfig;
+import org.xideral.academy.springbatchmongomockito.model.Heroe;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests del HeroeMappedItemReader.
+ *
+ * La referencia es siempre el FlatFileItemReader configurado como en
+ * leerCSV(): ambos readers deben producir los mismos heroes y fallar
+ * en la misma linea ante datos invalidos.
+ */
+public class HeroeMappedItemReaderTest {
+    @TempDir
+    Path directorio;
+
+    @Test
+    @DisplayName("read: el archivo de ejemplo se lee igual que con FlatFileItemReader")
+    void read_csvDeEjemplo_igualQueFlatFile() throws Exception {
+        // Arrange
+        FileSystemResource csv = crearCsv("nombre,equipo,poder\nSpider-Man,Avengers,8500\n"
+                + "Batman,Justige League,9200\nWonder Woman,Justige League,10000");
+
+        // Act & Assert
+        assertEquals(leerConFlatFile(csv), leerConMapped(csv));
+    }
+
+    @Test
+    @DisplayName("read: espacios, comillas, comentarios y numeros especiales igual que FlatFileItemReader")
+    void read_casosBorde_igualQueFlatFile() throws Exception {
+        // Arrange
+        FileSystemResource csv = crearCsv("nombre,equipo,poder\n"
+                + " Spider Man , Avengers , 8500 \n"
+                + "#comentario\n"
+                + "\"Stark, Tony\",Avengers,15000\n"
+                + "Sin Equipo,,1\n"
+                + "Decimal,X,12.34\n"
+                + "Exponente,X,1e3\n"
+                + "Signo,X,-.5\n"
+                + "Punto,X,1.\n"
+                + "Infinito,X,NaN\n"
+                + "Largo,X,12345678901234567890.5\n"
+                + "Acento,Liga Éxito,7\n");
+
+        // Act & Assert
+        assertEquals(leerConFlatFile(csv), leerConMapped(csv));
+    }
+
+    @Test
+    @DisplayName("read: soporta fin de linea \\r\\n y \\r")
+    void read_finesDeLineaWindowsYMac_igualQueFlatFile() throws Exception {
+        // Arrange
+        FileSystemResource csv = crearCsv("nombre,equipo,poder\r\nThor,Avengers,11000\r\nHulk,Avengers,18000\rFlash,JL,8700");
+
+        // Act & Assert
+        assertEquals(leerConFlatFile(csv), leerConMapped(csv));
+    }
+
+    @Test
+    @DisplayName("read: archivo vacio o solo con encabezado no produce heroes")
+    void read_sinDatos_retornaNull() throws Exception {
+        // Arrange
+        FileSystemResource vacio = crearCsv("");
+        FileSystemResource soloEncabezado = crearCsv("nombre,equipo,poder\n");
+
+        // Act & Assert
+        assertTrue(leerConMapped(vacio).isEmpty());
+        assertTrue(leerConMapped(soloEncabezado).isEmpty());
+    }
+
+    @Test
+    @DisplayName("read: linea en blanco falla en la misma linea que FlatFileItemReader")
+    void read_lineaEnBlanco_lanzaFlatFileParseException() throws Exception {
+        // Arrange
+        FileSystemResource csv = crearCsv("nombre,equipo,poder\nThor,Avengers,11000\n\nHulk,Avengers,18000\n");
+        HeroeMappedItemReader reader = new HeroeMappedItemReader(csv, 1, HeroeCsv.lineMapper());
+        reader.open(new ExecutionContext());
+
+        // Act
+        reader.read();
+        FlatFileParseException error = assertThrows(FlatFileParseException.class, reader::read);
+        reader.close();
+
+        // Assert
+        assertEquals(3, error.getLineNumber(), "La linea en blanco es la 3 del archivo");
+        assertEquals("", error.getInput());
+    }
+
+    @Test
+    @DisplayName("read: columna de poder invalida falla igual que FlatFileItemReader")
+    void read_poderInvalido_lanzaFlatFileParseException() throws Exception {
+        // Arrange
+        FileSystemResource csv = crearCsv("nombre,equipo,poder\nThor,Avengers,0x10\n");
+        HeroeMappedItemReader reader = new HeroeMappedItemReader(csv, 1, HeroeCsv.lineMapper());
+        reader.open(new ExecutionContext());
+
+        // Act & Assert
+        FlatFileParseException error = assertThrows(FlatFileParseException.class, reader::read);
+        assertEquals(2, error.getLineNumber());
+        reader.close();
+    }
+
+    @Test
+    @DisplayName("open: al reiniciar continua desde el byte guardado")
+    void open_conPosicionGuardada_continuaDondeSeQuedo() throws Exception {
+        // Arrange
+        FileSystemResource csv = crearCsv("nombre,equipo,poder\nA,X,1\nB,X,2\nC,X,3\nD,X,4\n");
+        HeroeMappedItemReader primero = new HeroeMappedItemReader(csv, 1, HeroeCsv.lineMapper());
+        ExecutionContext guardado = new ExecutionContext();
+        primero.open(guardado);
+        primero.read();
+        primero.read();
+        primero.update(guardado);
+        primero.close();
+
+        // Act
+        HeroeMappedItemReader reiniciado = new HeroeMappedItemReader(csv, 1, HeroeCsv.lineMapper());
+        List<String> resto = leerTodo(reiniciado, guardado);
+
+        // Assert
+        assertEquals(List.of("C|X|3.0", "D|X|4.0"), resto);
+    }
+
+    @Test
+    @DisplayName("read: con rango solo lee las lineas de [inicio, fin)")
+    void read_conRango_soloLeeElRango() throws Exception {
+        // Arrange
+        String encabezado = "nombre,equipo,poder\n";
+        String primeraLinea = "A,X,1\n";
+        FileSystemResource csv = crearCsv(encabezado + primeraLinea + "B,X,2\nC,X,3\n");
+        long inicio = encabezado.length() + primeraLinea.length();
+        HeroeMappedItemReader reader = new HeroeMappedItemReader(csv, inicio, inicio + "B,X,2\n".length(), HeroeCsv.lineMapper());
+
+        // Act
+        List<String> heroes = leerTodo(reader, new ExecutionContext());
+
+        // Assert
+        assertEquals(List.of("B|X|2.0"), heroes);
+    }
+
+    @Test
+    @DisplayName("read: heroes del mismo equipo comparten la misma instancia del nombre")
+    void read_mismoEquipo_mismaInstancia() throws Exception {
+        // Arrange
+        FileSystemResource csv = crearCsv("nombre,equipo,poder\nA,Fantastic Four,1\nB, Fantastic Four ,2\n");
+        HeroeMappedItemReader reader = new HeroeMappedItemReader(csv, HeroeCsv.LINEAS_ENCABEZADO, HeroeCsv.lineMapper());
+
+        // Act
+        reader.open(new ExecutionContext());
+        Heroe primero = reader.read();
+        Heroe segundo = reader.read();
+        reader.close();
+
+        // Assert
+        assertEquals("Fantastic Four", segundo.getEquipo_hp());
+        assertSame(primero.getEquipo_hp(), segundo.getEquipo_hp());
+    }
+
+    @Test
+    @DisplayName("leerCSV: con mmap y un recurso sin archivo (classpath dentro del jar) usa FlatFileItemReader")
+    void leerCSV_mmapSinArchivo_usaFlatFile() throws Exception {
+        // Arrange
+        FileSystemResource csv = crearCsv("nombre,equipo,poder\nThor,Avengers,11000\nHulk,Avengers,18000\n");
+        ByteArrayResource enJar = new ByteArrayResource(csv.getContentAsByteArray(), "heroes.csv dentro del jar");
+
+        // Act
+        ItemStreamReader<Heroe> reader = new BatchConfig().leerCSV(enJar, "mmap");
+
+        // Assert
+        assertInstanceOf(FlatFileItemReader.class, reader);
+        assertEquals(leerConFlatFile(csv), leerTodo(reader));
+    }
+
+    // =====================================================================
+    //  Metodos auxiliares
+    // =====================================================================
+
+    private List<String> leerConFlatFile(FileSystemResource csv) throws Exception {
+        return leerTodo(new FlatFileItemReaderBuilder<Heroe>()
+                .name("heroeReader")
+                .resource(csv)
+                .delimited()
+                .names(HeroeCsv.COLUMNAS)
+                .targetType(Heroe.class)
+                .linesToSkip(HeroeCsv.LINEAS_ENCABEZADO)
+                .build());
+    }
+
+    private List<String> leerConMapped(FileSystemResource csv) throws Exception {
+        return leerTodo(new HeroeMappedItemReader(csv, HeroeCsv.LINEAS_ENCABEZADO, HeroeCsv.lineMapper()));
+    }
+
+    private List<String> leerTodo(ItemStreamReader<Heroe> reader) throws Exception {
+        return leerTodo(reader, new ExecutionContext());
+    }
+
+    private List<String> leerTodo(ItemStreamReader<Heroe> reader, ExecutionContext contexto) throws Exception {
+        reader.open(contexto);
+        List<String> heroes = new ArrayList<>();
+        Heroe heroe;
+        while ((heroe = reader.read()) != null) {
+            heroes.add(heroe.getNombre_hp() + "|" + heroe.getEquipo_hp() + "|" + heroe.getPoder_hp());
+        }
+        reader.close();
+        return heroes;
+    }
+
+    private FileSystemResource crearCsv(String contenido) throws Exception {
+        Path csv = Files.createTempFile(directorio, "heroes", ".csv");
+        Files.writeString(csv, contenido, StandardCharsets.UTF_8);
+        return new FileSystemResource(csv);
+    }
+}
@@ -0,0 +1,59 @@
+package org.xideral.academy.springbatchmongomockito.reader;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.xideral.academy.springbatchmongomockito.model.Heroe;
+
+import java.sql.ResultSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests del HeroeRowMapper con un ResultSet simulado (mock).
+ */
+@ExtendWith(MockitoExtension.class)
+public class HeroeRowMapperTest {
+    @Mock
+    private ResultSet rs;
+
+    @Test
+    @DisplayName("mapRow: copia las cuatro columnas de heroes_procesados")
+    void mapRow_filaCompleta_heroeConTodosLosCampos() throws Exception {
+        // Arrange
+        when(rs.getString("nombre_hp")).thenReturn("THOR");
+        when(rs.getString("equipo_hp")).thenReturn("Avengers");
+        when(rs.getDouble("poder_hp")).thenReturn(11000.0);
+        when(rs.getDouble("mejoraPoder_hp")).thenReturn(1100.0);
+
+        // Act
+        Heroe heroe = new HeroeRowMapper().mapRow(rs, 1);
+
+        // Assert
+        assertAll("Heroe leido de la BD",
+                () -> assertEquals("THOR", heroe.getNombre_hp()),
+                () -> assertEquals("Avengers", heroe.getEquipo_hp()),
+                () -> assertEquals(11000.0, heroe.getPoder_hp()),
+                () -> assertEquals(1100.0, heroe.getMejoraPoder_hp())
+        );
+    }
+
+    @Test
+    @DisplayName("mapRow: filas del mismo equipo comparten la misma instancia del nombre")
+    void mapRow_mismoEquipo_mismaInstancia() throws Exception {
+        // Arrange - el driver crea un String nuevo por fila
+        when(rs.getString("nombre_hp")).thenReturn("WOLVERINE", "STORM");
+        when(rs.getString("equipo_hp")).thenReturn(new String("X-Men"), new String("X-Men"));
+        HeroeRowMapper mapper = new HeroeRowMapper();
+
+        // Act
+        Heroe primero = mapper.mapRow(rs, 1);
+        Heroe segundo = mapper.mapRow(rs, 2);
+
+        // Assert
+        assertSame(primero.getEquipo_hp(), segundo.getEquipo_hp());
+    }
+}
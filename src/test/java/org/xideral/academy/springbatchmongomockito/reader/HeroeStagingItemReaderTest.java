@@ -0,0 +1,129 @@
+package org.xideral.academy.springbatchmongomockito.reader;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.batch.item.Chunk;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.ItemStreamException;
+import org.xideral.academy.springbatchmongomockito.model.Heroe;
+import org.xideral.academy.springbatchmongomockito.writer.HeroeStagingWriter;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests del HeroeStagingItemReader.
+ *
+ * El archivo de staging se arma con el HeroeStagingWriter real, asi se
+ * prueba que los dos interpretan el formato de HeroeStaging igual.
+ */
+public class HeroeStagingItemReaderTest {
+    @TempDir
+    Path directorio;
+
+    @Test
+    @DisplayName("read: devuelve los heroes tal como los escribio paso1, incluido equipo null y acentos")
+    void read_archivoEscrito_mismosHeroes() throws Exception {
+        // Arrange
+        Path staging = escribir(heroe("SPIDER-MAN", "Avengers", 8500, 9350),
+                heroe("SIN EQUIPO", null, 1, 1.1),
+                heroe("ÉXITO", "Liga Ñ", 7.25, 7.975));
+
+        // Act
+        List<String> heroes = leerTodo(new HeroeStagingItemReader(staging), new ExecutionContext());
+
+        // Assert
+        assertEquals(List.of("SPIDER-MAN|Avengers|8500.0|9350.0", "SIN EQUIPO|null|1.0|1.1",
+                "ÉXITO|Liga Ñ|7.25|7.975"), heroes);
+    }
+
+    @Test
+    @DisplayName("open: al reiniciar continua desde el registro guardado")
+    void open_conRegistroGuardado_continuaDondeSeQuedo() throws Exception {
+        // Arrange
+        Path staging = escribir(heroe("A", "X", 1, 1), heroe("B", "X", 2, 2), heroe("C", "X", 3, 3));
+        HeroeStagingItemReader primero = new HeroeStagingItemReader(staging);
+        ExecutionContext guardado = new ExecutionContext();
+        primero.open(guardado);
+        primero.read();
+        primero.update(guardado);
+        primero.close();
+
+        // Act
+        List<String> resto = leerTodo(new HeroeStagingItemReader(staging), guardado);
+
+        // Assert
+        assertEquals(List.of("B|X|2.0|2.0", "C|X|3.0|3.0"), resto);
+    }
+
+    @Test
+    @DisplayName("read: heroes del mismo equipo comparten la misma instancia del nombre")
+    void read_mismoEquipo_mismaInstancia() throws Exception {
+        // Arrange
+        Path staging = escribir(heroe("A", "Fantastic Four", 1, 1), heroe("B", "Fantastic Four", 2, 2));
+        HeroeStagingItemReader reader = new HeroeStagingItemReader(staging);
+
+        // Act
+        reader.open(new ExecutionContext());
+        Heroe primero = reader.read();
+        Heroe segundo = reader.read();
+        reader.close();
+
+        // Assert
+        assertSame(primero.getEquipo_hp(), segundo.getEquipo_hp());
+    }
+
+    @Test
+    @DisplayName("open: un archivo con un registro incompleto falla en lugar de leer basura")
+    void open_registroIncompleto_lanzaExcepcion() throws Exception {
+        // Arrange
+        Path staging = escribir(heroe("A", "X", 1, 1));
+        Files.write(staging, new byte[]{1, 2, 3}, StandardOpenOption.APPEND);
+        HeroeStagingItemReader reader = new HeroeStagingItemReader(staging);
+
+        // Act & Assert
+        assertThrows(ItemStreamException.class, () -> reader.open(new ExecutionContext()));
+        reader.close();
+    }
+
+    // =====================================================================
+    //  Metodos auxiliares
+    // =====================================================================
+
+    private Path escribir(Heroe... heroes) throws Exception {
+        Path staging = directorio.resolve("staging.bin");
+        HeroeStagingWriter writer = new HeroeStagingWriter(staging);
+        writer.open(new ExecutionContext());
+        writer.write(new Chunk<>(heroes));
+        writer.update(new ExecutionContext());
+        writer.close();
+        return staging;
+    }
+
+    private List<String> leerTodo(HeroeStagingItemReader reader, ExecutionContext contexto) throws Exception {
+        reader.open(contexto);
+        List<String> heroes = new ArrayList<>();
+        Heroe heroe;
+        while ((heroe = reader.read()) != null) {
+            heroes.add(heroe.getNombre_hp() + "|" + heroe.getEquipo_hp() + "|" + heroe.getPoder_hp()
+                    + "|" + heroe.getMejoraPoder_hp());
+        }
+        reader.close();
+        return heroes;
+    }
+
+    private Heroe heroe(String nombre, String equipo, double poder, double mejoraPoder) {
+        Heroe heroe = new Heroe();
+        heroe.setNombre_hp(nombre);
+        heroe.setEquipo_hp(equipo);
+        heroe.setPoder_hp(poder);
+        heroe.setMejoraPoder_hp(mejoraPoder);
+        return heroe;
+    }
+}
@@ -0,0 +1,152 @@
+package org.xideral.academy.springbatchmongomockito.reader;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.file.FlatFileItemReader;
+import org.springframework.batch.item.file.builder.FlatFileItemReaderBuilder;
+import org.springframework.core.io.FileSystemResource;
+import org.xideral.academy.springbatchmongomockito.model.Heroe;
+import org.xideral.academy.springbatchmongomockito.partition.RangoArchivoPartitioner;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests del RangoArchivoItemReader.
+ *
+ * El resultado de leer todas las particiones debe ser identico al de
+ * leerCSV() (un solo FlatFileItemReader), y un reinicio debe continuar
+ * desde la posicion guardada en el ExecutionContext.
+ */
+public class RangoArchivoItemReaderTest {
+    @TempDir
+    Path directorio;
+
+    @Test
+    @DisplayName("read: las particiones juntas leen lo mismo que el FlatFileItemReader")
+    void read_todasLasParticiones_igualQueFlatFile() throws Exception {
+        // Arrange
+        Path csv = crearCsv("nombre,equipo,poder\n", 50, "\n");
+        FileSystemResource recurso = new FileSystemResource(csv);
+
+        // Act
+        List<String> particionado = new ArrayList<>();
+        for (ExecutionContext contexto : new RangoArchivoPartitioner(recurso, 1).partition(3).values()) {
+            RangoArchivoItemReader reader = crearReader(recurso, contexto);
+            reader.open(new ExecutionContext());
+            particionado.addAll(leerTodo(reader));
+            reader.close();
+        }
+
+        // Assert
+        assertEquals(leerConFlatFile(recurso), particionado);
+    }
+
+    @Test
+    @DisplayName("read: soporta fin de linea Windows (\\r\\n)")
+    void read_finDeLineaWindows_quitaRetornoDeCarro() throws Exception {
+        // Arrange
+        Path csv = crearCsv("nombre,equipo,poder\r\n", 5, "\r\n");
+        FileSystemResource recurso = new FileSystemResource(csv);
+        ExecutionContext contexto = new RangoArchivoPartitioner(recurso, 1).partition(1).get("particion0");
+        RangoArchivoItemReader reader = crearReader(recurso, contexto);
+
+        // Act
+        reader.open(new ExecutionContext());
+        Heroe primero = reader.read();
+        reader.close();
+
+        // Assert
+        assertEquals("Equipo 0", primero.getEquipo_hp());
+        assertEquals(1000.0, primero.getPoder_hp());
+    }
+
+    @Test
+    @DisplayName("open: al reiniciar continua desde la posicion guardada")
+    void open_conPosicionGuardada_continuaDondeSeQuedo() throws Exception {
+        // Arrange
+        Path csv = crearCsv("nombre,equipo,poder\n", 10, "\n");
+        FileSystemResource recurso = new FileSystemResource(csv);
+        ExecutionContext particion = new RangoArchivoPartitioner(recurso, 1).partition(1).get("particion0");
+
+        RangoArchivoItemReader primero = crearReader(recurso, particion);
+        ExecutionContext guardado = new ExecutionContext();
+        primero.open(guardado);
+        primero.read();
+        primero.read();
+        primero.read();
+        primero.update(guardado);
+        primero.close();
+
+        // Act
+        RangoArchivoItemReader reiniciado = crearReader(recurso, particion);
+        reiniciado.open(guardado);
+        List<String> resto = leerTodo(reiniciado);
+        reiniciado.close();
+
+        // Assert
+        assertEquals(7, resto.size(), "Solo deben quedar los heroes no confirmados");
+        assertTrue(resto.get(0).startsWith("Heroe 3|"));
+    }
+
+    // =====================================================================
+    //  Metodos auxiliares
+    // =====================================================================
+
+    private RangoArchivoItemReader crearReader(FileSystemResource recurso, ExecutionContext particion) {
+        return new RangoArchivoItemReader(recurso,
+                particion.getLong(RangoArchivoPartitioner.INICIO),
+                particion.getLong(RangoArchivoPartitioner.FIN),
+                HeroeCsv.lineMapper());
+    }
+
+    private List<String> leerConFlatFile(FileSystemResource recurso) throws Exception {
+        FlatFileItemReader<Heroe> reader = new FlatFileItemReaderBuilder<Heroe>()
+                .name("heroeReader")
+                .resource(recurso)
+                .delimited()
+                .names(HeroeCsv.COLUMNAS)
+                .targetType(Heroe.class)
+                .linesToSkip(HeroeCsv.LINEAS_ENCABEZADO)
+                .build();
+        reader.open(new ExecutionContext());
+        List<String> heroes = new ArrayList<>();
+        Heroe heroe;
+        while ((heroe = reader.read()) != null) {
+            heroes.add(describir(heroe));
+        }
+        reader.close();
+        return heroes;
+    }
+
+    private List<String> leerTodo(RangoArchivoItemReader reader) throws Exception {
+        List<String> heroes = new ArrayList<>();
+        Heroe heroe;
+        while ((heroe = reader.read()) != null) {
+            heroes.add(describir(heroe));
+        }
+        return heroes;
+    }
+
+    private String describir(Heroe heroe) {
+        return heroe.getNombre_hp() + "|" + heroe.getEquipo_hp() + "|" + heroe.getPoder_hp();
+    }
+
+    private Path crearCsv(String encabezado, int heroes, String finDeLinea) throws Exception {
+        StringBuilder contenido = new StringBuilder(encabezado);
+        for (int i = 0; i < heroes; i++) {
+            contenido.append("Heroe ").append(i).append(",Equipo ").append(i % 3)
+                    .append(',').append(1000 + i).append(finDeLinea);
+        }
+        Path csv = directorio.resolve("heroes.csv");
+        Files.writeString(csv, contenido, StandardCharsets.UTF_8);
+        return csv;
+    }
+}
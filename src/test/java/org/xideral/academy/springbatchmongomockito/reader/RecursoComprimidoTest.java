@@ -0,0 +1,85 @@
+package org.xideral.academy.springbatchmongomockito.reader;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests del RecursoComprimido.
+ *
+ * El formato se detecta por el contenido, asi que los archivos de prueba
+ * usan a proposito extensiones que no coinciden con su formato.
+ */
+public class RecursoComprimidoTest {
+    private static final String CSV = "nombre,equipo,poder\nSpider-Man,Avengers,8500\nThor,Avengers,11000\n";
+
+    @TempDir
+    Path directorio;
+
+    @Test
+    @DisplayName("descomprimido: un gzip se lee ya descomprimido aunque no termine en .gz")
+    void descomprimido_gzip_devuelveElTextoOriginal() throws Exception {
+        // Arrange
+        Path archivo = directorio.resolve("heroes.csv");
+        try (OutputStream salida = new GZIPOutputStream(Files.newOutputStream(archivo))) {
+            salida.write(CSV.getBytes(StandardCharsets.UTF_8));
+        }
+        FileSystemResource recurso = new FileSystemResource(archivo);
+
+        // Act
+        Resource descomprimido = RecursoComprimido.descomprimido(recurso);
+
+        // Assert
+        assertEquals(RecursoComprimido.Formato.GZIP, RecursoComprimido.formato(recurso));
+        assertEquals("heroes.csv", descomprimido.getFilename());
+        try (InputStream entrada = descomprimido.getInputStream()) {
+            assertEquals(CSV, new String(entrada.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    @DisplayName("descomprimido: un CSV normal se devuelve tal cual aunque termine en .gz")
+    void descomprimido_textoPlano_mismoRecurso() throws Exception {
+        // Arrange
+        Path archivo = directorio.resolve("heroes.csv.gz");
+        Files.writeString(archivo, CSV, StandardCharsets.UTF_8);
+        FileSystemResource recurso = new FileSystemResource(archivo);
+
+        // Act & Assert
+        assertSame(recurso, RecursoComprimido.descomprimido(recurso));
+    }
+
+    @Test
+    @DisplayName("descomprimido: zstd se reconoce pero no esta soportado")
+    void descomprimido_zstd_lanzaExcepcion() throws Exception {
+        // Arrange - numero magico de un frame zstd
+        Path archivo = directorio.resolve("heroes.csv.zst");
+        Files.write(archivo, new byte[]{0x28, (byte) 0xb5, 0x2f, (byte) 0xfd, 0, 0});
+        FileSystemResource recurso = new FileSystemResource(archivo);
+
+        // Act & Assert
+        assertEquals(RecursoComprimido.Formato.ZSTD, RecursoComprimido.formato(recurso));
+        assertThrows(IllegalStateException.class, () -> RecursoComprimido.descomprimido(recurso));
+    }
+
+    @Test
+    @DisplayName("formato: un archivo que no existe se reporta sin comprimir")
+    void formato_noExiste_ninguno() {
+        // Arrange
+        FileSystemResource recurso = new FileSystemResource(directorio.resolve("no-existe.csv"));
+
+        // Act & Assert
+        assertEquals(RecursoComprimido.Formato.NINGUNO, RecursoComprimido.formato(recurso));
+    }
+}
@@ -0,0 +1,308 @@
+package org.xideral.academy.springbatchmongomockito.repository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.xideral.academy.springbatchmongomockito.model.HeroeReporte;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests del HeroeReporteRepositoryConCache.
+ *
+ * El delegado es un repositorio en memoria que cuenta sus lecturas; el
+ * reloj de Caffeine es falso (campo "ahora") y el mantenimiento corre en
+ * el mismo hilo para que expiraciones y desalojos sean deterministas.
+ */
+public class HeroeReporteRepositoryConCacheTest {
+    private HeroeReporteRepositoryEnMemoria delegado;
+    private SimpleMeterRegistry registry;
+    private HeroeReporteRepositoryConCache cache;
+    private long ahora;
+
+    @BeforeEach
+    void setUp() {
+        delegado = new HeroeReporteRepositoryEnMemoria();
+        registry = new SimpleMeterRegistry();
+        cache = crearCache(100, Duration.ofMinutes(5));
+    }
+
+    // =====================================================================
+    //  Lecturas: hits, misses y metricas
+    // =====================================================================
+
+    @Test
+    @DisplayName("findById: la segunda lectura sale de la cache y se cuenta como hit")
+    void findById_dosLecturas_unaSolaAlRepositorio() {
+        // Arrange
+        String id = delegado.save(crearReporte("THOR", 12100.0)).getId();
+
+        // Act
+        cache.findById(id);
+        Optional<HeroeReporte> segunda = cache.findById(id);
+
+        // Assert
+        assertEquals("THOR", segunda.orElseThrow().getNombre());
+        assertEquals(1, delegado.getLecturas());
+        assertEquals(1, registry.get("cache.gets").tag("cache", "heroes.reportes.porId").tag("result", "hit")
+                .functionCounter().count());
+        assertEquals(1, registry.get("cache.gets").tag("cache", "heroes.reportes.porId").tag("result", "miss")
+                .functionCounter().count());
+    }
+
+    @Test
+    @DisplayName("existsById: reutiliza la entrada de findById, incluso cuando no existe")
+    void existsById_idInexistente_seCacheaLaAusencia() {
+        // Act
+        boolean primera = cache.existsById("no-existe");
+        boolean segunda = cache.existsById("no-existe");
+
+        // Assert
+        assertFalse(primera);
+        assertFalse(segunda);
+        assertEquals(1, delegado.getLecturas());
+    }
+
+    @Test
+    @DisplayName("findAll: devuelve una lista inmutable que se reutiliza hasta invalidarla")
+    void findAll_dosLecturas_mismaListaInmutable() {
+        // Arrange
+        delegado.save(crearReporte("THOR", 12100.0));
+
+        // Act
+        List<HeroeReporte> primera = cache.findAll();
+        List<HeroeReporte> segunda = cache.findAll();
+
+        // Assert
+        assertSame(primera, segunda);
+        assertEquals(1, delegado.getLecturas());
+        assertThrows(UnsupportedOperationException.class, () -> primera.add(new HeroeReporte()));
+    }
+
+    // =====================================================================
+    //  Invalidacion: save, saveAll, deleteById, fin del job
+    // =====================================================================
+
+    @Test
+    @DisplayName("save: invalida el id y el listado")
+    void save_reporteExistente_invalidaIdYListado() {
+        // Arrange
+        HeroeReporte thor = delegado.save(crearReporte("THOR", 12100.0));
+        cache.findById(thor.getId());
+        cache.findAll();
+        HeroeReporte actualizado = crearReporte("THOR", 20000.0);
+        actualizado.setId(thor.getId());
+
+        // Act
+        cache.save(actualizado);
+
+        // Assert
+        assertEquals(20000.0, cache.findById(thor.getId()).orElseThrow().getPoderTotal());
+        assertEquals(20000.0, cache.findAll().get(0).getPoderTotal());
+    }
+
+    @Test
+    @DisplayName("saveAll: invalida cada id guardado y el listado")
+    void saveAll_variosReportes_invalidaIdsYListado() {
+        // Arrange
+        HeroeReporte thor = delegado.save(crearReporte("THOR", 12100.0));
+        cache.findById(thor.getId());
+        cache.findAll();
+        HeroeReporte actualizado = crearReporte("THOR", 20000.0);
+        actualizado.setId(thor.getId());
+
+        // Act
+        cache.saveAll(List.of(actualizado, crearReporte("HULK", 19800.0)));
+
+        // Assert
+        assertEquals(20000.0, cache.findById(thor.getId()).orElseThrow().getPoderTotal());
+        assertEquals(2, cache.findAll().size());
+    }
+
+    @Test
+    @DisplayName("deleteById: el reporte deja de existir tambien en la cache")
+    void deleteById_reporteCacheado_yaNoExiste() {
+        // Arrange
+        String id = cache.save(crearReporte("HULK", 19800.0)).getId();
+        assertTrue(cache.existsById(id));
+        assertEquals(1, cache.findAll().size());
+
+        // Act
+        cache.deleteById(id);
+
+        // Assert
+        assertFalse(cache.existsById(id));
+        assertTrue(cache.findAll().isEmpty());
+    }
+
+    @Test
+    @DisplayName("invalidarTodo: descarta lo cacheado aunque el cambio no paso por el repositorio")
+    void invalidarTodo_cambioDirecto_seVuelveALeer() {
+        // Arrange
+        cache.findAll();
+        delegado.save(crearReporte("FLASH", 9570.0)); // como lo haria el batch, sin pasar por la cache
+
+        // Act
+        List<HeroeReporte> antes = cache.findAll();
+        cache.invalidarTodo();
+        List<HeroeReporte> despues = cache.findAll();
+
+        // Assert
+        assertTrue(antes.isEmpty(), "Antes de invalidar se sirve el listado viejo");
+        assertEquals(1, despues.size());
+    }
+
+    // =====================================================================
+    //  TTL y tamano maximo
+    // =====================================================================
+
+    @Test
+    @DisplayName("TTL: una entrada vencida se vuelve a leer del repositorio")
+    void findById_ttlVencido_vuelveALeer() {
+        // Arrange
+        String id = delegado.save(crearReporte("THOR", 12100.0)).getId();
+        cache.findById(id);
+
+        // Act
+        ahora += Duration.ofMinutes(5).plusSeconds(1).toNanos();
+        cache.findById(id);
+
+        // Assert
+        assertEquals(2, delegado.getLecturas());
+    }
+
+    @Test
+    @DisplayName("tamano maximo: la cache no crece por encima del limite")
+    void findById_masIdsQueElLimite_desalojaEntradas() {
+        // Arrange
+        HeroeReporteRepositoryConCache chica = crearCache(10, Duration.ofMinutes(5));
+
+        // Act
+        for (int i = 0; i < 100; i++) {
+            chica.findById("id-" + i);
+        }
+        chica.mantenimiento();
+
+        // Assert
+        assertTrue(chica.tamanoPorId() <= 10, "Entradas: " + chica.tamanoPorId());
+    }
+
+    // =====================================================================
+    //  Concurrencia
+    // =====================================================================
+
+    @Test
+    @DisplayName("concurrencia: muchos hilos pidiendo el mismo id cargan una sola vez")
+    void findById_muchosHilosMismoId_unaSolaCarga() throws Exception {
+        // Arrange
+        CountDownLatch cargando = new CountDownLatch(1);
+        AtomicInteger cargas = new AtomicInteger();
+        HeroeReporteRepositoryEnMemoria lento = new HeroeReporteRepositoryEnMemoria() {
+            @Override
+            public Optional<HeroeReporte> findById(String id) {
+                cargas.incrementAndGet();
+                esperar(cargando);
+                return super.findById(id);
+            }
+        };
+        String id = lento.save(crearReporte("THOR", 12100.0)).getId();
+        HeroeReporteRepositoryConCache conCache = new HeroeReporteRepositoryConCache(lento, 100,
+                Duration.ofMinutes(5), registry, () -> ahora, Runnable::run);
+        ExecutorService hilos = Executors.newFixedThreadPool(16);
+
+        // Act
+        List<Future<Optional<HeroeReporte>>> lecturas = new ArrayList<>();
+        for (int i = 0; i < 16; i++) {
+            lecturas.add(hilos.submit(() -> conCache.findById(id)));
+        }
+        Thread.sleep(50);
+        cargando.countDown();
+
+        // Assert
+        for (Future<Optional<HeroeReporte>> lectura : lecturas) {
+            assertEquals("THOR", lectura.get(5, TimeUnit.SECONDS).orElseThrow().getNombre());
+        }
+        hilos.shutdown();
+        assertEquals(1, cargas.get());
+    }
+
+    @Test
+    @DisplayName("concurrencia: lectores y escritores en paralelo, al final la cache tiene el ultimo valor")
+    void saveYFindById_enParalelo_sinValoresViejos() throws Exception {
+        // Arrange
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            ids.add(delegado.save(crearReporte("HEROE " + i, 0.0)).getId());
+        }
+        ExecutorService hilos = Executors.newFixedThreadPool(8);
+        List<Future<?>> tareas = new ArrayList<>();
+
+        // Act: 4 escritores suben el poder de cada id de 1 a 500; 4 lectores leen sin parar
+        for (int escritor = 0; escritor < 4; escritor++) {
+            int desplazamiento = escritor;
+            tareas.add(hilos.submit(() -> {
+                for (int version = 1; version <= 500; version++) {
+                    for (int i = desplazamiento; i < ids.size(); i += 4) {
+                        HeroeReporte reporte = crearReporte("HEROE " + i, version);
+                        reporte.setId(ids.get(i));
+                        cache.save(reporte);
+                    }
+                }
+            }));
+        }
+        for (int lector = 0; lector < 4; lector++) {
+            tareas.add(hilos.submit(() -> {
+                for (int vuelta = 0; vuelta < 2000; vuelta++) {
+                    cache.findById(ids.get(vuelta % ids.size()));
+                    cache.findAll();
+                }
+            }));
+        }
+        for (Future<?> tarea : tareas) {
+            tarea.get(30, TimeUnit.SECONDS);
+        }
+        hilos.shutdown();
+
+        // Assert
+        for (String id : ids) {
+            assertEquals(500.0, cache.findById(id).orElseThrow().getPoderTotal(), "id " + id);
+        }
+        assertTrue(cache.findAll().stream().allMatch(reporte -> reporte.getPoderTotal() == 500.0));
+    }
+
+    // =====================================================================
+    //  Metodos auxiliares
+    // =====================================================================
+
+    private HeroeReporteRepositoryConCache crearCache(long tamanoMaximo, Duration ttl) {
+        return new HeroeReporteRepositoryConCache(delegado, tamanoMaximo, ttl, registry, () -> ahora, Runnable::run);
+    }
+
+    private HeroeReporte crearReporte(String nombre, double poderTotal) {
+        HeroeReporte reporte = new HeroeReporte();
+        reporte.setNombre(nombre);
+        reporte.setEquipo("Avengers");
+        reporte.setPoderTotal(poderTotal);
+        return reporte;
+    }
+
+    private static void esperar(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package org.xideral.academy.springbatchmongomockito.repository;
+
+import org.xideral.academy.springbatchmongomockito.model.HeroeReporte;
+import org.xideral.academy.springbatchmongomockito.model.HeroeReporteProyectado;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Repositorio en memoria para tests y benchmarks (un ConcurrentHashMap).
+ *
+ * Asigna ids secuenciales como lo haria MongoDB con los ObjectId y cuenta
+ * las lecturas y las escrituras (idas a la base: save y saveAll cuentan
+ * una cada una) para verificar cuantas llegan realmente al repositorio.
+ */
+public class HeroeReporteRepositoryEnMemoria implements HeroeReporteRepository {
+    private final Map<String, HeroeReporte> reportes = new ConcurrentHashMap<>();
+    // Los ids son numeros secuenciales: primero por longitud para que "10" vaya despues de "9"
+    private static final Comparator<String> ORDEN_ID = Comparator.comparingInt(String::length)
+            .thenComparing(Comparator.naturalOrder());
+
+    private final AtomicLong siguienteId = new AtomicLong();
+    private final AtomicInteger lecturas = new AtomicInteger();
+    private final AtomicInteger escrituras = new AtomicInteger();
+
+    @Override
+    public HeroeReporte save(HeroeReporte reporte) {
+        escrituras.incrementAndGet();
+        return guardar(reporte);
+    }
+
+    @Override
+    public List<HeroeReporte> saveAll(Collection<HeroeReporte> nuevos) {
+        escrituras.incrementAndGet();
+        List<HeroeReporte> guardados = new ArrayList<>(nuevos.size());
+        for (HeroeReporte reporte : nuevos) {
+            guardados.add(guardar(reporte));
+        }
+        return guardados;
+    }
+
+    @Override
+    public Optional<HeroeReporte> findById(String id) {
+        lecturas.incrementAndGet();
+        return Optional.ofNullable(reportes.get(id));
+    }
+
+    @Override
+    public List<HeroeReporte> findAll() {
+        lecturas.incrementAndGet();
+        return new ArrayList<>(reportes.values());
+    }
+
+    @Override
+    public Stream<HeroeReporte> streamAll() {
+        lecturas.incrementAndGet();
+        return reportes.values().stream();
+    }
+
+    @Override
+    public List<HeroeReporte> findPage(String despuesDeId, int limite) {
+        lecturas.incrementAndGet();
+        return reportes.values().stream()
+                .filter(reporte -> despuesDeId == null || ORDEN_ID.compare(reporte.getId(), despuesDeId) > 0)
+                .sorted(Comparator.comparing(HeroeReporte::getId, ORDEN_ID))
+                .limit(limite)
+                .toList();
+    }
+
+    @Override
+    public List<HeroeReporteProyectado> findPageProyectada(String despuesDeId, int limite, Collection<String> campos) {
+        return findPage(despuesDeId, limite).stream().map(reporte -> proyectar(reporte, campos)).toList();
+    }
+
+    @Override
+    public List<HeroeReporte> findByEquipo(String equipo) {
+        lecturas.incrementAndGet();
+        return reportes.values().stream()
+                .filter(reporte -> equipo.equals(reporte.getEquipo()))
+                .sorted(Comparator.comparingDouble(HeroeReporte::getPoderTotal).reversed())
+                .toList();
+    }
+
+    @Override
+    public List<HeroeReporte> findByPoderTotalBetween(double desde, double hasta) {
+        lecturas.incrementAndGet();
+        return reportes.values().stream()
+                .filter(reporte -> reporte.getPoderTotal() >= desde && reporte.getPoderTotal() <= hasta)
+                .sorted(Comparator.comparingDouble(HeroeReporte::getPoderTotal))
+                .toList();
+    }
+
+    @Override
+    public List<HeroeReporte> topNByPoderTotal(int n) {
+        lecturas.incrementAndGet();
+        return reportes.values().stream()
+                .sorted(Comparator.comparingDouble(HeroeReporte::getPoderTotal).reversed())
+                .limit(n)
+                .toList();
+    }
+
+    @Override
+    public void deleteById(String id) {
+        reportes.remove(id);
+    }
+
+    @Override
+    public boolean existsById(String id) {
+        lecturas.incrementAndGet();
+        return reportes.containsKey(id);
+    }
+
+    public int getEscrituras() {
+        return escrituras.get();
+    }
+
+    public int getLecturas() {
+        return lecturas.get();
+    }
+
+    public void limpiar() {
+        reportes.clear();
+    }
+
+    private static HeroeReporteProyectado proyectar(HeroeReporte reporte, Collection<String> campos) {
+        return new HeroeReporteProyectado(reporte.getId(),
+                campos.contains("nombre") ? reporte.getNombre() : null,
+                campos.contains("equipo") ? reporte.getEquipo() : null,
+                campos.contains("poder") ? reporte.getPoder() : null,
+                campos.contains("mejoraPoder") ? reporte.getMejoraPoder() : null,
+                campos.contains("poderTotal") ? reporte.getPoderTotal() : null);
+    }
+
+    private HeroeReporte guardar(HeroeReporte reporte) {
+        if (reporte.getId() == null) {
+            reporte.setId(Long.toString(siguienteId.incrementAndGet()));
+        }
+        reportes.put(reporte.getId(), reporte);
+        return reporte;
+    }
+}
@@ -0,0 +1,95 @@
+package org.xideral.academy.springbatchmongomockito.repository;
+
+import com.mongodb.ConnectionString;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import org.bson.Document;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.query.Query;
+import org.xideral.academy.springbatchmongomockito.model.HeroeReporte;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Verificacion de los indices de "reportes" contra un MongoDB real.
+ *
+ * HeroeReporteRepositoryMongoTest revisa como se interpreta explain() con
+ * planes de ejemplo; aqui se piden los planes al servidor. Solo corre si
+ * se indica la misma URI que usa EscritorMongoBenchmark:
+ *   mvn test -Dtest=HeroeReporteRepositoryMongoExplainTest
+ *            -Dbenchmark.mongo.uri=mongodb://localhost:27017/heroes_benchmark
+ * Usa una coleccion propia que se borra al terminar.
+ */
+@EnabledIfSystemProperty(named = "benchmark.mongo.uri", matches = "mongodb(\\+srv)?://.+")
+public class HeroeReporteRepositoryMongoExplainTest {
+    private static final String COLECCION = "reportes_explain";
+
+    private MongoClient cliente;
+    private MongoTemplate mongoTemplate;
+    private HeroeReporteRepositoryMongo repositorio;
+
+    @BeforeEach
+    void setUp() {
+        ConnectionString conexion = new ConnectionString(System.getProperty("benchmark.mongo.uri"));
+        cliente = MongoClients.create(conexion);
+        mongoTemplate = new MongoTemplate(cliente, conexion.getDatabase() != null ? conexion.getDatabase() : "heroes_benchmark");
+        mongoTemplate.dropCollection(COLECCION);
+        repositorio = new HeroeReporteRepositoryMongo(mongoTemplate, COLECCION);
+        repositorio.saveAll(reportes(1000));
+    }
+
+    @AfterEach
+    void tearDown() {
+        mongoTemplate.dropCollection(COLECCION);
+        cliente.close();
+    }
+
+    @Test
+    @DisplayName("asegurarIndices: con los indices creados, las tres consultas usan IXSCAN en el servidor")
+    void asegurarIndices_mongoReal_lasTresConsultasUsanIndice() {
+        // Act
+        repositorio.asegurarIndices();
+
+        // Assert - asegurarIndices solo avisa si falla, asi que primero se revisa que existan
+        List<String> indices = mongoTemplate.indexOps(COLECCION).getIndexInfo().stream().map(IndexInfo::getName).toList();
+        assertTrue(indices.containsAll(List.of("equipo_poderTotal", "poderTotal")), "Indices: " + indices);
+        assertAll("Planes de explain()",
+                () -> assertUsaIndice(HeroeReporteRepositoryMongo.consultaPorEquipo("Avengers")),
+                () -> assertUsaIndice(HeroeReporteRepositoryMongo.consultaPorRangoDePoder(5000, 6000)),
+                () -> assertUsaIndice(HeroeReporteRepositoryMongo.consultaTop(10))
+        );
+    }
+
+    // =====================================================================
+    //  Metodos auxiliares
+    // =====================================================================
+
+    private void assertUsaIndice(Query consulta) {
+        Document plan = repositorio.explicar(consulta);
+        assertTrue(HeroeReporteRepositoryMongo.usaIndice(plan), "Sin IXSCAN: " + plan.toJson());
+    }
+
+    private List<HeroeReporte> reportes(int cantidad) {
+        String[] equipos = {"Avengers", "Justice League", "X-Men", "Guardianes"};
+        List<HeroeReporte> reportes = new ArrayList<>(cantidad);
+        for (int i = 0; i < cantidad; i++) {
+            HeroeReporte reporte = new HeroeReporte();
+            reporte.setNombre("HEROE " + i);
+            reporte.setEquipo(equipos[i % equipos.length]);
+            reporte.setPoder(1000.0 + i * 10);
+            reporte.setMejoraPoder(reporte.getPoder() * 0.10);
+            reporte.setPoderTotal(reporte.getPoder() + reporte.getMejoraPoder());
+            reportes.add(reporte);
+        }
+        return reportes;
+    }
+}
@@ -0,0 +1,317 @@
+package org.xideral.academy.springbatchmongomockito.repository;
+
+import com.mongodb.client.MongoDatabase;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndReplaceOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.query.Query;
+import org.xideral.academy.springbatchmongomockito.model.HeroeReporte;
+import org.xideral.academy.springbatchmongomockito.model.HeroeReporteProyectado;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests del HeroeReporteRepositoryMongo con un MongoTemplate simulado.
+ *
+ * Se revisa la consulta que se manda a Mongo: filtro por _id, orden, limite
+ * y campos. El id del filtro debe viajar como ObjectId para que la
+ * comparacion por llave sea entre ObjectId y no contra texto.
+ *
+ * Sin un MongoDB en las pruebas, el uso de indices se verifica con planes
+ * de explain() de ejemplo: se comprueba como se interpretan y que el
+ * comando explain lleva exactamente la consulta de cada finder.
+ */
+@ExtendWith(MockitoExtension.class)
+public class HeroeReporteRepositoryMongoTest {
+    private static final String ULTIMO_ID = "65a1f0c2e4b0a1b2c3d4e5f6";
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private BulkOperations bulk;
+
+    @Mock
+    private IndexOperations indices;
+
+    @Mock
+    private MongoDatabase baseDeDatos;
+
+    // =====================================================================
+    //  findPage / findPageProyectada
+    // =====================================================================
+
+    @Test
+    @DisplayName("findPage: la primera pagina no filtra, ordena por _id y limita")
+    void findPage_sinId_primeraPagina() {
+        // Arrange
+        HeroeReporteRepositoryMongo repositorio = new HeroeReporteRepositoryMongo(mongoTemplate, "reportes");
+
+        // Act
+        repositorio.findPage(null, 50);
+
+        // Assert
+        Query consulta = consultaEnviada();
+        assertTrue(consulta.getQueryObject().isEmpty());
+        assertEquals(new Document("_id", 1), consulta.getSortObject());
+        assertEquals(50, consulta.getLimit());
+        assertEquals(0, consulta.getSkip(), "Paginacion por llave, sin skip");
+    }
+
+    @Test
+    @DisplayName("findPage: las siguientes paginas piden _id mayor al ultimo, como ObjectId")
+    void findPage_conId_filtraPorObjectIdMayor() {
+        // Arrange
+        HeroeReporteRepositoryMongo repositorio = new HeroeReporteRepositoryMongo(mongoTemplate, "reportes");
+
+        // Act
+        repositorio.findPage(ULTIMO_ID, 50);
+
+        // Assert
+        assertEquals(new Document("_id", new Document("$gt", new ObjectId(ULTIMO_ID))),
+                consultaEnviada().getQueryObject());
+    }
+
+    @Test
+    @DisplayName("findPageProyectada: solo pide los campos indicados")
+    void findPageProyectada_dosCampos_incluyeSoloEsos() {
+        // Arrange
+        HeroeReporteRepositoryMongo repositorio = new HeroeReporteRepositoryMongo(mongoTemplate, "reportes");
+
+        // Act
+        repositorio.findPageProyectada(null, 10, List.of("nombre", "poderTotal"));
+
+        // Assert
+        ArgumentCaptor<Query> consulta = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).find(consulta.capture(), eq(HeroeReporteProyectado.class), eq("reportes"));
+        assertEquals(new Document("nombre", 1).append("poderTotal", 1), consulta.getValue().getFieldsObject());
+    }
+
+    @Test
+    @DisplayName("findPageProyectada: los campos que no vienen en el documento quedan en null, no en 0.0")
+    void findPageProyectada_documentoParcial_camposFaltantesNulos() {
+        // Arrange - el mismo convertidor que usa MongoTemplate, sin conexion
+        MongoMappingContext contexto = new MongoMappingContext();
+        MappingMongoConverter convertidor = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, contexto);
+        convertidor.afterPropertiesSet();
+        Document parcial = new Document("_id", new ObjectId(ULTIMO_ID))
+                .append("nombre", "MARIA")
+                .append("poderTotal", 38500.0);
+
+        // Act
+        HeroeReporteProyectado proyectado = convertidor.read(HeroeReporteProyectado.class, parcial);
+
+        // Assert
+        assertEquals(new HeroeReporteProyectado(ULTIMO_ID, "MARIA", null, null, null, 38500.0), proyectado);
+    }
+
+    @Test
+    @DisplayName("findPage: rechaza un limite menor a 1")
+    void findPage_limiteCero_lanzaExcepcion() {
+        // Arrange
+        HeroeReporteRepositoryMongo repositorio = new HeroeReporteRepositoryMongo(mongoTemplate, "reportes");
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> repositorio.findPage(null, 0));
+        verifyNoInteractions(mongoTemplate);
+    }
+
+    // =====================================================================
+    //  Consultas por equipo y poderTotal
+    // =====================================================================
+
+    @Test
+    @DisplayName("findByEquipo: filtra por equipo y ordena por poderTotal descendente (indice compuesto)")
+    void findByEquipo_equipo_filtroYOrden() {
+        // Arrange
+        HeroeReporteRepositoryMongo repositorio = new HeroeReporteRepositoryMongo(mongoTemplate, "reportes");
+
+        // Act
+        repositorio.findByEquipo("Avengers");
+
+        // Assert
+        Query consulta = consultaEnviada();
+        assertEquals(new Document("equipo", "Avengers"), consulta.getQueryObject());
+        assertEquals(new Document("poderTotal", -1), consulta.getSortObject());
+    }
+
+    @Test
+    @DisplayName("findByPoderTotalBetween: rango cerrado sobre poderTotal, de menor a mayor")
+    void findByPoderTotalBetween_rango_gteYLte() {
+        // Arrange
+        HeroeReporteRepositoryMongo repositorio = new HeroeReporteRepositoryMongo(mongoTemplate, "reportes");
+
+        // Act
+        repositorio.findByPoderTotalBetween(1000.0, 5000.0);
+
+        // Assert
+        Query consulta = consultaEnviada();
+        assertEquals(new Document("poderTotal", new Document("$gte", 1000.0).append("$lte", 5000.0)),
+                consulta.getQueryObject());
+        assertEquals(new Document("poderTotal", 1), consulta.getSortObject());
+    }
+
+    @Test
+    @DisplayName("topNByPoderTotal: ordena por poderTotal descendente y limita a n; n < 1 es invalido")
+    void topNByPoderTotal_n_ordenYLimite() {
+        // Arrange
+        HeroeReporteRepositoryMongo repositorio = new HeroeReporteRepositoryMongo(mongoTemplate, "reportes");
+
+        // Act
+        repositorio.topNByPoderTotal(5);
+
+        // Assert
+        Query consulta = consultaEnviada();
+        assertEquals(new Document("poderTotal", -1), consulta.getSortObject());
+        assertEquals(5, consulta.getLimit());
+        assertThrows(IllegalArgumentException.class, () -> repositorio.topNByPoderTotal(0));
+    }
+
+    // =====================================================================
+    //  Indices y explain()
+    // =====================================================================
+
+    @Test
+    @DisplayName("usaIndice: un plan con IXSCAN usa indice; uno con COLLSCAN no")
+    void usaIndice_planesDeExplain_distingueIxscanDeCollscan() {
+        // Arrange - formato clasico y formato SBE (queryPlan anidado) de MongoDB 7
+        Document conIndice = Document.parse("{queryPlanner: {winningPlan: {stage: 'LIMIT', inputStage: "
+                + "{stage: 'FETCH', inputStage: {stage: 'IXSCAN', indexName: 'poderTotal'}}}}}");
+        Document sbe = Document.parse("{queryPlanner: {winningPlan: {queryPlan: {stage: 'FETCH', inputStage: "
+                + "{stage: 'IXSCAN', indexName: 'equipo_poderTotal'}}, slotBasedPlan: {}}}}");
+        Document sinIndice = Document.parse("{queryPlanner: {winningPlan: {stage: 'SORT', inputStage: "
+                + "{stage: 'COLLSCAN', direction: 'forward'}}}}");
+
+        // Act & Assert
+        assertTrue(HeroeReporteRepositoryMongo.usaIndice(conIndice));
+        assertTrue(HeroeReporteRepositoryMongo.usaIndice(sbe));
+        assertFalse(HeroeReporteRepositoryMongo.usaIndice(sinIndice));
+    }
+
+    @Test
+    @DisplayName("explicar: manda a explain la misma consulta que ejecuta el finder, sin ejecutarla")
+    void explicar_consultaTop_comandoExplain() {
+        // Arrange
+        HeroeReporteRepositoryMongo repositorio = new HeroeReporteRepositoryMongo(mongoTemplate, "reportes");
+        when(mongoTemplate.getDb()).thenReturn(baseDeDatos);
+        when(baseDeDatos.runCommand(any(Bson.class))).thenReturn(new Document("queryPlanner", new Document()));
+
+        // Act
+        repositorio.explicar(HeroeReporteRepositoryMongo.consultaTop(3));
+
+        // Assert
+        ArgumentCaptor<Document> comando = ArgumentCaptor.forClass(Document.class);
+        verify(baseDeDatos).runCommand(comando.capture());
+        assertEquals(Document.parse("{explain: {find: 'reportes', filter: {}, sort: {poderTotal: -1}, limit: 3}, "
+                + "verbosity: 'queryPlanner'}").toJson(), comando.getValue().toJson());
+    }
+
+    @Test
+    @DisplayName("asegurarIndices: crea los dos indices y revisa con explain las tres consultas")
+    void asegurarIndices_antesDelJob_creaIndicesYExplica() {
+        // Arrange
+        HeroeReporteRepositoryMongo repositorio = new HeroeReporteRepositoryMongo(mongoTemplate, "reportes");
+        when(mongoTemplate.indexOps("reportes")).thenReturn(indices);
+        when(mongoTemplate.getDb()).thenReturn(baseDeDatos);
+        when(baseDeDatos.runCommand(any(Bson.class))).thenReturn(Document.parse(
+                "{queryPlanner: {winningPlan: {stage: 'FETCH', inputStage: {stage: 'IXSCAN'}}}}"));
+
+        // Act
+        repositorio.asegurarIndices();
+
+        // Assert
+        ArgumentCaptor<IndexDefinition> definiciones = ArgumentCaptor.forClass(IndexDefinition.class);
+        verify(indices, times(2)).ensureIndex(definiciones.capture());
+        assertEquals(List.of(new Document("equipo", 1).append("poderTotal", -1), new Document("poderTotal", -1)),
+                definiciones.getAllValues().stream().map(IndexDefinition::getIndexKeys).toList());
+        verify(baseDeDatos, times(3)).runCommand(any(Bson.class));
+    }
+
+    @Test
+    @DisplayName("asegurarIndices: si Mongo no responde solo avisa, no impide correr el job")
+    void asegurarIndices_mongoCaido_noLanza() {
+        // Arrange
+        HeroeReporteRepositoryMongo repositorio = new HeroeReporteRepositoryMongo(mongoTemplate, "reportes");
+        when(mongoTemplate.indexOps("reportes")).thenReturn(indices);
+        when(indices.ensureIndex(any())).thenThrow(new DataAccessResourceFailureException("sin servidor"));
+
+        // Act & Assert
+        assertDoesNotThrow(repositorio::asegurarIndices);
+    }
+
+    // =====================================================================
+    //  saveAll
+    // =====================================================================
+
+    @Test
+    @DisplayName("saveAll: un solo bulkWrite con upsert por _id; los nuevos reciben su ObjectId")
+    void saveAll_nuevoYExistente_unSoloBulk() {
+        // Arrange
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.ORDERED, HeroeReporte.class, "reportes")).thenReturn(bulk);
+        HeroeReporteRepositoryMongo repositorio = new HeroeReporteRepositoryMongo(mongoTemplate, "reportes");
+        HeroeReporte existente = crearReporte("THOR");
+        existente.setId(ULTIMO_ID);
+        HeroeReporte nuevo = crearReporte("HULK");
+
+        // Act
+        List<HeroeReporte> guardados = repositorio.saveAll(List.of(existente, nuevo));
+
+        // Assert
+        assertEquals(List.of(existente, nuevo), guardados);
+        assertEquals(ULTIMO_ID, existente.getId());
+        assertTrue(ObjectId.isValid(nuevo.getId()), "Id generado: " + nuevo.getId());
+        verify(bulk, times(2)).replaceOne(any(Query.class), any(HeroeReporte.class), any(FindAndReplaceOptions.class));
+        verify(bulk).execute();
+    }
+
+    @Test
+    @DisplayName("saveAll: una coleccion vacia no va a la base")
+    void saveAll_vacia_noLlamaAMongo() {
+        // Arrange
+        HeroeReporteRepositoryMongo repositorio = new HeroeReporteRepositoryMongo(mongoTemplate, "reportes");
+
+        // Act
+        List<HeroeReporte> guardados = repositorio.saveAll(List.of());
+
+        // Assert
+        assertTrue(guardados.isEmpty());
+        verifyNoInteractions(mongoTemplate);
+    }
+
+    // =====================================================================
+    //  Metodos auxiliares
+    // =====================================================================
+
+    private Query consultaEnviada() {
+        ArgumentCaptor<Query> consulta = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).find(consulta.capture(), eq(HeroeReporte.class), eq("reportes"));
+        return consulta.getValue();
+    }
+
+    private HeroeReporte crearReporte(String nombre) {
+        HeroeReporte reporte = new HeroeReporte();
+        reporte.setNombre(nombre);
+        reporte.setEquipo("Avengers");
+        reporte.setPoderTotal(1000.0);
+        return reporte;
+    }
+}
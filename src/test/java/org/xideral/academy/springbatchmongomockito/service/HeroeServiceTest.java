@@ -5,20 +5,30 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 
 import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
 import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 import org.xideral.academy.springbatchmongomockito.model.Heroe;
 import org.xideral.academy.springbatchmongomockito.model.HeroeReporte;
+import org.xideral.academy.springbatchmongomockito.model.HeroeReporteProyectado;
 import org.xideral.academy.springbatchmongomockito.processor.HeroeProcessor;
 import org.xideral.academy.springbatchmongomockito.processor.ReporteProcessor;
 import org.xideral.academy.springbatchmongomockito.repository.HeroeReporteRepository;
+import org.xideral.academy.springbatchmongomockito.repository.HeroeReporteRepositoryEnMemoria;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -54,6 +64,10 @@ public class HeroeServiceTest {
     @InjectMocks
     private HeroeService service;
 
+    // Captor con tipo generico: forClass(List.class) daria un cast sin verificar
+    @Captor
+    private ArgumentCaptor<List<HeroeReporte>> lotes;
+
     // =====================================================================
     //  procesarYGuardar() - when/thenReturn + verify
     // =====================================================================
@@ -176,8 +190,7 @@ public class HeroeServiceTest {
         when(heroeProcessor.process(emp2)).thenReturn(proc2);
         when(reporteProcessor.process(proc1)).thenReturn(rpt1);
         when(reporteProcessor.process(proc2)).thenReturn(rpt2);
-        when(repository.save(rpt1)).thenReturn(rpt1);
-        when(repository.save(rpt2)).thenReturn(rpt2);
+        when(repository.saveAll(List.of(rpt1, rpt2))).thenReturn(List.of(rpt1, rpt2));
 
         // Act
         List<HeroeReporte> resultados = service.procesarLote(Arrays.asList(emp1, emp2));
@@ -188,7 +201,9 @@ public class HeroeServiceTest {
         // times(2) verifica que cada processor se llamo exactamente 2 veces
         verify(heroeProcessor, times(2)).process(any(Heroe.class));
         verify(reporteProcessor, times(2)).process(any(Heroe.class));
-        verify(repository, times(2)).save(any(HeroeReporte.class));
+        // Los 2 reportes caben en un lote: una sola llamada a saveAll
+        verify(repository, times(1)).saveAll(anyCollection());
+        verify(repository, never()).save(any(HeroeReporte.class));
     }
 
     @Test
@@ -207,6 +222,282 @@ public class HeroeServiceTest {
         verify(heroeProcessor, never()).process(any());
         verify(reporteProcessor, never()).process(any());
         verify(repository, never()).save(any());
+        verify(repository, never()).saveAll(any());
+    }
+
+    @Test
+    @DisplayName("procesarLote: parte la lista en lotes de tamanoLote y conserva el orden")
+    void procesarLote_cincoHeroesLoteDeDos_tresSaveAllEnOrden() throws Exception {
+        // Arrange
+        service.setTamanoLote(2);
+        List<Heroe> heroes = List.of(crearHeroe("A", "X", 1), crearHeroe("B", "X", 2),
+                crearHeroe("C", "X", 3), crearHeroe("D", "X", 4), crearHeroe("E", "X", 5));
+        when(heroeProcessor.process(any(Heroe.class))).thenAnswer(inv -> inv.getArgument(0));
+        when(reporteProcessor.process(any(Heroe.class))).thenAnswer(inv -> {
+            Heroe heroe = inv.getArgument(0);
+            return crearReporte(null, heroe.getNombre_hp(), heroe.getEquipo_hp(), heroe.getPoder_hp(), 0, 0);
+        });
+        when(repository.saveAll(anyCollection())).thenAnswer(inv -> List.copyOf(inv.getArgument(0)));
+
+        // Act
+        List<HeroeReporte> resultados = service.procesarLote(heroes);
+
+        // Assert
+        verify(repository, times(3)).saveAll(lotes.capture());
+        assertEquals(List.of(2, 2, 1), lotes.getAllValues().stream().map(List::size).toList());
+        assertEquals(List.of("A", "B", "C", "D", "E"),
+                resultados.stream().map(HeroeReporte::getNombre).toList());
+    }
+
+    @Test
+    @DisplayName("procesarLote: si un heroe falla, guarda los anteriores y propaga la excepcion")
+    void procesarLote_heroeFalla_guardaAnterioresYPropaga() throws Exception {
+        // Arrange
+        Heroe bueno = crearHeroe("Juan", "Ventas", 25000.0);
+        Heroe malo = crearHeroe("Maria", "TI", 35000.0);
+        Heroe siguiente = crearHeroe("Pedro", "TI", 1000.0);
+        HeroeReporte rpt = crearReporte("r1", "JUAN", "Ventas", 25000.0, 2500.0, 27500.0);
+        when(heroeProcessor.process(bueno)).thenReturn(bueno);
+        when(heroeProcessor.process(malo)).thenThrow(new IllegalStateException("poder invalido"));
+        when(reporteProcessor.process(bueno)).thenReturn(rpt);
+
+        // Act
+        IllegalStateException error = assertThrows(IllegalStateException.class,
+                () -> service.procesarLote(List.of(bueno, malo, siguiente)));
+
+        // Assert
+        assertEquals("poder invalido", error.getMessage());
+        verify(repository).saveAll(List.of(rpt));
+        verify(heroeProcessor, never()).process(siguiente);
+    }
+
+    @Test
+    @DisplayName("setTamanoLote: rechaza valores menores a 1")
+    void setTamanoLote_cero_lanzaExcepcion() {
+        assertThrows(IllegalArgumentException.class, () -> service.setTamanoLote(0));
+    }
+
+    @Test
+    @DisplayName("procesarLote: 1000 heroes en lotes de 100 son 10 idas al repositorio en lugar de 1000")
+    void procesarLote_milHeroes_diezIdasAlRepositorio() throws Exception {
+        // Arrange - processors reales y repositorio en memoria que cuenta escrituras
+        HeroeReporteRepositoryEnMemoria antes = new HeroeReporteRepositoryEnMemoria();
+        HeroeReporteRepositoryEnMemoria despues = new HeroeReporteRepositoryEnMemoria();
+        HeroeService uno = new HeroeService(new HeroeProcessor(), new ReporteProcessor(), antes);
+        HeroeService porLotes = new HeroeService(new HeroeProcessor(), new ReporteProcessor(), despues);
+        porLotes.setTamanoLote(100);
+        List<Heroe> heroes = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            heroes.add(crearHeroe("Heroe " + i, "Avengers", 1000.0 + i));
+        }
+
+        // Act - antes: un save por heroe; despues: procesarLote con saveAll
+        for (Heroe heroe : heroes) {
+            uno.procesarYGuardar(heroe);
+        }
+        List<HeroeReporte> resultados = porLotes.procesarLote(heroes);
+
+        // Assert
+        assertEquals(1000, antes.getEscrituras());
+        assertEquals(10, despues.getEscrituras());
+        assertEquals(1000, resultados.size());
+        assertEquals("HEROE 999", resultados.get(999).getNombre());
+    }
+
+    // =====================================================================
+    //  procesarEnFlujo() / streamReportes() - sin materializar la entrada
+    // =====================================================================
+
+    @Test
+    @DisplayName("procesarEnFlujo: solo lee de la entrada los lotes que el consumidor pide")
+    void procesarEnFlujo_entradaDeUnMillon_leeSoloDosLotes() {
+        // Arrange - un millon de heroes generados bajo demanda
+        HeroeReporteRepositoryEnMemoria enMemoria = new HeroeReporteRepositoryEnMemoria();
+        HeroeService enFlujo = new HeroeService(new HeroeProcessor(), new ReporteProcessor(), enMemoria);
+        enFlujo.setTamanoLote(100);
+        AtomicInteger leidos = new AtomicInteger();
+        Stream<Heroe> heroes = IntStream.range(0, 1_000_000)
+                .mapToObj(i -> crearHeroe("Heroe " + i, "Avengers", i))
+                .peek(heroe -> leidos.incrementAndGet());
+
+        // Act - el consumidor solo pide 150 reportes
+        List<HeroeReporte> primeros;
+        try (Stream<HeroeReporte> reportes = enFlujo.procesarEnFlujo(heroes)) {
+            primeros = reportes.limit(150).toList();
+        }
+
+        // Assert - 2 lotes de 100: nunca se armo la lista completa
+        assertEquals(150, primeros.size());
+        assertEquals("HEROE 149", primeros.get(149).getNombre());
+        assertEquals(200, leidos.get());
+        assertEquals(2, enMemoria.getEscrituras());
+    }
+
+    @Test
+    @DisplayName("procesarEnFlujo: guarda con saveAll por lote y emite en el orden de entrada")
+    void procesarEnFlujo_cincoHeroesLoteDeDos_emiteEnOrden() throws Exception {
+        // Arrange
+        service.setTamanoLote(2);
+        when(heroeProcessor.process(any(Heroe.class))).thenAnswer(inv -> inv.getArgument(0));
+        when(reporteProcessor.process(any(Heroe.class))).thenAnswer(inv -> {
+            Heroe heroe = inv.getArgument(0);
+            return crearReporte(null, heroe.getNombre_hp(), heroe.getEquipo_hp(), heroe.getPoder_hp(), 0, 0);
+        });
+        when(repository.saveAll(anyCollection())).thenAnswer(inv -> List.copyOf(inv.getArgument(0)));
+        AtomicBoolean entradaCerrada = new AtomicBoolean();
+        Stream<Heroe> heroes = Stream.of("A", "B", "C", "D", "E")
+                .map(nombre -> crearHeroe(nombre, "X", 1))
+                .onClose(() -> entradaCerrada.set(true));
+
+        // Act
+        List<String> nombres;
+        try (Stream<HeroeReporte> reportes = service.procesarEnFlujo(heroes)) {
+            nombres = reportes.map(HeroeReporte::getNombre).toList();
+        }
+
+        // Assert
+        assertEquals(List.of("A", "B", "C", "D", "E"), nombres);
+        verify(repository, times(3)).saveAll(anyCollection());
+        assertTrue(entradaCerrada.get(), "Cerrar la salida cierra la entrada");
+    }
+
+    @Test
+    @DisplayName("procesarEnFlujo: si un heroe falla, guarda los anteriores del lote y propaga")
+    void procesarEnFlujo_heroeFalla_guardaAnterioresYPropaga() throws Exception {
+        // Arrange
+        Heroe bueno = crearHeroe("Juan", "Ventas", 25000.0);
+        Heroe malo = crearHeroe("Maria", "TI", 35000.0);
+        HeroeReporte rpt = crearReporte("r1", "JUAN", "Ventas", 25000.0, 2500.0, 27500.0);
+        when(heroeProcessor.process(bueno)).thenReturn(bueno);
+        when(heroeProcessor.process(malo)).thenThrow(new IllegalStateException("poder invalido"));
+        when(reporteProcessor.process(bueno)).thenReturn(rpt);
+
+        // Act
+        Stream<HeroeReporte> reportes = service.procesarEnFlujo(Stream.of(bueno, malo));
+        IllegalStateException error = assertThrows(IllegalStateException.class, reportes::toList);
+
+        // Assert
+        assertEquals("poder invalido", error.getMessage());
+        verify(repository).saveAll(List.of(rpt));
+    }
+
+    // =====================================================================
+    //  procesarLoteConcurrente() - orden, limite de concurrencia y fallos
+    // =====================================================================
+
+    @Test
+    @DisplayName("procesarLoteConcurrente: el resultado conserva el orden aunque terminen desordenados")
+    void procesarLoteConcurrente_terminanDesordenados_conservaOrden() throws Exception {
+        // Arrange - los primeros heroes tardan mas en guardarse que los ultimos
+        HeroeReporteRepositoryEnMemoria lento = new HeroeReporteRepositoryEnMemoria() {
+            @Override
+            public HeroeReporte save(HeroeReporte reporte) {
+                dormir((long) (20 - reporte.getPoder() / 1000));
+                return super.save(reporte);
+            }
+        };
+        HeroeService concurrente = new HeroeService(new HeroeProcessor(), new ReporteProcessor(), lento);
+        List<Heroe> heroes = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            heroes.add(crearHeroe("Heroe " + i, "Avengers", i * 1000.0));
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        // Act
+        List<HeroeReporte> resultados = concurrente.procesarLoteConcurrente(heroes, executor, 8);
+        executor.shutdown();
+
+        // Assert
+        assertEquals(20, resultados.size());
+        for (int i = 0; i < 20; i++) {
+            assertEquals("HEROE " + i, resultados.get(i).getNombre());
+        }
+    }
+
+    @Test
+    @DisplayName("procesarLoteConcurrente: nunca hay mas de maxConcurrencia heroes en curso")
+    void procesarLoteConcurrente_maxTres_noPasaDeTresEnCurso() throws Exception {
+        // Arrange - el executor tiene mas hilos que el limite
+        AtomicInteger enCurso = new AtomicInteger();
+        AtomicInteger maximo = new AtomicInteger();
+        HeroeReporteRepositoryEnMemoria contador = new HeroeReporteRepositoryEnMemoria() {
+            @Override
+            public HeroeReporte save(HeroeReporte reporte) {
+                maximo.accumulateAndGet(enCurso.incrementAndGet(), Math::max);
+                dormir(5);
+                enCurso.decrementAndGet();
+                return super.save(reporte);
+            }
+        };
+        HeroeService concurrente = new HeroeService(new HeroeProcessor(), new ReporteProcessor(), contador);
+        List<Heroe> heroes = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            heroes.add(crearHeroe("Heroe " + i, "Avengers", 1000.0));
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+
+        // Act
+        concurrente.procesarLoteConcurrente(heroes, executor, 3);
+        executor.shutdown();
+
+        // Assert
+        assertEquals(30, contador.getEscrituras());
+        assertTrue(maximo.get() <= 3, "Maximo en curso: " + maximo.get());
+    }
+
+    @Test
+    @DisplayName("procesarLoteConcurrente: los fallos no detienen el lote y se reportan juntos")
+    void procesarLoteConcurrente_dosFallan_lanzaLoteParcialConTodos() throws Exception {
+        // Arrange - el executor corre en el mismo hilo para que los mocks sean deterministas
+        Heroe juan = crearHeroe("Juan", "Ventas", 25000.0);
+        Heroe malo1 = crearHeroe("Malo1", "TI", -1);
+        Heroe maria = crearHeroe("Maria", "TI", 35000.0);
+        Heroe malo2 = crearHeroe("Malo2", "TI", -2);
+        HeroeReporte rptJuan = crearReporte("r1", "JUAN", "Ventas", 25000.0, 2500.0, 27500.0);
+        HeroeReporte rptMaria = crearReporte("r2", "MARIA", "TI", 35000.0, 3500.0, 38500.0);
+        when(heroeProcessor.process(any(Heroe.class))).thenAnswer(inv -> inv.getArgument(0));
+        when(heroeProcessor.process(malo1)).thenThrow(new IllegalStateException("malo1"));
+        when(heroeProcessor.process(malo2)).thenThrow(new IllegalStateException("malo2"));
+        when(reporteProcessor.process(juan)).thenReturn(rptJuan);
+        when(reporteProcessor.process(maria)).thenReturn(rptMaria);
+        when(repository.save(any(HeroeReporte.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        // Act
+        LoteParcialException error = assertThrows(LoteParcialException.class,
+                () -> service.procesarLoteConcurrente(List.of(juan, malo1, maria, malo2), Runnable::run, 2));
+
+        // Assert
+        assertEquals(Arrays.asList(rptJuan, null, rptMaria, null), error.getResultados());
+        assertEquals(List.of(1, 3), List.copyOf(error.getFallos().keySet()));
+        assertEquals("malo2", error.getFallos().get(3).getMessage());
+        assertEquals(2, error.getSuppressed().length);
+        verify(repository, times(2)).save(any(HeroeReporte.class));
+    }
+
+    @Test
+    @DisplayName("procesarLoteConcurrente: un Error se relanza tal cual, sin LoteParcialException")
+    void procesarLoteConcurrente_error_seRelanzaSinEnvolver() {
+        // Arrange
+        Heroe juan = crearHeroe("Juan", "Ventas", 25000.0);
+        Heroe profundo = crearHeroe("Profundo", "TI", 1000.0);
+        when(heroeProcessor.process(any(Heroe.class))).thenAnswer(inv -> inv.getArgument(0));
+        when(heroeProcessor.process(profundo)).thenThrow(new StackOverflowError("profundo"));
+        when(reporteProcessor.process(juan)).thenReturn(crearReporte("r1", "JUAN", "Ventas", 25000.0, 2500.0, 27500.0));
+        when(repository.save(any(HeroeReporte.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        // Act
+        StackOverflowError error = assertThrows(StackOverflowError.class,
+                () -> service.procesarLoteConcurrente(List.of(juan, profundo), Runnable::run, 2));
+
+        // Assert
+        assertEquals("profundo", error.getMessage());
+    }
+
+    @Test
+    @DisplayName("procesarLoteConcurrente: rechaza maxConcurrencia menor a 1")
+    void procesarLoteConcurrente_maxCero_lanzaExcepcion() {
+        assertThrows(IllegalArgumentException.class,
+                () -> service.procesarLoteConcurrente(List.of(), Runnable::run, 0));
     }
 
     // =====================================================================
@@ -264,6 +555,104 @@ public class HeroeServiceTest {
         verify(repository).findAll();
     }
 
+    @Test
+    @DisplayName("streamReportes: entrega el stream del repositorio sin armar la lista")
+    void streamReportes_conReportes_noLlamaFindAll() {
+        // Arrange
+        HeroeReporte rpt1 = crearReporte("r1", "JUAN", "Ventas", 25000.0, 2500.0, 27500.0);
+        HeroeReporte rpt2 = crearReporte("r2", "MARIA", "TI", 35000.0, 3500.0, 38500.0);
+        when(repository.streamAll()).thenReturn(Stream.of(rpt1, rpt2));
+
+        // Act
+        List<String> ids;
+        try (Stream<HeroeReporte> reportes = service.streamReportes()) {
+            ids = reportes.map(HeroeReporte::getId).toList();
+        }
+
+        // Assert
+        assertEquals(List.of("r1", "r2"), ids);
+        verify(repository, never()).findAll();
+    }
+
+    // =====================================================================
+    //  obtenerPagina() / obtenerPaginaProyectada() - paginacion por llave
+    // =====================================================================
+
+    @Test
+    @DisplayName("obtenerPagina: recorre todos los reportes pasando el ultimo id, sin repetir ni saltar")
+    void obtenerPagina_veinticincoReportes_tresPaginas() throws Exception {
+        // Arrange
+        HeroeReporteRepositoryEnMemoria enMemoria = new HeroeReporteRepositoryEnMemoria();
+        HeroeService paginado = new HeroeService(new HeroeProcessor(), new ReporteProcessor(), enMemoria);
+        for (int i = 0; i < 25; i++) {
+            paginado.procesarYGuardar(crearHeroe("Heroe " + i, "Avengers", 1000.0));
+        }
+
+        // Act
+        List<Integer> tamanos = new ArrayList<>();
+        List<String> vistos = new ArrayList<>();
+        String ultimoId = null;
+        List<HeroeReporte> pagina;
+        do {
+            pagina = paginado.obtenerPagina(ultimoId, 10);
+            tamanos.add(pagina.size());
+            pagina.forEach(reporte -> vistos.add(reporte.getNombre()));
+            ultimoId = pagina.isEmpty() ? ultimoId : pagina.get(pagina.size() - 1).getId();
+        } while (pagina.size() == 10);
+
+        // Assert
+        assertEquals(List.of(10, 10, 5), tamanos);
+        assertEquals(25, vistos.stream().distinct().count());
+        assertEquals("HEROE 24", vistos.get(24));
+    }
+
+    @Test
+    @DisplayName("obtenerPaginaProyectada: pasa los campos pedidos al repositorio")
+    void obtenerPaginaProyectada_dosCampos_delegaConCampos() {
+        // Arrange
+        HeroeReporteProyectado parcial = new HeroeReporteProyectado("r2", "MARIA", null, null, null, 38500.0);
+        when(repository.findPageProyectada("r1", 20, List.of("nombre", "poderTotal"))).thenReturn(List.of(parcial));
+
+        // Act
+        List<HeroeReporteProyectado> resultado = service.obtenerPaginaProyectada("r1", 20, "nombre", "poderTotal");
+
+        // Assert
+        assertEquals(List.of(parcial), resultado);
+        verify(repository, never()).findAll();
+    }
+
+    // =====================================================================
+    //  obtenerPorEquipo() / obtenerPorRangoDePoder() / obtenerTopPorPoder()
+    // =====================================================================
+
+    @Test
+    @DisplayName("consultas indexadas: por equipo, por rango y top N devuelven lo esperado y en orden")
+    void consultasIndexadas_variosEquipos_resultadosOrdenados() throws Exception {
+        // Arrange - poderTotal = poder * 1.1
+        HeroeReporteRepositoryEnMemoria enMemoria = new HeroeReporteRepositoryEnMemoria();
+        HeroeService consultas = new HeroeService(new HeroeProcessor(), new ReporteProcessor(), enMemoria);
+        consultas.procesarLote(List.of(crearHeroe("Thor", "Avengers", 1000.0), crearHeroe("Hulk", "Avengers", 3000.0),
+                crearHeroe("Logan", "X-Men", 2000.0), crearHeroe("Storm", "X-Men", 4000.0)));
+
+        // Act
+        List<String> avengers = nombres(consultas.obtenerPorEquipo("Avengers"));
+        List<String> rango = nombres(consultas.obtenerPorRangoDePoder(2000.0, 3500.0));
+        List<String> top = nombres(consultas.obtenerTopPorPoder(2));
+
+        // Assert
+        assertEquals(List.of("HULK", "THOR"), avengers);
+        assertEquals(List.of("LOGAN", "HULK"), rango);
+        assertEquals(List.of("STORM", "HULK"), top);
+    }
+
+    @Test
+    @DisplayName("obtenerPorRangoDePoder: desde mayor que hasta es invalido y no consulta")
+    void obtenerPorRangoDePoder_rangoInvertido_lanzaExcepcion() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> service.obtenerPorRangoDePoder(5000.0, 1000.0));
+        verify(repository, never()).findByPoderTotalBetween(anyDouble(), anyDouble());
+    }
+
     // =====================================================================
     //  eliminarReporte() - verify + never()
     // =====================================================================
@@ -315,6 +704,18 @@ public class HeroeServiceTest {
         return heroe;
     }
 
+    private static List<String> nombres(List<HeroeReporte> reportes) {
+        return reportes.stream().map(HeroeReporte::getNombre).toList();
+    }
+
+    private static void dormir(long milis) {
+        try {
+            Thread.sleep(Math.max(0, milis));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
     private HeroeReporte crearReporte(String id, String nombre, String equipo,
                                          double poder, double mejoraPoder, double poderTotal) {
         HeroeReporte reporte = new HeroeReporte();
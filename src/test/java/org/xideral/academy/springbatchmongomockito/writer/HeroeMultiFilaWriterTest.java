@@ -0,0 +1,104 @@
+package org.xideral.academy.springbatchmongomockito.writer;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.item.Chunk;
+import org.springframework.batch.item.ItemWriter;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.xideral.academy.springbatchmongomockito.config.BatchConfig;
+import org.xideral.academy.springbatchmongomockito.config.BatchEnH2Config;
+import org.xideral.academy.springbatchmongomockito.model.Heroe;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests del HeroeMultiFilaWriter.
+ *
+ * Usamos H2 en memoria (modo MySQL) con el mismo schema.sql de la
+ * aplicacion. La referencia es el writer "batch" de escribirEnBD: los dos
+ * deben dejar la tabla igual.
+ */
+public class HeroeMultiFilaWriterTest {
+    private EmbeddedDatabase baseDeDatos;
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        baseDeDatos = BatchEnH2Config.baseDeDatos();
+        jdbcTemplate = new JdbcTemplate(baseDeDatos);
+    }
+
+    @AfterEach
+    void tearDown() {
+        baseDeDatos.shutdown();
+    }
+
+    @Test
+    @DisplayName("write: un chunk que no es multiplo de filasPorInsert deja la tabla igual que el writer batch")
+    void write_gruposIncompletos_igualQueWriterBatch() throws Exception {
+        // Arrange
+        Chunk<Heroe> chunk = new Chunk<>(heroe("A", "X", 1), heroe("B", null, 2), heroe("C", "Y", 3),
+                heroe("D", "X", 4), heroe("E", "Y", 5));
+        ItemWriter<Heroe> batch = new BatchConfig().escribirEnBD(baseDeDatos, "batch", 1000);
+        ((InitializingBean) batch).afterPropertiesSet();
+        batch.write(chunk);
+        List<String> esperado = filas();
+        jdbcTemplate.update("DELETE FROM heroes_procesados");
+
+        // Act
+        new BatchConfig().escribirEnBD(baseDeDatos, "multifila", 2).write(chunk);
+
+        // Assert
+        assertEquals(5, esperado.size());
+        assertEquals(esperado, filas());
+    }
+
+    @Test
+    @DisplayName("write: con el upsert de escribirEnBD un nombre repetido actualiza su fila")
+    void write_nombreExistente_actualizaSinDuplicar() throws Exception {
+        // Arrange
+        ItemWriter<Heroe> writer = new BatchConfig().escribirEnBD(baseDeDatos, "multifila", 1000);
+        writer.write(new Chunk<>(heroe("HULK", "Avengers", 18000), heroe("THOR", "Avengers", 11000)));
+
+        // Act
+        writer.write(new Chunk<>(heroe("HULK", "Defenders", 19000)));
+
+        // Assert
+        assertInstanceOf(HeroeMultiFilaWriter.class, writer);
+        assertEquals(List.of("HULK|Defenders|19000.0|19100.0", "THOR|Avengers|11000.0|11100.0"), filas());
+    }
+
+    @Test
+    @DisplayName("constructor: filasPorInsert fuera de [1, MAXIMO_FILAS] se rechaza")
+    void constructor_filasFueraDeRango_lanzaExcepcion() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> new HeroeMultiFilaWriter(baseDeDatos, "", 0));
+        assertThrows(IllegalArgumentException.class,
+                () -> new HeroeMultiFilaWriter(baseDeDatos, "", HeroeMultiFilaWriter.MAXIMO_FILAS + 1));
+    }
+
+    // =====================================================================
+    //  Metodos auxiliares
+    // =====================================================================
+
+    private List<String> filas() {
+        return jdbcTemplate.query("SELECT nombre_hp, equipo_hp, poder_hp, mejoraPoder_hp FROM heroes_procesados "
+                        + "ORDER BY nombre_hp",
+                (rs, i) -> rs.getString(1) + "|" + rs.getString(2) + "|" + rs.getDouble(3) + "|" + rs.getDouble(4));
+    }
+
+    private Heroe heroe(String nombre, String equipo, double poder) {
+        Heroe heroe = new Heroe();
+        heroe.setNombre_hp(nombre);
+        heroe.setEquipo_hp(equipo);
+        heroe.setPoder_hp(poder);
+        heroe.setMejoraPoder_hp(poder + 100);
+        return heroe;
+    }
+}
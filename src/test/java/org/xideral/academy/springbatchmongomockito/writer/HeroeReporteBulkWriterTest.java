@@ -0,0 +1,168 @@
+package org.xideral.academy.springbatchmongomockito.writer;
+
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.ServerAddress;
+import com.mongodb.WriteConcern;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.InsertManyOptions;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.BsonDocument;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.batch.item.Chunk;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.xideral.academy.springbatchmongomockito.model.HeroeReporte;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests del HeroeReporteBulkWriter con Mockito.
+ *
+ * MongoTemplate y MongoCollection son mocks: verificamos los lotes que se
+ * mandan a insertMany, las opciones usadas y el manejo de duplicados (el
+ * contador va a un SimpleMeterRegistry).
+ */
+@ExtendWith(MockitoExtension.class)
+public class HeroeReporteBulkWriterTest {
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private MongoCollection<Document> coleccion;
+
+    private SimpleMeterRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    @DisplayName("write: divide el chunk en lotes de insertMany no ordenados")
+    void write_cincoReportesLoteDos_tresInsertMany() throws Exception {
+        // Arrange
+        prepararColeccion();
+        HeroeReporteBulkWriter writer = new HeroeReporteBulkWriter(mongoTemplate, "reportes", WriteConcern.MAJORITY, 2, registry);
+
+        // Act
+        writer.write(crearChunk(5));
+
+        // Assert
+        ArgumentCaptor<InsertManyOptions> opciones = ArgumentCaptor.forClass(InsertManyOptions.class);
+        verify(coleccion, times(3)).insertMany(anyList(), opciones.capture());
+        assertFalse(opciones.getValue().isOrdered(), "El insertMany debe ser no ordenado");
+        verify(coleccion).withWriteConcern(WriteConcern.MAJORITY);
+    }
+
+    @Test
+    @DisplayName("write: arma el documento con los mismos campos que el mapeo de HeroeReporte")
+    @SuppressWarnings("unchecked")
+    void write_reporte_documentoConTodosLosCampos() throws Exception {
+        // Arrange
+        prepararColeccion();
+        HeroeReporteBulkWriter writer = new HeroeReporteBulkWriter(mongoTemplate, "reportes", WriteConcern.ACKNOWLEDGED, 10, registry);
+        Chunk<HeroeReporte> chunk = crearChunk(1);
+
+        // Act
+        writer.write(chunk);
+
+        // Assert
+        ArgumentCaptor<List<Document>> documentos = ArgumentCaptor.forClass(List.class);
+        verify(coleccion).insertMany(documentos.capture(), any(InsertManyOptions.class));
+        Document documento = documentos.getValue().get(0);
+        HeroeReporte reporte = chunk.getItems().get(0);
+        assertAll("Documento insertado",
+                () -> assertEquals(new ObjectId(reporte.getId()), documento.get("_id"), "El id generado se asigna al reporte"),
+                () -> assertEquals("HEROE 0", documento.get("nombre")),
+                () -> assertEquals("Avengers", documento.get("equipo")),
+                () -> assertEquals(1000.0, documento.get("poder")),
+                () -> assertEquals(100.0, documento.get("mejoraPoder")),
+                () -> assertEquals(1100.0, documento.get("poderTotal")),
+                () -> assertEquals(HeroeReporte.class.getName(), documento.get("_class"))
+        );
+    }
+
+    @Test
+    @DisplayName("write: los duplicados se cuentan por item en la metrica sin fallar el chunk")
+    void write_claveDuplicada_noFallaYCuentaDuplicados() throws Exception {
+        // Arrange
+        prepararColeccion();
+        HeroeReporteBulkWriter writer = new HeroeReporteBulkWriter(mongoTemplate, "reportes", WriteConcern.ACKNOWLEDGED, 10, registry);
+        when(coleccion.insertMany(anyList(), any(InsertManyOptions.class)))
+                .thenThrow(errorDeEscritura(11000, 11000));
+
+        // Act & Assert
+        assertDoesNotThrow(() -> writer.write(crearChunk(3)));
+        assertEquals(2.0, registry.get("heroes.mongo.duplicados").tag("coleccion", "reportes").counter().count(),
+                "Cada duplicado cuenta una vez");
+    }
+
+    @Test
+    @DisplayName("write: un error que no es de clave duplicada falla el chunk")
+    void write_otroError_lanzaExcepcion() {
+        // Arrange
+        prepararColeccion();
+        HeroeReporteBulkWriter writer = new HeroeReporteBulkWriter(mongoTemplate, "reportes", WriteConcern.ACKNOWLEDGED, 10, registry);
+        when(coleccion.insertMany(anyList(), any(InsertManyOptions.class)))
+                .thenThrow(errorDeEscritura(11000, 121));
+
+        // Act & Assert
+        assertThrows(MongoBulkWriteException.class, () -> writer.write(crearChunk(3)));
+    }
+
+    @Test
+    @DisplayName("constructor: tamanoLote debe ser positivo")
+    void constructor_tamanoLoteCero_lanzaExcepcion() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new HeroeReporteBulkWriter(mongoTemplate, "reportes", WriteConcern.ACKNOWLEDGED, 0, registry));
+    }
+
+    // =====================================================================
+    //  Metodos auxiliares
+    // =====================================================================
+
+    private void prepararColeccion() {
+        when(mongoTemplate.getCollection("reportes")).thenReturn(coleccion);
+        when(coleccion.withWriteConcern(any(WriteConcern.class))).thenReturn(coleccion);
+    }
+
+    private Chunk<HeroeReporte> crearChunk(int cantidad) {
+        Chunk<HeroeReporte> chunk = new Chunk<>();
+        for (int i = 0; i < cantidad; i++) {
+            HeroeReporte reporte = new HeroeReporte();
+            reporte.setNombre("HEROE " + i);
+            reporte.setEquipo("Avengers");
+            reporte.setPoder(1000.0);
+            reporte.setMejoraPoder(100.0);
+            reporte.setPoderTotal(1100.0);
+            chunk.add(reporte);
+        }
+        return chunk;
+    }
+
+    // Un error por cada codigo, en las posiciones 0, 1, ...
+    private MongoBulkWriteException errorDeEscritura(int... codigos) {
+        List<BulkWriteError> errores = new ArrayList<>();
+        for (int i = 0; i < codigos.length; i++) {
+            errores.add(new BulkWriteError(codigos[i], "error " + codigos[i], new BsonDocument(), i));
+        }
+        return new MongoBulkWriteException(BulkWriteResult.unacknowledged(), errores, null,
+                new ServerAddress(), Set.of());
+    }
+}
@@ -0,0 +1,145 @@
+package org.xideral.academy.springbatchmongomockito.writer;
+
+import com.mongodb.WriteConcern;
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.bulk.BulkWriteUpsert;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.UpdateManyModel;
+import com.mongodb.client.model.WriteModel;
+import org.bson.BsonDocument;
+import org.bson.BsonObjectId;
+import org.bson.BsonString;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.batch.item.Chunk;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.xideral.academy.springbatchmongomockito.model.HeroeReporte;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests del HeroeReporteUpsertWriter con Mockito.
+ *
+ * Verificamos las actualizaciones que se mandan a bulkWrite (filtro por
+ * nombre, updateMany con upsert, sin _id) y que el indice se asegure una
+ * sola vez.
+ */
+@ExtendWith(MockitoExtension.class)
+public class HeroeReporteUpsertWriterTest {
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private MongoCollection<Document> coleccion;
+
+    @Mock
+    private IndexOperations indices;
+
+    @Test
+    @DisplayName("write: actualiza todas las copias del nombre con upsert en un bulkWrite no ordenado")
+    @SuppressWarnings("unchecked")
+    void write_dosReportes_updateManyConUpsert() throws Exception {
+        // Arrange
+        prepararColeccion(BulkWriteResult.acknowledged(0, 0, 0, 0, List.of(), List.of()));
+        HeroeReporteUpsertWriter writer = new HeroeReporteUpsertWriter(mongoTemplate, "reportes", WriteConcern.MAJORITY, 10);
+
+        // Act
+        writer.write(crearChunk(2));
+
+        // Assert
+        ArgumentCaptor<List<WriteModel<Document>>> modelos = ArgumentCaptor.forClass(List.class);
+        ArgumentCaptor<BulkWriteOptions> opciones = ArgumentCaptor.forClass(BulkWriteOptions.class);
+        verify(coleccion).bulkWrite(modelos.capture(), opciones.capture());
+        assertFalse(opciones.getValue().isOrdered(), "El bulkWrite debe ser no ordenado");
+        UpdateManyModel<Document> actualizacion = (UpdateManyModel<Document>) modelos.getValue().get(1);
+        Document campos = (Document) ((Document) actualizacion.getUpdate()).get("$set");
+        assertAll("Actualizacion del segundo reporte",
+                () -> assertEquals(new BsonDocument("nombre", new BsonString("HEROE 1")),
+                        actualizacion.getFilter().toBsonDocument()),
+                () -> assertTrue(actualizacion.getOptions().isUpsert()),
+                () -> assertFalse(campos.containsKey("_id"), "Mongo conserva o genera el _id"),
+                () -> assertEquals(1100.0, campos.get("poderTotal"))
+        );
+        verify(coleccion).withWriteConcern(WriteConcern.MAJORITY);
+    }
+
+    @Test
+    @DisplayName("write: copia al item el _id que Mongo genero para un reporte nuevo")
+    void write_reporteNuevo_recibeIdGenerado() throws Exception {
+        // Arrange
+        ObjectId generado = new ObjectId();
+        prepararColeccion(BulkWriteResult.acknowledged(0, 0, 0, 0,
+                List.of(new BulkWriteUpsert(1, new BsonObjectId(generado))), List.of()));
+        HeroeReporteUpsertWriter writer = new HeroeReporteUpsertWriter(mongoTemplate, "reportes", WriteConcern.ACKNOWLEDGED, 10);
+        Chunk<HeroeReporte> chunk = crearChunk(2);
+
+        // Act
+        writer.write(chunk);
+
+        // Assert
+        assertNull(chunk.getItems().get(0).getId(), "El reporte que ya existia no se toca");
+        assertEquals(generado.toHexString(), chunk.getItems().get(1).getId());
+    }
+
+    @Test
+    @DisplayName("write: asegura el indice por nombre solo en la primera escritura")
+    void write_variosChunks_indiceUnaVez() throws Exception {
+        // Arrange
+        prepararColeccion(BulkWriteResult.acknowledged(0, 0, 0, 0, List.of(), List.of()));
+        HeroeReporteUpsertWriter writer = new HeroeReporteUpsertWriter(mongoTemplate, "reportes", WriteConcern.ACKNOWLEDGED, 2);
+
+        // Act
+        writer.write(crearChunk(3));
+        writer.write(crearChunk(3));
+
+        // Assert
+        verify(indices, times(1)).ensureIndex(any(IndexDefinition.class));
+        verify(coleccion, times(4)).bulkWrite(anyList(), any(BulkWriteOptions.class));
+    }
+
+    @Test
+    @DisplayName("constructor: tamanoLote menor a 1 lanza IllegalArgumentException")
+    void constructor_loteCero_lanzaExcepcion() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new HeroeReporteUpsertWriter(mongoTemplate, "reportes", WriteConcern.ACKNOWLEDGED, 0));
+    }
+
+    // =====================================================================
+    //  Metodos auxiliares
+    // =====================================================================
+
+    private void prepararColeccion(BulkWriteResult resultado) {
+        when(mongoTemplate.indexOps("reportes")).thenReturn(indices);
+        when(mongoTemplate.getCollection("reportes")).thenReturn(coleccion);
+        when(coleccion.withWriteConcern(any(WriteConcern.class))).thenReturn(coleccion);
+        when(coleccion.bulkWrite(anyList(), any(BulkWriteOptions.class))).thenReturn(resultado);
+    }
+
+    private Chunk<HeroeReporte> crearChunk(int cantidad) {
+        Chunk<HeroeReporte> chunk = new Chunk<>();
+        for (int i = 0; i < cantidad; i++) {
+            HeroeReporte reporte = new HeroeReporte();
+            reporte.setNombre("HEROE " + i);
+            reporte.setEquipo("Avengers");
+            reporte.setPoder(1000.0);
+            reporte.setMejoraPoder(100.0);
+            reporte.setPoderTotal(1100.0);
+            chunk.add(reporte);
+        }
+        return chunk;
+    }
+}
@@ -0,0 +1,111 @@
+package org.xideral.academy.springbatchmongomockito.writer;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.batch.item.Chunk;
+import org.springframework.batch.item.ExecutionContext;
+import org.xideral.academy.springbatchmongomockito.model.Heroe;
+import org.xideral.academy.springbatchmongomockito.reader.HeroeStaging;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests del HeroeStagingWriter.
+ *
+ * Se simula el ciclo del paso a mano: write() por chunk y update() como
+ * si el chunk se confirmara; el tamano del archivo dice cuantos registros
+ * quedaron.
+ */
+public class HeroeStagingWriterTest {
+    @TempDir
+    Path directorio;
+
+    @Test
+    @DisplayName("write: agrega un registro de tamano fijo por heroe")
+    void write_dosChunks_unRegistroPorHeroe() throws Exception {
+        // Arrange
+        Path staging = directorio.resolve("datos/staging.bin");
+        HeroeStagingWriter writer = new HeroeStagingWriter(staging);
+        ExecutionContext contexto = new ExecutionContext();
+
+        // Act
+        writer.open(contexto);
+        writer.write(new Chunk<>(heroe("A"), heroe("B")));
+        writer.write(new Chunk<>(heroe("C")));
+        writer.update(contexto);
+        writer.close();
+
+        // Assert
+        assertEquals(3L * HeroeStaging.REGISTRO, Files.size(staging));
+    }
+
+    @Test
+    @DisplayName("open: al reiniciar descarta lo escrito despues del ultimo commit")
+    void open_reinicio_cortaEnElUltimoCommit() throws Exception {
+        // Arrange
+        Path staging = directorio.resolve("staging.bin");
+        HeroeStagingWriter fallido = new HeroeStagingWriter(staging);
+        ExecutionContext guardado = new ExecutionContext();
+        fallido.open(guardado);
+        fallido.write(new Chunk<>(heroe("A")));
+        fallido.update(guardado);
+        fallido.write(new Chunk<>(heroe("B"), heroe("C"))); // el chunk que no llego a confirmarse
+        fallido.close();
+
+        // Act
+        HeroeStagingWriter reiniciado = new HeroeStagingWriter(staging);
+        reiniciado.open(guardado);
+        reiniciado.write(new Chunk<>(heroe("B"), heroe("C")));
+        reiniciado.update(guardado);
+        reiniciado.close();
+
+        // Assert
+        assertEquals(3L * HeroeStaging.REGISTRO, Files.size(staging), "B y C no deben quedar repetidos");
+    }
+
+    @Test
+    @DisplayName("open: una ejecucion nueva empieza con el archivo vacio")
+    void open_sinContexto_vaciaElArchivo() throws Exception {
+        // Arrange
+        Path staging = directorio.resolve("staging.bin");
+        Files.write(staging, new byte[5 * HeroeStaging.REGISTRO]);
+        HeroeStagingWriter writer = new HeroeStagingWriter(staging);
+
+        // Act
+        writer.open(new ExecutionContext());
+        writer.close();
+
+        // Assert
+        assertEquals(0, Files.size(staging));
+    }
+
+    @Test
+    @DisplayName("write: un nombre que no cabe en el registro falla el chunk")
+    void write_nombreMuyLargo_lanzaExcepcion() throws Exception {
+        // Arrange
+        HeroeStagingWriter writer = new HeroeStagingWriter(directorio.resolve("staging.bin"));
+        writer.open(new ExecutionContext());
+        Chunk<Heroe> chunk = new Chunk<>(heroe("X".repeat(HeroeStaging.MAXIMO_NOMBRE + 1)));
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> writer.write(chunk));
+        writer.close();
+    }
+
+    // =====================================================================
+    //  Metodos auxiliares
+    // =====================================================================
+
+    private Heroe heroe(String nombre) {
+        Heroe heroe = new Heroe();
+        heroe.setNombre_hp(nombre);
+        heroe.setEquipo_hp("Avengers");
+        heroe.setPoder_hp(100);
+        heroe.setMejoraPoder_hp(110);
+        return heroe;
+    }
+}